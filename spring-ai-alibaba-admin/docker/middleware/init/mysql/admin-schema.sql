@@ -157,6 +157,8 @@ CREATE TABLE experiment
     status                   VARCHAR(32)  NOT NULL DEFAULT 'DRAFT' COMMENT 'Status: DRAFT, RUNNING, COMPLETED, FAILED, STOPPED',
     progress                 INT(3) NOT NULL DEFAULT 0 COMMENT 'Progress percentage: 0-100',
     complete_time            DATETIME              DEFAULT NULL COMMENT 'Complete time',
+    owner                    VARCHAR(64)           DEFAULT NULL COMMENT 'Node currently executing the experiment',
+    lease_expire_time        DATETIME              DEFAULT NULL COMMENT 'Expire time of the execution lease',
     create_time              DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT 'Create time',
     update_time              DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT 'Update time',
     PRIMARY KEY (id),
@@ -177,6 +179,7 @@ CREATE TABLE experiment_result
 (
     id                   BIGINT(20) UNSIGNED AUTO_INCREMENT NOT NULL COMMENT 'Primary Key ID',
     experiment_id        BIGINT(20) UNSIGNED NOT NULL COMMENT 'Experiment ID',
+    dataset_item_id      BIGINT(20) UNSIGNED DEFAULT NULL COMMENT 'Dataset item ID',
     input                LONGTEXT NOT NULL COMMENT 'Input content',
     actual_output        LONGTEXT NOT NULL COMMENT 'Actual output from evaluation object',
     reference_output     LONGTEXT COMMENT 'Reference output for comparison',
@@ -188,6 +191,7 @@ CREATE TABLE experiment_result
     update_time          DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT 'Update time',
     PRIMARY KEY (id),
     KEY                  idx_experiment_id (experiment_id),
+    KEY                  idx_experiment_item (experiment_id, dataset_item_id),
     KEY                  idx_evaluator_version_id (evaluator_version_id),
     KEY                  idx_create_time (create_time)
 ) ENGINE = InnoDB
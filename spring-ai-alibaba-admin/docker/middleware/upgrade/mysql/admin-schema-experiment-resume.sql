@@ -0,0 +1,10 @@
+-- Upgrades an existing admin database for resumable experiments.
+-- New databases created from init/mysql/admin-schema.sql already contain these changes.
+
+ALTER TABLE experiment
+    ADD COLUMN owner             VARCHAR(64) DEFAULT NULL COMMENT 'Node currently executing the experiment' AFTER complete_time,
+    ADD COLUMN lease_expire_time DATETIME    DEFAULT NULL COMMENT 'Expire time of the execution lease' AFTER owner;
+
+ALTER TABLE experiment_result
+    ADD COLUMN dataset_item_id BIGINT(20) UNSIGNED DEFAULT NULL COMMENT 'Dataset item ID' AFTER experiment_id,
+    ADD KEY idx_experiment_item (experiment_id, dataset_item_id);
@@ -26,6 +26,7 @@ public class ElasticsearchConfig {
                     requestConfigBuilder
                         .setConnectTimeout(properties.getConnectTimeout())
                         .setSocketTimeout(properties.getSocketTimeout()))
+                .setCompressionEnabled(Boolean.TRUE.equals(properties.getCompressionEnabled()))
                 .setHttpClientConfigCallback(httpClientBuilder -> 
                     httpClientBuilder
                         .setMaxConnTotal(properties.getConnectionPool().getMaxConnections())
@@ -22,6 +22,11 @@ public class ElasticsearchProperties {
      */
     private Integer socketTimeout = 60000;
 
+    /**
+     * 是否对请求体进行gzip压缩
+     */
+    private Boolean compressionEnabled = true;
+
     /**
      * 连接池配置
      */
@@ -0,0 +1,47 @@
+package com.alibaba.cloud.ai.studio.admin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "experiment")
+public class ExperimentProperties {
+
+    /**
+     * 同时运行的实验数量
+     */
+    private Integer maxRunningExperiments = 5;
+
+    /**
+     * 单个实验内并发处理的数据项数量
+     */
+    private Integer itemConcurrency = 8;
+
+    /**
+     * 单个模型每秒允许的调用次数
+     */
+    private Double modelPermitsPerSecond = 10.0;
+
+    /**
+     * 实验结果批量写入的条数
+     */
+    private Integer resultBatchSize = 50;
+
+    /**
+     * 进度写回数据库的最小间隔（毫秒）
+     */
+    private Long progressUpdateIntervalMillis = 2000L;
+
+    /**
+     * 是否接管没有节点执行的运行中实验（未分配执行节点或租约已过期），包括服务重启前未完成的实验。
+     * 实验通过数据库中的执行租约归属于单个节点，多副本部署时同一实验只会由一个节点执行
+     */
+    private Boolean resumeOnStartup = true;
+
+    /**
+     * 实验执行租约时长（秒），执行节点每隔三分之一租约时长续期一次，节点退出后租约过期即可由其他节点接管
+     */
+    private Long leaseSeconds = 60L;
+}
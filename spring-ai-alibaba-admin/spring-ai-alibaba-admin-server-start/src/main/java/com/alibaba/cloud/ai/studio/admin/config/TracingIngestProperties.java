@@ -0,0 +1,64 @@
+package com.alibaba.cloud.ai.studio.admin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "tracing.ingest")
+public class TracingIngestProperties {
+
+    /**
+     * 是否通过缓冲队列异步批量写入 Span，关闭时每次保存直接写入 Elasticsearch
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 内存缓冲队列可容纳的 Span 数量
+     */
+    private Integer bufferCapacity = 100_000;
+
+    /**
+     * 单次 bulk 请求写入的最大 Span 数量
+     */
+    private Integer batchSize = 1000;
+
+    /**
+     * 缓冲的 Span 不足一批时的最长等待时间（毫秒）
+     */
+    private Long flushIntervalMillis = 1000L;
+
+    /**
+     * 同时进行中的 bulk 请求数量
+     */
+    private Integer maxInFlightRequests = 4;
+
+    /**
+     * 缓冲队列已满或写入失败时是否将 Span 暂存到磁盘，之后再重新写入
+     */
+    private Boolean spillEnabled = true;
+
+    /**
+     * 磁盘暂存目录
+     */
+    private String spillDirectory = Paths.get(System.getProperty("java.io.tmpdir"),
+            "spring-ai-alibaba-admin", "span-spill").toString();
+
+    /**
+     * 磁盘暂存的最大字节数，超出后丢弃 Span
+     */
+    private Long maxSpillBytes = 1024L * 1024 * 1024;
+
+    /**
+     * 单个暂存文件的最大字节数
+     */
+    private Long spillSegmentBytes = 16L * 1024 * 1024;
+
+    /**
+     * 写入失败后重新写入暂存数据的最小间隔（毫秒）
+     */
+    private Long spillRetryIntervalMillis = 5000L;
+}
@@ -0,0 +1,56 @@
+package com.alibaba.cloud.ai.studio.admin.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "tracing.query")
+public class TracingQueryProperties {
+
+    /**
+     * 相同查询结果的缓存时间（秒），0 表示不缓存。写入不会使缓存失效，新写入的 Span 最迟在该时间后可查到
+     */
+    private Long cacheTtlSeconds = 10L;
+
+    /**
+     * 查询结果缓存的最大条数
+     */
+    private Long cacheMaxSize = 1000L;
+
+    /**
+     * 是否启用概览与服务列表的预聚合
+     */
+    private Boolean rollupEnabled = true;
+
+    /**
+     * 后台预聚合任务的执行间隔（秒）
+     */
+    private Long rollupIntervalSeconds = 30L;
+
+    /**
+     * 预聚合只处理早于当前时间该时长（秒）的分钟，为延迟写入的 Span 留出时间
+     */
+    private Long rollupLagSeconds = 120L;
+
+    /**
+     * 每次刷新时重新聚合水位线之前的分钟数，超过延迟时间才写入的 Span 在此窗口内仍会计入预聚合
+     */
+    private Integer rollupRerollMinutes = 10;
+
+    /**
+     * 启动时回溯预聚合的小时数
+     */
+    private Integer rollupBackfillHours = 24;
+
+    /**
+     * 分钟级预聚合的保留时长（小时），更早的数据只保留小时级预聚合
+     */
+    private Integer minuteRetentionHours = 24;
+
+    /**
+     * 小时级预聚合的保留时长（天）
+     */
+    private Integer hourRetentionDays = 30;
+}
@@ -6,6 +6,7 @@ import com.alibaba.cloud.ai.studio.admin.dto.ExperimentEvaluatorResultDetail;
 import com.alibaba.cloud.ai.studio.admin.dto.request.ExperimentCreateRequest;
 import com.alibaba.cloud.ai.studio.admin.dto.Experiment;
 import com.alibaba.cloud.ai.studio.admin.dto.ExperimentEvaluatorResult;
+import com.alibaba.cloud.ai.studio.admin.dto.ExperimentProgress;
 import com.alibaba.cloud.ai.studio.admin.dto.request.ExperimentEvaluatorResultDetailListRequest;
 import com.alibaba.cloud.ai.studio.admin.dto.request.ExperimentListRequest;
 import com.alibaba.cloud.ai.studio.admin.service.ExperimentService;
@@ -92,6 +93,23 @@ public class ExperimentController {
     }
 
 
+    /**
+     * 获取实验实时执行进度
+     */
+    @GetMapping("/experiment/progress")
+    public Result<ExperimentProgress> getProgress(@RequestParam(value = "experimentId") Long experimentId) {
+        try {
+            ExperimentProgress progress = experimentService.getProgress(experimentId);
+            if (progress == null) {
+                return Result.error(404, "实验不存在");
+            }
+            return Result.success(progress);
+        } catch (Exception e) {
+            log.error("查询实验进度失败", e);
+            return Result.error("查询实验进度失败: " + e.getMessage());
+        }
+    }
+
     /**
      * 获取实验详细结果
      */
@@ -0,0 +1,71 @@
+package com.alibaba.cloud.ai.studio.admin.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class ExperimentProgress {
+
+    /**
+     * 实验ID
+     */
+    private Long experimentId;
+
+    /**
+     * 实验状态
+     */
+    private String status;
+
+    /**
+     * 进度百分比：0-100
+     */
+    private Integer progress;
+
+    /**
+     * 是否正在本节点执行
+     */
+    private Boolean active;
+
+    /**
+     * 数据项总数
+     */
+    private Integer totalItems;
+
+    /**
+     * 已成功处理的数据项数量
+     */
+    private Integer completedItems;
+
+    /**
+     * 处理失败的数据项数量
+     */
+    private Integer failedItems;
+
+    /**
+     * 续跑时跳过的已完成数据项数量
+     */
+    private Integer skippedItems;
+
+    /**
+     * 正在处理的数据项数量
+     */
+    private Integer inFlightItems;
+
+    /**
+     * 已写入数据库的实验结果数量
+     */
+    private Long savedResults;
+
+    /**
+     * 每秒处理的数据项数量
+     */
+    private Double itemsPerSecond;
+
+    /**
+     * 本次执行开始时间
+     */
+    private LocalDateTime startTime;
+}
@@ -20,6 +20,11 @@ public class ExperimentResultDO {
      */
     private Long experimentId;
 
+    /**
+     * 数据项ID
+     */
+    private Long datasetItemId;
+
     /**
      * 输入内容
      */
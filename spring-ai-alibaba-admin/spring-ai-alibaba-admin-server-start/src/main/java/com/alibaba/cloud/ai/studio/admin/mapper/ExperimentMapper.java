@@ -69,6 +69,36 @@ public interface ExperimentMapper {
      */
     int updateById(ExperimentDO experiment);
 
+    /**
+     * 查询没有节点执行的运行中实验，即未分配执行节点或执行租约已过期的实验
+     *
+     * @param limit 限制数量
+     * @return 实验列表
+     */
+    List<ExperimentDO> selectUnownedRunning(@Param("limit") int limit);
+
+    /**
+     * 获取或续期实验执行租约，其他节点持有未过期的租约时不做修改
+     *
+     * @param id 实验ID
+     * @param owner 执行节点标识
+     * @param leaseSeconds 租约时长（秒）
+     * @return 受影响的行数，为0表示租约由其他节点持有
+     */
+    int claimLease(@Param("id") Long id,
+                   @Param("owner") String owner,
+                   @Param("leaseSeconds") long leaseSeconds);
+
+    /**
+     * 释放执行节点持有的实验执行租约
+     *
+     * @param id 实验ID
+     * @param owner 执行节点标识
+     * @return 受影响的行数
+     */
+    int releaseLease(@Param("id") Long id,
+                     @Param("owner") String owner);
+
     /**
      * 创建实验结果
      *
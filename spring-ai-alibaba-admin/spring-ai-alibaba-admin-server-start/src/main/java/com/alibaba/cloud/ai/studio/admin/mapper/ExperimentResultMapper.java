@@ -37,6 +37,16 @@ public interface ExperimentResultMapper {
 
 
 
+    /**
+     * 查询已完成全部评估器的数据项ID
+     *
+     * @param experimentId 实验ID
+     * @param evaluatorCount 评估器数量
+     * @return 数据项ID列表
+     */
+    List<Long> selectCompletedItemIds(@Param("experimentId") Long experimentId,
+                                      @Param("evaluatorCount") int evaluatorCount);
+
     /**
      * 根据实验ID获取实验结果数量
      *
@@ -29,7 +29,7 @@ public interface TracingRepository {
     OverviewStatsDTO getOverview(OverviewQueryRequest request);
 
     /**
-     * 批量保存Span数据
+     * 批量保存Span数据，启用写入管道时异步写入
      */
     void saveSpans(java.util.List<TraceSpanDTO> spans);
 }
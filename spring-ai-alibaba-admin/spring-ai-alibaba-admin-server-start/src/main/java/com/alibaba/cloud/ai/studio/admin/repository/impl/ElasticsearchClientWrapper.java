@@ -38,18 +38,7 @@ public class ElasticsearchClientWrapper {
      */
     public void bulkIndex(String index, List<Map<String, Object>> documents) {
         try {
-            BulkRequest.Builder bulkBuilder = new BulkRequest.Builder();
-            
-            for (Map<String, Object> doc : documents) {
-                bulkBuilder.operations(op -> op
-                    .index(idx -> idx
-                        .index(index)
-                        .document(doc)
-                    )
-                );
-            }
-            
-            BulkResponse result = elasticsearchClient.bulk(bulkBuilder.build());
+            BulkResponse result = bulk(index, documents);
             
             if (result.errors()) {
                 log.error("批量索引部分失败: {}", result.items());
@@ -62,6 +51,24 @@ public class ElasticsearchClientWrapper {
         }
     }
 
+    /**
+     * 执行bulk请求并返回原始结果，响应中的条目与文档顺序一致，由调用方处理部分失败
+     */
+    public BulkResponse bulk(String index, List<Map<String, Object>> documents) throws IOException {
+        BulkRequest.Builder bulkBuilder = new BulkRequest.Builder();
+
+        for (Map<String, Object> doc : documents) {
+            bulkBuilder.operations(op -> op
+                .index(idx -> idx
+                    .index(index)
+                    .document(doc)
+                )
+            );
+        }
+
+        return elasticsearchClient.bulk(bulkBuilder.build());
+    }
+
     /**
      * 检查索引是否存在
      */
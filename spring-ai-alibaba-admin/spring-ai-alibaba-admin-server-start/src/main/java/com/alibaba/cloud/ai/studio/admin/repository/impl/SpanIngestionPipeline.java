@@ -0,0 +1,478 @@
+package com.alibaba.cloud.ai.studio.admin.repository.impl;
+
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import com.alibaba.cloud.ai.studio.admin.config.TracingIngestProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Span 写入管道。
+ * <p>
+ * 保存请求只把 Span 放入有界缓冲队列后立即返回，后台线程按批量大小或时间间隔合并成 bulk 请求写入 Elasticsearch，
+ * 并限制同时进行中的 bulk 请求数量。队列已满或 Elasticsearch 写入失败时 Span 会追加到磁盘暂存文件，
+ * 待写入恢复后再重新写入；暂存超过上限时丢弃 Span 并计数。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SpanIngestionPipeline {
+
+    private static final String TRACES_INDEX = "loongsuite_traces";
+
+    private static final String SPILL_PREFIX = "spans-";
+
+    private static final String SPILL_SUFFIX = ".ndjson";
+
+    private final ElasticsearchClientWrapper elasticsearchClient;
+
+    private final TracingIngestProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AtomicLong spillBytes = new AtomicLong();
+
+    private BlockingQueue<Map<String, Object>> buffer;
+
+    private Semaphore inFlight;
+
+    private ExecutorService bulkExecutor;
+
+    private Thread flusher;
+
+    private volatile boolean running;
+
+    private Path spillDirectory;
+
+    private BufferedWriter spillWriter;
+
+    private Path spillSegment;
+
+    private long spillSegmentSize;
+
+    private long spillSequence;
+
+    private long nextReplayTime;
+
+    private Timer flushTimer;
+
+    private Counter droppedCounter;
+
+    private Counter spilledCounter;
+
+    private Counter indexedCounter;
+
+    @PostConstruct
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        buffer = new ArrayBlockingQueue<>(properties.getBufferCapacity());
+        inFlight = new Semaphore(properties.getMaxInFlightRequests());
+        bulkExecutor = Executors.newFixedThreadPool(properties.getMaxInFlightRequests(),
+                new ThreadFactoryBuilder().setNameFormat("span-bulk-%d").setDaemon(true).build());
+
+        Gauge.builder("tracing.ingest.queue.depth", buffer, BlockingQueue::size)
+                .description("等待写入的Span数量")
+                .register(meterRegistry);
+        Gauge.builder("tracing.ingest.spill.bytes", spillBytes, AtomicLong::get)
+                .description("磁盘暂存的Span字节数")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("tracing.ingest.flush.latency")
+                .description("bulk写入耗时")
+                .register(meterRegistry);
+        droppedCounter = Counter.builder("tracing.ingest.spans.dropped").register(meterRegistry);
+        spilledCounter = Counter.builder("tracing.ingest.spans.spilled").register(meterRegistry);
+        indexedCounter = Counter.builder("tracing.ingest.spans.indexed").register(meterRegistry);
+
+        if (Boolean.TRUE.equals(properties.getSpillEnabled())) {
+            initSpillDirectory();
+        }
+
+        running = true;
+        flusher = new ThreadFactoryBuilder().setNameFormat("span-flusher").setDaemon(true).build()
+                .newThread(this::flushLoop);
+        flusher.start();
+        log.info("Span写入管道已启动: 缓冲容量={}, 批量大小={}, 最大并发请求数={}", properties.getBufferCapacity(),
+                properties.getBatchSize(), properties.getMaxInFlightRequests());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+            bulkExecutor.shutdown();
+            if (!bulkExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                bulkExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 未能写入的Span保存到磁盘，下次启动时重新写入
+        List<Map<String, Object>> remaining = new ArrayList<>();
+        buffer.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            spill(remaining);
+        }
+        closeSpillSegment();
+    }
+
+    public boolean isEnabled() {
+        return Boolean.TRUE.equals(properties.getEnabled());
+    }
+
+    /**
+     * 提交待写入的Span文档，不等待写入完成
+     */
+    public void submit(List<Map<String, Object>> documents) {
+        List<Map<String, Object>> overflow = null;
+        for (Map<String, Object> document : documents) {
+            if (!running || !buffer.offer(document)) {
+                if (overflow == null) {
+                    overflow = new ArrayList<>();
+                }
+                overflow.add(document);
+            }
+        }
+        if (overflow != null) {
+            log.warn("Span缓冲队列已满，{} 条Span转存磁盘", overflow.size());
+            spill(overflow);
+        }
+    }
+
+    private void flushLoop() {
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMillis());
+        int batchSize = properties.getBatchSize();
+        while (running || !buffer.isEmpty()) {
+            try {
+                Map<String, Object> first = buffer.poll(properties.getFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    replaySpilled();
+                    continue;
+                }
+                List<Map<String, Object>> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    buffer.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    Map<String, Object> next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Span写入管道异常", e);
+            }
+        }
+    }
+
+    /**
+     * 在并发请求数允许时异步发送一批Span，否则阻塞刷新线程，使后续Span在队列中积压
+     */
+    private void dispatch(List<Map<String, Object>> batch) throws InterruptedException {
+        inFlight.acquire();
+        try {
+            bulkExecutor.execute(() -> {
+                try {
+                    List<Map<String, Object>> failed = send(batch);
+                    if (!failed.isEmpty()) {
+                        spill(failed);
+                    }
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            spill(batch);
+        }
+    }
+
+    /**
+     * 写入一批Span，返回写入失败但可以重试的Span，由调用方决定如何保存
+     */
+    private List<Map<String, Object>> send(List<Map<String, Object>> batch) {
+        long start = System.nanoTime();
+        try {
+            BulkResponse response = elasticsearchClient.bulk(TRACES_INDEX, batch);
+            if (!response.errors()) {
+                indexedCounter.increment(batch.size());
+                return List.of();
+            }
+            List<Map<String, Object>> retry = new ArrayList<>();
+            int rejected = 0;
+            List<BulkResponseItem> items = response.items();
+            for (int i = 0; i < items.size() && i < batch.size(); i++) {
+                BulkResponseItem item = items.get(i);
+                if (item.error() == null) {
+                    continue;
+                }
+                // 429 与 5xx 属于暂时性失败，其余视为文档本身有问题
+                if (item.status() == 429 || item.status() >= 500) {
+                    retry.add(batch.get(i));
+                } else {
+                    rejected++;
+                }
+            }
+            indexedCounter.increment(batch.size() - retry.size() - rejected);
+            if (rejected > 0) {
+                log.error("Span写入被拒绝: {} 条", rejected);
+                droppedCounter.increment(rejected);
+            }
+            return retry;
+        } catch (Exception e) {
+            log.warn("Span批量写入失败，{} 条Span待重试: {}", batch.size(), e.getMessage());
+            return batch;
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private synchronized void spill(List<Map<String, Object>> documents) {
+        if (spillDirectory == null) {
+            droppedCounter.increment(documents.size());
+            return;
+        }
+        int written = 0;
+        try {
+            for (Map<String, Object> document : documents) {
+                String line = objectMapper.writeValueAsString(document) + "\n";
+                long size = line.getBytes(StandardCharsets.UTF_8).length;
+                if (spillBytes.get() + size > properties.getMaxSpillBytes()) {
+                    break;
+                }
+                if (spillWriter == null || spillSegmentSize >= properties.getSpillSegmentBytes()) {
+                    openSpillSegment();
+                }
+                spillWriter.write(line);
+                spillSegmentSize += size;
+                spillBytes.addAndGet(size);
+                written++;
+            }
+            if (spillWriter != null) {
+                spillWriter.flush();
+            }
+        } catch (IOException e) {
+            log.error("Span暂存到磁盘失败", e);
+        }
+        spilledCounter.increment(written);
+        if (written < documents.size()) {
+            log.warn("Span磁盘暂存已满，丢弃 {} 条Span", documents.size() - written);
+            droppedCounter.increment(documents.size() - written);
+        }
+    }
+
+    /**
+     * 写入恢复后，在队列空闲时依次重新写入最早的暂存文件。
+     * <p>
+     * 写入失败时未写入的Span（失败批次中可重试的部分及其后的全部内容）按原顺序写回同一个文件，
+     * 暂存数据不经过 {@link #spill} 的容量检查，因此暂存已满时也不会丢失已落盘的Span。
+     */
+    private void replaySpilled() {
+        if (spillDirectory == null || spillBytes.get() == 0 || System.currentTimeMillis() < nextReplayTime
+                || inFlight.availablePermits() < properties.getMaxInFlightRequests()) {
+            return;
+        }
+        Path segment = nextReplaySegment();
+        if (segment == null) {
+            return;
+        }
+        try {
+            long size = Files.size(segment);
+            List<String> lines = Files.readAllLines(segment, StandardCharsets.UTF_8);
+
+            List<String> remaining = null;
+            int corrupt = 0;
+            List<String> batchLines = new ArrayList<>(properties.getBatchSize());
+            List<Map<String, Object>> batch = new ArrayList<>(properties.getBatchSize());
+            for (int i = 0; i < lines.size(); i++) {
+                Map<String, Object> document = parse(lines.get(i));
+                if (document != null) {
+                    batchLines.add(lines.get(i));
+                    batch.add(document);
+                } else {
+                    // 损坏的行（如进程中途退出时写了一半）无法重新写入，丢弃后继续处理其余的Span
+                    corrupt++;
+                }
+                if (batch.size() == properties.getBatchSize() || (i == lines.size() - 1 && !batch.isEmpty())) {
+                    List<Map<String, Object>> failed = send(batch);
+                    if (!failed.isEmpty()) {
+                        Set<Map<String, Object>> failedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+                        failedSet.addAll(failed);
+                        remaining = new ArrayList<>();
+                        for (int j = 0; j < batch.size(); j++) {
+                            if (failedSet.contains(batch.get(j))) {
+                                remaining.add(batchLines.get(j));
+                            }
+                        }
+                        remaining.addAll(lines.subList(i + 1, lines.size()));
+                        break;
+                    }
+                    batchLines = new ArrayList<>(properties.getBatchSize());
+                    batch = new ArrayList<>(properties.getBatchSize());
+                }
+            }
+
+            if (corrupt > 0) {
+                log.warn("Span暂存文件 {} 中有 {} 行格式错误，已丢弃", segment, corrupt);
+                droppedCounter.increment(corrupt);
+            }
+
+            // 文件在写入完成后才删除或改写，进程中途退出时最多导致重复写入而不会丢失
+            if (remaining == null) {
+                Files.delete(segment);
+                spillBytes.addAndGet(-size);
+                log.info("已重新写入暂存的Span: {} 条", lines.size() - corrupt);
+            } else {
+                rewriteSegment(segment, remaining);
+                spillBytes.addAndGet(Files.size(segment) - size);
+                nextReplayTime = System.currentTimeMillis() + properties.getSpillRetryIntervalMillis();
+            }
+        } catch (IOException e) {
+            log.error("读取Span暂存文件失败: {}", segment, e);
+            nextReplayTime = System.currentTimeMillis() + properties.getSpillRetryIntervalMillis();
+        }
+    }
+
+    /**
+     * 用未写入的Span替换暂存文件的内容，先写临时文件再原子替换
+     */
+    private void rewriteSegment(Path segment, List<String> lines) throws IOException {
+        Path tmp = segment.resolveSibling(segment.getFileName() + ".tmp");
+        Files.write(tmp, lines, StandardCharsets.UTF_8);
+        Files.move(tmp, segment, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 解析一行暂存数据，格式错误时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> parse(String line) {
+        try {
+            return objectMapper.readValue(line, Map.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 返回最早的暂存文件，当前正在写入的文件会先关闭
+     */
+    private synchronized Path nextReplaySegment() {
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            Path oldest = files.filter(this::isSpillSegment)
+                    .filter(path -> !path.equals(spillSegment))
+                    .min(Path::compareTo)
+                    .orElse(null);
+            if (oldest == null && spillSegment != null && spillSegmentSize > 0) {
+                oldest = spillSegment;
+                closeSpillSegment();
+            }
+            return oldest;
+        } catch (IOException e) {
+            log.error("列出Span暂存文件失败: {}", spillDirectory, e);
+            return null;
+        }
+    }
+
+    private void initSpillDirectory() {
+        try {
+            Path directory = Paths.get(properties.getSpillDirectory());
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.filter(this::isSpillSegment).toList()) {
+                    spillBytes.addAndGet(Files.size(file));
+                    spillSequence = Math.max(spillSequence, sequenceOf(file) + 1);
+                }
+            }
+            spillDirectory = directory;
+            if (spillBytes.get() > 0) {
+                log.info("发现未写入的Span暂存数据: {} 字节", spillBytes.get());
+            }
+        } catch (IOException e) {
+            log.error("创建Span暂存目录失败，队列满时将直接丢弃Span: {}", properties.getSpillDirectory(), e);
+        }
+    }
+
+    private void openSpillSegment() throws IOException {
+        closeSpillSegment();
+        spillSegment = spillDirectory.resolve(String.format("%s%020d%s", SPILL_PREFIX, spillSequence++, SPILL_SUFFIX));
+        spillWriter = Files.newBufferedWriter(spillSegment, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+        spillSegmentSize = 0;
+    }
+
+    private synchronized void closeSpillSegment() {
+        if (spillWriter != null) {
+            try {
+                spillWriter.close();
+            } catch (IOException e) {
+                log.warn("关闭Span暂存文件失败: {}", spillSegment, e);
+            }
+        }
+        spillWriter = null;
+        spillSegment = null;
+        spillSegmentSize = 0;
+    }
+
+    private boolean isSpillSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SPILL_PREFIX) && name.endsWith(SPILL_SUFFIX);
+    }
+
+    private long sequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SPILL_PREFIX.length(), name.length() - SPILL_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
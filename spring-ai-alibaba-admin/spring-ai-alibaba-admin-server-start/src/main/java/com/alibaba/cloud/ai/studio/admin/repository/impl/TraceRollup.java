@@ -0,0 +1,155 @@
+package com.alibaba.cloud.ai.studio.admin.repository.impl;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import com.alibaba.cloud.ai.studio.admin.dto.OverviewStatsDTO;
+import com.alibaba.cloud.ai.studio.admin.dto.ServiceInfoDTO;
+import com.alibaba.cloud.ai.studio.admin.dto.ServicesResponseDTO;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 一个时间段内 Trace 数据的预聚合结果：操作次数、模型调用次数、模型 Token 用量以及服务与操作的 Span 数。
+ * 多个时间段的结果可以通过 {@link #merge(TraceRollup)} 累加。
+ */
+class TraceRollup {
+
+    private final Map<String, Long> operationCounts = new HashMap<>();
+
+    private final Map<String, Long> modelCounts = new HashMap<>();
+
+    private final Map<String, Long> modelTokens = new HashMap<>();
+
+    private final Map<String, Map<String, Long>> serviceOperations = new HashMap<>();
+
+    /**
+     * 从预聚合查询的聚合结果中解析
+     */
+    static TraceRollup fromAggregations(Map<String, Aggregate> aggregations) {
+        TraceRollup rollup = new TraceRollup();
+        if (aggregations == null) {
+            return rollup;
+        }
+
+        Aggregate operationCountAgg = aggregations.get("operation_count");
+        if (operationCountAgg != null && operationCountAgg.isSterms()) {
+            for (var bucket : operationCountAgg.sterms().buckets().array()) {
+                rollup.operationCounts.merge(bucket.key().stringValue(), bucket.docCount(), Long::sum);
+            }
+        }
+
+        Aggregate modelCountAgg = aggregations.get("model_count");
+        if (modelCountAgg != null && modelCountAgg.isSterms()) {
+            for (var bucket : modelCountAgg.sterms().buckets().array()) {
+                rollup.modelCounts.merge(bucket.key().stringValue(), bucket.docCount(), Long::sum);
+            }
+        }
+
+        Aggregate usageTokensAgg = aggregations.get("total_usage_tokens");
+        if (usageTokensAgg != null && usageTokensAgg.isSterms()) {
+            for (var bucket : usageTokensAgg.sterms().buckets().array()) {
+                Aggregate totalTokensAgg = bucket.aggregations().get("total_tokens");
+                long tokens = 0L;
+                if (totalTokensAgg != null && totalTokensAgg.isSum()) {
+                    Double value = totalTokensAgg.sum().value();
+                    tokens = value.longValue();
+                }
+                rollup.modelTokens.merge(bucket.key().stringValue(), tokens, Long::sum);
+            }
+        }
+
+        Aggregate servicesAgg = aggregations.get("services");
+        if (servicesAgg != null && servicesAgg.isSterms()) {
+            for (var bucket : servicesAgg.sterms().buckets().array()) {
+                Map<String, Long> operations = rollup.serviceOperations
+                        .computeIfAbsent(bucket.key().stringValue(), key -> new HashMap<>());
+                Aggregate operationsAgg = bucket.aggregations().get("operations");
+                if (operationsAgg != null && operationsAgg.isSterms()) {
+                    for (var opBucket : operationsAgg.sterms().buckets().array()) {
+                        operations.merge(opBucket.key().stringValue(), opBucket.docCount(), Long::sum);
+                    }
+                }
+            }
+        }
+        return rollup;
+    }
+
+    /**
+     * 将另一个时间段的结果累加到当前结果
+     */
+    TraceRollup merge(TraceRollup other) {
+        other.operationCounts.forEach((key, value) -> operationCounts.merge(key, value, Long::sum));
+        other.modelCounts.forEach((key, value) -> modelCounts.merge(key, value, Long::sum));
+        other.modelTokens.forEach((key, value) -> modelTokens.merge(key, value, Long::sum));
+        other.serviceOperations.forEach((service, operations) -> {
+            Map<String, Long> merged = serviceOperations.computeIfAbsent(service, key -> new HashMap<>());
+            operations.forEach((key, value) -> merged.merge(key, value, Long::sum));
+        });
+        return this;
+    }
+
+    /**
+     * 转换为概览统计结果，明细按数量降序排列，与 Elasticsearch terms 聚合的顺序一致
+     */
+    OverviewStatsDTO toOverview() {
+        return OverviewStatsDTO.builder()
+                .operationCount(toStatDetail(operationCounts,
+                        entry -> OverviewStatsDTO.StatItem.builder()
+                                .operationName(entry.getKey())
+                                .total(entry.getValue())
+                                .build()))
+                .modelCount(toStatDetail(modelCounts,
+                        entry -> OverviewStatsDTO.StatItem.builder()
+                                .modelName(entry.getKey())
+                                .total(entry.getValue())
+                                .build()))
+                .usageTokens(toStatDetail(modelTokens,
+                        entry -> OverviewStatsDTO.StatItem.builder()
+                                .modelName(entry.getKey())
+                                .total(entry.getValue())
+                                .build()))
+                .build();
+    }
+
+    /**
+     * 转换为服务列表，服务与操作均按 Span 数降序排列
+     */
+    ServicesResponseDTO toServices() {
+        List<ServiceInfoDTO> services = serviceOperations.entrySet().stream()
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<String, Map<String, Long>> entry) -> sum(entry.getValue())).reversed())
+                .map(entry -> ServiceInfoDTO.builder()
+                        .name(entry.getKey())
+                        .operations(sortedKeys(entry.getValue()))
+                        .build())
+                .collect(Collectors.toList());
+        return ServicesResponseDTO.builder().services(services).build();
+    }
+
+    private static OverviewStatsDTO.StatDetail toStatDetail(Map<String, Long> counts,
+                                                           Function<Map.Entry<String, Long>, OverviewStatsDTO.StatItem> mapper) {
+        List<OverviewStatsDTO.StatItem> detail = counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .map(mapper)
+                .collect(Collectors.toList());
+        return OverviewStatsDTO.StatDetail.builder()
+                .total(sum(counts))
+                .detail(detail)
+                .build();
+    }
+
+    private static List<String> sortedKeys(Map<String, Long> counts) {
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private static long sum(Map<String, Long> counts) {
+        return counts.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
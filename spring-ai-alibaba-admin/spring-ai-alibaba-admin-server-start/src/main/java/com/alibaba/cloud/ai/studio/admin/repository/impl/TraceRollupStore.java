@@ -0,0 +1,252 @@
+package com.alibaba.cloud.ai.studio.admin.repository.impl;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import com.alibaba.cloud.ai.studio.admin.config.TracingQueryProperties;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trace 统计的内存时序预聚合。
+ * <p>
+ * 后台任务按分钟从 Elasticsearch 拉取已完成分钟的聚合结果，整小时完成后再合并为小时级结果。
+ * 每次刷新还会重新聚合水位线之前的最近几分钟，并重新合并受影响的小时，使迟到的 Span 也能计入预聚合。
+ * 查询时完整的小时和分钟直接使用预聚合结果，只有查询区间首尾不足一分钟的部分以及尚未预聚合的最新时间段
+ * 才实时查询 Elasticsearch。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TraceRollupStore {
+
+    private static final String TRACES_INDEX = "loongsuite_traces";
+
+    private static final long MINUTE_MILLIS = 60_000L;
+
+    private static final long HOUR_MILLIS = 60 * MINUTE_MILLIS;
+
+    private final ElasticsearchClientWrapper elasticsearchClient;
+
+    private final TracingQueryBuilder queryBuilder;
+
+    private final TracingQueryProperties properties;
+
+    /**
+     * 分钟开始时间（毫秒）到该分钟预聚合结果，没有数据的分钟不保存
+     */
+    private final NavigableMap<Long, TraceRollup> minutes = new ConcurrentSkipListMap<>();
+
+    /**
+     * 小时开始时间（毫秒）到该小时预聚合结果，每个已完成的小时都保存一条
+     */
+    private final NavigableMap<Long, TraceRollup> hours = new ConcurrentSkipListMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 预聚合覆盖的起始时间，始终按小时对齐
+     */
+    private long coveredFrom;
+
+    /**
+     * 分钟级预聚合覆盖的起始时间，更早的时间段只有小时级结果
+     */
+    private long minutesFrom;
+
+    /**
+     * 预聚合覆盖的结束时间（不含）
+     */
+    private long watermark;
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void start() {
+        if (!Boolean.TRUE.equals(properties.getRollupEnabled())) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("trace-rollup").setDaemon(true).build());
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, properties.getRollupIntervalSeconds(), TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 统计 [startMicros, endMicros) 内的数据，预聚合未覆盖的部分实时查询
+     */
+    TraceRollup query(long startMicros, long endMicros) {
+        long startMillis = ceil(startMicros, TracingQueryBuilder.MINUTE_MICROS) / 1000;
+        long endMillis = endMicros / 1000;
+
+        TraceRollup result = new TraceRollup();
+        long rolledFrom;
+        long rolledTo;
+        lock.readLock().lock();
+        try {
+            if (startMillis < minutesFrom) {
+                startMillis = ceil(startMillis, HOUR_MILLIS);
+            }
+            long limit = Math.min(endMillis - endMillis % MINUTE_MILLIS, watermark);
+            long cursor = startMillis;
+            if (watermark == 0 || startMillis < coveredFrom) {
+                // 预聚合尚未覆盖，整个区间实时查询
+                cursor = limit;
+                startMillis = limit;
+            }
+            while (cursor < limit) {
+                TraceRollup hour = cursor % HOUR_MILLIS == 0 && cursor + HOUR_MILLIS <= limit ? hours.get(cursor) : null;
+                if (hour != null) {
+                    result.merge(hour);
+                    cursor += HOUR_MILLIS;
+                } else if (cursor >= minutesFrom) {
+                    TraceRollup minute = minutes.get(cursor);
+                    if (minute != null) {
+                        result.merge(minute);
+                    }
+                    cursor += MINUTE_MILLIS;
+                } else {
+                    // 分钟级结果已清理且剩余区间不足一小时
+                    break;
+                }
+            }
+            rolledFrom = startMillis;
+            rolledTo = cursor;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (rolledFrom >= rolledTo) {
+            return fetch(startMicros, endMicros);
+        }
+        if (startMicros < rolledFrom * 1000) {
+            result.merge(fetch(startMicros, rolledFrom * 1000));
+        }
+        if (rolledTo * 1000 < endMicros) {
+            result.merge(fetch(rolledTo * 1000, endMicros));
+        }
+        return result;
+    }
+
+    /**
+     * 预聚合已完成但尚未处理的分钟，并清理超过保留时长的结果
+     */
+    void refresh() {
+        try {
+            long now = System.currentTimeMillis();
+            long target = floor(now - properties.getRollupLagSeconds() * 1000, MINUTE_MILLIS);
+            if (watermark == 0) {
+                long from = floor(now - properties.getRollupBackfillHours() * HOUR_MILLIS, HOUR_MILLIS);
+                lock.writeLock().lock();
+                try {
+                    coveredFrom = from;
+                    minutesFrom = from;
+                    watermark = from;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            // 迟到的 Span 可能落在已聚合的分钟里，重新聚合最近的一段时间
+            long rerollFrom = Math.max(minutesFrom,
+                    floor(watermark - properties.getRollupRerollMinutes() * MINUTE_MILLIS, MINUTE_MILLIS));
+            long rerollTo = Math.min(watermark, target);
+            while (rerollFrom < rerollTo) {
+                long chunkEnd = Math.min(rerollTo, floor(rerollFrom, HOUR_MILLIS) + HOUR_MILLIS);
+                rollup(rerollFrom, chunkEnd);
+                rerollFrom = chunkEnd;
+            }
+            while (watermark < target) {
+                // 每次最多聚合一小时，便于回溯时分批进行
+                long chunkEnd = Math.min(target, floor(watermark, HOUR_MILLIS) + HOUR_MILLIS);
+                rollup(watermark, chunkEnd);
+            }
+            prune(now);
+        } catch (Exception e) {
+            log.warn("Trace预聚合失败，稍后重试", e);
+        }
+    }
+
+    private void rollup(long fromMillis, long toMillis) {
+        SearchResponse<Map> response = elasticsearchClient.search(TRACES_INDEX,
+                queryBuilder.buildRollupQuery(fromMillis * 1000, toMillis * 1000, true));
+
+        Map<Long, TraceRollup> chunk = new HashMap<>();
+        Aggregate minutesAgg = response.aggregations() != null ? response.aggregations().get("minutes") : null;
+        if (minutesAgg != null && minutesAgg.isHistogram()) {
+            for (var bucket : minutesAgg.histogram().buckets().array()) {
+                long minute = floor((long) bucket.key() / 1000, MINUTE_MILLIS);
+                chunk.put(minute, TraceRollup.fromAggregations(bucket.aggregations()));
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            // 替换区间内的全部分钟结果，重新聚合时不残留旧结果
+            minutes.subMap(fromMillis, toMillis).clear();
+            minutes.putAll(chunk);
+            watermark = Math.max(watermark, toMillis);
+            // 整小时的分钟结果均已就绪时合并为小时结果，分钟结果变化后重新合并
+            long hour = floor(fromMillis, HOUR_MILLIS);
+            if (hour >= coveredFrom && hour >= minutesFrom && hour + HOUR_MILLIS <= watermark) {
+                TraceRollup merged = new TraceRollup();
+                minutes.subMap(hour, hour + HOUR_MILLIS).values().forEach(merged::merge);
+                hours.put(hour, merged);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Trace预聚合完成: {} - {}, 有数据的分钟数: {}", fromMillis, toMillis, chunk.size());
+    }
+
+    private void prune(long now) {
+        long minuteCutoff = floor(now - properties.getMinuteRetentionHours() * HOUR_MILLIS, HOUR_MILLIS);
+        long hourCutoff = floor(now - properties.getHourRetentionDays() * 24 * HOUR_MILLIS, HOUR_MILLIS);
+        lock.writeLock().lock();
+        try {
+            if (minuteCutoff > minutesFrom) {
+                minutes.headMap(minuteCutoff).clear();
+                minutesFrom = minuteCutoff;
+            }
+            if (hourCutoff > coveredFrom) {
+                hours.headMap(hourCutoff).clear();
+                coveredFrom = hourCutoff;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private TraceRollup fetch(long startMicros, long endMicros) {
+        SearchResponse<Map> response = elasticsearchClient.search(TRACES_INDEX,
+                queryBuilder.buildRollupQuery(startMicros, endMicros, false));
+        return TraceRollup.fromAggregations(response.aggregations());
+    }
+
+    private static long floor(long value, long unit) {
+        return value - Math.floorMod(value, unit);
+    }
+
+    private static long ceil(long value, long unit) {
+        long floor = floor(value, unit);
+        return floor == value ? value : floor + unit;
+    }
+}
@@ -23,6 +23,12 @@ import java.util.HashMap;
 public class TracingQueryBuilder {
 
     private static final String TRACES_INDEX = "loongsuite_traces";
+
+    /**
+     * 一分钟对应的微秒数，与 metadata.start 的单位一致
+     */
+    static final long MINUTE_MICROS = 60_000_000L;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     /**
@@ -124,12 +130,7 @@ public class TracingQueryBuilder {
     public SearchRequest buildServicesQuery(ServicesQueryRequest request) {
         // 构建聚合
         Map<String, Aggregation> aggregations = new HashMap<>();
-        aggregations.put("services", Aggregation.of(a -> a
-            .terms(t -> t.field("metadata.service").size(1000))
-            .aggregations("operations", Aggregation.of(sub -> sub
-                .terms(subTerms -> subTerms.field("metadata.name").size(1000))
-            ))
-        ));
+        aggregations.put("services", servicesAggregation());
 
         SearchRequest.Builder searchBuilder = new SearchRequest.Builder()
             .index(TRACES_INDEX)
@@ -170,32 +171,7 @@ public class TracingQueryBuilder {
      * 构建概览查询请求
      */
     public SearchRequest buildOverviewQuery(OverviewQueryRequest request) {
-        Map<String, Aggregation> aggregations = new HashMap<>();
-
-        // 根据API文档修正聚合字段
-        // 1. 操作类型统计
-        aggregations.put("operation_count", Aggregation.of(a -> a
-            .terms(t -> t.field("attributes.gen_ai.operation.name").size(1000).missing("generic"))
-        ));
-
-        // 2. 模型统计
-        aggregations.put("model_count", Aggregation.of(a -> a
-            .terms(t -> t.field("attributes.gen_ai.request.model").size(1000))
-        ));
-
-        // 3. Token使用统计 - 按模型分组
-        aggregations.put("total_usage_tokens", Aggregation.of(a -> a
-            .terms(t -> t.field("attributes.gen_ai.request.model").size(1000))
-            .aggregations("total_tokens", Aggregation.of(sub -> sub
-                .sum(s -> s.field("usage.total_tokens"))
-            ))
-            .aggregations("input_tokens", Aggregation.of(sub -> sub
-                .sum(s -> s.field("usage.input_tokens"))
-            ))
-            .aggregations("output_tokens", Aggregation.of(sub -> sub
-                .sum(s -> s.field("usage.output_tokens"))
-            ))
-        ));
+        Map<String, Aggregation> aggregations = overviewAggregations();
 
         SearchRequest.Builder searchBuilder = new SearchRequest.Builder()
             .index(TRACES_INDEX)
@@ -232,6 +208,85 @@ public class TracingQueryBuilder {
         return searchBuilder.build();
     }
 
+    /**
+     * 构建预聚合查询请求，统计 [startMicros, endMicros) 内的操作、模型、Token 与服务信息，
+     * perMinute 为 true 时按分钟分桶
+     */
+    public SearchRequest buildRollupQuery(long startMicros, long endMicros, boolean perMinute) {
+        Map<String, Aggregation> rollupAggregations = overviewAggregations();
+        rollupAggregations.put("services", servicesAggregation());
+
+        Map<String, Aggregation> aggregations = rollupAggregations;
+        if (perMinute) {
+            aggregations = new HashMap<>();
+            aggregations.put("minutes", Aggregation.of(a -> a
+                .histogram(h -> h.field("metadata.start").interval((double) MINUTE_MICROS).minDocCount(1))
+                .aggregations(rollupAggregations)
+            ));
+        }
+
+        String rangeQueryJson = String.format(
+            "{\"range\":{\"metadata.start\":{\"gte\":%d,\"lt\":%d}}}",
+            startMicros, endMicros
+        );
+        Query timeRangeQuery = Query.of(q -> q
+            .withJson(new java.io.ByteArrayInputStream(rangeQueryJson.getBytes(java.nio.charset.StandardCharsets.UTF_8)))
+        );
+
+        return new SearchRequest.Builder()
+            .index(TRACES_INDEX)
+            .size(0)
+            .query(timeRangeQuery)
+            .aggregations(aggregations)
+            .build();
+    }
+
+    /**
+     * 服务及其操作聚合
+     */
+    private Aggregation servicesAggregation() {
+        return Aggregation.of(a -> a
+            .terms(t -> t.field("metadata.service").size(1000))
+            .aggregations("operations", Aggregation.of(sub -> sub
+                .terms(subTerms -> subTerms.field("metadata.name").size(1000))
+            ))
+        );
+    }
+
+    /**
+     * 概览统计聚合
+     */
+    private Map<String, Aggregation> overviewAggregations() {
+        Map<String, Aggregation> aggregations = new HashMap<>();
+
+        // 根据API文档修正聚合字段
+        // 1. 操作类型统计
+        aggregations.put("operation_count", Aggregation.of(a -> a
+            .terms(t -> t.field("attributes.gen_ai.operation.name").size(1000).missing("generic"))
+        ));
+
+        // 2. 模型统计
+        aggregations.put("model_count", Aggregation.of(a -> a
+            .terms(t -> t.field("attributes.gen_ai.request.model").size(1000))
+        ));
+
+        // 3. Token使用统计 - 按模型分组
+        aggregations.put("total_usage_tokens", Aggregation.of(a -> a
+            .terms(t -> t.field("attributes.gen_ai.request.model").size(1000))
+            .aggregations("total_tokens", Aggregation.of(sub -> sub
+                .sum(s -> s.field("usage.total_tokens"))
+            ))
+            .aggregations("input_tokens", Aggregation.of(sub -> sub
+                .sum(s -> s.field("usage.input_tokens"))
+            ))
+            .aggregations("output_tokens", Aggregation.of(sub -> sub
+                .sum(s -> s.field("usage.output_tokens"))
+            ))
+        ));
+
+        return aggregations;
+    }
+
     /**
      * 添加属性过滤条件
      */
@@ -1,12 +1,17 @@
 package com.alibaba.cloud.ai.studio.admin.repository.impl;
 
 import com.alibaba.cloud.ai.studio.admin.common.PageResult;
+import com.alibaba.cloud.ai.studio.admin.config.TracingQueryProperties;
 import com.alibaba.cloud.ai.studio.admin.dto.*;
 import com.alibaba.cloud.ai.studio.admin.dto.request.OverviewQueryRequest;
 import com.alibaba.cloud.ai.studio.admin.dto.request.ServicesQueryRequest;
 import com.alibaba.cloud.ai.studio.admin.dto.request.TracesQueryRequest;
 import com.alibaba.cloud.ai.studio.admin.repository.TracingRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
@@ -16,8 +21,12 @@ import co.elastic.clients.elasticsearch._types.aggregations.CardinalityAggregate
 import co.elastic.clients.elasticsearch._types.aggregations.ValueCountAggregate;
 import co.elastic.clients.elasticsearch._types.aggregations.SumAggregate;
 import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Repository
@@ -29,12 +38,39 @@ public class TracingRepositoryImpl implements TracingRepository {
     
     private final ElasticsearchClientWrapper elasticsearchClient;
     private final TracingQueryBuilder queryBuilder;
+    private final TraceRollupStore rollupStore;
+    private final SpanIngestionPipeline ingestionPipeline;
+    private final TracingQueryProperties properties;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    /**
+     * 相同查询在短时间内共享结果，并发的相同查询只执行一次。
+     * 写入 Span 时不清空缓存，新数据最迟在缓存过期后可见，避免持续写入时缓存始终失效
+     */
+    private Cache<List<Object>, Object> queryCache;
+
+    @PostConstruct
+    public void initQueryCache() {
+        Long ttlSeconds = properties.getCacheTtlSeconds();
+        if (ttlSeconds != null && ttlSeconds > 0) {
+            queryCache = CacheBuilder.newBuilder()
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .maximumSize(properties.getCacheMaxSize())
+                .build();
+        }
+    }
+
     @Override
     public PageResult<TraceSpanDTO> queryTraces(TracesQueryRequest request) {
         log.info("查询Traces列表: {}", request);
-        
+
+        List<Object> cacheKey = Arrays.asList("traces", request.getServiceName(), request.getTraceId(),
+            request.getSpanName(), request.getStartTime(), request.getEndTime(), request.getPageNumber(),
+            request.getPageSize(), request.getAttributes());
+        return cached(cacheKey, () -> searchTraces(request));
+    }
+
+    private PageResult<TraceSpanDTO> searchTraces(TracesQueryRequest request) {
         SearchRequest searchRequest = queryBuilder.buildTracesQuery(request);
         SearchResponse<Map> response = elasticsearchClient.search(TRACES_INDEX, searchRequest);
         
@@ -62,7 +98,15 @@ public class TracingRepositoryImpl implements TracingRepository {
     @Override
     public ServicesResponseDTO getServices(ServicesQueryRequest request) {
         log.info("查询服务列表: {}", request);
-        
+
+        List<Object> cacheKey = Arrays.asList("services", request.getStartTime(), request.getEndTime());
+        return cached(cacheKey, () -> {
+            TraceRollup rollup = queryRollup(request.getStartTime(), request.getEndTime());
+            return rollup != null ? rollup.toServices() : searchServices(request);
+        });
+    }
+
+    private ServicesResponseDTO searchServices(ServicesQueryRequest request) {
         SearchRequest searchRequest = queryBuilder.buildServicesQuery(request);
         SearchResponse<Map> response = elasticsearchClient.search(TRACES_INDEX, searchRequest);
         
@@ -99,7 +143,15 @@ public class TracingRepositoryImpl implements TracingRepository {
     @Override
     public OverviewStatsDTO getOverview(OverviewQueryRequest request) {
         log.info("查询概览统计: {}", request);
-        
+
+        List<Object> cacheKey = Arrays.asList("overview", request.getStartTime(), request.getEndTime());
+        return cached(cacheKey, () -> {
+            TraceRollup rollup = queryRollup(request.getStartTime(), request.getEndTime());
+            return rollup != null ? rollup.toOverview() : searchOverview(request);
+        });
+    }
+
+    private OverviewStatsDTO searchOverview(OverviewQueryRequest request) {
         SearchRequest searchRequest = queryBuilder.buildOverviewQuery(request);
         SearchResponse<Map> response = elasticsearchClient.search(TRACES_INDEX, searchRequest);
         
@@ -125,7 +177,45 @@ public class TracingRepositoryImpl implements TracingRepository {
             .map(this::convertToElasticsearchDoc)
             .collect(Collectors.toList());
         
-        elasticsearchClient.bulkIndex(TRACES_INDEX, documents);
+        if (ingestionPipeline.isEnabled()) {
+            ingestionPipeline.submit(documents);
+        } else {
+            elasticsearchClient.bulkIndex(TRACES_INDEX, documents);
+        }
+    }
+
+    /**
+     * 通过预聚合统计时间范围内的数据，未启用预聚合或时间无法解析时返回 null
+     */
+    private TraceRollup queryRollup(String startTime, String endTime) {
+        if (!Boolean.TRUE.equals(properties.getRollupEnabled())
+            || !StringUtils.hasText(startTime) || !StringUtils.hasText(endTime)) {
+            return null;
+        }
+        try {
+            long startMicros = java.time.Instant.parse(startTime).toEpochMilli() * 1000;
+            // 与实时查询的 lte 语义一致，结束时间本身也包含在内
+            long endMicros = java.time.Instant.parse(endTime).toEpochMilli() * 1000 + 1;
+            return rollupStore.query(startMicros, endMicros);
+        } catch (java.time.format.DateTimeParseException e) {
+            log.debug("时间范围无法解析，改为实时查询: {} - {}", startTime, endTime);
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T cached(List<Object> key, Supplier<T> loader) {
+        if (queryCache == null) {
+            return loader.get();
+        }
+        try {
+            return (T) queryCache.get(key, loader::get);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(e.getCause());
+        }
     }
 
     /**
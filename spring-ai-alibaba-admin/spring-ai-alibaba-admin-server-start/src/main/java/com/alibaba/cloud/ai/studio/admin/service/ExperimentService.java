@@ -4,6 +4,7 @@ import com.alibaba.cloud.ai.studio.admin.common.PageResult;
 import com.alibaba.cloud.ai.studio.admin.dto.Experiment;
 import com.alibaba.cloud.ai.studio.admin.dto.ExperimentEvaluatorResult;
 import com.alibaba.cloud.ai.studio.admin.dto.ExperimentEvaluatorResultDetail;
+import com.alibaba.cloud.ai.studio.admin.dto.ExperimentProgress;
 import com.alibaba.cloud.ai.studio.admin.dto.request.ExperimentCreateRequest;
 import com.alibaba.cloud.ai.studio.admin.dto.request.ExperimentEvaluatorResultDetailListRequest;
 import com.alibaba.cloud.ai.studio.admin.dto.request.ExperimentListRequest;
@@ -53,6 +54,11 @@ public interface ExperimentService {
      */
     void restartById(Long id);
 
+    /**
+     * 获取实验实时执行进度
+     */
+    ExperimentProgress getProgress(Long id);
+
     /**
      * 获取使用指定评估器的实验列表
      *
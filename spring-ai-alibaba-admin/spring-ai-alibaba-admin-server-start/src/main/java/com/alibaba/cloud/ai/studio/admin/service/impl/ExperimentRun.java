@@ -0,0 +1,149 @@
+package com.alibaba.cloud.ai.studio.admin.service.impl;
+
+import com.alibaba.cloud.ai.studio.admin.dto.ExperimentProgress;
+import com.alibaba.cloud.ai.studio.admin.entity.ExperimentResultDO;
+import com.alibaba.cloud.ai.studio.admin.enums.ExperimentStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 单次实验执行的运行时状态：实时进度计数、停止标记以及待批量写入的实验结果。
+ */
+class ExperimentRun {
+
+    private final Long experimentId;
+
+    private final int resultBatchSize;
+
+    private final long progressUpdateIntervalMillis;
+
+    private final LocalDateTime startTime = LocalDateTime.now();
+
+    private final long startNanos = System.nanoTime();
+
+    private final AtomicInteger completedItems = new AtomicInteger();
+
+    private final AtomicInteger failedItems = new AtomicInteger();
+
+    private final AtomicInteger inFlightItems = new AtomicInteger();
+
+    private final AtomicLong savedResults = new AtomicLong();
+
+    private final AtomicLong lastProgressUpdate = new AtomicLong();
+
+    private final List<ExperimentResultDO> pendingResults = new ArrayList<>();
+
+    private volatile int totalItems;
+
+    private volatile int skippedItems;
+
+    private volatile boolean stopped;
+
+    ExperimentRun(Long experimentId, int resultBatchSize, long progressUpdateIntervalMillis) {
+        this.experimentId = experimentId;
+        this.resultBatchSize = resultBatchSize;
+        this.progressUpdateIntervalMillis = progressUpdateIntervalMillis;
+    }
+
+    Long getExperimentId() {
+        return experimentId;
+    }
+
+    void begin(int totalItems, int skippedItems) {
+        this.totalItems = totalItems;
+        this.skippedItems = skippedItems;
+    }
+
+    void stop() {
+        this.stopped = true;
+    }
+
+    boolean isStopped() {
+        return stopped;
+    }
+
+    void itemStarted() {
+        inFlightItems.incrementAndGet();
+    }
+
+    void itemFinished(boolean success) {
+        inFlightItems.decrementAndGet();
+        if (success) {
+            completedItems.incrementAndGet();
+        } else {
+            failedItems.incrementAndGet();
+        }
+    }
+
+    /**
+     * 缓存一个数据项的实验结果，缓存达到批量大小时返回需要写入的一批结果，否则返回空列表
+     */
+    List<ExperimentResultDO> addResults(List<ExperimentResultDO> results) {
+        synchronized (pendingResults) {
+            pendingResults.addAll(results);
+            if (pendingResults.size() < resultBatchSize) {
+                return List.of();
+            }
+            return drainPending();
+        }
+    }
+
+    /**
+     * 取出所有尚未写入的实验结果
+     */
+    List<ExperimentResultDO> drainResults() {
+        synchronized (pendingResults) {
+            return drainPending();
+        }
+    }
+
+    private List<ExperimentResultDO> drainPending() {
+        List<ExperimentResultDO> batch = new ArrayList<>(pendingResults);
+        pendingResults.clear();
+        return batch;
+    }
+
+    void resultsSaved(int count) {
+        savedResults.addAndGet(count);
+    }
+
+    /**
+     * 距上次写回进度超过间隔时返回 true，保证同一时刻只有一个线程写回
+     */
+    boolean shouldUpdateProgress() {
+        long now = System.currentTimeMillis();
+        long last = lastProgressUpdate.get();
+        return now - last >= progressUpdateIntervalMillis && lastProgressUpdate.compareAndSet(last, now);
+    }
+
+    int progressPercent() {
+        if (totalItems <= 0) {
+            return 0;
+        }
+        int processed = skippedItems + completedItems.get() + failedItems.get();
+        return Math.min(100, processed * 100 / totalItems);
+    }
+
+    ExperimentProgress toProgress(ExperimentStatus status) {
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        int processed = completedItems.get() + failedItems.get();
+        return ExperimentProgress.builder()
+                .experimentId(experimentId)
+                .status(stopped ? ExperimentStatus.STOPPED.getCode() : status.getCode())
+                .progress(progressPercent())
+                .active(true)
+                .totalItems(totalItems)
+                .completedItems(completedItems.get())
+                .failedItems(failedItems.get())
+                .skippedItems(skippedItems)
+                .inFlightItems(inFlightItems.get())
+                .savedResults(savedResults.get())
+                .itemsPerSecond(elapsedSeconds > 0 ? processed / elapsedSeconds : 0.0)
+                .startTime(startTime)
+                .build();
+    }
+}
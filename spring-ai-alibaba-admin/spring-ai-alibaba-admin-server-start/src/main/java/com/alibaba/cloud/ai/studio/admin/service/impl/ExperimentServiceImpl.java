@@ -1,6 +1,7 @@
 package com.alibaba.cloud.ai.studio.admin.service.impl;
 
 import com.alibaba.cloud.ai.studio.admin.common.PageResult;
+import com.alibaba.cloud.ai.studio.admin.config.ExperimentProperties;
 import com.alibaba.cloud.ai.studio.admin.dto.*;
 import com.alibaba.cloud.ai.studio.admin.dto.request.*;
 import com.alibaba.cloud.ai.studio.admin.entity.*;
@@ -12,10 +13,16 @@ import com.alibaba.cloud.ai.studio.admin.utils.CommonUtils;
 import com.alibaba.cloud.ai.studio.admin.utils.ModelConfigParser;
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONObject;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -24,12 +31,19 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import static com.alibaba.cloud.ai.studio.admin.utils.SessionUtils.convertChatMessages;
 
@@ -39,6 +53,8 @@ import static com.alibaba.cloud.ai.studio.admin.utils.SessionUtils.convertChatMe
 @RequiredArgsConstructor
 public class ExperimentServiceImpl implements ExperimentService {
 
+    private static final int RESUME_LIMIT = 1000;
+
     private final ExperimentMapper experimentMapper;
     private final ExperimentResultMapper experimentResultMapper;
     private final DatasetVersionMapper datasetVersionMapper;
@@ -46,6 +62,7 @@ public class ExperimentServiceImpl implements ExperimentService {
     private final EvaluatorVersionMapper evaluatorVersionMapper;
     private final DatasetItemMapper datasetItemMapper;
     private final ModelConfigParser modelConfigParser;
+    private final ExperimentProperties experimentProperties;
 
 
     @Autowired
@@ -57,8 +74,87 @@ public class ExperimentServiceImpl implements ExperimentService {
     @Autowired
     private EvaluatorServiceImpl evaluatorServiceImpl;
 
-    // 创建线程池用于异步执行实验
-    private final ExecutorService experimentExecutor = Executors.newFixedThreadPool(5);
+    // 实验协调线程池，每个实验占用一个线程负责调度数据项
+    private ExecutorService experimentExecutor;
+
+    // 数据项执行线程池，单个实验的并发由信号量控制
+    private ExecutorService itemExecutor;
+
+    // 按模型维度限流，避免并发执行时打满模型配额
+    private final Map<String, RateLimiter> modelRateLimiters = new ConcurrentHashMap<>();
+
+    // 本节点正在执行的实验
+    private final Map<Long, ExperimentRun> runningExperiments = new ConcurrentHashMap<>();
+
+    // 本节点标识，作为实验执行租约的持有者
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // 续期执行租约并接管无人执行的实验
+    private ScheduledExecutorService leaseExecutor;
+
+    @PostConstruct
+    public void initExecutors() {
+        int maxRunningExperiments = experimentProperties.getMaxRunningExperiments();
+        this.experimentExecutor = Executors.newFixedThreadPool(maxRunningExperiments,
+                new ThreadFactoryBuilder().setNameFormat("experiment-runner-%d").setDaemon(true).build());
+        this.itemExecutor = Executors.newFixedThreadPool(maxRunningExperiments * experimentProperties.getItemConcurrency(),
+                new ThreadFactoryBuilder().setNameFormat("experiment-item-%d").setDaemon(true).build());
+        this.leaseExecutor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("experiment-lease-%d").setDaemon(true).build());
+    }
+
+    @PreDestroy
+    public void shutdownExecutors() {
+        leaseExecutor.shutdownNow();
+        runningExperiments.values().forEach(ExperimentRun::stop);
+        experimentExecutor.shutdownNow();
+        itemExecutor.shutdownNow();
+        // 立即释放租约，其他节点无需等待租约过期即可接管
+        runningExperiments.keySet().forEach(this::releaseLease);
+    }
+
+    /**
+     * 服务启动完成后开始定期续期执行租约，并接管没有节点执行的运行中实验
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startLeaseMaintenance() {
+        long interval = Math.max(1L, experimentProperties.getLeaseSeconds() / 3);
+        leaseExecutor.scheduleWithFixedDelay(this::maintainLeases, 0, interval, TimeUnit.SECONDS);
+    }
+
+    void maintainLeases() {
+        runningExperiments.forEach((experimentId, run) -> {
+            try {
+                if (experimentMapper.claimLease(experimentId, nodeId, experimentProperties.getLeaseSeconds()) == 0) {
+                    log.warn("实验 {} 的执行租约已被其他节点接管，停止本节点的执行", experimentId);
+                    run.stop();
+                }
+            } catch (Exception e) {
+                log.error("续期实验执行租约失败: {}", experimentId, e);
+            }
+        });
+        resumeRunningExperiments();
+    }
+
+    /**
+     * 继续执行没有节点执行的运行中实验，已完成的数据项会被跳过。
+     * 多个节点同时尝试时只有获得执行租约的节点会执行
+     */
+    void resumeRunningExperiments() {
+        if (!Boolean.TRUE.equals(experimentProperties.getResumeOnStartup())) {
+            return;
+        }
+        try {
+            List<ExperimentDO> experiments = experimentMapper.selectUnownedRunning(RESUME_LIMIT);
+            experiments.forEach(experimentDO -> {
+                if (startExperimentExecution(experimentDO)) {
+                    log.info("继续执行未完成的实验: {}", experimentDO.getId());
+                }
+            });
+        } catch (Exception e) {
+            log.error("恢复运行中的实验失败", e);
+        }
+    }
 
 
     @Override
@@ -291,6 +387,11 @@ public class ExperimentServiceImpl implements ExperimentService {
             throw new RuntimeException("Failed to stop experiment");
         }
         
+        ExperimentRun run = runningExperiments.get(id);
+        if (run != null) {
+            run.stop();
+        }
+
         log.info("实验停止成功: {}", id);
         return Experiment.fromDO(experimentDO);
     }
@@ -329,64 +430,137 @@ public class ExperimentServiceImpl implements ExperimentService {
 
     @Override
     public void restartById(Long id) {
+        if (runningExperiments.containsKey(id)) {
+            throw new IllegalStateException("Cannot restart running experiment: " + id);
+        }
+        ExperimentDO experimentDO = experimentMapper.selectById(id);
+        if (experimentDO == null) {
+            throw new IllegalArgumentException("Experiment not found: " + id);
+        }
+        if (!claimLease(id)) {
+            throw new IllegalStateException("Cannot restart experiment running on another node: " + id);
+        }
         //清理历史数据
         experimentResultMapper.deleteByExperimentId(id);
         //实验执行
-
-        ExperimentDO experimentDO = experimentMapper.selectById(id);
+        updateExperimentStatus(id, ExperimentStatus.RUNNING, 0);
 
         startExperimentExecution(experimentDO);
 
 
     }
 
+    @Override
+    public ExperimentProgress getProgress(Long id) {
+        if (id == null) {
+            throw new IllegalArgumentException("Experiment ID cannot be null");
+        }
+
+        ExperimentRun run = runningExperiments.get(id);
+        if (run != null) {
+            return run.toProgress(ExperimentStatus.RUNNING);
+        }
+
+        ExperimentDO experimentDO = experimentMapper.selectById(id);
+        if (experimentDO == null) {
+            return null;
+        }
+        return ExperimentProgress.builder()
+                .experimentId(id)
+                .status(experimentDO.getStatus())
+                .progress(experimentDO.getProgress())
+                .active(false)
+                .build();
+    }
+
 
 
     /**
-     * 启动实验执行
+     * 获得实验执行租约后启动实验执行
+     *
+     * @return 是否由本节点启动执行
      */
-    private void startExperimentExecution(ExperimentDO experimentDO)  {
+    private boolean startExperimentExecution(ExperimentDO experimentDO)  {
+        Long experimentId = experimentDO.getId();
+        ExperimentRun run = new ExperimentRun(experimentId, experimentProperties.getResultBatchSize(),
+                experimentProperties.getProgressUpdateIntervalMillis());
+        if (runningExperiments.putIfAbsent(experimentId, run) != null) {
+            log.warn("实验 {} 已在执行中", experimentId);
+            return false;
+        }
+        if (!claimLease(experimentId)) {
+            log.info("实验 {} 由其他节点执行", experimentId);
+            runningExperiments.remove(experimentId, run);
+            return false;
+        }
         try {
             experimentExecutor.submit(
                     ()->{
                         try {
-                            executeExperiment (experimentDO);
+                            executeExperiment(experimentDO, run);
                         } catch (Exception e) {
-                            log.error("实验执行过程中发生错误: {}", experimentDO.getId(), e);
-                            updateExperimentStatus(experimentDO.getId(), ExperimentStatus.FAILED, null);
+                            log.error("实验执行过程中发生错误: {}", experimentId, e);
+                            updateExperimentStatus(experimentId, ExperimentStatus.FAILED, null);
+                        } finally {
+                            runningExperiments.remove(experimentId, run);
+                            releaseLease(experimentId);
                         }
                     }
             );
 
-            log.info("实验执行任务已启动: {}", experimentDO.getId());
+            log.info("实验执行任务已启动: {}", experimentId);
+            return true;
 
         } catch (Exception e) {
-            log.error("启动实验执行失败: {}", experimentDO.getId(), e);
+            log.error("启动实验执行失败: {}", experimentId, e);
+            runningExperiments.remove(experimentId, run);
+            releaseLease(experimentId);
 
             // 更新实验状态为失败
-            updateExperimentStatus(experimentDO.getId(), ExperimentStatus.FAILED, null);
+            updateExperimentStatus(experimentId, ExperimentStatus.FAILED, null);
+            return false;
+        }
+    }
+
+    /**
+     * 获取或续期实验执行租约
+     */
+    private boolean claimLease(Long experimentId) {
+        try {
+            return experimentMapper.claimLease(experimentId, nodeId, experimentProperties.getLeaseSeconds()) > 0;
+        } catch (Exception e) {
+            log.error("获取实验执行租约失败: {}", experimentId, e);
+            return false;
+        }
+    }
+
+    private void releaseLease(Long experimentId) {
+        try {
+            experimentMapper.releaseLease(experimentId, nodeId);
+        } catch (Exception e) {
+            log.warn("释放实验执行租约失败: {}", experimentId, e);
         }
     }
 
     /**
      * 执行实验的核心逻辑
      */
-    private void executeExperiment(ExperimentDO experimentDO) throws StudioException {
+    private void executeExperiment(ExperimentDO experimentDO, ExperimentRun run) throws StudioException {
         log.info("开始执行实验: {}", experimentDO.getId());
 
         //解析实验 目标 配置
 
         EvaluationObjectConfig evaluationObjectConfig = JSONObject.parseObject(experimentDO.getEvaluationObjectConfig(),EvaluationObjectConfig.class);
         if(evaluationObjectConfig.getType().equals("prompt")){
-            promptEvaluation(experimentDO);
+            promptEvaluation(experimentDO, evaluationObjectConfig, run);
 
         }
     }
 
 
 
-    private void promptEvaluation(ExperimentDO experimentDO) throws StudioException {
-        EvaluationObjectConfig evaluationObjectConfig = JSONObject.parseObject(experimentDO.getEvaluationObjectConfig(),EvaluationObjectConfig.class);
+    private void promptEvaluation(ExperimentDO experimentDO, EvaluationObjectConfig evaluationObjectConfig,
+                                  ExperimentRun run) throws StudioException {
         EvaluationPromptConfig evaluationPromptConfig = JSONObject.parseObject(evaluationObjectConfig.getConfig(),EvaluationPromptConfig.class);
 
         Long experimentId = experimentDO.getId();
@@ -406,57 +580,169 @@ public class ExperimentServiceImpl implements ExperimentService {
             return;
         }
 
+        // 评估器配置与评估器版本在实验开始时只加载一次
+        List<EvaluatorConfig> evaluatorConfigs = JSON.parseArray(experimentDO.getEvaluatorConfig(), EvaluatorConfig.class);
+        Map<Long, EvaluatorVersionDO> evaluatorVersions = loadEvaluatorVersions(evaluatorConfigs);
+
+        // 断点续跑：跳过已经完成全部评估器的数据项
+        Set<Long> completedItemIds = new HashSet<>(
+                experimentResultMapper.selectCompletedItemIds(experimentId, evaluatorVersions.size()));
+
         int totalItems = datasetItems.size();
-        AtomicInteger processedItems = new AtomicInteger(0);
+        run.begin(totalItems, (int) datasetItems.stream().filter(item -> completedItemIds.contains(item.getId())).count());
 
-        log.info("实验 {} 开始处理 {} 个数据项", experimentId, totalItems);
+        log.info("实验 {} 开始处理 {} 个数据项，跳过已完成 {} 个", experimentId, totalItems, completedItemIds.size());
 
 
         PromptVersionDetail prompt = promptVersionService.getByPromptKeyAndVersion(evaluationPromptConfig.getPromptKey(),evaluationPromptConfig.getVersion());
 
+        int itemConcurrency = experimentProperties.getItemConcurrency();
+        Semaphore permits = new Semaphore(itemConcurrency);
 
         for (DatasetItemDO datasetItem : datasetItems) {
+            if (completedItemIds.contains(datasetItem.getId())) {
+                continue;
+            }
             try {
-                // 检查实验是否被停止
-                if (isExperimentStopped(experimentId)) {
-                    log.info("实验 {} 已被停止", experimentId);
-                    return;
-                }
-
-
-                JSONObject dataContent = JSONObject.parseObject(datasetItem.getDataContent());
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                run.stop();
+                break;
+            }
+            // 检查实验是否被停止
+            if (run.isStopped()) {
+                permits.release();
+                break;
+            }
 
+            run.itemStarted();
+            try {
+                itemExecutor.execute(() -> {
+                    boolean success = false;
+                    try {
+                        success = processDatasetItem(run, prompt, evaluationPromptConfig, evaluatorConfigs,
+                                evaluatorVersions, datasetItem);
+                    } catch (Exception e) {
+                        log.error("处理数据项失败: experimentId={}, itemId={}", experimentId, datasetItem.getId(), e);
+                        // 继续处理下一个数据项，不中断整个实验
+                    } finally {
+                        run.itemFinished(success);
+                        permits.release();
+                        reportProgress(run);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                run.itemFinished(false);
+                permits.release();
+                throw e;
+            }
+        }
 
-                String actualOutput = getPromptResult(prompt, dataContent, evaluationPromptConfig);
+        // 等待所有处理中的数据项完成后写入剩余结果
+        permits.acquireUninterruptibly(itemConcurrency);
+        flushResults(run, run.drainResults());
 
+        if (run.isStopped()) {
+            log.info("实验 {} 已被停止", experimentId);
+            updateExperimentProgress(experimentId, run.progressPercent());
+            return;
+        }
 
-                List<EvaluatorConfig> evaluatorConfigs = JSON.parseArray(experimentDO.getEvaluatorConfig(), EvaluatorConfig.class);
+        // 实验完成
+        log.info("实验 {} 执行完成，共处理 {} 个数据项", experimentId, totalItems);
+        updateExperimentStatus(experimentId, ExperimentStatus.COMPLETED, 100);
 
-                evaluatorConfigs.forEach(
-                        evaluatorConfig -> {
-                            EvaluatorDebugResult debugResult= getEvaluatorResult(evaluatorConfig,dataContent,actualOutput);
-                            saveExperimentResult(experimentId, datasetItem.getId(), dataContent.getString("input"), actualOutput, dataContent.getString("reference_output"), debugResult.getScore(), debugResult.getReason(), evaluatorConfig.getEvaluatorVersionId());
-                        }
+    }
 
-                );
+    /**
+     * 处理单个数据项：调用评测对象后依次执行所有评估器，结果进入批量写入缓存
+     *
+     * @return 数据项是否处理完成
+     */
+    private boolean processDatasetItem(ExperimentRun run, PromptVersionDetail prompt,
+                                       EvaluationPromptConfig evaluationPromptConfig,
+                                       List<EvaluatorConfig> evaluatorConfigs,
+                                       Map<Long, EvaluatorVersionDO> evaluatorVersions,
+                                       DatasetItemDO datasetItem) {
+        if (run.isStopped()) {
+            return false;
+        }
+        JSONObject dataContent = JSONObject.parseObject(datasetItem.getDataContent());
 
+        acquireModelPermit(prompt.getModelConfig());
+        String actualOutput = getPromptResult(prompt, dataContent, evaluationPromptConfig);
 
-                // 更新进度
-                int currentProgress = (processedItems.incrementAndGet() * 100) / totalItems;
-                updateExperimentProgress(experimentId, currentProgress);
+        List<ExperimentResultDO> results = new ArrayList<>(evaluatorConfigs.size());
+        for (EvaluatorConfig evaluatorConfig : evaluatorConfigs) {
+            if (run.isStopped()) {
+                return false;
+            }
+            EvaluatorVersionDO evaluatorVersionDO = evaluatorVersions.get(evaluatorConfig.getEvaluatorVersionId());
+            acquireModelPermit(evaluatorVersionDO.getModelConfig());
+            EvaluatorDebugResult debugResult = getEvaluatorResult(evaluatorConfig, evaluatorVersionDO, dataContent, actualOutput);
+            ExperimentResultDO resultDO = buildExperimentResult(run.getExperimentId(), datasetItem.getId(),
+                    dataContent.getString("input"), actualOutput, dataContent.getString("reference_output"),
+                    debugResult.getScore(), debugResult.getReason(), evaluatorConfig.getEvaluatorVersionId());
+            if (resultDO != null) {
+                results.add(resultDO);
+            }
+        }
 
-                log.debug("实验 {} 进度: {}/{} ({}%)", experimentId, processedItems.get(), totalItems, currentProgress);
+        flushResults(run, run.addResults(results));
+        return true;
+    }
 
-            } catch (Exception e) {
-                log.error("处理数据项失败: experimentId={}, itemId={}", experimentId, datasetItem.getId(), e);
-                // 继续处理下一个数据项，不中断整个实验
+    /**
+     * 批量加载实验使用的评估器版本
+     */
+    private Map<Long, EvaluatorVersionDO> loadEvaluatorVersions(List<EvaluatorConfig> evaluatorConfigs) {
+        Map<Long, EvaluatorVersionDO> evaluatorVersions = new HashMap<>();
+        for (EvaluatorConfig evaluatorConfig : evaluatorConfigs) {
+            Long evaluatorVersionId = evaluatorConfig.getEvaluatorVersionId();
+            if (evaluatorVersions.containsKey(evaluatorVersionId)) {
+                continue;
             }
+            EvaluatorVersionDO evaluatorVersionDO = evaluatorVersionMapper.selectById(evaluatorVersionId);
+            if (evaluatorVersionDO == null) {
+                throw new IllegalArgumentException("Evaluator version not found: " + evaluatorVersionId);
+            }
+            evaluatorVersions.put(evaluatorVersionId, evaluatorVersionDO);
         }
+        return evaluatorVersions;
+    }
 
-        // 实验完成
-        log.info("实验 {} 执行完成，共处理 {} 个数据项", experimentId, totalItems);
-        updateExperimentStatus(experimentId, ExperimentStatus.COMPLETED, 100);
+    /**
+     * 按模型获取调用许可，模型配置中的 modelId 作为限流维度
+     */
+    private void acquireModelPermit(String modelConfig) {
+        String modelKey = "default";
+        try {
+            JSONObject config = JSONObject.parseObject(modelConfig);
+            if (config != null && config.getString("modelId") != null) {
+                modelKey = config.getString("modelId");
+            }
+        } catch (Exception e) {
+            log.debug("解析模型配置失败，使用默认限流: {}", modelConfig);
+        }
+        modelRateLimiters.computeIfAbsent(modelKey,
+                key -> RateLimiter.create(experimentProperties.getModelPermitsPerSecond())).acquire();
+    }
 
+    /**
+     * 距上次写回超过间隔时更新数据库中的实验进度，并同步其他节点发起的停止操作
+     */
+    private void reportProgress(ExperimentRun run) {
+        if (!run.shouldUpdateProgress()) {
+            return;
+        }
+        if (isExperimentStopped(run.getExperimentId())) {
+            run.stop();
+            return;
+        }
+        int currentProgress = run.progressPercent();
+        updateExperimentProgress(run.getExperimentId(), currentProgress);
+        log.debug("实验 {} 进度: {}%", run.getExperimentId(), currentProgress);
     }
 
 
@@ -505,12 +791,11 @@ public class ExperimentServiceImpl implements ExperimentService {
     }
 
 
-    private EvaluatorDebugResult getEvaluatorResult(EvaluatorConfig evaluatorConfig, JSONObject dataContent,String actualOutput) {
+    private EvaluatorDebugResult getEvaluatorResult(EvaluatorConfig evaluatorConfig, EvaluatorVersionDO evaluatorVersionDO,
+                                                    JSONObject dataContent, String actualOutput) {
 
         EvaluatorTestRequest request = new EvaluatorTestRequest();
 
-        EvaluatorVersionDO evaluatorVersionDO = evaluatorVersionMapper.selectById(evaluatorConfig.getEvaluatorVersionId());
-
         JSONObject variables = JSONObject.parseObject(evaluatorVersionDO.getVariables());
 
         evaluatorConfig.getVariableMap().forEach(
@@ -534,14 +819,15 @@ public class ExperimentServiceImpl implements ExperimentService {
 
 
     /**
-     * 保存实验结果
+     * 构建实验结果
      */
-    private void saveExperimentResult(Long experimentId, Long datasetItemId,
-                                      String input, String actualOutput, String referenceOutput,
-                                      String score, String reason, Long evaluatorVersionId) {
+    private ExperimentResultDO buildExperimentResult(Long experimentId, Long datasetItemId,
+                                                     String input, String actualOutput, String referenceOutput,
+                                                     String score, String reason, Long evaluatorVersionId) {
         try {
-            ExperimentResultDO resultDO = ExperimentResultDO.builder()
+            return ExperimentResultDO.builder()
                     .experimentId(experimentId)
+                    .datasetItemId(datasetItemId)
                     .input(input)
                     .actualOutput(actualOutput)
                     .referenceOutput(referenceOutput)
@@ -552,15 +838,25 @@ public class ExperimentServiceImpl implements ExperimentService {
                     .createTime(LocalDateTime.now())
                     .updateTime(LocalDateTime.now())
                     .build();
-            
-            // 使用批量插入方法，将单个结果包装成列表
-            List<ExperimentResultDO> results = new ArrayList<>();
-            results.add(resultDO);
+        } catch (Exception e) {
+            log.error("构建实验结果失败: experimentId={}, itemId={}, score={}", experimentId, datasetItemId, score, e);
+            return null;
+        }
+    }
+
+    /**
+     * 批量保存实验结果
+     */
+    private void flushResults(ExperimentRun run, List<ExperimentResultDO> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        try {
             experimentResultMapper.batchInsert(results);
-            log.debug("保存实验结果成功: experimentId={}, itemId={}", experimentId, datasetItemId);
-            
+            run.resultsSaved(results.size());
+            log.debug("保存实验结果成功: experimentId={}, count={}", run.getExperimentId(), results.size());
         } catch (Exception e) {
-            log.error("保存实验结果失败: experimentId={}, itemId={}", experimentId, datasetItemId, e);
+            log.error("保存实验结果失败: experimentId={}, count={}", run.getExperimentId(), results.size(), e);
         }
     }
 
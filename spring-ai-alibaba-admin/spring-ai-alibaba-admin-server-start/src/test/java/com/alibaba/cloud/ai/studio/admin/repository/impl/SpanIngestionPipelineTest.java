@@ -0,0 +1,211 @@
+package com.alibaba.cloud.ai.studio.admin.repository.impl;
+
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import com.alibaba.cloud.ai.studio.admin.config.TracingIngestProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("SpanIngestionPipeline spill and replay Tests")
+class SpanIngestionPipelineTest {
+
+	@TempDir
+	Path spillDirectory;
+
+	private final ElasticsearchClientWrapper elasticsearchClient = mock(ElasticsearchClientWrapper.class);
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	// Ids of the spans of every bulk request, in request order
+	private final List<List<Object>> requests = Collections.synchronizedList(new ArrayList<>());
+
+	private TracingIngestProperties properties;
+
+	private SpanIngestionPipeline pipeline;
+
+	@BeforeEach
+	void setUp() {
+		properties = new TracingIngestProperties();
+		properties.setBufferCapacity(1);
+		properties.setBatchSize(1);
+		properties.setFlushIntervalMillis(20L);
+		properties.setMaxInFlightRequests(1);
+		properties.setSpillDirectory(spillDirectory.toString());
+		properties.setSpillRetryIntervalMillis(50L);
+		pipeline = new SpanIngestionPipeline(elasticsearchClient, properties, meterRegistry);
+	}
+
+	@AfterEach
+	void tearDown() {
+		pipeline.shutdown();
+	}
+
+	@Test
+	@DisplayName("Spans that do not fit the full queue are spilled and replayed")
+	void fullQueueSpillsAndReplays() throws Exception {
+		CountDownLatch firstRequest = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(elasticsearchClient.bulk(eq("loongsuite_traces"), any())).thenAnswer(invocation -> {
+			List<Map<String, Object>> batch = invocation.getArgument(1);
+			record(batch);
+			firstRequest.countDown();
+			release.await();
+			return success();
+		});
+		pipeline.start();
+
+		// The first span is being written and holds the only request slot
+		pipeline.submit(List.of(span(1)));
+		assertTrue(firstRequest.await(5, TimeUnit.SECONDS));
+		// The second span waits in the flusher for the slot, the third fills the queue
+		pipeline.submit(List.of(span(2)));
+		await(() -> gauge("tracing.ingest.queue.depth") == 0);
+		pipeline.submit(List.of(span(3), span(4)));
+
+		assertEquals(1, counter("tracing.ingest.spans.spilled"));
+		assertTrue(gauge("tracing.ingest.spill.bytes") > 0);
+
+		release.countDown();
+		await(() -> counter("tracing.ingest.spans.indexed") == 4);
+		assertEquals(List.of(List.of(1), List.of(2), List.of(3), List.of(4)), requests);
+		await(() -> gauge("tracing.ingest.spill.bytes") == 0);
+		assertEquals(0, counter("tracing.ingest.spans.dropped"));
+	}
+
+	@Test
+	@DisplayName("A partially sent segment keeps only the unsent spans")
+	void partiallySentSegmentIsRewritten() throws Exception {
+		properties.setBatchSize(2);
+		writeSegment(1, 2, 3, 4, 5);
+		when(elasticsearchClient.bulk(eq("loongsuite_traces"), any())).thenAnswer(invocation -> {
+			List<Map<String, Object>> batch = invocation.getArgument(1);
+			record(batch);
+			if (requests.size() == 2) {
+				throw new IOException("unavailable");
+			}
+			return success();
+		});
+		pipeline.start();
+
+		await(() -> gauge("tracing.ingest.spill.bytes") == 0);
+
+		// The failed batch and the spans after it are replayed after the retry interval
+		assertEquals(List.of(List.of(1, 2), List.of(3, 4), List.of(3, 4), List.of(5)), requests);
+		assertEquals(5, counter("tracing.ingest.spans.indexed"));
+		assertEquals(List.of(), segments());
+	}
+
+	@Test
+	@DisplayName("Corrupt spill lines are dropped without blocking the segment")
+	void corruptSpillLineIsSkipped() throws Exception {
+		properties.setBatchSize(10);
+		Files.writeString(spillDirectory.resolve("spans-00000000000000000000.ndjson"),
+				"{\"id\":1}\n{\"id\":2,\"na\n{\"id\":3}\n", StandardCharsets.UTF_8);
+		when(elasticsearchClient.bulk(eq("loongsuite_traces"), any())).thenAnswer(invocation -> {
+			List<Map<String, Object>> batch = invocation.getArgument(1);
+			record(batch);
+			return success();
+		});
+		pipeline.start();
+
+		await(() -> gauge("tracing.ingest.spill.bytes") == 0);
+
+		assertEquals(List.of(List.of(1, 3)), requests);
+		assertEquals(1, counter("tracing.ingest.spans.dropped"));
+		assertEquals(List.of(), segments());
+	}
+
+	@Test
+	@DisplayName("Shutdown spills the spans that could not be written")
+	void shutdownDrainsToDisk() throws Exception {
+		properties.setBufferCapacity(100);
+		properties.setBatchSize(10);
+		properties.setSpillRetryIntervalMillis(60_000L);
+		when(elasticsearchClient.bulk(eq("loongsuite_traces"), any())).thenThrow(new IOException("unavailable"));
+		pipeline.start();
+
+		pipeline.submit(List.of(span(1), span(2), span(3), span(4), span(5)));
+		pipeline.shutdown();
+
+		List<Integer> spilled = new ArrayList<>();
+		for (Path segment : segments()) {
+			for (String line : Files.readAllLines(segment, StandardCharsets.UTF_8)) {
+				spilled.add(Integer.valueOf(line.replaceAll("\\D", "")));
+			}
+		}
+		Collections.sort(spilled);
+		assertEquals(List.of(1, 2, 3, 4, 5), spilled);
+		assertEquals(0, counter("tracing.ingest.spans.dropped"));
+	}
+
+	private void record(List<Map<String, Object>> batch) {
+		requests.add(batch.stream().map(document -> document.get("id")).toList());
+	}
+
+	private void writeSegment(int... ids) throws IOException {
+		StringBuilder content = new StringBuilder();
+		for (int id : ids) {
+			content.append("{\"id\":").append(id).append("}\n");
+		}
+		Files.writeString(spillDirectory.resolve("spans-00000000000000000000.ndjson"), content,
+				StandardCharsets.UTF_8);
+	}
+
+	private List<Path> segments() throws IOException {
+		try (Stream<Path> files = Files.list(spillDirectory)) {
+			return files.filter(file -> file.getFileName().toString().endsWith(".ndjson")).sorted().toList();
+		}
+	}
+
+	private double counter(String name) {
+		return meterRegistry.get(name).counter().count();
+	}
+
+	private double gauge(String name) {
+		return meterRegistry.get(name).gauge().value();
+	}
+
+	private static Map<String, Object> span(int id) {
+		return Map.of("id", id);
+	}
+
+	private static BulkResponse success() {
+		return BulkResponse.of(response -> response.errors(false).took(1).items(List.of()));
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			if (System.nanoTime() > deadline) {
+				fail("condition not met within 5 seconds");
+			}
+			Thread.sleep(10);
+		}
+	}
+
+}
@@ -0,0 +1,122 @@
+package com.alibaba.cloud.ai.studio.admin.repository.impl;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.HistogramBucket;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import com.alibaba.cloud.ai.studio.admin.config.TracingQueryProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("TraceRollupStore late span Tests")
+class TraceRollupStoreTest {
+
+	private static final long MINUTE_MILLIS = 60_000L;
+
+	@Mock
+	private ElasticsearchClientWrapper elasticsearchClient;
+
+	@Mock
+	private TracingQueryBuilder queryBuilder;
+
+	private TraceRollupStore store;
+
+	private AutoCloseable mocks;
+
+	/** Minute holding the spans, a few minutes before the watermark */
+	private long spanMinute;
+
+	/** Number of spans Elasticsearch currently holds in that minute */
+	private final AtomicLong spanCount = new AtomicLong();
+
+	private final long[] rolledRange = new long[2];
+
+	@BeforeEach
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	void setUp() {
+		mocks = MockitoAnnotations.openMocks(this);
+		TracingQueryProperties properties = new TracingQueryProperties();
+		properties.setRollupLagSeconds(0L);
+		properties.setRollupBackfillHours(1);
+		properties.setRollupRerollMinutes(10);
+		store = new TraceRollupStore(elasticsearchClient, queryBuilder, properties);
+
+		long now = System.currentTimeMillis();
+		spanMinute = now - now % MINUTE_MILLIS - 5 * MINUTE_MILLIS;
+
+		when(queryBuilder.buildRollupQuery(anyLong(), anyLong(), eq(true))).thenAnswer(invocation -> {
+			rolledRange[0] = invocation.getArgument(0, Long.class) / 1000;
+			rolledRange[1] = invocation.getArgument(1, Long.class) / 1000;
+			return null;
+		});
+		when(elasticsearchClient.search(eq("loongsuite_traces"), any())).thenAnswer(invocation -> {
+			SearchResponse response = mock(SearchResponse.class);
+			boolean inRange = spanMinute >= rolledRange[0] && spanMinute < rolledRange[1];
+			when(response.aggregations()).thenReturn(
+					Map.of("minutes", minutesAggregate(inRange ? spanCount.get() : 0)));
+			return response;
+		});
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		mocks.close();
+	}
+
+	@Test
+	@DisplayName("Spans written after a minute was rolled up are counted on the next refresh")
+	void lateSpansAreRolledUpAgain() {
+		spanCount.set(1);
+		store.refresh();
+		assertEquals(1L, operationCount());
+
+		spanCount.set(3);
+		store.refresh();
+		assertEquals(3L, operationCount());
+	}
+
+	@Test
+	@DisplayName("Spans removed from a rolled up minute are not counted anymore")
+	void rerolledMinutesReplaceOldResults() {
+		spanCount.set(2);
+		store.refresh();
+
+		spanCount.set(0);
+		store.refresh();
+		assertEquals(0L, operationCount());
+	}
+
+	private long operationCount() {
+		return store.query(spanMinute * 1000, (spanMinute + MINUTE_MILLIS) * 1000)
+			.toOverview()
+			.getOperationCount()
+			.getTotal();
+	}
+
+	private Aggregate minutesAggregate(long count) {
+		List<HistogramBucket> buckets = count == 0 ? List.of()
+				: List.of(HistogramBucket.of(bucket -> bucket.key(spanMinute * 1000d)
+					.docCount(count)
+					.aggregations(Map.of("operation_count", Aggregate.of(agg -> agg.sterms(terms -> terms
+						.buckets(termBuckets -> termBuckets.array(List.of(StringTermsBucket
+							.of(term -> term.key("chat").docCount(count)))))
+						.sumOtherDocCount(0L)))))));
+		return Aggregate.of(agg -> agg.histogram(histogram -> histogram.buckets(b -> b.array(buckets))));
+	}
+
+}
@@ -0,0 +1,89 @@
+package com.alibaba.cloud.ai.studio.admin.repository.impl;
+
+import com.alibaba.cloud.ai.studio.admin.config.TracingQueryProperties;
+import com.alibaba.cloud.ai.studio.admin.dto.OverviewStatsDTO;
+import com.alibaba.cloud.ai.studio.admin.dto.TraceSpanDTO;
+import com.alibaba.cloud.ai.studio.admin.dto.request.OverviewQueryRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("TracingRepositoryImpl query cache Tests")
+class TracingRepositoryImplTest {
+
+	@Mock
+	private ElasticsearchClientWrapper elasticsearchClient;
+
+	@Mock
+	private TracingQueryBuilder queryBuilder;
+
+	@Mock
+	private TraceRollupStore rollupStore;
+
+	@Mock
+	private SpanIngestionPipeline ingestionPipeline;
+
+	private TracingRepositoryImpl repository;
+
+	private AutoCloseable mocks;
+
+	@BeforeEach
+	void setUp() {
+		mocks = MockitoAnnotations.openMocks(this);
+		TracingQueryProperties properties = new TracingQueryProperties();
+		properties.setCacheTtlSeconds(60L);
+		repository = new TracingRepositoryImpl(elasticsearchClient, queryBuilder, rollupStore, ingestionPipeline,
+				properties);
+		repository.initQueryCache();
+		when(rollupStore.query(anyLong(), anyLong())).thenAnswer(invocation -> new TraceRollup());
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		mocks.close();
+	}
+
+	@Test
+	@DisplayName("Ingesting spans keeps cached query results")
+	void ingestKeepsCachedResults() {
+		OverviewQueryRequest request = overview("2026-01-01T00:00:00Z", "2026-01-01T01:00:00Z");
+
+		OverviewStatsDTO first = repository.getOverview(request);
+		repository.saveSpans(List.of(TraceSpanDTO.builder().traceId("t1").spanId("s1").build()));
+		OverviewStatsDTO second = repository.getOverview(request);
+
+		assertSame(first, second);
+		verify(rollupStore, times(1)).query(anyLong(), anyLong());
+		verify(elasticsearchClient).bulkIndex(eq("loongsuite_traces"), any());
+	}
+
+	@Test
+	@DisplayName("Different time ranges are cached separately")
+	void differentRangesAreNotShared() {
+		repository.getOverview(overview("2026-01-01T00:00:00Z", "2026-01-01T01:00:00Z"));
+		repository.getOverview(overview("2026-01-01T00:00:00Z", "2026-01-01T02:00:00Z"));
+
+		verify(rollupStore, times(2)).query(anyLong(), anyLong());
+	}
+
+	private static OverviewQueryRequest overview(String startTime, String endTime) {
+		OverviewQueryRequest request = new OverviewQueryRequest();
+		request.setStartTime(startTime);
+		request.setEndTime(endTime);
+		return request;
+	}
+
+}
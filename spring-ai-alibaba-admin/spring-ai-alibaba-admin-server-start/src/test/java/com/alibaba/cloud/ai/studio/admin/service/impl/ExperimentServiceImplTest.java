@@ -0,0 +1,234 @@
+package com.alibaba.cloud.ai.studio.admin.service.impl;
+
+import com.alibaba.cloud.ai.studio.admin.config.ExperimentProperties;
+import com.alibaba.cloud.ai.studio.admin.dto.ChatSession;
+import com.alibaba.cloud.ai.studio.admin.dto.EvaluatorDebugResult;
+import com.alibaba.cloud.ai.studio.admin.dto.PromptVersionDetail;
+import com.alibaba.cloud.ai.studio.admin.entity.DatasetItemDO;
+import com.alibaba.cloud.ai.studio.admin.entity.DatasetVersionDO;
+import com.alibaba.cloud.ai.studio.admin.entity.EvaluatorVersionDO;
+import com.alibaba.cloud.ai.studio.admin.entity.ExperimentDO;
+import com.alibaba.cloud.ai.studio.admin.entity.ExperimentResultDO;
+import com.alibaba.cloud.ai.studio.admin.enums.ExperimentStatus;
+import com.alibaba.cloud.ai.studio.admin.mapper.DatasetItemMapper;
+import com.alibaba.cloud.ai.studio.admin.mapper.DatasetVersionMapper;
+import com.alibaba.cloud.ai.studio.admin.mapper.EvaluatorMapper;
+import com.alibaba.cloud.ai.studio.admin.mapper.EvaluatorVersionMapper;
+import com.alibaba.cloud.ai.studio.admin.mapper.ExperimentMapper;
+import com.alibaba.cloud.ai.studio.admin.mapper.ExperimentResultMapper;
+import com.alibaba.cloud.ai.studio.admin.service.ChatSessionService;
+import com.alibaba.cloud.ai.studio.admin.service.PromptVersionService;
+import com.alibaba.cloud.ai.studio.admin.utils.ModelConfigParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ExperimentServiceImpl resume Tests")
+class ExperimentServiceImplTest {
+
+	private static final String EVALUATION_OBJECT_CONFIG = "{\"type\":\"prompt\",\"config\":"
+			+ "\"{\\\"promptKey\\\":\\\"qa\\\",\\\"version\\\":\\\"1.0\\\",\\\"variableMap\\\":[]}\"}";
+
+	private static final String EVALUATOR_CONFIG = "[{\"evaluatorId\":1,\"evaluatorVersionId\":11,\"variableMap\":[]}]";
+
+	@Mock
+	private ExperimentMapper experimentMapper;
+
+	@Mock
+	private ExperimentResultMapper experimentResultMapper;
+
+	@Mock
+	private DatasetVersionMapper datasetVersionMapper;
+
+	@Mock
+	private EvaluatorMapper evaluatorMapper;
+
+	@Mock
+	private EvaluatorVersionMapper evaluatorVersionMapper;
+
+	@Mock
+	private DatasetItemMapper datasetItemMapper;
+
+	@Mock
+	private ModelConfigParser modelConfigParser;
+
+	@Mock
+	private PromptVersionService promptVersionService;
+
+	@Mock
+	private ChatSessionService chatSessionService;
+
+	@Mock
+	private EvaluatorServiceImpl evaluatorServiceImpl;
+
+	private ExperimentServiceImpl experimentService;
+
+	private AutoCloseable mocks;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		mocks = MockitoAnnotations.openMocks(this);
+		ExperimentProperties properties = new ExperimentProperties();
+		properties.setItemConcurrency(2);
+		properties.setModelPermitsPerSecond(1000.0);
+		experimentService = new ExperimentServiceImpl(experimentMapper, experimentResultMapper, datasetVersionMapper,
+				evaluatorMapper, evaluatorVersionMapper, datasetItemMapper, modelConfigParser, properties);
+		ReflectionTestUtils.setField(experimentService, "promptVersionService", promptVersionService);
+		ReflectionTestUtils.setField(experimentService, "chatSessionService", chatSessionService);
+		ReflectionTestUtils.setField(experimentService, "evaluatorServiceImpl", evaluatorServiceImpl);
+		experimentService.initExecutors();
+
+		when(datasetVersionMapper.selectById(anyLong())).thenReturn(DatasetVersionDO.builder()
+				.id(100L)
+				.datasetId(10L)
+				.datasetItems("[1,2,3]")
+				.build());
+		when(datasetItemMapper.selectByDatasetIdAndItemIds(eq(10L), any())).thenReturn(List.of(item(1L), item(2L), item(3L)));
+		when(evaluatorVersionMapper.selectById(11L)).thenReturn(EvaluatorVersionDO.builder()
+				.id(11L)
+				.modelConfig("{}")
+				.variables("{}")
+				.prompt("Score the answer")
+				.build());
+		when(promptVersionService.getByPromptKeyAndVersion("qa", "1.0")).thenReturn(PromptVersionDetail.builder()
+				.promptKey("qa")
+				.version("1.0")
+				.template("Answer the question")
+				.variables("{}")
+				.modelConfig("{}")
+				.build());
+		when(chatSessionService.createSession(any(), any(), any(), any(), any())).thenAnswer(invocation -> new ChatSession());
+		when(chatSessionService.getOrCreateSessionChatClient(any(), anyMap()))
+				.thenReturn(mock(ChatClient.class, RETURNS_DEEP_STUBS));
+		EvaluatorDebugResult evaluatorResult = new EvaluatorDebugResult();
+		evaluatorResult.setScore("0.5");
+		evaluatorResult.setReason("ok");
+		when(evaluatorServiceImpl.evaluatorTest(any())).thenReturn(evaluatorResult);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		experimentService.shutdownExecutors();
+		mocks.close();
+	}
+
+	private static DatasetItemDO item(Long id) {
+		return DatasetItemDO.builder()
+				.id(id)
+				.datasetId(10L)
+				.dataContent("{\"input\":\"question " + id + "\",\"reference_output\":\"answer " + id + "\"}")
+				.build();
+	}
+
+	private static ExperimentDO experiment(Long id) {
+		return ExperimentDO.builder()
+				.id(id)
+				.datasetId(10L)
+				.datasetVersionId(100L)
+				.evaluationObjectConfig(EVALUATION_OBJECT_CONFIG)
+				.evaluatorConfig(EVALUATOR_CONFIG)
+				.status(ExperimentStatus.RUNNING.getCode())
+				.build();
+	}
+
+	private void awaitCompleted(Long experimentId) {
+		verify(experimentMapper, timeout(5000)).updateById(argThat(experiment -> experimentId.equals(experiment.getId())
+				&& ExperimentStatus.COMPLETED.getCode().equals(experiment.getStatus())));
+		verify(experimentMapper, timeout(5000)).releaseLease(eq(experimentId), anyString());
+	}
+
+	@Test
+	@DisplayName("Should only resume experiments whose lease this node wins")
+	void testResumeOnlyClaimedExperiments() {
+		when(experimentMapper.selectUnownedRunning(anyInt())).thenReturn(List.of(experiment(1L), experiment(2L)));
+		when(experimentMapper.claimLease(eq(1L), anyString(), anyLong())).thenReturn(1);
+		when(experimentMapper.claimLease(eq(2L), anyString(), anyLong())).thenReturn(0);
+
+		experimentService.resumeRunningExperiments();
+
+		awaitCompleted(1L);
+		verify(experimentResultMapper).selectCompletedItemIds(1L, 1);
+		verify(experimentResultMapper, never()).selectCompletedItemIds(eq(2L), anyInt());
+		verify(experimentMapper, never()).updateById(argThat(experiment -> Long.valueOf(2L).equals(experiment.getId())));
+	}
+
+	@Test
+	@DisplayName("Should not resume experiments when disabled")
+	void testResumeDisabled() {
+		ExperimentProperties properties = (ExperimentProperties) ReflectionTestUtils.getField(experimentService,
+				"experimentProperties");
+		properties.setResumeOnStartup(false);
+
+		experimentService.resumeRunningExperiments();
+
+		verify(experimentMapper, never()).selectUnownedRunning(anyInt());
+		verify(experimentMapper, never()).claimLease(anyLong(), anyString(), anyLong());
+	}
+
+	@Test
+	@DisplayName("Should skip dataset items that already have all evaluator results")
+	@SuppressWarnings("unchecked")
+	void testResumeSkipsCompletedItems() {
+		when(experimentMapper.selectUnownedRunning(anyInt())).thenReturn(List.of(experiment(1L)));
+		when(experimentMapper.claimLease(eq(1L), anyString(), anyLong())).thenReturn(1);
+		when(experimentResultMapper.selectCompletedItemIds(1L, 1)).thenReturn(List.of(1L, 3L));
+
+		experimentService.resumeRunningExperiments();
+
+		awaitCompleted(1L);
+		ArgumentCaptor<List<ExperimentResultDO>> captor = ArgumentCaptor.forClass(List.class);
+		verify(experimentResultMapper, atLeastOnce()).batchInsert(captor.capture());
+		List<Long> itemIds = captor.getAllValues().stream()
+				.flatMap(List::stream)
+				.map(ExperimentResultDO::getDatasetItemId)
+				.toList();
+		assertEquals(List.of(2L), itemIds);
+		verify(evaluatorServiceImpl, times(1)).evaluatorTest(any());
+	}
+
+	@Test
+	@DisplayName("Should stop the run when the lease is taken over by another node")
+	@SuppressWarnings("unchecked")
+	void testLostLeaseStopsRun() {
+		ExperimentRun run = new ExperimentRun(1L, 10, 1000);
+		((Map<Long, ExperimentRun>) ReflectionTestUtils.getField(experimentService, "runningExperiments")).put(1L, run);
+		when(experimentMapper.claimLease(eq(1L), anyString(), anyLong())).thenReturn(0);
+		when(experimentMapper.selectUnownedRunning(anyInt())).thenReturn(List.of());
+
+		experimentService.maintainLeases();
+
+		assertTrue(run.isStopped());
+	}
+
+	@Test
+	@DisplayName("Should reject restart while another node holds the lease")
+	void testRestartRejectedWhenLeasedElsewhere() {
+		when(experimentMapper.selectById(1L)).thenReturn(experiment(1L));
+		when(experimentMapper.claimLease(eq(1L), anyString(), anyLong())).thenReturn(0);
+
+		assertThrows(IllegalStateException.class, () -> experimentService.restartById(1L));
+		verify(experimentResultMapper, never()).deleteByExperimentId(anyLong());
+	}
+
+}
@@ -114,6 +114,8 @@ public abstract class Builder {
 
 	protected boolean enableLogging;
 
+	protected boolean cacheAwarePrompt;
+
 	protected StateSerializer stateSerializer;
 	
 	protected Executor executor;
@@ -318,6 +320,18 @@ public abstract class Builder {
 		return this;
 	}
 
+	/**
+	 * Keeps the beginning of every prompt byte for byte the same between model calls, so
+	 * that provider side prompt caching can reuse it. See
+	 * {@link com.alibaba.cloud.ai.graph.agent.node.AgentLlmNode.Builder#cacheAwarePrompt(boolean)}.
+	 * @param cacheAwarePrompt whether to assemble prompts in cache-aware mode
+	 * @return this builder instance
+	 */
+	public Builder cacheAwarePrompt(boolean cacheAwarePrompt) {
+		this.cacheAwarePrompt = cacheAwarePrompt;
+		return this;
+	}
+
 	/**
 	 * Sets the state serializer for the agent.
 	 * @param stateSerializer the state serializer to use
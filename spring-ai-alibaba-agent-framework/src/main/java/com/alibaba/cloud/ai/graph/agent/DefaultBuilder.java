@@ -233,6 +233,14 @@ public class DefaultBuilder extends Builder {
 			llmNodeBuilder.enableReasoningLog(true);
 		}
 
+		if (cacheAwarePrompt) {
+			llmNodeBuilder.cacheAwarePrompt(true);
+		}
+
+		if (compileConfig != null) {
+			compileConfig.meterRegistry().ifPresent(llmNodeBuilder::meterRegistry);
+		}
+
 		AgentLlmNode llmNode = llmNodeBuilder.build();
 
 		// Setup tool node with all available tools
@@ -51,6 +51,8 @@ import com.alibaba.cloud.ai.graph.internal.node.ResumableSubGraphAction;
 import com.alibaba.cloud.ai.graph.serializer.AgentInstructionMessage;
 import com.alibaba.cloud.ai.graph.serializer.StateSerializer;
 import com.alibaba.cloud.ai.graph.serializer.plain_text.jackson.SpringAIJacksonStateSerializer;
+import com.alibaba.cloud.ai.graph.state.AppendOnlyList;
+import com.alibaba.cloud.ai.graph.state.LayeredStateMap;
 import com.alibaba.cloud.ai.graph.state.strategy.AppendStrategy;
 import com.alibaba.cloud.ai.graph.state.strategy.ReplaceStrategy;
 import com.alibaba.cloud.ai.graph.utils.TypeRef;
@@ -956,23 +958,24 @@ public class ReactAgent extends BaseAgent {
 			if (StringUtils.hasLength(instruction)) {
 				instructionMessage = AgentInstructionMessage.builder().text(instruction).build();
 			}
+			// the child reads the parent state through a local layer instead of copying it
+			LayeredStateMap stateForChild = new LayeredStateMap(parentState.data());
 			if (includeContents) {
-				Map<String, Object> stateForChild = new HashMap<>(parentState.data());
-				List<Object> newMessages;
+				AppendOnlyList<Object> newMessages;
 				if (stateForChild.get("messages") != null) {
-					newMessages = new ArrayList<>((List<Object>)stateForChild.remove("messages"));
+					// shares the buffer of the parent messages, appending the instruction does not copy them
+					newMessages = AppendOnlyList.copyOf((List<Object>) stateForChild.get("messages"));
 				} else {
-					newMessages = new ArrayList<>();
+					newMessages = AppendOnlyList.empty();
 				}
 				// by default, includeContents is true, we pass down the messages from the parent state
 				if (StringUtils.hasLength(instruction)) {
 					// instruction will be added as a special UserMessage to the child graph.
-					newMessages.add(instructionMessage);
+					newMessages = newMessages.appending(instructionMessage);
 				}
 				stateForChild.put("messages", newMessages);
 				subGraphResult = childGraph.graphResponseStream(stateForChild, subGraphRunnableConfig);
 			} else {
-				Map<String, Object> stateForChild = new HashMap<>(parentState.data());
 				parentMessages = stateForChild.remove("messages");
 				if (StringUtils.hasLength(instruction)) {
 					// instruction will be added as a special UserMessage to the child graph.
@@ -1027,13 +1030,9 @@ public class ReactAgent extends BaseAgent {
 					Map<String, Object> resultMap = (Map<String, Object>) resultValue;
 					if (resultMap.get("messages") instanceof List) {
 						@SuppressWarnings("unchecked")
-						List<Object> messages = new ArrayList<>((List<Object>) resultMap.get("messages"));
+						List<Object> messages = (List<Object>) resultMap.get("messages");
 						if (!messages.isEmpty()) {
-							parentState.value("messages").ifPresent(parentMsgs -> {
-								if (parentMsgs instanceof List) {
-									messages.removeAll((List<?>) parentMsgs);
-								}
-							});
+							messages = messagesNotInParent(messages, parentState);
 
 							List<Object> finalMessages;
 							if (returnReasoningContents) {
@@ -1062,6 +1061,27 @@ public class ReactAgent extends BaseAgent {
 			return lastResponse;
 		}
 
+		/**
+		 * Returns the messages of the sub-graph that are not in the parent state. The sub-graph
+		 * history normally starts with the parent messages, which are then skipped as a prefix
+		 * instead of being searched for one by one.
+		 */
+		private List<Object> messagesNotInParent(List<Object> messages, OverAllState parentState) {
+			Object parentValue = parentState.value("messages").orElse(null);
+			if (!(parentValue instanceof List<?> parentMsgs) || parentMsgs.isEmpty()) {
+				return new ArrayList<>(messages);
+			}
+			int prefix = parentMsgs.size();
+			boolean startsWithParent = messages.size() >= prefix;
+			for (int i = 0; startsWithParent && i < prefix; i++) {
+				startsWithParent = Objects.equals(messages.get(i), parentMsgs.get(i));
+			}
+			List<Object> result = new ArrayList<>(startsWithParent ? messages.subList(prefix, messages.size()) : messages);
+			Set<Object> parentSet = new HashSet<>(parentMsgs);
+			result.removeIf(parentSet::contains);
+			return result;
+		}
+
 		private RunnableConfig getSubGraphRunnableConfig(RunnableConfig config) {
 			RunnableConfig subGraphRunnableConfig = RunnableConfig.builder(config)
 					.checkPointId(null)
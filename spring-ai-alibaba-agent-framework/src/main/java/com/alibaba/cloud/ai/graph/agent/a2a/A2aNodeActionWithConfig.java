@@ -212,12 +212,17 @@ public class A2aNodeActionWithConfig implements NodeActionWithConfig {
 		final StringBuilder accumulated = new StringBuilder();
 
 		return AsyncGeneratorQueue.of(queue, q -> {
-			String baseUrl = resolveAgentBaseUrl(this.agentCard);
+			String baseUrl = this.agentCard.acquireUrl();
 			if (baseUrl == null || baseUrl.isBlank()) {
 				StreamingOutput errorOutput = new StreamingOutput("Error: AgentCard.url is empty", "a2aNode", agentName, state);
 				queue.add(AsyncGenerator.Data.of(errorOutput));
 				return;
 			}
+			long startNanos = System.nanoTime();
+			// Streams last as long as the remote agent keeps answering, so the balancer is given
+			// the time to the first event rather than the duration of the whole stream
+			long latencyNanos = -1;
+			boolean success = false;
 
 			try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
 				HttpPost post = new HttpPost(baseUrl);
@@ -248,11 +253,15 @@ public class A2aNodeActionWithConfig implements NodeActionWithConfig {
 						try (BufferedReader reader = new BufferedReader(
 								new InputStreamReader(entity.getContent(), StandardCharsets.UTF_8))) {
 							String line;
+							success = true;
 							while ((line = reader.readLine()) != null) {
 								String trimmed = line.trim();
 								if (!trimmed.startsWith("data:")) {
 									continue;
 								}
+								if (latencyNanos < 0) {
+									latencyNanos = System.nanoTime() - startNanos;
+								}
 								String jsonContent = trimmed.substring(5).trim();
 								if ("[DONE]".equals(jsonContent)) {
 									break;
@@ -279,6 +288,7 @@ public class A2aNodeActionWithConfig implements NodeActionWithConfig {
 					else {
 						// Non-SSE: read the full body and emit a single output
 						String body = EntityUtils.toString(entity, "UTF-8");
+						success = true;
 						try {
 							Map<String, Object> resultMap = JSON.parseObject(body,
 									new TypeReference<Map<String, Object>>() {
@@ -298,10 +308,13 @@ public class A2aNodeActionWithConfig implements NodeActionWithConfig {
 				}
 			}
 			catch (Exception e) {
+				success = false;
 				StreamingOutput errorOutput = new StreamingOutput("Error: " + e.getMessage(), "a2aNode", agentName, state);
 				queue.add(AsyncGenerator.Data.of(errorOutput));
 			}
 			finally {
+				this.agentCard.releaseUrl(baseUrl,
+						latencyNanos >= 0 ? latencyNanos : System.nanoTime() - startNanos, success);
 				queue.add(AsyncGenerator.Data.done(Map.of(outputKey, accumulated.toString())));
 			}
 		});
@@ -739,13 +752,15 @@ public class A2aNodeActionWithConfig implements NodeActionWithConfig {
 	 * @return Response body as string
 	 */
 	private String sendMessageToServer(AgentCardWrapper agentCard, String requestPayload) throws Exception {
-		String baseUrl = resolveAgentBaseUrl(agentCard);
+		String baseUrl = agentCard.acquireUrl();
 		System.out.println(baseUrl);
 		System.out.println(requestPayload);
 		if (baseUrl == null || baseUrl.isBlank()) {
 			throw new IllegalStateException("AgentCard.url is empty");
 		}
 
+		long startNanos = System.nanoTime();
+		boolean success = false;
 		try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
 			HttpPost post = new HttpPost(baseUrl);
 			post.setHeader("Content-Type", "application/json");
@@ -760,16 +775,14 @@ public class A2aNodeActionWithConfig implements NodeActionWithConfig {
 				if (entity == null) {
 					throw new IllegalStateException("Empty HTTP entity");
 				}
-				return EntityUtils.toString(entity, "UTF-8");
+				String body = EntityUtils.toString(entity, "UTF-8");
+				success = true;
+				return body;
 			}
 		}
-	}
-
-	/**
-	 * Resolve base URL from the AgentCard.
-	 */
-	private String resolveAgentBaseUrl(AgentCardWrapper agentCard) {
-		return agentCard.url();
+		finally {
+			agentCard.releaseUrl(baseUrl, System.nanoTime() - startNanos, success);
+		}
 	}
 
 }
@@ -51,6 +51,26 @@ public class AgentCardWrapper {
 		return this.agentCard.url();
 	}
 
+	/**
+	 * Selects the url to send a new request to. Every url returned here must be handed back
+	 * through {@link #releaseUrl(String, long, boolean)} once the request has finished, so
+	 * that implementations balancing between several endpoints can track their load.
+	 * @return the url for the request
+	 */
+	public String acquireUrl() {
+		return url();
+	}
+
+	/**
+	 * Reports the outcome of a request sent to a url obtained from {@link #acquireUrl()}.
+	 * @param url the url the request was sent to
+	 * @param elapsedNanos time until the remote agent answered: the first event of a
+	 * streaming response, or the whole response otherwise
+	 * @param success whether the remote agent answered successfully
+	 */
+	public void releaseUrl(String url, long elapsedNanos, boolean success) {
+	}
+
 	public AgentProvider provider() {
 		return this.agentCard.provider();
 	}
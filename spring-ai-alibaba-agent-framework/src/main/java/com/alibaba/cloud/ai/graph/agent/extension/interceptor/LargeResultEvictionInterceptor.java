@@ -18,11 +18,14 @@ package com.alibaba.cloud.ai.graph.agent.extension.interceptor;
 import com.alibaba.cloud.ai.graph.agent.extension.file.FilesystemBackend;
 import com.alibaba.cloud.ai.graph.agent.extension.file.LocalFilesystemBackend;
 import com.alibaba.cloud.ai.graph.agent.extension.file.WriteResult;
+import com.alibaba.cloud.ai.graph.agent.hook.TokenCounter;
 import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallHandler;
 import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallRequest;
 import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallResponse;
 import com.alibaba.cloud.ai.graph.agent.interceptor.ToolInterceptor;
 
+import org.springframework.ai.chat.messages.UserMessage;
+
 import java.util.*;
 
 /**
@@ -70,6 +73,7 @@ public class LargeResultEvictionInterceptor extends ToolInterceptor {
 	private final Integer toolTokenLimitBeforeEvict;
 	private final Set<String> excludedTools;
 	private final FilesystemBackend backend;
+	private final TokenCounter tokenCounter;
 
 	private LargeResultEvictionInterceptor(Builder builder) {
 		this.toolTokenLimitBeforeEvict = builder.toolTokenLimitBeforeEvict;
@@ -77,6 +81,7 @@ public class LargeResultEvictionInterceptor extends ToolInterceptor {
 			? new HashSet<>(builder.excludedTools)
 			: new HashSet<>();
 		this.backend = builder.backend;
+		this.tokenCounter = builder.tokenCounter;
 	}
 
 	public static Builder builder() {
@@ -125,6 +130,10 @@ public class LargeResultEvictionInterceptor extends ToolInterceptor {
 			return false;
 		}
 
+		if (tokenCounter != null) {
+			return tokenCounter.countTokens(List.of(new UserMessage(result))) > toolTokenLimitBeforeEvict;
+		}
+
 		// Check if content exceeds token limit (approximation: 4 chars per token)
 		return result.length() > 4 * toolTokenLimitBeforeEvict;
 	}
@@ -235,6 +244,7 @@ public class LargeResultEvictionInterceptor extends ToolInterceptor {
 		private Integer toolTokenLimitBeforeEvict = DEFAULT_TOOL_TOKEN_LIMIT;
 		private Set<String> excludedTools;
 		private FilesystemBackend backend;
+		private TokenCounter tokenCounter;
 
 		/**
 		 * Set token limit before evicting tool results to filesystem.
@@ -298,6 +308,17 @@ public class LargeResultEvictionInterceptor extends ToolInterceptor {
 			return this;
 		}
 
+		/**
+		 * Set the counter used to measure tool results against the token limit,
+		 * for example a {@link com.alibaba.cloud.ai.graph.agent.hook.BpeTokenCounter}.
+		 *
+		 * Default: none, results are approximated as chars/4
+		 */
+		public Builder tokenCounter(TokenCounter tokenCounter) {
+			this.tokenCounter = tokenCounter;
+			return this;
+		}
+
 		/**
 		 * Convenience method to automatically exclude standard filesystem tools.
 		 * Excludes: ls, read_file, write_file, edit_file, glob, grep
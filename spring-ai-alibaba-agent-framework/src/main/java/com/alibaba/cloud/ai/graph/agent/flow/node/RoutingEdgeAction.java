@@ -19,6 +19,7 @@ import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.action.AsyncEdgeAction;
 import com.alibaba.cloud.ai.graph.agent.Agent;
 import com.alibaba.cloud.ai.graph.agent.flow.agent.LlmRoutingAgent;
+import com.alibaba.cloud.ai.graph.utils.StreamingJsonFieldReader;
 
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.messages.Message;
@@ -35,7 +36,15 @@ import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
 
+/**
+ * Routes to the sub-agent chosen by the model. The decision is streamed and the returned
+ * future completes as soon as the {@code agent} field has been received, cancelling the
+ * rest of the completion. The graph runner waits for edge actions synchronously, so the
+ * thread evaluating the edge is still held until then, only no longer until the whole
+ * completion has been generated.
+ */
 @Deprecated
 public class RoutingEdgeAction implements AsyncEdgeAction {
 	private static final Logger logger = LoggerFactory.getLogger(RoutingEdgeAction.class);
@@ -84,7 +93,6 @@ public class RoutingEdgeAction implements AsyncEdgeAction {
 
 	@Override
 	public CompletableFuture<String> apply(OverAllState state) {
-		CompletableFuture<String> result = new CompletableFuture<>();
 		try {
 			@SuppressWarnings("unchecked")
 			List<Message> messages = (List<Message>) state.value("messages").orElse(List.of());
@@ -92,27 +100,16 @@ public class RoutingEdgeAction implements AsyncEdgeAction {
 			// Prepare messages with instruction if available
 			List<Message> messagesWithInstruction = prepareMessagesWithInstruction(messages);
 			
-			String decisionValue = getDecisionWithRetry(messagesWithInstruction, DEFAULT_MAX_RETRIES);
-
-			// Check if it's a valid sub-agent name
-			boolean isValidAgent = subAgents.stream()
-					.anyMatch(agent -> agent.name().equals(decisionValue));
-			if (isValidAgent) {
-				logger.info("RoutingAgent {} routed to sub-agent {}.", rootAgent.name(), decisionValue);
-				result.complete(decisionValue);
-			}
-			else {
-				logger.error("RoutingAgent {} failed to get valid decision after {} retries. Last invalid decision: {}.",
-						rootAgent.name(), DEFAULT_MAX_RETRIES, decisionValue);
-				result.completeExceptionally(new IllegalStateException(
-						"RoutingAgent " + rootAgent.name() + " failed to get valid decision after retries. Last invalid decision: " + decisionValue + "."));
-			}
+			return getDecisionWithRetry(messagesWithInstruction, 0, DEFAULT_MAX_RETRIES, null)
+					.doOnNext(decisionValue -> logger.info("RoutingAgent {} routed to sub-agent {}.", rootAgent.name(),
+							decisionValue))
+					.doOnError(e -> logger.error("Error during routing decision: ", e))
+					.toFuture();
 		}
 		catch (Exception e) {
 			logger.error("Error during routing decision: ", e);
-			result.completeExceptionally(e);
+			return CompletableFuture.failedFuture(e);
 		}
-		return result;
 	}
 
 	/**
@@ -150,92 +147,114 @@ public class RoutingEdgeAction implements AsyncEdgeAction {
 	 * Gets a valid routing decision with retry logic. If the model returns an invalid agent name,
 	 * it will retry up to maxRetries times before giving up.
 	 * @param messages the conversation messages
+	 * @param attempt the current attempt, starting at 0
 	 * @param maxRetries maximum number of retries (default: 2)
-	 * @return a valid decision (agent name)
-	 * @throws Exception if all retries fail or other errors occur
+	 * @param lastInvalidDecision the invalid decision of the previous attempt, if any
+	 * @return a valid decision (agent name), or an error if all retries fail
 	 */
-	private String getDecisionWithRetry(List<Message> messages, int maxRetries) throws Exception {
-		String lastInvalidDecision = null;
-
-		for (int attempt = 0; attempt <= maxRetries; attempt++) {
-			try {
-				RoutingDecision decision;
-
-				if (attempt == 0) {
-					// First attempt: use original messages
-					decision = this.chatClient.prompt().messages(messages).call().entity(this.outputConverter);
-				}
-				else {
-					// Retry attempts: add error feedback to help the model correct its decision
-					String errorFeedback = String.format(
-							"Previous attempt returned an invalid agent name '%s'. " +
-									"Please choose from the available agents: %s.",
-							lastInvalidDecision,
-							String.join(", ", subAgents.stream().map(Agent::name).toList()));
-
-					logger.warn("RoutingAgent {} retry attempt {}/{}. Previous invalid decision: {}",
-							rootAgent.name(), attempt, maxRetries, lastInvalidDecision);
-
-					// Create a new message list with error feedback
-					// Try to append to existing SystemMessage, otherwise use UserMessage
-					java.util.ArrayList<Message> messagesWithFeedback = new java.util.ArrayList<>();
-					boolean systemMessageFound = false;
-
-					for (Message msg : messages) {
-						if (msg instanceof SystemMessage && !systemMessageFound) {
-							// Append error feedback to the first SystemMessage found
-							String enhancedContent = msg.getText() + "\n\n" + errorFeedback;
-							messagesWithFeedback.add(new SystemMessage(enhancedContent));
-							systemMessageFound = true;
-						}
-						else {
-							messagesWithFeedback.add(msg);
-						}
-					}
+	private Mono<String> getDecisionWithRetry(List<Message> messages, int attempt, int maxRetries,
+			String lastInvalidDecision) {
+		List<Message> attemptMessages = messages;
+		if (attempt > 0) {
+			// Retry attempts: add error feedback to help the model correct its decision
+			String errorFeedback = String.format(
+					"Previous attempt returned an invalid agent name '%s'. " +
+							"Please choose from the available agents: %s.",
+					lastInvalidDecision,
+					String.join(", ", subAgents.stream().map(Agent::name).toList()));
 
-					// If no SystemMessage was found, add error feedback as UserMessage
-					if (!systemMessageFound) {
-						messagesWithFeedback.add(new UserMessage(errorFeedback));
-					}
+			logger.warn("RoutingAgent {} retry attempt {}/{}. Previous invalid decision: {}",
+					rootAgent.name(), attempt, maxRetries, lastInvalidDecision);
 
-					decision = this.chatClient.prompt().messages(messagesWithFeedback).call()
-							.entity(this.outputConverter);
-				}
+			attemptMessages = withFeedback(messages, errorFeedback);
+		}
 
-				String decisionValue = decision.agent();
+		return streamDecision(attemptMessages)
+				.onErrorResume(e -> {
+					if (attempt == maxRetries) {
+						// Last attempt failed, propagate the exception
+						logger.error("RoutingAgent {} failed on final attempt {}/{}", rootAgent.name(), attempt, maxRetries, e);
+						return Mono.error(e);
+					}
+					logger.warn("RoutingAgent {} attempt {}/{} encountered an error, will retry", rootAgent.name(), attempt, maxRetries, e);
+					return Mono.empty();
+				})
+				.flatMap(decision -> {
+					String decisionValue = decision.agent();
 
-				// Check if it's a valid sub-agent name
-				boolean isValidAgent = subAgents.stream()
-						.anyMatch(agent -> agent.name().equals(decisionValue));
+					// Check if it's a valid sub-agent name
+					boolean isValidAgent = subAgents.stream()
+							.anyMatch(agent -> agent.name().equals(decisionValue));
 
-				if (isValidAgent) {
-					if (attempt > 0) {
-						logger.info("RoutingAgent {} succeeded on retry attempt {}. Routed to sub-agent: {}",
-								rootAgent.name(), attempt, decisionValue);
+					if (isValidAgent) {
+						if (attempt > 0) {
+							logger.info("RoutingAgent {} succeeded on retry attempt {}. Routed to sub-agent: {}",
+									rootAgent.name(), attempt, decisionValue);
+						}
+						return Mono.just(decisionValue);
+					}
+					if (attempt == maxRetries) {
+						// All retries exhausted
+						logger.error("RoutingAgent {} failed to get valid decision after {} retries. Last invalid decision: {}.",
+								rootAgent.name(), maxRetries, decisionValue);
+						return Mono.error(new IllegalStateException(
+								"RoutingAgent " + rootAgent.name() + " failed to get valid decision after retries. Last invalid decision: " + decisionValue + "."));
 					}
-					return decisionValue;
-				}
-				else {
-					// Invalid agent name, store for next retry
-					lastInvalidDecision = decisionValue;
 					logger.warn("RoutingAgent {} attempt {}/{} returned invalid agent name: {}",
 							rootAgent.name(), attempt, maxRetries, decisionValue);
-				}
+					return getDecisionWithRetry(messages, attempt + 1, maxRetries, decisionValue);
+				})
+				// Only empty when the attempt failed with an error
+				.switchIfEmpty(Mono.defer(() -> getDecisionWithRetry(messages, attempt + 1, maxRetries, lastInvalidDecision)));
+	}
+
+	/**
+	 * Streams the decision, completing as soon as the agent field is complete. If the model
+	 * does not answer with a JSON object containing the field, the whole text is parsed
+	 * with the output converter once the stream ends.
+	 */
+	private Mono<RoutingDecision> streamDecision(List<Message> messages) {
+		return Mono.defer(() -> {
+			StreamingJsonFieldReader reader = new StreamingJsonFieldReader();
+			StringBuilder text = new StringBuilder();
+			return this.chatClient.prompt().messages(messages).stream().content()
+					.concatMap(chunk -> {
+						text.append(chunk);
+						return Mono.justOrEmpty(reader.append(chunk).get("agent"));
+					})
+					// Cancels the rest of the completion
+					.next()
+					.map(RoutingDecision::new)
+					.switchIfEmpty(Mono.fromCallable(() -> this.outputConverter.convert(text.toString())))
+					.defaultIfEmpty(new RoutingDecision(null));
+		});
+	}
+
+	/**
+	 * Appends the error feedback to the first SystemMessage, or adds it as a UserMessage
+	 * if there is none.
+	 */
+	private static List<Message> withFeedback(List<Message> messages, String errorFeedback) {
+		List<Message> messagesWithFeedback = new ArrayList<>();
+		boolean systemMessageFound = false;
+
+		for (Message msg : messages) {
+			if (msg instanceof SystemMessage && !systemMessageFound) {
+				// Append error feedback to the first SystemMessage found
+				String enhancedContent = msg.getText() + "\n\n" + errorFeedback;
+				messagesWithFeedback.add(new SystemMessage(enhancedContent));
+				systemMessageFound = true;
 			}
-			catch (Exception e) {
-				if (attempt == maxRetries) {
-					// Last attempt failed, rethrow the exception
-					logger.error("RoutingAgent {} failed on final attempt {}/{}", rootAgent.name(), attempt, maxRetries, e);
-					throw e;
-				}
-				logger.warn("RoutingAgent {} attempt {}/{} encountered an error, will retry", rootAgent.name(), attempt, maxRetries, e);
+			else {
+				messagesWithFeedback.add(msg);
 			}
 		}
 
-		// All retries exhausted
-		throw new IllegalStateException(
-				String.format("Failed to get valid decision after %d retries. Last invalid decision: %s",
-						maxRetries, lastInvalidDecision));
+		// If no SystemMessage was found, add error feedback as UserMessage
+		if (!systemMessageFound) {
+			messagesWithFeedback.add(new UserMessage(errorFeedback));
+		}
+		return messagesWithFeedback;
 	}
 
 	/**
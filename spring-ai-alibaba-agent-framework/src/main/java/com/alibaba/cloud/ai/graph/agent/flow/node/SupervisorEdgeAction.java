@@ -16,7 +16,9 @@
 package com.alibaba.cloud.ai.graph.agent.flow.node;
 
 import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.action.AsyncCommandAction;
 import com.alibaba.cloud.ai.graph.action.AsyncEdgeAction;
+import com.alibaba.cloud.ai.graph.action.Command;
 import com.alibaba.cloud.ai.graph.agent.Agent;
 import com.alibaba.cloud.ai.graph.agent.flow.agent.SupervisorAgent;
 
@@ -29,7 +31,11 @@ import org.springframework.ai.converter.BeanOutputConverter;
 
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
@@ -37,13 +43,34 @@ import org.slf4j.LoggerFactory;
 
 import static com.alibaba.cloud.ai.graph.StateGraph.END;
 
+/**
+ * Asks the supervisor model which sub-agents should handle the task next.
+ *
+ * <p>A single agent is routed to directly and {@code FINISH} routes to {@code END}. When
+ * several agents are chosen, the command returned by {@link #asCommandAction()} routes to
+ * {@link #PARALLEL_ROUTE} and stores the agent names under {@link #PARALLEL_AGENTS_KEY},
+ * so that the node mapped to that route can run them concurrently. The key is removed from
+ * the state again once they have run. Used as a plain {@link AsyncEdgeAction}, which cannot
+ * update the state, only the first of them is routed to and the supervisor decides again
+ * once it is done.
+ */
 public class SupervisorEdgeAction implements AsyncEdgeAction {
 	private static final Logger logger = LoggerFactory.getLogger(SupervisorEdgeAction.class);
 
+	/**
+	 * Route taken when more than one sub-agent is chosen.
+	 */
+	public static final String PARALLEL_ROUTE = "__supervisor_parallel__";
+
+	/**
+	 * State key holding the sub-agents chosen for parallel execution.
+	 */
+	public static final String PARALLEL_AGENTS_KEY = "supervisor_parallel_agents";
+
 	private static final int DEFAULT_MAX_RETRIES = 2;
 
 	private final ChatClient chatClient;
-	private final BeanOutputConverter<SupervisorDecision> outputConverter;
+	private final BeanOutputConverter<SupervisorDecisions> outputConverter;
 	private final Agent rootAgent;
 	private final List<Agent> subAgents;
 
@@ -63,7 +90,7 @@ public class SupervisorEdgeAction implements AsyncEdgeAction {
 
 			sb.append("\n\n");
 			sb.append("You have access to some specialized agents that can handle this task. You must decide:\n");
-			sb.append("1. Delegate each subtask to ONE of the following agents, OR\n");
+			sb.append("1. Delegate the task to ONE or MULTIPLE of the following agents, OR\n");
 			sb.append("2. Mark the task as complete (FINISH) if no further action is needed.\n");
 			sb.append("\n");
 			sb.append("The available agents and their capabilities are listed below:\n");
@@ -74,17 +101,18 @@ public class SupervisorEdgeAction implements AsyncEdgeAction {
 
 		sb.append("\n");
 		sb.append("You can also return \"FINISH\" to indicate that the task is complete and no further agent action is needed.\n");
+		sb.append("If multiple agents are returned, they will execute in parallel, so only return several agents for subtasks that do not depend on each other.\n");
 		sb.append("\n");
 		sb.append("Available options: ");
 		sb.append(String.join(", ", subAgents.stream().map(Agent::name).toList()));
 		sb.append(", FINISH");
 		sb.append("\n\n");
-		sb.append("Example: prose_writer_agent");
-		sb.append("\n");
-		sb.append("Example: FINISH");
+		sb.append("Example for single agent: {\"agents\": [\"prose_writer_agent\"]}\n");
+		sb.append("Example for multiple agents: {\"agents\": [\"prose_writer_agent\", \"code_reviewer_agent\"]}\n");
+		sb.append("Example for completion: {\"agents\": [\"FINISH\"]}");
 
 		// Create BeanOutputConverter for structured output
-		this.outputConverter = new BeanOutputConverter<>(SupervisorDecision.class);
+		this.outputConverter = new BeanOutputConverter<>(SupervisorDecisions.class);
 		sb.append("\n\n");
 		sb.append(this.outputConverter.getFormat());
 
@@ -93,34 +121,48 @@ public class SupervisorEdgeAction implements AsyncEdgeAction {
 
 	@Override
 	public CompletableFuture<String> apply(OverAllState state) {
-		CompletableFuture<String> result = new CompletableFuture<>();
+		return decide(state).thenApply(command -> {
+			if (!PARALLEL_ROUTE.equals(command.gotoNode())) {
+				return command.gotoNode();
+			}
+			@SuppressWarnings("unchecked")
+			List<String> agentNames = (List<String>) command.update().get(PARALLEL_AGENTS_KEY);
+			logger.info("Supervisor {} routes to {} first, parallel delegation needs the command action.",
+					rootAgent.name(), agentNames.get(0));
+			return agentNames.get(0);
+		});
+	}
+
+	/**
+	 * Returns this action as a command action that can route to several sub-agents at once
+	 * through {@link #PARALLEL_ROUTE}.
+	 */
+	public AsyncCommandAction asCommandAction() {
+		return (state, config) -> decide(state);
+	}
+
+	private CompletableFuture<Command> decide(OverAllState state) {
+		CompletableFuture<Command> result = new CompletableFuture<>();
 		try {
 			List<Message> messages = (List<Message>) state.value("messages").orElseThrow();
 			
 			// Prepare messages with instruction if available
 			List<Message> messagesWithInstruction = prepareMessagesWithInstruction(messages);
 			
-			String decisionValue = getDecisionWithRetry(messagesWithInstruction, DEFAULT_MAX_RETRIES);
+			List<String> decisionValues = getDecisionWithRetry(messagesWithInstruction, DEFAULT_MAX_RETRIES);
 
-			// Validate the decision
-			if ("FINISH".equalsIgnoreCase(decisionValue)) {
+			if (decisionValues.isEmpty()) {
 				logger.info("Supervisor {} decided to finish the task.", rootAgent.name());
-				result.complete(END);
+				result.complete(new Command(END));
+			}
+			else if (decisionValues.size() == 1) {
+				logger.info("Supervisor {} delegated to sub-agent {}.", rootAgent.name(), decisionValues.get(0));
+				result.complete(new Command(decisionValues.get(0)));
 			}
 			else {
-				// Check if it's a valid sub-agent name
-				boolean isValidAgent = subAgents.stream()
-						.anyMatch(agent -> agent.name().equals(decisionValue));
-				if (isValidAgent) {
-					logger.info("Supervisor {} delegated to sub-agent {}.", rootAgent.name(), decisionValue);
-					result.complete(decisionValue);
-				}
-				else {
-					logger.error("Supervisor {} failed to get valid decision after {} retries. Last invalid decision: {}.",
-							rootAgent.name(), DEFAULT_MAX_RETRIES, decisionValue);
-					result.completeExceptionally(new IllegalArgumentException(
-							"Invalid routing decision after retries: " + decisionValue + ". Must be one of the sub-agents or FINISH."));
-				}
+				logger.info("Supervisor {} delegated to {} sub-agents in parallel: {}.", rootAgent.name(),
+						decisionValues.size(), String.join(", ", decisionValues));
+				result.complete(new Command(PARALLEL_ROUTE, Map.of(PARALLEL_AGENTS_KEY, decisionValues)));
 			}
 		}
 		catch (Exception e) {
@@ -166,15 +208,15 @@ public class SupervisorEdgeAction implements AsyncEdgeAction {
 	 * it will retry up to maxRetries times before giving up.
 	 * @param messages the conversation messages
 	 * @param maxRetries maximum number of retries (default: 2)
-	 * @return a valid decision (agent name or "FINISH")
+	 * @return the distinct sub-agent names to delegate to, empty for "FINISH"
 	 * @throws Exception if all retries fail or other errors occur
 	 */
-	private String getDecisionWithRetry(List<Message> messages, int maxRetries) throws Exception {
-		String lastInvalidDecision = null;
+	private List<String> getDecisionWithRetry(List<Message> messages, int maxRetries) throws Exception {
+		List<String> lastInvalidDecision = null;
 
 		for (int attempt = 0; attempt <= maxRetries; attempt++) {
 			try {
-				SupervisorDecision decision;
+				SupervisorDecisions decision;
 
 				if (attempt == 0) {
 					// First attempt: use original messages
@@ -183,9 +225,9 @@ public class SupervisorEdgeAction implements AsyncEdgeAction {
 				else {
 					// Retry attempts: add error feedback to help the model correct its decision
 					String errorFeedback = String.format(
-							"Previous attempt returned an invalid agent name '%s'. " +
+							"Previous attempt returned invalid agent names: %s. " +
 									"Please choose from the available agents: %s, or return 'FINISH' if the task is complete.",
-							lastInvalidDecision,
+							lastInvalidDecision != null ? String.join(", ", lastInvalidDecision) : "[]",
 							String.join(", ", subAgents.stream().map(Agent::name).toList()));
 
 					logger.warn("Supervisor {} retry attempt {}/{}. Previous invalid decision: {}",
@@ -217,33 +259,37 @@ public class SupervisorEdgeAction implements AsyncEdgeAction {
 							.entity(this.outputConverter);
 				}
 
-				String decisionValue = decision.agent();
+				List<String> decisionValues = decision.getAgents();
 
 				// Validate the decision
-				if ("FINISH".equalsIgnoreCase(decisionValue)) {
+				if (!decisionValues.isEmpty() && decisionValues.stream().allMatch("FINISH"::equalsIgnoreCase)) {
 					if (attempt > 0) {
 						logger.info("Supervisor {} succeeded on retry attempt {}. Decision: FINISH",
 								rootAgent.name(), attempt);
 					}
-					return decisionValue;
+					return Collections.emptyList();
 				}
 
-				// Check if it's a valid sub-agent name
-				boolean isValidAgent = subAgents.stream()
-						.anyMatch(agent -> agent.name().equals(decisionValue));
+				// FINISH next to sub-agents is premature, the supervisor decides again once they are done
+				List<String> agentNames = new ArrayList<>(new LinkedHashSet<>(decisionValues.stream()
+						.filter(value -> !"FINISH".equalsIgnoreCase(value))
+						.toList()));
+				List<String> invalidAgents = agentNames.stream()
+						.filter(agentName -> subAgents.stream().noneMatch(agent -> agent.name().equals(agentName)))
+						.toList();
 
-				if (isValidAgent) {
+				if (!agentNames.isEmpty() && invalidAgents.isEmpty()) {
 					if (attempt > 0) {
-						logger.info("Supervisor {} succeeded on retry attempt {}. Delegated to sub-agent: {}",
-								rootAgent.name(), attempt, decisionValue);
+						logger.info("Supervisor {} succeeded on retry attempt {}. Delegated to sub-agents: {}",
+								rootAgent.name(), attempt, String.join(", ", agentNames));
 					}
-					return decisionValue;
+					return agentNames;
 				}
 				else {
-					// Invalid agent name, store for next retry
-					lastInvalidDecision = decisionValue;
-					logger.warn("Supervisor {} attempt {}/{} returned invalid agent name: {}",
-							rootAgent.name(), attempt, maxRetries, decisionValue);
+					// Invalid agent names, store for next retry
+					lastInvalidDecision = decisionValues;
+					logger.warn("Supervisor {} attempt {}/{} returned invalid agent names: {}",
+							rootAgent.name(), attempt, maxRetries, decisionValues);
 				}
 			}
 			catch (Exception e) {
@@ -268,5 +314,26 @@ public class SupervisorEdgeAction implements AsyncEdgeAction {
 	 */
 	public record SupervisorDecision(String agent) { }
 
-}
+	/**
+	 * Response record for structured supervisor decision output naming one or more
+	 * sub-agents. Each name can be either a sub-agent name or "FINISH" to indicate
+	 * completion. The single agent field is kept for models that answer in the format of
+	 * {@link SupervisorDecision}.
+	 */
+	public record SupervisorDecisions(String agent, List<String> agents) {
+
+		/**
+		 * Gets the list of agents, preferring the agents field over single agent
+		 */
+		public List<String> getAgents() {
+			if (agents != null && !agents.isEmpty()) {
+				return agents;
+			}
+			if (agent != null && !agent.isEmpty()) {
+				return Collections.singletonList(agent);
+			}
+			return Collections.emptyList();
+		}
+	}
 
+}
@@ -15,6 +15,9 @@ package com.alibaba.cloud.ai.graph.agent.flow.strategy;
  * limitations under the License.
  */
 
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.action.AsyncMultiCommandAction;
+import com.alibaba.cloud.ai.graph.action.MultiCommand;
 import com.alibaba.cloud.ai.graph.agent.Agent;
 import com.alibaba.cloud.ai.graph.agent.flow.agent.FlowAgent;
 import com.alibaba.cloud.ai.graph.agent.flow.builder.FlowGraphBuilder;
@@ -25,6 +28,7 @@ import com.alibaba.cloud.ai.graph.agent.hook.Hook;
 import com.alibaba.cloud.ai.graph.exception.GraphStateException;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static com.alibaba.cloud.ai.graph.StateGraph.END;
@@ -34,7 +38,8 @@ import static com.alibaba.cloud.ai.graph.action.AsyncNodeAction.node_async;
  * Strategy for building supervisor-based routing graphs. In a supervisor graph, an LLM
  * decides which sub-agent should handle the task, and sub-agents always return to the
  * supervisor after completion. The supervisor can then either route to another sub-agent
- * or mark the task as complete (END).
+ * or mark the task as complete (END). When the supervisor picks several sub-agents at once,
+ * they run in parallel and all return to the supervisor once the last one is done.
  */
 public class SupervisorGraphBuildingStrategy extends AbstractFlowGraphBuildingStrategy {
 
@@ -48,23 +53,38 @@ public class SupervisorGraphBuildingStrategy extends AbstractFlowGraphBuildingSt
 		this.graph.addNode(realSupervisorNode.name(), node_async(new TransparentNode()));
 
 		// Process sub-agents for routing
-		Map<String, String> edgeRoutingMap = new HashMap<>();
+		Map<String, String> subAgentRoutingMap = new HashMap<>();
 		for (Agent subAgent : config.getSubAgents()) {
 			FlowGraphBuildingStrategy.addSubAgentNode(subAgent, this.graph);
-			edgeRoutingMap.put(subAgent.name(), subAgent.name());
+			subAgentRoutingMap.put(subAgent.name(), subAgent.name());
 			// Sub-agent returns to the entry node (could be beforeAgent/beforeModel hook)
 			this.graph.addEdge(subAgent.name(), this.entryNode);
 		}
+		Map<String, String> edgeRoutingMap = new HashMap<>(subAgentRoutingMap);
 
 		// Add END as a possible routing destination
 		edgeRoutingMap.put(END, this.exitNode);
 
+		// Several sub-agents at once go through a fan-out node running them in parallel
+		String parallelNodeName = realSupervisorNode.name() + "_parallel";
+		this.graph.addNode(parallelNodeName, node_async(new TransparentNode()));
+		this.graph.addParallelConditionalEdges(parallelNodeName, AsyncMultiCommandAction.node_async((state, runnableConfig) -> {
+			@SuppressWarnings("unchecked")
+			List<String> agents = (List<String>) state.value(SupervisorEdgeAction.PARALLEL_AGENTS_KEY)
+					.orElseThrow(() -> new IllegalStateException("No sub-agents selected for parallel execution"));
+			// The selection is only meant for this fan-out, drop it once the sub-agents have run
+			return new MultiCommand(agents,
+					Map.of(SupervisorEdgeAction.PARALLEL_AGENTS_KEY, OverAllState.MARK_FOR_REMOVAL));
+		}), subAgentRoutingMap);
+		edgeRoutingMap.put(SupervisorEdgeAction.PARALLEL_ROUTE, parallelNodeName);
+
 		// Connect supervisor to routing logic
 		// Note: afterModel hooks will be connected by parent class after buildCoreGraph() returns
 		String routingSourceNode = this.afterModelHooks.isEmpty() ? realSupervisorNode.name()
 				: Hook.getFullHookName(this.afterModelHooks.get(this.afterModelHooks.size() - 1)) + ".afterModel";
 		this.graph.addConditionalEdges(routingSourceNode,
-				new SupervisorEdgeAction(config.getChatModel(), getRootAgent(), config.getSubAgents()), edgeRoutingMap);
+				new SupervisorEdgeAction(config.getChatModel(), getRootAgent(), config.getSubAgents()).asCommandAction(),
+				edgeRoutingMap);
 	}
 
 	@Override
@@ -0,0 +1,385 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.hook;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Token counter running byte pair encoding offline, with the vocabulary of the model.
+ *
+ * <p>Vocabularies are read in the tiktoken format: one token per line, the base64 encoded
+ * bytes of the token followed by its rank. Text is split with the pre-tokenization pattern
+ * of the encoding, each piece is encoded to UTF-8 and merged pair by pair in rank order,
+ * exactly like tiktoken does, so counts match what the provider bills.</p>
+ *
+ * <p>Counting does not copy the text: {@link #countTokens(CharSequence)} reads the
+ * {@code CharSequence} in place and looks pieces up in the vocabulary without creating
+ * strings. Pieces that are a single token, most words, are resolved by that lookup
+ * alone; the counts of pieces that need merging are kept in an LRU cache.</p>
+ *
+ * <p>The vocabulary files are not bundled. Put them on the classpath under the resource
+ * names of {@link Encoding}, or load any tiktoken file with
+ * {@link #load(InputStream, String)}.</p>
+ *
+ * Example:
+ * TokenCounter counter = BpeTokenCounter.of(BpeTokenCounter.Encoding.CL100K_BASE);
+ */
+public class BpeTokenCounter implements TokenCounter {
+
+	/** Pre-tokenization pattern of cl100k_base (GPT-4, GPT-3.5). */
+	public static final String CL100K_PATTERN = "(?i:'s|'t|'re|'ve|'m|'ll|'d)|[^\\r\\n\\p{L}\\p{N}]?\\p{L}+"
+			+ "|\\p{N}{1,3}| ?[^\\s\\p{L}\\p{N}]+[\\r\\n]*|\\s*[\\r\\n]+|\\s+(?!\\S)|\\s+";
+
+	/** Pre-tokenization pattern of o200k_base (GPT-4o and later). */
+	public static final String O200K_PATTERN = "[^\\r\\n\\p{L}\\p{N}]?[\\p{Lu}\\p{Lt}\\p{Lm}\\p{Lo}\\p{M}]*"
+			+ "[\\p{Ll}\\p{Lm}\\p{Lo}\\p{M}]+(?i:'s|'t|'re|'ve|'m|'ll|'d)?"
+			+ "|[^\\r\\n\\p{L}\\p{N}]?[\\p{Lu}\\p{Lt}\\p{Lm}\\p{Lo}\\p{M}]+[\\p{Ll}\\p{Lm}\\p{Lo}\\p{M}]*"
+			+ "(?i:'s|'t|'re|'ve|'m|'ll|'d)?"
+			+ "|\\p{N}{1,3}| ?[^\\s\\p{L}\\p{N}]+[\\r\\n/]*|\\s*[\\r\\n]+|\\s+(?!\\S)|\\s+";
+
+	/** Pre-tokenization pattern of the Qwen models, splitting numbers into single digits. */
+	public static final String QWEN_PATTERN = "(?i:'s|'t|'re|'ve|'m|'ll|'d)|[^\\r\\n\\p{L}\\p{N}]?\\p{L}+"
+			+ "|\\p{N}| ?[^\\s\\p{L}\\p{N}]+[\\r\\n]*|\\s*[\\r\\n]+|\\s+(?!\\S)|\\s+";
+
+	public static final int DEFAULT_CACHE_SIZE = 8192;
+
+	private static final int MAX_CACHED_PIECE_LENGTH = 64;
+
+	private static final int NO_RANK = -1;
+
+	private static final Map<Encoding, BpeTokenCounter> SHARED = new ConcurrentHashMap<>();
+
+	private final ByteRanks ranks;
+
+	private final Pattern pattern;
+
+	private final Map<String, Integer> pieceCounts;
+
+	private BpeTokenCounter(ByteRanks ranks, String pattern, int cacheSize) {
+		this.ranks = ranks;
+		this.pattern = Pattern.compile(pattern, Pattern.UNICODE_CHARACTER_CLASS);
+		this.pieceCounts = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+				return size() > cacheSize;
+			}
+		};
+	}
+
+	/**
+	 * Returns the counter of a well-known encoding, loading its vocabulary from the
+	 * classpath on first use. The counter is shared by all callers.
+	 *
+	 * @param encoding The encoding
+	 * @return The shared counter of the encoding
+	 */
+	public static BpeTokenCounter of(Encoding encoding) {
+		return SHARED.computeIfAbsent(encoding, e -> fromClasspath(e.resource(), e.pattern()));
+	}
+
+	/**
+	 * Loads a counter from a tiktoken vocabulary on the classpath.
+	 *
+	 * @param resource The classpath resource of the vocabulary
+	 * @param pattern The pre-tokenization pattern of the encoding
+	 * @return A new counter
+	 */
+	public static BpeTokenCounter fromClasspath(String resource, String pattern) {
+		ClassLoader classLoader = BpeTokenCounter.class.getClassLoader();
+		try (InputStream in = classLoader.getResourceAsStream(resource)) {
+			if (in == null) {
+				throw new IllegalStateException("Tokenizer vocabulary not found on the classpath: " + resource);
+			}
+			return load(in, pattern);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException("Failed to read tokenizer vocabulary " + resource, e);
+		}
+	}
+
+	/**
+	 * Loads a counter from a tiktoken vocabulary.
+	 *
+	 * @param in The vocabulary, read to the end but not closed
+	 * @param pattern The pre-tokenization pattern of the encoding
+	 * @return A new counter
+	 * @throws IOException If the vocabulary cannot be read
+	 */
+	public static BpeTokenCounter load(InputStream in, String pattern) throws IOException {
+		List<byte[]> tokens = new ArrayList<>();
+		List<Integer> tokenRanks = new ArrayList<>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+		Base64.Decoder decoder = Base64.getDecoder();
+		String line;
+		while ((line = reader.readLine()) != null) {
+			int separator = line.indexOf(' ');
+			if (separator <= 0) {
+				continue;
+			}
+			tokens.add(decoder.decode(line.substring(0, separator)));
+			tokenRanks.add(Integer.parseInt(line.substring(separator + 1).trim()));
+		}
+		if (tokens.isEmpty()) {
+			throw new IllegalArgumentException("Tokenizer vocabulary is empty");
+		}
+		return new BpeTokenCounter(new ByteRanks(tokens, tokenRanks), pattern, DEFAULT_CACHE_SIZE);
+	}
+
+	@Override
+	public int countTokens(List<Message> messages) {
+		int total = 0;
+		for (Message msg : messages) {
+			if (msg instanceof ToolResponseMessage toolResponseMessage) {
+				for (ToolResponseMessage.ToolResponse response : toolResponseMessage.getResponses()) {
+					total += countTokens(response.responseData());
+				}
+			}
+			else if (msg instanceof AssistantMessage assistantMessage) {
+				total += countTokens(msg.getText());
+				for (AssistantMessage.ToolCall toolCall : assistantMessage.getToolCalls()) {
+					total += countTokens(toolCall.arguments());
+				}
+			}
+			else if (msg != null) {
+				total += countTokens(msg.getText());
+			}
+		}
+		return total;
+	}
+
+	/**
+	 * Counts the tokens of a text.
+	 *
+	 * @param text The text, read in place
+	 * @return The number of tokens, 0 for {@code null}
+	 */
+	public int countTokens(CharSequence text) {
+		if (text == null || text.length() == 0) {
+			return 0;
+		}
+		Matcher matcher = pattern.matcher(text);
+		byte[] buffer = new byte[64];
+		int total = 0;
+		while (matcher.find()) {
+			int start = matcher.start();
+			int end = matcher.end();
+			// A char takes at most 3 bytes in UTF-8, a surrogate pair 4 bytes for 2 chars
+			int maxBytes = (end - start) * 3;
+			if (buffer.length < maxBytes) {
+				buffer = new byte[Math.max(maxBytes, buffer.length * 2)];
+			}
+			int length = encodeUtf8(text, start, end, buffer);
+			total += countPiece(text, start, end, buffer, length);
+		}
+		return total;
+	}
+
+	private int countPiece(CharSequence text, int start, int end, byte[] piece, int length) {
+		if (ranks.get(piece, 0, length) != NO_RANK) {
+			return 1;
+		}
+		if (end - start > MAX_CACHED_PIECE_LENGTH) {
+			return mergeCount(piece, length);
+		}
+		String key = text.subSequence(start, end).toString();
+		Integer cached;
+		synchronized (pieceCounts) {
+			cached = pieceCounts.get(key);
+		}
+		if (cached != null) {
+			return cached;
+		}
+		int count = mergeCount(piece, length);
+		synchronized (pieceCounts) {
+			pieceCounts.put(key, count);
+		}
+		return count;
+	}
+
+	/**
+	 * Merges the bytes of a piece pair by pair, always merging the pair with the lowest
+	 * rank first, and returns the number of tokens left.
+	 */
+	private int mergeCount(byte[] piece, int length) {
+		// boundaries between the current tokens, and the rank of the token starting at each
+		// boundary merged with the next one
+		int[] starts = new int[length + 1];
+		int[] pairRanks = new int[length + 1];
+		for (int i = 0; i <= length; i++) {
+			starts[i] = i;
+		}
+		int parts = length + 1;
+		for (int i = 0; i < parts; i++) {
+			pairRanks[i] = pairRank(piece, starts, parts, i);
+		}
+		while (parts > 2) {
+			int minIndex = -1;
+			int minRank = Integer.MAX_VALUE;
+			for (int i = 0; i < parts - 2; i++) {
+				if (pairRanks[i] != NO_RANK && pairRanks[i] < minRank) {
+					minRank = pairRanks[i];
+					minIndex = i;
+				}
+			}
+			if (minIndex < 0) {
+				break;
+			}
+			// drop the boundary between the two merged tokens
+			System.arraycopy(starts, minIndex + 2, starts, minIndex + 1, parts - minIndex - 2);
+			System.arraycopy(pairRanks, minIndex + 2, pairRanks, minIndex + 1, parts - minIndex - 2);
+			parts--;
+			pairRanks[minIndex] = pairRank(piece, starts, parts, minIndex);
+			if (minIndex > 0) {
+				pairRanks[minIndex - 1] = pairRank(piece, starts, parts, minIndex - 1);
+			}
+		}
+		return parts - 1;
+	}
+
+	private int pairRank(byte[] piece, int[] starts, int parts, int index) {
+		return index + 2 < parts ? ranks.get(piece, starts[index], starts[index + 2]) : NO_RANK;
+	}
+
+	private static int encodeUtf8(CharSequence text, int start, int end, byte[] out) {
+		int length = 0;
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			if (c < 0x80) {
+				out[length++] = (byte) c;
+			}
+			else if (c < 0x800) {
+				out[length++] = (byte) (0xC0 | (c >> 6));
+				out[length++] = (byte) (0x80 | (c & 0x3F));
+			}
+			else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(c, text.charAt(++i));
+				out[length++] = (byte) (0xF0 | (codePoint >> 18));
+				out[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+				out[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+				out[length++] = (byte) (0x80 | (codePoint & 0x3F));
+			}
+			else if (Character.isSurrogate(c)) {
+				// unpaired surrogate, replaced like String.getBytes does
+				out[length++] = '?';
+			}
+			else {
+				out[length++] = (byte) (0xE0 | (c >> 12));
+				out[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+				out[length++] = (byte) (0x80 | (c & 0x3F));
+			}
+		}
+		return length;
+	}
+
+	/**
+	 * Well-known encodings and the classpath resources their vocabularies are loaded from.
+	 */
+	public enum Encoding {
+
+		CL100K_BASE("tokenizers/cl100k_base.tiktoken", CL100K_PATTERN),
+
+		O200K_BASE("tokenizers/o200k_base.tiktoken", O200K_PATTERN),
+
+		QWEN("tokenizers/qwen.tiktoken", QWEN_PATTERN);
+
+		private final String resource;
+
+		private final String pattern;
+
+		Encoding(String resource, String pattern) {
+			this.resource = resource;
+			this.pattern = pattern;
+		}
+
+		public String resource() {
+			return resource;
+		}
+
+		public String pattern() {
+			return pattern;
+		}
+
+	}
+
+	/**
+	 * Open addressing table from token bytes to rank, looked up with a range of a buffer
+	 * so that no key has to be allocated.
+	 */
+	private static final class ByteRanks {
+
+		private final byte[][] keys;
+
+		private final int[] values;
+
+		private final int mask;
+
+		ByteRanks(List<byte[]> tokens, List<Integer> ranks) {
+			int capacity = Integer.highestOneBit(Math.max(2, tokens.size() * 2 - 1)) << 1;
+			this.keys = new byte[capacity][];
+			this.values = new int[capacity];
+			this.mask = capacity - 1;
+			for (int i = 0; i < tokens.size(); i++) {
+				byte[] token = tokens.get(i);
+				int slot = hash(token, 0, token.length) & mask;
+				while (keys[slot] != null && !Arrays.equals(keys[slot], token)) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = token;
+				values[slot] = ranks.get(i);
+			}
+		}
+
+		int get(byte[] bytes, int from, int to) {
+			int slot = hash(bytes, from, to) & mask;
+			byte[] key;
+			while ((key = keys[slot]) != null) {
+				if (Arrays.equals(key, 0, key.length, bytes, from, to)) {
+					return values[slot];
+				}
+				slot = (slot + 1) & mask;
+			}
+			return NO_RANK;
+		}
+
+		private static int hash(byte[] bytes, int from, int to) {
+			int hash = 0x811C9DC5;
+			for (int i = from; i < to; i++) {
+				hash = (hash ^ (bytes[i] & 0xFF)) * 0x01000193;
+			}
+			return hash ^ (hash >>> 16);
+		}
+
+	}
+
+}
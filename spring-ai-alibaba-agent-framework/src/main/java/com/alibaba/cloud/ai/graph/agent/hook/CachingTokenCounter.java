@@ -0,0 +1,184 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.hook;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.metadata.Usage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Token counter that remembers the count of every message it has seen.
+ *
+ * <p>Messages are looked up by a SHA-256 digest of their type, text, tool calls and tool
+ * responses, so counting a conversation again after a new turn only runs the delegate
+ * counter on the messages added since. The cache keeps the counts of the most recently
+ * used {@code maxCachedMessages} messages without holding on to the messages
+ * themselves.</p>
+ *
+ * <p>Estimates can be calibrated with the prompt tokens reported by the model provider
+ * through {@link #calibrate(int, Usage)}. The ratio between reported and estimated tokens
+ * is averaged over the calls and applied to every count. Sharing one instance between
+ * components, for example a {@code SummarizationHook} and a
+ * {@code ContextEditingInterceptor}, lets all of them use the same cache and
+ * calibration.</p>
+ */
+public class CachingTokenCounter implements TokenCounter {
+
+	public static final int DEFAULT_MAX_CACHED_MESSAGES = 4096;
+
+	private static final double CALIBRATION_ALPHA = 0.3;
+
+	private static final double MIN_SCALE = 0.25;
+
+	private static final double MAX_SCALE = 4.0;
+
+	private final TokenCounter delegate;
+
+	private final Map<MessageKey, Integer> counts;
+
+	private volatile double scale = 1.0;
+
+	public CachingTokenCounter(TokenCounter delegate) {
+		this(delegate, DEFAULT_MAX_CACHED_MESSAGES);
+	}
+
+	public CachingTokenCounter(TokenCounter delegate, int maxCachedMessages) {
+		if (maxCachedMessages <= 0) {
+			throw new IllegalArgumentException("maxCachedMessages must be > 0!");
+		}
+		this.delegate = Objects.requireNonNull(delegate, "delegate cannot be null");
+		this.counts = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<MessageKey, Integer> eldest) {
+				return size() > maxCachedMessages;
+			}
+		};
+	}
+
+	@Override
+	public int countTokens(List<Message> messages) {
+		return (int) Math.round(countUncalibrated(messages) * scale);
+	}
+
+	/**
+	 * Adjusts later estimates to the prompt tokens reported by the provider.
+	 * @param estimatedTokens the uncalibrated estimate of the prompt, as returned by
+	 * {@link #countUncalibrated(List)}
+	 * @param usage the usage reported for the same prompt, ignored if it has no prompt
+	 * tokens
+	 */
+	public void calibrate(int estimatedTokens, Usage usage) {
+		if (estimatedTokens <= 0 || usage == null || usage.getPromptTokens() == null
+				|| usage.getPromptTokens() <= 0) {
+			return;
+		}
+		double ratio = Math.max(MIN_SCALE, Math.min(MAX_SCALE, (double) usage.getPromptTokens() / estimatedTokens));
+		synchronized (this) {
+			scale = CALIBRATION_ALPHA * ratio + (1 - CALIBRATION_ALPHA) * scale;
+		}
+	}
+
+	/**
+	 * Counts the given messages without applying the calibration.
+	 * @param messages the messages to count
+	 * @return the sum of the delegate counts of the messages
+	 */
+	public int countUncalibrated(List<Message> messages) {
+		int total = 0;
+		for (Message message : messages) {
+			if (message == null) {
+				continue;
+			}
+			MessageKey key = MessageKey.of(message);
+			Integer count;
+			synchronized (counts) {
+				count = counts.get(key);
+			}
+			if (count == null) {
+				count = delegate.countTokens(List.of(message));
+				synchronized (counts) {
+					counts.put(key, count);
+				}
+			}
+			total += count;
+		}
+		return total;
+	}
+
+	/**
+	 * Returns the factor applied to the delegate counts, 1.0 until calibrated.
+	 */
+	public double scale() {
+		return scale;
+	}
+
+	/**
+	 * Identifies a message by a digest of everything a token counter reads from it.
+	 */
+	private record MessageKey(MessageType type, ByteBuffer digest) {
+
+		static MessageKey of(Message message) {
+			MessageDigest digest;
+			try {
+				digest = MessageDigest.getInstance("SHA-256");
+			}
+			catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException(e);
+			}
+			update(digest, message.getText());
+			if (message instanceof AssistantMessage assistantMessage) {
+				for (AssistantMessage.ToolCall toolCall : assistantMessage.getToolCalls()) {
+					update(digest, toolCall.id());
+					update(digest, toolCall.name());
+					update(digest, toolCall.arguments());
+				}
+			}
+			else if (message instanceof ToolResponseMessage toolResponseMessage) {
+				for (ToolResponseMessage.ToolResponse response : toolResponseMessage.getResponses()) {
+					update(digest, response.id());
+					update(digest, response.name());
+					update(digest, response.responseData());
+				}
+			}
+			return new MessageKey(message.getMessageType(), ByteBuffer.wrap(digest.digest()));
+		}
+
+		// Length prefixed, so that different splits of the same characters differ
+		private static void update(MessageDigest digest, String value) {
+			if (value == null) {
+				digest.update((byte) 0);
+				return;
+			}
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			digest.update((byte) 1);
+			digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+			digest.update(bytes);
+		}
+
+	}
+
+}
@@ -83,6 +83,20 @@ public interface TokenCounter {
 		};
 	}
 
+	/**
+	 * Wraps a counter in a {@link CachingTokenCounter}, so that messages already counted
+	 * are not counted again. Returns the counter itself if it is already caching.
+	 *
+	 * @param counter The counter to wrap
+	 * @return A caching token counter delegating to the given counter
+	 */
+	static CachingTokenCounter cached(TokenCounter counter) {
+		if (counter instanceof CachingTokenCounter cachingTokenCounter) {
+			return cachingTokenCounter;
+		}
+		return new CachingTokenCounter(counter);
+	}
+
 	/**
 	 * Count the approximate number of tokens in the given messages.
 	 *
@@ -16,6 +16,7 @@
 package com.alibaba.cloud.ai.graph.agent.hook.summarization;
 
 import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.agent.hook.CachingTokenCounter;
 import com.alibaba.cloud.ai.graph.agent.hook.HookPosition;
 import com.alibaba.cloud.ai.graph.agent.hook.HookPositions;
 import com.alibaba.cloud.ai.graph.agent.hook.JumpTo;
@@ -34,8 +35,20 @@ import org.springframework.ai.chat.prompt.Prompt;
 
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,10 +60,17 @@ import org.slf4j.LoggerFactory;
  * messages when a threshold is reached, preserving the first user message and 
  * recent messages to maintain context continuity.
  *
+ * With a background summary threshold, summarization starts ahead of time: once the
+ * history passes that soft threshold, the messages before the safe cutoff are summarized
+ * on a background thread after the model call. When the history later reaches
+ * {@code maxTokensBeforeSummary}, the summary is swapped in without waiting for another
+ * model call, provided the summarized messages are still the head of the history.
+ *
  * Example:
  * SummarizationHook summarizer = SummarizationHook.builder()
  *     .model(chatModel)
  *     .maxTokensBeforeSummary(4000)
+ *     .backgroundSummaryThreshold(3000)  // Optional: summarize ahead of time
  *     .messagesToKeep(20)
  *     .keepFirstUserMessage(true)  // Default: true
  *     .build();
@@ -76,23 +96,57 @@ public class SummarizationHook extends MessagesModelHook {
 	private static final int DEFAULT_MESSAGES_TO_KEEP = 20;
 	private static final int SEARCH_RANGE_FOR_TOOL_PAIRS = 5;
 	private static final boolean DEFAULT_KEEP_FIRST_USER_MESSAGE = true;
+	private static final int MAX_PENDING_SUMMARIES = 1024;
+	private static final long PENDING_SUMMARY_TTL_NANOS = TimeUnit.MINUTES.toNanos(30);
+	private static final String DEFAULT_THREAD_ID = "$default";
+	private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+	private static final Duration DEFAULT_SUMMARY_TIMEOUT = Duration.ofSeconds(30);
+	private static final int DEFAULT_EXECUTOR_THREADS = 4;
+	private static final int DEFAULT_EXECUTOR_QUEUE = 64;
+	// Summaries that do not fit are skipped and computed inline once they are needed
+	private static final Executor DEFAULT_EXECUTOR = defaultExecutor();
 
 	private final ChatModel model;
 	private final Integer maxTokensBeforeSummary;
 	private final int messagesToKeep;
-	private final TokenCounter tokenCounter;
+	private final CachingTokenCounter tokenCounter;
 	private final String summaryPrompt;
 	private final String summaryPrefix;
 	private final boolean keepFirstUserMessage;
+	private final Integer backgroundSummaryThreshold;
+	private final Executor executor;
+	private final Duration summaryTimeout;
+	// Summaries computed ahead of time, by thread id
+	private final Map<String, PendingSummary> pendingSummaries = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, PendingSummary> eldest) {
+			return size() > MAX_PENDING_SUMMARIES;
+		}
+	};
 
 	private SummarizationHook(Builder builder) {
 		this.model = builder.model;
 		this.maxTokensBeforeSummary = builder.maxTokensBeforeSummary;
 		this.messagesToKeep = builder.messagesToKeep;
-		this.tokenCounter = builder.tokenCounter;
+		// Counts are cached per message, so each turn only counts the new messages
+		this.tokenCounter = TokenCounter.cached(builder.tokenCounter);
 		this.summaryPrompt = builder.summaryPrompt;
 		this.summaryPrefix = builder.summaryPrefix;
 		this.keepFirstUserMessage = builder.keepFirstUserMessage;
+		this.backgroundSummaryThreshold = builder.backgroundSummaryThreshold;
+		this.executor = builder.executor != null ? builder.executor : DEFAULT_EXECUTOR;
+		this.summaryTimeout = builder.summaryTimeout;
+	}
+
+	private static Executor defaultExecutor() {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(DEFAULT_EXECUTOR_THREADS, DEFAULT_EXECUTOR_THREADS,
+				60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(DEFAULT_EXECUTOR_QUEUE), runnable -> {
+					Thread thread = new Thread(runnable, "summarization-hook-" + THREAD_COUNTER.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.AbortPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
 	}
 
 	public static Builder builder() {
@@ -108,12 +162,22 @@ public class SummarizationHook extends MessagesModelHook {
 		int totalTokens = tokenCounter.countTokens(previousMessages);
 
 		if (totalTokens < maxTokensBeforeSummary) {
+			if (backgroundSummaryThreshold != null && totalTokens >= backgroundSummaryThreshold) {
+				startBackgroundSummary(previousMessages, config);
+			}
 			return new AgentCommand(previousMessages);
 		}
 
 		log.info("Token count {} exceeds threshold {}, triggering summarization",
 				totalTokens, maxTokensBeforeSummary);
 
+		if (backgroundSummaryThreshold != null) {
+			AgentCommand command = applyBackgroundSummary(previousMessages, config);
+			if (command != null) {
+				return command;
+			}
+		}
+
 		int cutoffIndex = findSafeCutoff(previousMessages);
 
 		if (cutoffIndex <= 0) {
@@ -121,46 +185,170 @@ public class SummarizationHook extends MessagesModelHook {
 			return new AgentCommand(previousMessages);
 		}
 
-		UserMessage firstUserMessage = null;
+		UserMessage firstUserMessage = findFirstUserMessage(previousMessages);
+		List<Message> toSummarize = messagesToSummarize(previousMessages, cutoffIndex, firstUserMessage);
+
+		String summary = createSummary(toSummarize);
+
+		return replaceWithSummary(previousMessages, cutoffIndex, firstUserMessage, toSummarize.size(), summary);
+	}
+
+	@Override
+	public AgentCommand afterModel(List<Message> previousMessages, RunnableConfig config) {
+		if (backgroundSummaryThreshold != null
+				&& tokenCounter.countTokens(previousMessages) >= backgroundSummaryThreshold) {
+			startBackgroundSummary(previousMessages, config);
+		}
+		return new AgentCommand(previousMessages);
+	}
+
+	@Override
+	public HookPosition[] getHookPositions() {
+		if (backgroundSummaryThreshold != null) {
+			return new HookPosition[] {HookPosition.BEFORE_MODEL, HookPosition.AFTER_MODEL};
+		}
+		return super.getHookPositions();
+	}
+
+	/**
+	 * Starts summarizing the messages before the safe cutoff in the background, unless a
+	 * summary of nearly the same messages is already pending for this thread. A pending
+	 * summary is replaced once the cutoff has moved half of {@code messagesToKeep} past it,
+	 * so that it does not fall too far behind the conversation.
+	 */
+	private void startBackgroundSummary(List<Message> messages, RunnableConfig config) {
+		int cutoffIndex = findSafeCutoff(messages);
+		if (cutoffIndex <= 0) {
+			return;
+		}
+		String threadId = config.threadId().orElse(DEFAULT_THREAD_ID);
+		synchronized (pendingSummaries) {
+			long now = System.nanoTime();
+			pendingSummaries.values().removeIf(pending -> pending.isExpired(now));
+			PendingSummary pending = pendingSummaries.get(threadId);
+			if (pending != null && pending.isPrefixOf(messages) && !pending.summary.isCompletedExceptionally()
+					&& cutoffIndex - pending.prefix.size() < Math.max(1, messagesToKeep / 2)) {
+				return;
+			}
+			List<Message> prefix = List.copyOf(messages.subList(0, cutoffIndex));
+			UserMessage firstUserMessage = findFirstUserMessage(messages);
+			List<Message> toSummarize = messagesToSummarize(messages, cutoffIndex, firstUserMessage);
+			CompletableFuture<String> summary;
+			try {
+				summary = CompletableFuture.supplyAsync(() -> callSummaryModel(toSummarize), executor);
+			}
+			catch (RejectedExecutionException e) {
+				log.debug("Background summarization executor is saturated, summarizing when needed");
+				return;
+			}
+			PendingSummary started = new PendingSummary(prefix, firstUserMessage, toSummarize.size(), summary, now);
+			pendingSummaries.put(threadId, started);
+			// A failed summary is of no use, do not keep its messages around
+			summary.whenComplete((result, error) -> {
+				if (error != null) {
+					synchronized (pendingSummaries) {
+						pendingSummaries.remove(threadId, started);
+					}
+				}
+			});
+			log.debug("Started background summarization of {} messages", toSummarize.size());
+		}
+	}
+
+	/**
+	 * Replaces the head of the history with the summary computed in the background, or
+	 * returns null if there is none matching the current messages.
+	 */
+	private AgentCommand applyBackgroundSummary(List<Message> messages, RunnableConfig config) {
+		String threadId = config.threadId().orElse(DEFAULT_THREAD_ID);
+		PendingSummary pending;
+		synchronized (pendingSummaries) {
+			pending = pendingSummaries.remove(threadId);
+		}
+		if (pending == null || !pending.isPrefixOf(messages)
+				|| !isSafeCutoffPoint(messages, pending.prefix.size())) {
+			return null;
+		}
+		String summary;
+		try {
+			// normally complete already, otherwise it still saves the time it has been running
+			summary = pending.summary.get(summaryTimeout.toNanos(), TimeUnit.NANOSECONDS);
+		}
+		catch (TimeoutException e) {
+			pending.summary.cancel(true);
+			log.warn("Background summarization did not finish within {}, summarizing now", summaryTimeout);
+			return null;
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+		catch (Exception e) {
+			log.warn("Background summarization failed, summarizing now: {}", e.getMessage());
+			return null;
+		}
+		List<Message> newMessages = withSummary(messages, pending.prefix.size(), pending.firstUserMessage, summary);
+		// The conversation may have grown so much since that the summary alone is not enough
+		if (tokenCounter.countTokens(newMessages) >= maxTokensBeforeSummary) {
+			log.info("Background summary leaves the history above {} tokens, summarizing now", maxTokensBeforeSummary);
+			return null;
+		}
+		log.info("Using summary computed in the background");
+		return replaced(newMessages, pending.firstUserMessage, pending.summarizedCount,
+				messages.size() - pending.prefix.size());
+	}
+
+	private UserMessage findFirstUserMessage(List<Message> messages) {
 		if (keepFirstUserMessage) {
-			for (Message msg : previousMessages) {
+			for (Message msg : messages) {
 				if (msg instanceof UserMessage) {
-					firstUserMessage = (UserMessage) msg;
-					break;
+					return (UserMessage) msg;
 				}
 			}
 		}
+		return null;
+	}
 
+	private List<Message> messagesToSummarize(List<Message> messages, int cutoffIndex, UserMessage firstUserMessage) {
 		List<Message> toSummarize = new ArrayList<>();
 		for (int i = 0; i < cutoffIndex; i++) {
-			Message msg = previousMessages.get(i);
+			Message msg = messages.get(i);
 			if (msg != firstUserMessage) {
 				toSummarize.add(msg);
 			}
 		}
+		return toSummarize;
+	}
 
-		String summary = createSummary(toSummarize);
+	private AgentCommand replaceWithSummary(List<Message> previousMessages, int cutoffIndex,
+			UserMessage firstUserMessage, int summarizedCount, String summary) {
+		return replaced(withSummary(previousMessages, cutoffIndex, firstUserMessage, summary), firstUserMessage,
+				summarizedCount, previousMessages.size() - cutoffIndex);
+	}
 
+	private List<Message> withSummary(List<Message> previousMessages, int cutoffIndex, UserMessage firstUserMessage,
+			String summary) {
 		SystemMessage summaryMessage = new SystemMessage(summaryPrefix + "\n" + summary);
 
-		List<Message> recentMessages = new ArrayList<>();
-		for (int i = cutoffIndex; i < previousMessages.size(); i++) {
-			recentMessages.add(previousMessages.get(i));
-		}
-
 		List<Message> newMessages = new ArrayList<>();
 		if (firstUserMessage != null) {
 			newMessages.add(firstUserMessage);
 		}
 		newMessages.add(summaryMessage);
-		newMessages.addAll(recentMessages);
+		for (int i = cutoffIndex; i < previousMessages.size(); i++) {
+			newMessages.add(previousMessages.get(i));
+		}
+		return newMessages;
+	}
 
+	private AgentCommand replaced(List<Message> newMessages, UserMessage firstUserMessage, int summarizedCount,
+			int recentCount) {
 		if (firstUserMessage != null) {
 			log.info("Summarized {} messages, keeping {} recent messages (First UserMessage preserved)",
-					toSummarize.size(), recentMessages.size());
+					summarizedCount, recentCount);
 		} else {
 			log.info("Summarized {} messages, keeping {} recent messages",
-					toSummarize.size(), recentMessages.size());
+					summarizedCount, recentCount);
 		}
 
 		return new AgentCommand(newMessages, UpdatePolicy.REPLACE);
@@ -261,6 +449,16 @@ public class SummarizationHook extends MessagesModelHook {
 	}
 
 	private String createSummary(List<Message> messages) {
+		try {
+			return callSummaryModel(messages);
+		}
+		catch (Exception e) {
+			log.error("Failed to create summary: {}", e.getMessage());
+			return "Summary generation failed: " + e.getMessage();
+		}
+	}
+
+	private String callSummaryModel(List<Message> messages) {
 		if (messages.isEmpty()) {
 			return "No previous conversation.";
 		}
@@ -273,15 +471,9 @@ public class SummarizationHook extends MessagesModelHook {
 
 		String prompt = String.format(summaryPrompt, messageText.toString());
 
-		try {
-			Prompt summaryPromptObj = new Prompt(List.of(new UserMessage(prompt)));
-			var response = model.call(summaryPromptObj);
-			return response.getResult().getOutput().getText();
-		}
-		catch (Exception e) {
-			log.error("Failed to create summary: {}", e.getMessage());
-			return "Summary generation failed: " + e.getMessage();
-		}
+		Prompt summaryPromptObj = new Prompt(List.of(new UserMessage(prompt)));
+		var response = model.call(summaryPromptObj);
+		return response.getResult().getOutput().getText();
 	}
 
 	private String getRoleName(Message message) {
@@ -312,6 +504,31 @@ public class SummarizationHook extends MessagesModelHook {
 		return List.of();
 	}
 
+	/**
+	 * A summary being computed in the background, with the head of the history it covers.
+	 */
+	private record PendingSummary(List<Message> prefix, UserMessage firstUserMessage, int summarizedCount,
+			CompletableFuture<String> summary, long startedNanos) {
+
+		boolean isExpired(long nowNanos) {
+			return nowNanos - startedNanos > PENDING_SUMMARY_TTL_NANOS;
+		}
+
+		boolean isPrefixOf(List<Message> messages) {
+			if (messages.size() < prefix.size()) {
+				return false;
+			}
+			for (int i = 0; i < prefix.size(); i++) {
+				Message msg = messages.get(i);
+				if (msg != prefix.get(i) && !Objects.equals(msg, prefix.get(i))) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
 	public static class Builder {
 		private ChatModel model;
 		private Integer maxTokensBeforeSummary;
@@ -320,6 +537,9 @@ public class SummarizationHook extends MessagesModelHook {
 		private String summaryPrompt = DEFAULT_SUMMARY_PROMPT;
 		private String summaryPrefix = SUMMARY_PREFIX;
 		private boolean keepFirstUserMessage = DEFAULT_KEEP_FIRST_USER_MESSAGE;
+		private Integer backgroundSummaryThreshold;
+		private Executor executor;
+		private Duration summaryTimeout = DEFAULT_SUMMARY_TIMEOUT;
 
 		public Builder model(ChatModel model) {
 			this.model = model;
@@ -346,6 +566,11 @@ public class SummarizationHook extends MessagesModelHook {
 			return this;
 		}
 
+		/**
+		 * Sets the counter used to estimate the size of the conversation. It is wrapped in a
+		 * {@link CachingTokenCounter}; pass the same {@link CachingTokenCounter} to a
+		 * {@code ContextEditingInterceptor} to also calibrate it with the reported usage.
+		 */
 		public Builder tokenCounter(TokenCounter counter) {
 			this.tokenCounter = counter;
 			return this;
@@ -356,10 +581,45 @@ public class SummarizationHook extends MessagesModelHook {
 			return this;
 		}
 
+		/**
+		 * Sets the soft threshold from which the history is summarized in the background,
+		 * so the summary is ready when {@code maxTokensBeforeSummary} is reached. Must be
+		 * lower than {@code maxTokensBeforeSummary}. Not set by default: summarization
+		 * then runs when the threshold is reached, before the model call.
+		 */
+		public Builder backgroundSummaryThreshold(Integer tokens) {
+			this.backgroundSummaryThreshold = tokens;
+			return this;
+		}
+
+		/**
+		 * Sets the executor running background summarization. Defaults to a shared pool of
+		 * four daemon threads with a bounded queue; a summary it rejects is computed inline
+		 * once the hard threshold is reached.
+		 */
+		public Builder executor(Executor executor) {
+			this.executor = executor;
+			return this;
+		}
+
+		/**
+		 * Sets how long the model call waits for a background summary that is still
+		 * running before it is cancelled and the history is summarized inline. Defaults to
+		 * 30 seconds.
+		 */
+		public Builder summaryTimeout(Duration timeout) {
+			this.summaryTimeout = Objects.requireNonNull(timeout, "timeout");
+			return this;
+		}
+
 		public SummarizationHook build() {
 			if (model == null) {
 				throw new IllegalArgumentException("model must be specified");
 			}
+			if (backgroundSummaryThreshold != null && (maxTokensBeforeSummary == null
+					|| backgroundSummaryThreshold >= maxTokensBeforeSummary)) {
+				throw new IllegalArgumentException("backgroundSummaryThreshold must be < maxTokensBeforeSummary");
+			}
 			return new SummarizationHook(this);
 		}
 	}
@@ -30,6 +30,12 @@ import java.util.Map;
  * Contains all information needed to make a model invocation.
  */
 public class ModelRequest {
+
+	/**
+	 * Context key holding the name of the agent making the request.
+	 */
+	public static final String AGENT_NAME_CONTEXT_KEY = "_agent_name_";
+
 	private final SystemMessage systemMessage;
 	private final Map<String, Object> context;
 	private final List<Message> messages;
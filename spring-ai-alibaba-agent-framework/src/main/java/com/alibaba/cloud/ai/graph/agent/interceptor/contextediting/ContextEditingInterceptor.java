@@ -15,6 +15,7 @@
  */
 package com.alibaba.cloud.ai.graph.agent.interceptor.contextediting;
 
+import com.alibaba.cloud.ai.graph.agent.hook.CachingTokenCounter;
 import com.alibaba.cloud.ai.graph.agent.hook.TokenCounter;
 import com.alibaba.cloud.ai.graph.agent.interceptor.ModelCallHandler;
 import com.alibaba.cloud.ai.graph.agent.interceptor.ModelInterceptor;
@@ -23,16 +24,23 @@ import com.alibaba.cloud.ai.graph.agent.interceptor.ModelResponse;
 
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
 
 /**
  * Context editing interceptor that clears older tool results once the conversation
@@ -59,7 +67,7 @@ public class ContextEditingInterceptor extends ModelInterceptor {
 	private final boolean clearToolInputs;
 	private final Set<String> excludeTools;
 	private final String placeholder;
-	private final TokenCounter tokenCounter;
+	private final CachingTokenCounter tokenCounter;
 
 	private ContextEditingInterceptor(Builder builder) {
 		this.trigger = builder.trigger;
@@ -70,7 +78,7 @@ public class ContextEditingInterceptor extends ModelInterceptor {
 				? new HashSet<>(builder.excludeTools)
 				: new HashSet<>();
 		this.placeholder = builder.placeholder;
-		this.tokenCounter = builder.tokenCounter;
+		this.tokenCounter = TokenCounter.cached(builder.tokenCounter);
 	}
 
 	public static Builder builder() {
@@ -85,7 +93,7 @@ public class ContextEditingInterceptor extends ModelInterceptor {
 
 		if (tokens <= trigger) {
 			// Token count is below trigger, no editing needed
-			return handler.call(request);
+			return callAndCalibrate(request, handler);
 		}
 
 		log.info("Token count {} exceeds trigger {}, clearing tool results", tokens, trigger);
@@ -95,7 +103,7 @@ public class ContextEditingInterceptor extends ModelInterceptor {
 
 		if (candidates.isEmpty()) {
 			log.debug("No tool messages to clear");
-			return handler.call(request);
+			return callAndCalibrate(request, handler);
 		}
 
 		int clearedTokens = 0;
@@ -163,10 +171,85 @@ public class ContextEditingInterceptor extends ModelInterceptor {
 					.messages(updatedMessages)
 					.build();
 
-			return handler.call(updatedRequest);
+			return callAndCalibrate(updatedRequest, handler);
 		}
 
-		return handler.call(request);
+		return callAndCalibrate(request, handler);
+	}
+
+	/**
+	 * Calls the model and calibrates the token counter with the prompt tokens reported in
+	 * the response, or in the last chunk reporting usage when streaming. Providers count
+	 * the tool definitions as prompt tokens too, so they are part of the estimate.
+	 */
+	@SuppressWarnings("unchecked")
+	private ModelResponse callAndCalibrate(ModelRequest request, ModelCallHandler handler) {
+		List<Message> prompt = new ArrayList<>(request.getMessages().size() + 2);
+		if (request.getSystemMessage() != null) {
+			prompt.add(request.getSystemMessage());
+		}
+		prompt.addAll(request.getMessages());
+		Message toolDefinitions = toolDefinitionsOf(request);
+		if (toolDefinitions != null) {
+			prompt.add(toolDefinitions);
+		}
+		int estimatedTokens = tokenCounter.countUncalibrated(prompt);
+
+		ModelResponse response = handler.call(request);
+		if (response.getChatResponse() != null) {
+			tokenCounter.calibrate(estimatedTokens, usageOf(response.getChatResponse()));
+		}
+		else if (response.getMessage() instanceof Flux<?> flux) {
+			AtomicReference<Usage> lastUsage = new AtomicReference<>();
+			return new ModelResponse(((Flux<ChatResponse>) flux)
+				.doOnNext(chunk -> {
+					Usage usage = usageOf(chunk);
+					if (usage != null && usage.getPromptTokens() != null && usage.getPromptTokens() > 0) {
+						lastUsage.set(usage);
+					}
+				})
+				.doOnComplete(() -> tokenCounter.calibrate(estimatedTokens, lastUsage.get())));
+		}
+		return response;
+	}
+
+	/**
+	 * Renders the definitions of the tools sent with the request as a message, so that they
+	 * can be counted like the rest of the prompt.
+	 */
+	private static Message toolDefinitionsOf(ModelRequest request) {
+		List<ToolCallback> callbacks = new ArrayList<>();
+		if (request.getOptions() != null && request.getOptions().getToolCallbacks() != null) {
+			List<String> requestedTools = request.getTools();
+			for (ToolCallback callback : request.getOptions().getToolCallbacks()) {
+				if (requestedTools == null || requestedTools.isEmpty()
+						|| requestedTools.contains(callback.getToolDefinition().name())) {
+					callbacks.add(callback);
+				}
+			}
+		}
+		if (request.getDynamicToolCallbacks() != null) {
+			callbacks.addAll(request.getDynamicToolCallbacks());
+		}
+		if (callbacks.isEmpty()) {
+			return null;
+		}
+		StringBuilder definitions = new StringBuilder();
+		for (ToolCallback callback : callbacks) {
+			ToolDefinition definition = callback.getToolDefinition();
+			definitions.append(definition.name())
+				.append('\n')
+				.append(definition.description())
+				.append('\n')
+				.append(definition.inputSchema())
+				.append('\n');
+		}
+		return new SystemMessage(definitions.toString());
+	}
+
+	private static Usage usageOf(ChatResponse chatResponse) {
+		return chatResponse != null && chatResponse.getMetadata() != null ? chatResponse.getMetadata().getUsage()
+				: null;
 	}
 
 	private List<ClearableToolMessage> findClearableCandidates(List<Message> messages) {
@@ -204,7 +287,7 @@ public class ContextEditingInterceptor extends ModelInterceptor {
 					continue;
 				}
 
-				int tokens = TokenCounter.approximateMsgCounter().countTokens(List.of(toolMsg));
+				int tokens = tokenCounter.countTokens(List.of(toolMsg));
 				candidates.add(new ClearableToolMessage(i, tokens));
 			}
 			else if (msg instanceof AssistantMessage assistantMsg) {
@@ -240,7 +323,7 @@ public class ContextEditingInterceptor extends ModelInterceptor {
 					continue;
 				}
 
-				int tokens = TokenCounter.approximateMsgCounter().countTokens(List.of(assistantMsg));
+				int tokens = tokenCounter.countTokens(List.of(assistantMsg));
 				candidates.add(new ClearableToolMessage(i, tokens));
 			}
 		}
@@ -0,0 +1,616 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.interceptor.responsecache;
+
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelCallHandler;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelInterceptor;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelRequest;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelResponse;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+
+/**
+ * Caches model responses so that requests an agent has already answered skip the model.
+ *
+ * Requests are looked up by a hash of the agent name, system prompt, messages, tool
+ * definitions and chat options, with whitespace in the texts normalized. When an
+ * embedding model is configured, a request that misses the exact lookup can also be
+ * answered by a cached response whose conversation is identical except for the last user
+ * message, provided the two user messages are similar enough.
+ *
+ * Only final answers are cached: responses with tool calls, errors, and requests with
+ * media are passed through. Streamed responses are recorded as they go by and replayed
+ * as a {@link Flux} on later hits. Replayed responses carry no usage metadata, since no
+ * tokens were spent on them.
+ *
+ * Example:
+ * ResponseCacheInterceptor interceptor = ResponseCacheInterceptor.builder()
+ *     .maxSize(1000)
+ *     .ttl(Duration.ofMinutes(30))
+ *     .embeddingModel(embeddingModel)
+ *     .similarityThreshold(0.95)
+ *     .build();
+ */
+public class ResponseCacheInterceptor extends ModelInterceptor {
+
+	private static final Logger log = LoggerFactory.getLogger(ResponseCacheInterceptor.class);
+
+	private static final int DEFAULT_MAX_SIZE = 1000;
+
+	private static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+
+	private static final double DEFAULT_SIMILARITY_THRESHOLD = 0.95;
+
+	private static final String UNKNOWN_AGENT = "unknown";
+
+	private static final String LOOKUPS_METRIC = "spring.ai.alibaba.agent.response.cache";
+
+	private static final String HIT_RATE_METRIC = "spring.ai.alibaba.agent.response.cache.hit.rate";
+
+	private static final String AGENT_NAME_TAG = "spring.ai.alibaba.agent.name";
+
+	private static final String RESULT_TAG = "spring.ai.alibaba.agent.response.cache.result";
+
+	private static final ObjectMapper OPTIONS_MAPPER = JsonMapper.builder()
+		.configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+		.configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+		.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false)
+		.addMixIn(ToolCallingChatOptions.class, ToolCallingChatOptionsMixin.class)
+		.build();
+
+	// Same metadata key AgentLlmNode uses to choose between streaming and blocking calls
+	private static final String STREAM_KEY = "_stream_";
+
+	private final long ttlMillis;
+
+	private final EmbeddingModel embeddingModel;
+
+	private final double similarityThreshold;
+
+	private final Map<String, CacheEntry> entries;
+
+	private final Map<String, AgentStats> stats = new ConcurrentHashMap<>();
+
+	private final MeterRegistry meterRegistry;
+
+	private ResponseCacheInterceptor(Builder builder) {
+		this.ttlMillis = builder.ttl.toMillis();
+		this.embeddingModel = builder.embeddingModel;
+		this.similarityThreshold = builder.similarityThreshold;
+		this.meterRegistry = builder.meterRegistry;
+		int maxSize = builder.maxSize;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	@Override
+	public ModelResponse interceptModel(ModelRequest request, ModelCallHandler handler) {
+		if (!isCacheable(request)) {
+			return handler.call(request);
+		}
+
+		String agentName = agentName(request);
+		AgentStats agentStats = stats.computeIfAbsent(agentName, this::newStats);
+		boolean stream = !Boolean.FALSE.equals(request.getContext().get(STREAM_KEY));
+
+		// The last user message is kept out of the context key so it can be matched by similarity
+		List<Message> messages = request.getMessages();
+		Message last = messages.get(messages.size() - 1);
+		String lastUserText = last instanceof UserMessage ? normalize(last.getText()) : null;
+		String contextKey = sha256(contextText(request, agentName, lastUserText != null));
+		String key = lastUserText != null ? sha256(contextKey + '\n' + lastUserText) : contextKey;
+
+		CacheEntry entry = get(key);
+		if (entry != null) {
+			agentStats.hits.increment();
+			log.debug("Agent {} served the model response from the cache", agentName);
+			return replay(entry, stream);
+		}
+
+		float[] vector = null;
+		if (embeddingModel != null && lastUserText != null && !lastUserText.isEmpty()) {
+			try {
+				vector = normalize(embeddingModel.embed(lastUserText));
+				entry = findSimilar(contextKey, vector);
+			}
+			catch (Exception e) {
+				log.warn("Failed to embed the user message, skipping the semantic lookup", e);
+			}
+			if (entry != null) {
+				agentStats.semanticHits.increment();
+				log.debug("Agent {} served the model response from a similar cached request", agentName);
+				return replay(entry, stream);
+			}
+		}
+
+		agentStats.misses.increment();
+		return record(key, contextKey, vector, handler.call(request));
+	}
+
+	/**
+	 * Returns the cache statistics of an agent, all zero if the agent made no cacheable
+	 * model call yet.
+	 */
+	public CacheStats getStats(String agentName) {
+		AgentStats agentStats = stats.get(agentName);
+		return agentStats != null ? agentStats.snapshot() : new CacheStats(0, 0, 0);
+	}
+
+	/**
+	 * Returns the cache statistics of every agent that made a cacheable model call.
+	 */
+	public Map<String, CacheStats> getStats() {
+		Map<String, CacheStats> result = new TreeMap<>();
+		stats.forEach((agentName, agentStats) -> result.put(agentName, agentStats.snapshot()));
+		return result;
+	}
+
+	/**
+	 * Returns the number of cached responses, including expired ones not evicted yet.
+	 */
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * Removes every cached response. Statistics are kept.
+	 */
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	@Override
+	public String getName() {
+		return "ResponseCache";
+	}
+
+	private AgentStats newStats(String agentName) {
+		AgentStats agentStats = new AgentStats();
+		if (meterRegistry != null) {
+			registerLookups(agentName, "hit", agentStats.hits);
+			registerLookups(agentName, "semantic_hit", agentStats.semanticHits);
+			registerLookups(agentName, "miss", agentStats.misses);
+			Gauge.builder(HIT_RATE_METRIC, agentStats, stats -> stats.snapshot().hitRate())
+				.description("Share of cacheable model calls answered from the response cache")
+				.tag(AGENT_NAME_TAG, agentName)
+				.register(meterRegistry);
+		}
+		return agentStats;
+	}
+
+	private void registerLookups(String agentName, String result, LongAdder count) {
+		FunctionCounter.builder(LOOKUPS_METRIC, count, LongAdder::sum)
+			.description("Counts model response cache lookups")
+			.tag(AGENT_NAME_TAG, agentName)
+			.tag(RESULT_TAG, result)
+			.register(meterRegistry);
+	}
+
+	private static boolean isCacheable(ModelRequest request) {
+		List<Message> messages = request.getMessages();
+		if (messages == null || messages.isEmpty()) {
+			return false;
+		}
+		for (Message message : messages) {
+			if (message instanceof UserMessage userMessage && !userMessage.getMedia().isEmpty()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static String agentName(ModelRequest request) {
+		Object agentName = request.getContext().get(ModelRequest.AGENT_NAME_CONTEXT_KEY);
+		return agentName != null ? agentName.toString() : UNKNOWN_AGENT;
+	}
+
+	/**
+	 * Everything that determines the response except, optionally, the last message.
+	 */
+	private static String contextText(ModelRequest request, String agentName, boolean excludeLastMessage) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("agent:").append(agentName).append('\n');
+		if (request.getSystemMessage() != null) {
+			sb.append("system:").append(normalize(request.getSystemMessage().getText())).append('\n');
+		}
+
+		List<Message> messages = request.getMessages();
+		int count = excludeLastMessage ? messages.size() - 1 : messages.size();
+		for (int i = 0; i < count; i++) {
+			appendMessage(sb, messages.get(i));
+		}
+
+		sb.append("tools:").append(request.getTools()).append('\n');
+		new TreeMap<>(request.getToolDescriptions()).forEach((name, description) -> sb.append("tool:")
+			.append(name)
+			.append(':')
+			.append(normalize(description))
+			.append('\n'));
+		for (ToolCallback callback : request.getDynamicToolCallbacks()) {
+			ToolDefinition definition = callback.getToolDefinition();
+			sb.append("dynamic-tool:")
+				.append(definition.name())
+				.append(':')
+				.append(normalize(definition.description()))
+				.append(':')
+				.append(definition.inputSchema())
+				.append('\n');
+		}
+
+		ChatOptions options = request.getOptions();
+		if (options != null) {
+			sb.append("options:").append(options.getClass().getName()).append(':').append(optionsText(options)).append('\n');
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Serializes every property of the options, not only the generic {@link ChatOptions}
+	 * ones, so that provider specific options such as a seed or a response format are part
+	 * of the key. Tool callbacks are represented by their names and the tool context, which
+	 * is not sent to the model, is left out.
+	 */
+	private static String optionsText(ChatOptions options) {
+		StringBuilder sb = new StringBuilder();
+		try {
+			sb.append(OPTIONS_MAPPER.writeValueAsString(options));
+		}
+		catch (JsonProcessingException e) {
+			log.debug("Failed to serialize {}, keying on the generic chat options only", options.getClass(), e);
+			sb.append(options.getModel())
+				.append(':')
+				.append(options.getTemperature())
+				.append(':')
+				.append(options.getTopP())
+				.append(':')
+				.append(options.getTopK())
+				.append(':')
+				.append(options.getMaxTokens())
+				.append(':')
+				.append(options.getFrequencyPenalty())
+				.append(':')
+				.append(options.getPresencePenalty())
+				.append(':')
+				.append(options.getStopSequences());
+		}
+		if (options instanceof ToolCallingChatOptions toolCallingOptions) {
+			sb.append(":tool-callbacks:")
+				.append(toolCallingOptions.getToolCallbacks()
+					.stream()
+					.map(callback -> callback.getToolDefinition().name())
+					.sorted()
+					.toList());
+		}
+		return sb.toString();
+	}
+
+	private static void appendMessage(StringBuilder sb, Message message) {
+		sb.append(message.getMessageType().getValue()).append(':').append(normalize(message.getText()));
+		if (message instanceof AssistantMessage assistantMessage && assistantMessage.hasToolCalls()) {
+			for (AssistantMessage.ToolCall toolCall : assistantMessage.getToolCalls()) {
+				sb.append(":call:").append(toolCall.name()).append('(').append(normalize(toolCall.arguments())).append(')');
+			}
+		}
+		else if (message instanceof ToolResponseMessage toolResponseMessage) {
+			// Tool call ids are random, so only names and results are part of the key
+			for (ToolResponseMessage.ToolResponse response : toolResponseMessage.getResponses()) {
+				sb.append(":result:").append(response.name()).append('=').append(normalize(response.responseData()));
+			}
+		}
+		sb.append('\n');
+	}
+
+	private ModelResponse record(String key, String contextKey, float[] vector, ModelResponse response) {
+		if (response.getMessage() instanceof Flux<?> flux) {
+			@SuppressWarnings("unchecked")
+			Flux<ChatResponse> chatResponses = (Flux<ChatResponse>) flux;
+			List<ChatResponse> chunks = Collections.synchronizedList(new ArrayList<>());
+			AtomicBoolean cacheable = new AtomicBoolean(true);
+			Flux<ChatResponse> recorded = chatResponses.doOnNext(chunk -> {
+				if (chunk.getResult() != null && chunk.getResult().getOutput().hasToolCalls()) {
+					cacheable.set(false);
+				}
+				chunks.add(new ChatResponse(chunk.getResults()));
+			}).doOnComplete(() -> {
+				if (!cacheable.get()) {
+					return;
+				}
+				StringBuilder text = new StringBuilder();
+				for (ChatResponse chunk : chunks) {
+					if (chunk.getResult() != null && chunk.getResult().getOutput().getText() != null) {
+						text.append(chunk.getResult().getOutput().getText());
+					}
+				}
+				if (isCacheableAnswer(text.toString())) {
+					put(key, new CacheEntry(contextKey, vector, new AssistantMessage(text.toString()), List.copyOf(chunks),
+							System.currentTimeMillis() + ttlMillis));
+				}
+			});
+			return ModelResponse.of(recorded);
+		}
+
+		if (response.getMessage() instanceof AssistantMessage message && !message.hasToolCalls()
+				&& isCacheableAnswer(message.getText())) {
+			ChatResponse chatResponse = response.getChatResponse() != null
+					? new ChatResponse(response.getChatResponse().getResults())
+					: new ChatResponse(List.of(new Generation(message)));
+			put(key, new CacheEntry(contextKey, vector, message, List.of(chatResponse),
+					System.currentTimeMillis() + ttlMillis));
+		}
+		return response;
+	}
+
+	private static boolean isCacheableAnswer(String text) {
+		// AgentLlmNode reports model call failures as messages starting with "Exception:"
+		return text != null && !text.isEmpty() && !text.startsWith("Exception:");
+	}
+
+	private static ModelResponse replay(CacheEntry entry, boolean stream) {
+		if (stream) {
+			return ModelResponse.of(Flux.fromIterable(entry.chunks()));
+		}
+		return ModelResponse.of(entry.message(), new ChatResponse(List.of(new Generation(entry.message()))));
+	}
+
+	private CacheEntry get(String key) {
+		synchronized (entries) {
+			CacheEntry entry = entries.get(key);
+			if (entry != null && entry.expiresAt() <= System.currentTimeMillis()) {
+				entries.remove(key);
+				return null;
+			}
+			return entry;
+		}
+	}
+
+	private void put(String key, CacheEntry entry) {
+		synchronized (entries) {
+			entries.put(key, entry);
+		}
+	}
+
+	/**
+	 * Returns the most similar unexpired entry with the same context, if it reaches the
+	 * similarity threshold.
+	 */
+	private CacheEntry findSimilar(String contextKey, float[] vector) {
+		long now = System.currentTimeMillis();
+		synchronized (entries) {
+			String bestKey = null;
+			double bestScore = similarityThreshold;
+			for (Map.Entry<String, CacheEntry> candidate : entries.entrySet()) {
+				CacheEntry entry = candidate.getValue();
+				if (entry.vector() == null || entry.expiresAt() <= now || !entry.contextKey().equals(contextKey)) {
+					continue;
+				}
+				double score = dot(vector, entry.vector());
+				if (score >= bestScore) {
+					bestScore = score;
+					bestKey = candidate.getKey();
+				}
+			}
+			// Counts as an access for the LRU order
+			return bestKey != null ? entries.get(bestKey) : null;
+		}
+	}
+
+	private static String normalize(String text) {
+		return text == null ? "" : text.strip().replaceAll("\\s+", " ");
+	}
+
+	private static String sha256(String text) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	private static float dot(float[] a, float[] b) {
+		int length = Math.min(a.length, b.length);
+		float sum = 0f;
+		for (int i = 0; i < length; i++) {
+			sum += a[i] * b[i];
+		}
+		return sum;
+	}
+
+	private static float[] normalize(float[] vector) {
+		double norm = 0d;
+		for (float v : vector) {
+			norm += v * v;
+		}
+		if (norm == 0d) {
+			return vector;
+		}
+		float inverse = (float) (1d / Math.sqrt(norm));
+		float[] normalized = new float[vector.length];
+		for (int i = 0; i < vector.length; i++) {
+			normalized[i] = vector[i] * inverse;
+		}
+		return normalized;
+	}
+
+	/**
+	 * Leaves the tool callbacks, which are keyed by name, and the tool context out of the
+	 * serialized options.
+	 */
+	private interface ToolCallingChatOptionsMixin {
+
+		@JsonIgnore
+		List<ToolCallback> getToolCallbacks();
+
+		@JsonIgnore
+		Map<String, Object> getToolContext();
+
+	}
+
+	private record CacheEntry(String contextKey, float[] vector, AssistantMessage message, List<ChatResponse> chunks,
+			long expiresAt) {
+	}
+
+	private static final class AgentStats {
+
+		private final LongAdder hits = new LongAdder();
+
+		private final LongAdder semanticHits = new LongAdder();
+
+		private final LongAdder misses = new LongAdder();
+
+		CacheStats snapshot() {
+			return new CacheStats(hits.sum(), semanticHits.sum(), misses.sum());
+		}
+
+	}
+
+	/**
+	 * Cache statistics of one agent.
+	 * @param hits requests answered by an exact match
+	 * @param semanticHits requests answered by a similar request
+	 * @param misses requests sent to the model
+	 */
+	public record CacheStats(long hits, long semanticHits, long misses) {
+
+		public long requests() {
+			return hits + semanticHits + misses;
+		}
+
+		/**
+		 * @return the share of requests answered from the cache, 0 if there were none
+		 */
+		public double hitRate() {
+			long requests = requests();
+			return requests == 0 ? 0d : (double) (hits + semanticHits) / requests;
+		}
+
+	}
+
+	public static class Builder {
+		private int maxSize = DEFAULT_MAX_SIZE;
+		private Duration ttl = DEFAULT_TTL;
+		private EmbeddingModel embeddingModel;
+		private double similarityThreshold = DEFAULT_SIMILARITY_THRESHOLD;
+		private MeterRegistry meterRegistry;
+
+		/**
+		 * Maximum number of cached responses, the least recently used are evicted first.
+		 */
+		public Builder maxSize(int maxSize) {
+			this.maxSize = maxSize;
+			return this;
+		}
+
+		/**
+		 * How long a response stays in the cache.
+		 */
+		public Builder ttl(Duration ttl) {
+			this.ttl = ttl;
+			return this;
+		}
+
+		/**
+		 * Enables semantic matching of the last user message.
+		 */
+		public Builder embeddingModel(EmbeddingModel embeddingModel) {
+			this.embeddingModel = embeddingModel;
+			return this;
+		}
+
+		/**
+		 * Minimum cosine similarity for a semantic match.
+		 */
+		public Builder similarityThreshold(double similarityThreshold) {
+			this.similarityThreshold = similarityThreshold;
+			return this;
+		}
+
+		/**
+		 * Registers the lookups and hit rate of every agent as meters, tagged with the
+		 * agent name. Not set by default: the statistics are then only available through
+		 * {@link ResponseCacheInterceptor#getStats()}.
+		 */
+		public Builder meterRegistry(MeterRegistry meterRegistry) {
+			this.meterRegistry = meterRegistry;
+			return this;
+		}
+
+		public ResponseCacheInterceptor build() {
+			if (maxSize <= 0) {
+				throw new IllegalArgumentException("maxSize must be > 0!");
+			}
+			if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+				throw new IllegalArgumentException("ttl must be > 0!");
+			}
+			if (similarityThreshold <= 0 || similarityThreshold > 1) {
+				throw new IllegalArgumentException("similarityThreshold must be in (0, 1]!");
+			}
+			return new ResponseCacheInterceptor(this);
+		}
+	}
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.interceptor.toolselection;
+
+import org.springframework.ai.embedding.EmbeddingModel;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory vector index of tool name and description embeddings.
+ *
+ * Each tool is embedded once; its vector is L2-normalized so that similarity is a plain
+ * dot product. A tool is re-embedded only when its description changes.
+ */
+public class ToolEmbeddingIndex {
+
+	private final EmbeddingModel embeddingModel;
+
+	private final Map<String, IndexedTool> tools = new ConcurrentHashMap<>();
+
+	public ToolEmbeddingIndex(EmbeddingModel embeddingModel) {
+		this.embeddingModel = Objects.requireNonNull(embeddingModel, "embeddingModel is required");
+	}
+
+	/**
+	 * Embeds every tool that is not yet indexed, or whose description changed, in a
+	 * single batch call.
+	 * @param toolNames the tool names
+	 * @param toolDescriptions tool descriptions keyed by tool name, may be null
+	 */
+	public void index(Collection<String> toolNames, Map<String, String> toolDescriptions) {
+		List<String> missingNames = new ArrayList<>();
+		List<String> missingTexts = new ArrayList<>();
+		for (String toolName : toolNames) {
+			String text = toolText(toolName, toolDescriptions);
+			IndexedTool indexed = tools.get(toolName);
+			if (indexed == null || !indexed.text().equals(text)) {
+				missingNames.add(toolName);
+				missingTexts.add(text);
+			}
+		}
+		if (missingNames.isEmpty()) {
+			return;
+		}
+		List<float[]> embeddings = embeddingModel.embed(missingTexts);
+		for (int i = 0; i < missingNames.size(); i++) {
+			tools.put(missingNames.get(i), new IndexedTool(missingTexts.get(i), normalize(embeddings.get(i))));
+		}
+	}
+
+	/**
+	 * Embeds a query for use with {@link #topK(float[], Collection, int)}.
+	 * @param query the user query
+	 * @return the normalized query vector
+	 */
+	public float[] embedQuery(String query) {
+		return normalize(embeddingModel.embed(query));
+	}
+
+	/**
+	 * Returns the {@code k} candidates most similar to the query, best first. Candidates
+	 * that are not indexed are ignored.
+	 * @param queryVector the normalized query vector
+	 * @param candidates the tool names to rank
+	 * @param k the maximum number of results
+	 * @return the scored tools in descending similarity order
+	 */
+	public List<ScoredTool> topK(float[] queryVector, Collection<String> candidates, int k) {
+		PriorityQueue<ScoredTool> heap = new PriorityQueue<>(k + 1, Comparator.comparingDouble(ScoredTool::score));
+		for (String candidate : candidates) {
+			IndexedTool indexed = tools.get(candidate);
+			if (indexed == null) {
+				continue;
+			}
+			heap.offer(new ScoredTool(candidate, dot(queryVector, indexed.vector())));
+			if (heap.size() > k) {
+				heap.poll();
+			}
+		}
+		List<ScoredTool> result = new ArrayList<>(heap);
+		result.sort(Comparator.comparingDouble(ScoredTool::score).reversed());
+		return result;
+	}
+
+	/**
+	 * @return the number of indexed tools
+	 */
+	public int size() {
+		return tools.size();
+	}
+
+	private static String toolText(String toolName, Map<String, String> toolDescriptions) {
+		String description = toolDescriptions != null ? toolDescriptions.get(toolName) : null;
+		return description == null || description.isEmpty() ? toolName : toolName + ": " + description;
+	}
+
+	private static float dot(float[] a, float[] b) {
+		int length = Math.min(a.length, b.length);
+		float sum = 0f;
+		for (int i = 0; i < length; i++) {
+			sum += a[i] * b[i];
+		}
+		return sum;
+	}
+
+	private static float[] normalize(float[] vector) {
+		double norm = 0d;
+		for (float v : vector) {
+			norm += v * v;
+		}
+		if (norm == 0d) {
+			return vector;
+		}
+		float inverse = (float) (1d / Math.sqrt(norm));
+		float[] normalized = new float[vector.length];
+		for (int i = 0; i < vector.length; i++) {
+			normalized[i] = vector[i] * inverse;
+		}
+		return normalized;
+	}
+
+	private record IndexedTool(String text, float[] vector) {
+	}
+
+	/**
+	 * A tool name with its cosine similarity to the query.
+	 */
+	public record ScoredTool(String name, double score) {
+	}
+
+}
@@ -25,10 +25,12 @@ import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.embedding.EmbeddingModel;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -51,11 +53,26 @@ import org.slf4j.LoggerFactory;
  *     .selectionModel(gpt4oMini)
  *     .maxTools(3)
  *     .build();
+ *
+ * When an embedding model is configured, tools are selected by vector similarity
+ * instead: tool name and description embeddings are computed once and held in a
+ * {@link ToolEmbeddingIndex}, and only the user query is embedded per turn. If the best
+ * similarity is below {@code minSimilarity} and a selection model is also configured,
+ * the LLM selection is used as a fallback; without one, the closest tools are kept.
+ *
+ * ToolSelectionInterceptor interceptor = ToolSelectionInterceptor.builder()
+ *     .embeddingModel(embeddingModel)
+ *     .indexTools(toolDescriptions)
+ *     .maxTools(5)
+ *     .minSimilarity(0.3)
+ *     .build();
  */
 public class ToolSelectionInterceptor extends ModelInterceptor {
 
 	private static final Logger log = LoggerFactory.getLogger(ToolSelectionInterceptor.class);
 
+	private static final int DEFAULT_TOP_K = 5;
+
 	private static final String DEFAULT_SYSTEM_PROMPT =
 			"Your goal is to select the most relevant tools for answering the user's query.";
 
@@ -64,9 +81,17 @@ public class ToolSelectionInterceptor extends ModelInterceptor {
 	private final Integer maxTools;
 	private final Set<String> alwaysInclude;
 	private final ObjectMapper objectMapper;
+	private final ToolEmbeddingIndex embeddingIndex;
+	private final double minSimilarity;
 
 	private ToolSelectionInterceptor(Builder builder) {
 		this.selectionModel = builder.selectionModel;
+		this.embeddingIndex = builder.embeddingModel != null ? new ToolEmbeddingIndex(builder.embeddingModel) : null;
+		this.minSimilarity = builder.minSimilarity;
+		if (this.embeddingIndex != null && builder.indexedTools != null) {
+			// Pre-compute tool embeddings at agent build time
+			this.embeddingIndex.index(builder.indexedTools.keySet(), builder.indexedTools);
+		}
 		this.systemPrompt = builder.systemPrompt;
 		this.maxTools = builder.maxTools;
 		this.alwaysInclude = builder.alwaysInclude != null
@@ -97,7 +122,9 @@ public class ToolSelectionInterceptor extends ModelInterceptor {
 		}
 
 		// Perform tool selection
-		Set<String> selectedToolNames = selectTools(availableTools, lastUserQuery, request.getToolDescriptions());
+		Set<String> selectedToolNames = embeddingIndex != null
+				? selectToolsByEmbedding(availableTools, lastUserQuery, request.getToolDescriptions())
+				: selectTools(availableTools, lastUserQuery, request.getToolDescriptions());
 
 		log.info("Selected {} tools from {} available: {}",
 				selectedToolNames.size(), availableTools.size(), selectedToolNames);
@@ -125,6 +152,47 @@ public class ToolSelectionInterceptor extends ModelInterceptor {
 		return null;
 	}
 
+	private Set<String> selectToolsByEmbedding(List<String> toolNames, String userQuery,
+			Map<String, String> toolDescriptions) {
+		try {
+			embeddingIndex.index(toolNames, toolDescriptions);
+			int k = maxTools != null ? maxTools : DEFAULT_TOP_K;
+			List<ToolEmbeddingIndex.ScoredTool> ranked = embeddingIndex.topK(embeddingIndex.embedQuery(userQuery),
+					toolNames, k);
+
+			if (selectionModel != null && (ranked.isEmpty() || ranked.get(0).score() < minSimilarity)) {
+				log.debug("Best tool similarity below {}, falling back to LLM selection", minSimilarity);
+				return selectTools(toolNames, userQuery, toolDescriptions);
+			}
+
+			if (ranked.isEmpty()) {
+				return new HashSet<>(toolNames);
+			}
+
+			// Nothing clears the threshold and there is no model to ask: keep the closest
+			// tools rather than leaving the main model without any
+			boolean belowThreshold = ranked.get(0).score() < minSimilarity;
+			if (belowThreshold) {
+				log.debug("Best tool similarity below {}, using the top {} tools", minSimilarity, k);
+			}
+
+			Set<String> selected = new LinkedHashSet<>(alwaysInclude);
+			for (ToolEmbeddingIndex.ScoredTool scored : ranked) {
+				if (selected.size() >= k) {
+					break;
+				}
+				if (belowThreshold || scored.score() >= minSimilarity) {
+					selected.add(scored.name());
+				}
+			}
+			return selected;
+		}
+		catch (Exception e) {
+			log.warn("Embedding tool selection failed, using all tools: {}", e.getMessage());
+			return new HashSet<>(toolNames);
+		}
+	}
+
 	private Set<String> selectTools(List<String> toolNames, String userQuery, Map<String, String> toolDescriptions) {
 		try {
 			// Build tool list for prompt with descriptions
@@ -206,6 +274,9 @@ public class ToolSelectionInterceptor extends ModelInterceptor {
 		private String systemPrompt = DEFAULT_SYSTEM_PROMPT;
 		private Integer maxTools;
 		private Set<String> alwaysInclude;
+		private EmbeddingModel embeddingModel;
+		private Map<String, String> indexedTools;
+		private double minSimilarity = 0.0;
 
 		public Builder selectionModel(ChatModel selectionModel) {
 			this.selectionModel = selectionModel;
@@ -235,9 +306,39 @@ public class ToolSelectionInterceptor extends ModelInterceptor {
 			return this;
 		}
 
+		/**
+		 * Enables vector-similarity selection with the given embedding model. A
+		 * selection model, if also set, is only used as a low-confidence fallback.
+		 */
+		public Builder embeddingModel(EmbeddingModel embeddingModel) {
+			this.embeddingModel = embeddingModel;
+			return this;
+		}
+
+		/**
+		 * Tools (name to description) to embed eagerly when the interceptor is built.
+		 * Tools seen later in requests are embedded on first use.
+		 */
+		public Builder indexTools(Map<String, String> toolDescriptions) {
+			this.indexedTools = toolDescriptions;
+			return this;
+		}
+
+		/**
+		 * Minimum cosine similarity for a tool to be selected in embedding mode. When the
+		 * best match is below it, the selection model is consulted if configured.
+		 */
+		public Builder minSimilarity(double minSimilarity) {
+			if (minSimilarity < -1.0 || minSimilarity > 1.0) {
+				throw new IllegalArgumentException("minSimilarity must be between -1 and 1");
+			}
+			this.minSimilarity = minSimilarity;
+			return this;
+		}
+
 		public ToolSelectionInterceptor build() {
-			if (selectionModel == null) {
-				throw new IllegalStateException("selectionModel is required");
+			if (selectionModel == null && embeddingModel == null) {
+				throw new IllegalStateException("selectionModel or embeddingModel is required");
 			}
 			return new ToolSelectionInterceptor(this);
 		}
@@ -45,14 +45,19 @@ import org.springframework.ai.tool.ToolCallback;
 import org.springframework.lang.Nullable;
 import org.springframework.util.StringUtils;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import reactor.core.publisher.Flux;
 
@@ -63,12 +68,28 @@ public class AgentLlmNode implements NodeActionWithConfig {
 	private static final Logger logger = LoggerFactory.getLogger(AgentLlmNode.class);
 	public static final String MODEL_ITERATION_KEY = "_MODEL_ITERATION_";
 
+	/**
+	 * Message metadata key of the prompt cache hint put on the last message of the stable
+	 * prompt prefix in cache-aware mode, for models that support explicit cache breakpoints.
+	 */
+	public static final String CACHE_CONTROL_METADATA_KEY = "cache_control";
+
+	private static final Map<String, Object> EPHEMERAL_CACHE_CONTROL = Map.of("type", "ephemeral");
+
+	private static final String PROMPT_TOKENS_METRIC = "spring.ai.alibaba.agent.prompt.tokens";
+
+	private static final String CACHED_PROMPT_TOKENS_METRIC = "spring.ai.alibaba.agent.prompt.tokens.cached";
+
+	private static final String PROMPT_CACHE_RATIO_METRIC = "spring.ai.alibaba.agent.prompt.cache.ratio";
+
+	private static final String AGENT_NAME_TAG = "spring.ai.alibaba.agent.name";
+
 	private String agentName;
 
 	private List<Advisor> advisors = new ArrayList<>();
 
 	// FIXME: toolCallbacks should be managed in chatOptions only. Currently it's guaranteed immutable with unmodifiableList.
-	private List<ToolCallback> toolCallbacks = new ArrayList<>();
+	private volatile List<ToolCallback> toolCallbacks = new ArrayList<>();
 
 	private List<ModelInterceptor> modelInterceptors = new ArrayList<>();
 
@@ -76,7 +97,7 @@ public class AgentLlmNode implements NodeActionWithConfig {
 
 	private String outputSchema;
 
-	private ChatClient chatClient;
+	private volatile ChatClient chatClient;
 
 	private String systemPrompt;
 
@@ -88,6 +109,10 @@ public class AgentLlmNode implements NodeActionWithConfig {
 
 	private boolean enableReasoningLog;
 
+	private boolean cacheAwarePrompt;
+
+	private final PromptCacheStats promptCacheStats = new PromptCacheStats();
+
 	public AgentLlmNode(Builder builder) {
 		this.agentName = builder.agentName;
 		this.outputKey = builder.outputKey;
@@ -107,6 +132,26 @@ public class AgentLlmNode implements NodeActionWithConfig {
 		this.chatClient = builder.chatClient;
 		this.chatOptions = buildChatOptions(builder.chatOptions, this.toolCallbacks);
 		this.enableReasoningLog = builder.enableReasoningLog;
+		this.cacheAwarePrompt = builder.cacheAwarePrompt;
+		if (builder.meterRegistry != null) {
+			registerPromptCacheMeters(builder.meterRegistry);
+		}
+	}
+
+	private void registerPromptCacheMeters(MeterRegistry meterRegistry) {
+		String agent = agentName != null ? agentName : "unknown";
+		FunctionCounter.builder(PROMPT_TOKENS_METRIC, promptCacheStats, PromptCacheStats::getPromptTokens)
+			.description("Prompt tokens reported by the model")
+			.tag(AGENT_NAME_TAG, agent)
+			.register(meterRegistry);
+		FunctionCounter.builder(CACHED_PROMPT_TOKENS_METRIC, promptCacheStats, PromptCacheStats::getCachedTokens)
+			.description("Prompt tokens read from the provider's prompt cache")
+			.tag(AGENT_NAME_TAG, agent)
+			.register(meterRegistry);
+		Gauge.builder(PROMPT_CACHE_RATIO_METRIC, promptCacheStats, PromptCacheStats::cachedTokenRatio)
+			.description("Share of prompt tokens read from the provider's prompt cache")
+			.tag(AGENT_NAME_TAG, agent)
+			.register(meterRegistry);
 	}
 
 	public static Builder builder() {
@@ -117,6 +162,14 @@ public class AgentLlmNode implements NodeActionWithConfig {
 		this.toolCallbacks = toolCallbacks;
 	}
 
+	/**
+	 * Replaces the chat client used by subsequent model calls. Calls already in progress
+	 * complete with the client they started with.
+	 */
+	public void setChatClient(ChatClient chatClient) {
+		this.chatClient = chatClient;
+	}
+
 	public void setModelInterceptors(List<ModelInterceptor> modelInterceptors) {
 		this.modelInterceptors = modelInterceptors;
 	}
@@ -159,14 +212,27 @@ public class AgentLlmNode implements NodeActionWithConfig {
 			messages = (List<Message>) state.value("messages").get();
 		}
 
-		augmentUserMessage(messages, outputSchema);
-		renderTemplatedUserMessage(messages, state.data());
+		// In cache-aware mode the output schema goes into the system prompt instead, so the
+		// history is only touched to render a templated instruction. That happens in place on
+		// the first call, before the template has ever been sent, and later calls find it
+		// rendered at the same position
+		if (cacheAwarePrompt) {
+			renderTemplatedUserMessage(messages, state.data());
+		}
+		else {
+			augmentUserMessage(messages, outputSchema);
+			renderTemplatedUserMessage(messages, state.data());
+		}
 
 		// Create ModelRequest
+		Map<String, Object> requestContext = new HashMap<>(config.metadata().orElse(new HashMap<>()));
+		if (agentName != null) {
+			requestContext.put(ModelRequest.AGENT_NAME_CONTEXT_KEY, agentName);
+		}
 		ModelRequest.Builder requestBuilder = ModelRequest.builder()
 				.messages(messages)
 				.options(this.chatOptions != null ? this.chatOptions.copy() : null)
-				.context(config.metadata().orElse(new HashMap<>()));
+				.context(requestContext);
 
         // Extract tool names and descriptions from toolCallbacks and pass them to ModelRequest
         if (toolCallbacks != null && !toolCallbacks.isEmpty()) {
@@ -180,19 +246,27 @@ public class AgentLlmNode implements NodeActionWithConfig {
                     toolDescriptions.put(name, description);
                 }
             }
+            if (cacheAwarePrompt) {
+                toolNames.sort(Comparator.naturalOrder());
+            }
             requestBuilder.tools(toolNames);
             requestBuilder.toolDescriptions(toolDescriptions);
         }
 
-		if (StringUtils.hasLength(this.systemPrompt)) {
-			requestBuilder.systemMessage(new SystemMessage(this.systemPrompt));
+		if (cacheAwarePrompt) {
+			addStablePrefix(requestBuilder, messages);
 		}
+		else {
+			if (StringUtils.hasLength(this.systemPrompt)) {
+				requestBuilder.systemMessage(new SystemMessage(this.systemPrompt));
+			}
 
-		if (StringUtils.hasLength(this.instruction)) {
-			List<Message> messagesWithInstruction = new ArrayList<>();
-			messagesWithInstruction.add(new UserMessage(this.instruction));
-			messagesWithInstruction.addAll(messages);
-			requestBuilder.messages(messagesWithInstruction);
+			if (StringUtils.hasLength(this.instruction)) {
+				List<Message> messagesWithInstruction = new ArrayList<>();
+				messagesWithInstruction.add(new UserMessage(this.instruction));
+				messagesWithInstruction.addAll(messages);
+				requestBuilder.messages(messagesWithInstruction);
+			}
 		}
 
 		ModelRequest modelRequest = requestBuilder.build();
@@ -210,7 +284,8 @@ public class AgentLlmNode implements NodeActionWithConfig {
 									.orElse(THREAD_ID_DEFAULT), agentName, systemPrompt);
 						}
 					}
-					Flux<ChatResponse> chatResponseFlux = buildChatClientRequestSpec(request).stream().chatResponse();
+					Flux<ChatResponse> chatResponseFlux = recordPromptCacheUsage(
+							buildChatClientRequestSpec(request).stream().chatResponse());
 					if (enableReasoningLog) {
 						chatResponseFlux = chatResponseFlux.doOnNext(chatResponse -> {
 							if (chatResponse != null && chatResponse.getResult() != null && chatResponse.getResult().getOutput() != null) {
@@ -250,6 +325,9 @@ public class AgentLlmNode implements NodeActionWithConfig {
 					}
 
 					ChatResponse response = buildChatClientRequestSpec(request).call().chatResponse();
+					if (response != null && response.getMetadata() != null) {
+						onUsage(response.getMetadata().getUsage());
+					}
 
 					AssistantMessage responseMessage = new AssistantMessage("Empty response from model for unknown reason");
 					if (response != null && response.getResult() != null) {
@@ -295,6 +373,79 @@ public class AgentLlmNode implements NodeActionWithConfig {
 		this.advisors = advisors;
 	}
 
+	/**
+	 * Returns the prompt tokens the model reported for this agent so far, and how many of
+	 * them were read from the provider's prompt cache.
+	 */
+	public PromptCacheStats getPromptCacheStats() {
+		return promptCacheStats;
+	}
+
+	/**
+	 * Puts the parts of the prompt that are the same on every call in front of the
+	 * conversation: the system prompt, extended with the output schema, followed by the
+	 * instruction. The last of them carries a cache hint, so that providers with explicit
+	 * prompt caching cache everything up to it, and providers caching by prefix find the same
+	 * bytes at the start of every request.
+	 */
+	private void addStablePrefix(ModelRequest.Builder requestBuilder, List<Message> messages) {
+		String systemText = this.systemPrompt;
+		if (StringUtils.hasText(this.outputSchema)) {
+			systemText = StringUtils.hasLength(systemText) ? systemText + System.lineSeparator() + this.outputSchema
+					: this.outputSchema;
+		}
+		boolean hasInstruction = StringUtils.hasLength(this.instruction);
+
+		if (StringUtils.hasLength(systemText)) {
+			SystemMessage.Builder systemMessage = SystemMessage.builder().text(systemText);
+			if (!hasInstruction) {
+				systemMessage.metadata(Map.of(CACHE_CONTROL_METADATA_KEY, EPHEMERAL_CACHE_CONTROL));
+			}
+			requestBuilder.systemMessage(systemMessage.build());
+		}
+
+		if (hasInstruction) {
+			List<Message> messagesWithInstruction = new ArrayList<>();
+			messagesWithInstruction.add(UserMessage.builder()
+					.text(this.instruction)
+					.metadata(Map.of(CACHE_CONTROL_METADATA_KEY, EPHEMERAL_CACHE_CONTROL))
+					.build());
+			messagesWithInstruction.addAll(messages);
+			requestBuilder.messages(messagesWithInstruction);
+		}
+	}
+
+	/**
+	 * Records the usage of a streamed response once it completes. Depending on the provider
+	 * the usage comes with the last chunk only or, cumulated, with every chunk, so the last
+	 * one reported is used.
+	 */
+	private Flux<ChatResponse> recordPromptCacheUsage(Flux<ChatResponse> chatResponseFlux) {
+		return Flux.defer(() -> {
+			AtomicReference<Usage> lastUsage = new AtomicReference<>();
+			return chatResponseFlux.doOnNext(chatResponse -> {
+				if (chatResponse != null && chatResponse.getMetadata() != null) {
+					Usage usage = chatResponse.getMetadata().getUsage();
+					if (usage != null && usage.getPromptTokens() != null && usage.getPromptTokens() > 0) {
+						lastUsage.set(usage);
+					}
+				}
+			}).doOnComplete(() -> onUsage(lastUsage.get()));
+		});
+	}
+
+	private void onUsage(Usage usage) {
+		if (usage == null) {
+			return;
+		}
+		promptCacheStats.record(usage);
+		if (cacheAwarePrompt && logger.isDebugEnabled()) {
+			logger.debug("Agent {} read {} of {} prompt tokens from the prompt cache, {} overall.", agentName,
+					PromptCacheStats.cachedTokens(usage), usage.getPromptTokens(),
+					String.format("%.2f", promptCacheStats.cachedTokenRatio()));
+		}
+	}
+
 	private List<Message> appendSystemPromptIfNeeded(ModelRequest modelRequest) {
 		// Create a new list and copy messages from modelRequest
 		List<Message> messages = new ArrayList<>(modelRequest.getMessages());
@@ -401,6 +552,24 @@ public class AgentLlmNode implements NodeActionWithConfig {
 	}
 
 	public void renderTemplatedUserMessage(List<Message> messages, Map<String, Object> params) {
+		Map<String, Object> processedParams = templateParams(params);
+		for (int i = messages.size() - 1; i >= 0; i--) {
+			Message message = messages.get(i);
+			if (message instanceof AgentInstructionMessage instructionMessage && !instructionMessage.isRendered()) {
+				messages.set(i, render(instructionMessage, processedParams));
+				break;
+			}
+		}
+	}
+
+	private AgentInstructionMessage render(AgentInstructionMessage instructionMessage, Map<String, Object> params) {
+		return instructionMessage.mutate()
+			.text(renderPromptTemplate(instructionMessage.getText(), params))
+			.rendered(true)
+			.build();
+	}
+
+	private static Map<String, Object> templateParams(Map<String, Object> params) {
 		// Process params to create a new Map
 		Map<String, Object> processedParams = new HashMap<>();
 		if (params != null) {
@@ -427,15 +596,7 @@ public class AgentLlmNode implements NodeActionWithConfig {
 				}
 			}
 		}
-
-		for (int i = messages.size() - 1; i >= 0; i--) {
-			Message message = messages.get(i);
-			if (message instanceof AgentInstructionMessage instructionMessage && !instructionMessage.isRendered()) {
-				AgentInstructionMessage newMessage = instructionMessage.mutate().text(renderPromptTemplate(instructionMessage.getText(), processedParams)).rendered(true).build();
-				messages.set(i, newMessage);
-				break;
-			}
-		}
+		return processedParams;
 	}
 
 	/**
@@ -472,6 +633,10 @@ public class AgentLlmNode implements NodeActionWithConfig {
 		// NOTICE! If both tools(ToolSelectionInterceptor) and options are customized in ModelRequest, tools will override toolcall setting in options.
 		List<ToolCallback> filteredToolCallbacks = filterToolCallbacks(modelRequest);
 		filteredToolCallbacks.addAll(modelRequest.getDynamicToolCallbacks());
+		if (cacheAwarePrompt) {
+			// Tool definitions are part of the prompt prefix, keep them in the same order on every call
+			filteredToolCallbacks.sort(Comparator.comparing(callback -> callback.getToolDefinition().name()));
+		}
 
         var promptSpec = this.chatClient.prompt()
                 .messages(messages)
@@ -538,6 +703,10 @@ public class AgentLlmNode implements NodeActionWithConfig {
 
 		private ChatOptions chatOptions;
 
+		private boolean cacheAwarePrompt;
+
+		private MeterRegistry meterRegistry;
+
 		public Builder agentName(String agentName) {
 			this.agentName = agentName;
 			return this;
@@ -598,6 +767,33 @@ public class AgentLlmNode implements NodeActionWithConfig {
 			return this;
 		}
 
+		/**
+		 * Assembles prompts so that they share the longest possible prefix between calls,
+		 * which is what provider side prompt caching reuses: tools are sorted by name, the
+		 * output schema is added to the system prompt rather than to the latest user message,
+		 * and the end of the stable prefix is marked with a {@link AgentLlmNode#CACHE_CONTROL_METADATA_KEY}
+		 * hint. A templated instruction is rendered once, in place, on the first call and
+		 * then sent unchanged at the same position.
+		 * <p>
+		 * The {@code cache_control} hint is message metadata only. The chat models shipped
+		 * with Spring AI do not send it to the provider, so it has no effect unless a custom
+		 * chat model or message converter reads it; prefix caching providers benefit from
+		 * the stable ordering regardless.
+		 */
+		public Builder cacheAwarePrompt(boolean cacheAwarePrompt) {
+			this.cacheAwarePrompt = cacheAwarePrompt;
+			return this;
+		}
+
+		/**
+		 * Registers the prompt tokens, the cached prompt tokens and their ratio, as reported
+		 * in {@link AgentLlmNode#getPromptCacheStats()}, as meters tagged with the agent name.
+		 */
+		public Builder meterRegistry(MeterRegistry meterRegistry) {
+			this.meterRegistry = meterRegistry;
+			return this;
+		}
+
 		public AgentLlmNode build() {
 			return new AgentLlmNode(this);
 		}
@@ -62,7 +62,7 @@ public class AgentToolNode implements NodeActionWithConfig {
 
 	private boolean enableActingLog;
 
-	private List<ToolCallback> toolCallbacks;
+	private volatile List<ToolCallback> toolCallbacks;
 
 	private Map<String, Object> toolContext;
 
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.node;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.ai.chat.metadata.Usage;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prompt tokens reported by the model for an agent, and how many of them were read from the
+ * provider's prompt cache.
+ *
+ * <p>Spring AI's {@link Usage} has no cached token count of its own, so it is looked up in
+ * the provider's native usage object under the names used by OpenAI and DashScope
+ * ({@code prompt_tokens_details.cached_tokens}), DeepSeek ({@code prompt_cache_hit_tokens})
+ * and Anthropic ({@code cache_read_input_tokens}). Providers reporting none of them count as
+ * having no cache hits.
+ */
+public class PromptCacheStats {
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private static final Set<String> CACHED_TOKEN_KEYS = Set.of("cached_tokens", "cachedTokens",
+			"prompt_cache_hit_tokens", "promptCacheHitTokens", "cache_read_input_tokens", "cacheReadInputTokens");
+
+	private static final int MAX_DEPTH = 3;
+
+	private final AtomicLong calls = new AtomicLong();
+
+	private final AtomicLong promptTokens = new AtomicLong();
+
+	private final AtomicLong cachedTokens = new AtomicLong();
+
+	/**
+	 * Adds the usage of one model call. Usages without a prompt token count are ignored.
+	 */
+	public void record(Usage usage) {
+		if (usage == null || usage.getPromptTokens() == null || usage.getPromptTokens() <= 0) {
+			return;
+		}
+		calls.incrementAndGet();
+		promptTokens.addAndGet(usage.getPromptTokens());
+		cachedTokens.addAndGet(Math.min(cachedTokens(usage), usage.getPromptTokens()));
+	}
+
+	public long getCalls() {
+		return calls.get();
+	}
+
+	public long getPromptTokens() {
+		return promptTokens.get();
+	}
+
+	public long getCachedTokens() {
+		return cachedTokens.get();
+	}
+
+	/**
+	 * The share of prompt tokens read from the cache, between 0 and 1.
+	 */
+	public double cachedTokenRatio() {
+		long total = promptTokens.get();
+		return total == 0 ? 0 : (double) cachedTokens.get() / total;
+	}
+
+	/**
+	 * Returns the number of cached prompt tokens in the given usage, 0 if the provider does
+	 * not report it.
+	 */
+	public static long cachedTokens(Usage usage) {
+		if (usage == null || usage.getNativeUsage() == null) {
+			return 0;
+		}
+		Object nativeUsage = usage.getNativeUsage();
+		Map<?, ?> fields;
+		if (nativeUsage instanceof Map<?, ?> map) {
+			fields = map;
+		}
+		else {
+			try {
+				fields = OBJECT_MAPPER.convertValue(nativeUsage, Map.class);
+			}
+			catch (IllegalArgumentException e) {
+				return 0;
+			}
+		}
+		Number cached = findCachedTokens(fields, 0);
+		return cached != null ? Math.max(0, cached.longValue()) : 0;
+	}
+
+	private static Number findCachedTokens(Map<?, ?> fields, int depth) {
+		if (fields == null || depth > MAX_DEPTH) {
+			return null;
+		}
+		for (Map.Entry<?, ?> entry : fields.entrySet()) {
+			if (entry.getValue() instanceof Number number && CACHED_TOKEN_KEYS.contains(String.valueOf(entry.getKey()))) {
+				return number;
+			}
+		}
+		for (Object value : fields.values()) {
+			if (value instanceof Map<?, ?> nested) {
+				Number cached = findCachedTokens(nested, depth + 1);
+				if (cached != null) {
+					return cached;
+				}
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public String toString() {
+		return "PromptCacheStats{calls=" + getCalls() + ", promptTokens=" + getPromptTokens() + ", cachedTokens="
+				+ getCachedTokens() + ", cachedTokenRatio=" + cachedTokenRatio() + "}";
+	}
+
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.agent.node.AgentLlmNode;
+import com.alibaba.cloud.ai.graph.agent.node.PromptCacheStats;
+import com.alibaba.cloud.ai.graph.serializer.AgentInstructionMessage;
+
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.function.FunctionToolCallback;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheAwarePromptTest {
+
+	private static final String SYSTEM_PROMPT = "You are a helpful assistant.";
+
+	private static final String OUTPUT_SCHEMA = "Answer in JSON with a single field named answer.";
+
+	/**
+	 * Records the prompts it receives and reports 1000 prompt tokens per call, 800 of them
+	 * cached, in an OpenAI style native usage.
+	 */
+	static class RecordingChatModel implements ChatModel {
+
+		private final List<Prompt> prompts = new ArrayList<>();
+
+		@Override
+		public ChatResponse call(Prompt prompt) {
+			prompts.add(prompt);
+			return response("done", true);
+		}
+
+		@Override
+		public Flux<ChatResponse> stream(Prompt prompt) {
+			prompts.add(prompt);
+			return Flux.just(response("do", false), response("ne", true));
+		}
+
+		private static ChatResponse response(String text, boolean withUsage) {
+			ChatResponseMetadata.Builder metadata = ChatResponseMetadata.builder();
+			if (withUsage) {
+				metadata.usage(new DefaultUsage(1000, 10, 1010,
+						Map.of("prompt_tokens_details", Map.of("cached_tokens", 800))));
+			}
+			return new ChatResponse(List.of(new Generation(new AssistantMessage(text))), metadata.build());
+		}
+
+	}
+
+	private static ToolCallback tool(String name) {
+		return FunctionToolCallback.builder(name, (String input) -> name + " result")
+				.description("The " + name + " tool")
+				.inputType(String.class)
+				.build();
+	}
+
+	private static AgentLlmNode node(ChatModel model, boolean cacheAwarePrompt) {
+		return AgentLlmNode.builder()
+				.agentName("cache_agent")
+				.chatClient(ChatClient.builder(model).build())
+				.systemPrompt(SYSTEM_PROMPT)
+				.outputSchema(OUTPUT_SCHEMA)
+				.toolCallbacks(List.of(tool("gamma"), tool("alpha"), tool("beta")))
+				.cacheAwarePrompt(cacheAwarePrompt)
+				.build();
+	}
+
+	private static OverAllState state(List<Message> messages) {
+		Map<String, Object> data = new HashMap<>();
+		data.put("messages", messages);
+		return new OverAllState(data);
+	}
+
+	private static RunnableConfig config(boolean stream) {
+		return RunnableConfig.builder().addMetadata("_stream_", stream).build();
+	}
+
+	private static List<String> toolNames(Prompt prompt) {
+		ToolCallingChatOptions options = assertInstanceOf(ToolCallingChatOptions.class, prompt.getOptions());
+		return options.getToolCallbacks().stream().map(callback -> callback.getToolDefinition().name()).toList();
+	}
+
+	@Test
+	void testCacheAwarePromptKeepsPrefixStable() throws Exception {
+		RecordingChatModel model = new RecordingChatModel();
+		AgentLlmNode node = node(model, true);
+
+		List<Message> history = new ArrayList<>(List.of(new UserMessage("What is the weather in Hangzhou?")));
+		node.apply(state(history), config(false));
+		history.add(new AssistantMessage("It is sunny."));
+		history.add(new UserMessage("And tomorrow?"));
+		node.apply(state(history), config(false));
+
+		assertEquals(2, model.prompts.size());
+		for (Prompt prompt : model.prompts) {
+			Message first = prompt.getInstructions().get(0);
+			assertInstanceOf(SystemMessage.class, first);
+			assertEquals(SYSTEM_PROMPT + System.lineSeparator() + OUTPUT_SCHEMA, first.getText());
+			assertEquals(Map.of("type", "ephemeral"), first.getMetadata().get(AgentLlmNode.CACHE_CONTROL_METADATA_KEY));
+			assertEquals(List.of("alpha", "beta", "gamma"), toolNames(prompt));
+		}
+
+		// The history is sent as it is, so the second prompt extends the first one
+		List<Message> secondPrompt = model.prompts.get(1).getInstructions();
+		assertEquals("What is the weather in Hangzhou?", secondPrompt.get(1).getText());
+		assertEquals("And tomorrow?", secondPrompt.get(3).getText());
+		assertFalse(history.stream().anyMatch(message -> message.getText().contains(OUTPUT_SCHEMA)));
+
+		PromptCacheStats stats = node.getPromptCacheStats();
+		assertEquals(2, stats.getCalls());
+		assertEquals(2000, stats.getPromptTokens());
+		assertEquals(1600, stats.getCachedTokens());
+		assertEquals(0.8, stats.cachedTokenRatio(), 1e-9);
+	}
+
+	@Test
+	void testTemplatedInstructionIsRenderedOnceInPlace() throws Exception {
+		RecordingChatModel model = new RecordingChatModel();
+		AgentLlmNode node = node(model, true);
+
+		List<Message> history = new ArrayList<>(List.of(new AgentInstructionMessage("Plan a trip to {city}.")));
+		Map<String, Object> data = new HashMap<>();
+		data.put("messages", history);
+		data.put("city", "Hangzhou");
+		node.apply(new OverAllState(data), config(false));
+
+		// The template is never sent, its rendering takes its place
+		List<Message> firstPrompt = model.prompts.get(0).getInstructions();
+		assertEquals(2, firstPrompt.size());
+		assertEquals("Plan a trip to Hangzhou.", firstPrompt.get(1).getText());
+		assertTrue(((AgentInstructionMessage) history.get(0)).isRendered());
+
+		// A tool round trip later the rendering is still where it was and is not added again
+		history.add(AssistantMessage.builder()
+				.content("")
+				.toolCalls(List.of(new AssistantMessage.ToolCall("call_1", "function", "alpha", "{}")))
+				.build());
+		history.add(ToolResponseMessage.builder()
+				.responses(List.of(new ToolResponseMessage.ToolResponse("call_1", "alpha", "alpha result")))
+				.build());
+		data.put("city", "Beijing");
+		node.apply(new OverAllState(data), config(false));
+
+		List<Message> secondPrompt = model.prompts.get(1).getInstructions();
+		assertEquals(4, secondPrompt.size());
+		assertEquals(firstPrompt, secondPrompt.subList(0, 2));
+		assertInstanceOf(ToolResponseMessage.class, secondPrompt.get(3));
+	}
+
+	@Test
+	void testPromptCacheStatsAreRegisteredAsMeters() throws Exception {
+		RecordingChatModel model = new RecordingChatModel();
+		MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		AgentLlmNode node = AgentLlmNode.builder()
+				.agentName("cache_agent")
+				.chatClient(ChatClient.builder(model).build())
+				.cacheAwarePrompt(true)
+				.meterRegistry(meterRegistry)
+				.build();
+
+		node.apply(state(new ArrayList<>(List.of(new UserMessage("Hello")))), config(false));
+		node.apply(state(new ArrayList<>(List.of(new UserMessage("Hello again")))), config(false));
+
+		assertEquals(2000, meterRegistry.get("spring.ai.alibaba.agent.prompt.tokens")
+				.tag("spring.ai.alibaba.agent.name", "cache_agent").functionCounter().count());
+		assertEquals(1600, meterRegistry.get("spring.ai.alibaba.agent.prompt.tokens.cached")
+				.tag("spring.ai.alibaba.agent.name", "cache_agent").functionCounter().count());
+		assertEquals(0.8, meterRegistry.get("spring.ai.alibaba.agent.prompt.cache.ratio")
+				.tag("spring.ai.alibaba.agent.name", "cache_agent").gauge().value(), 1e-9);
+	}
+
+	@Test
+	void testDefaultModeStillAugmentsUserMessage() throws Exception {
+		RecordingChatModel model = new RecordingChatModel();
+		AgentLlmNode node = node(model, false);
+
+		List<Message> history = new ArrayList<>(List.of(new UserMessage("What is the weather in Hangzhou?")));
+		node.apply(state(history), config(false));
+
+		Prompt prompt = model.prompts.get(0);
+		assertEquals(SYSTEM_PROMPT, prompt.getInstructions().get(0).getText());
+		assertNull(prompt.getInstructions().get(0).getMetadata().get(AgentLlmNode.CACHE_CONTROL_METADATA_KEY));
+		assertTrue(history.get(0).getText().endsWith(OUTPUT_SCHEMA));
+		assertEquals(List.of("gamma", "alpha", "beta"), toolNames(prompt));
+	}
+
+	@Test
+	void testStreamingUsageIsRecordedOnCompletion() throws Exception {
+		RecordingChatModel model = new RecordingChatModel();
+		AgentLlmNode node = node(model, true);
+
+		Map<String, Object> result = node.apply(state(new ArrayList<>(List.of(new UserMessage("Hello")))), config(true));
+		assertEquals(0, node.getPromptCacheStats().getCalls());
+
+		Flux<?> flux = assertInstanceOf(Flux.class, result.get("messages"));
+		flux.blockLast();
+
+		assertEquals(1, node.getPromptCacheStats().getCalls());
+		assertEquals(0.8, node.getPromptCacheStats().cachedTokenRatio(), 1e-9);
+	}
+
+	@Test
+	void testCachedTokensFromNativeUsage() {
+		assertEquals(300, PromptCacheStats.cachedTokens(new DefaultUsage(500, 10, 510,
+				Map.of("prompt_cache_hit_tokens", 300, "prompt_cache_miss_tokens", 200))));
+		assertEquals(0, PromptCacheStats.cachedTokens(new DefaultUsage(500, 10)));
+	}
+
+}
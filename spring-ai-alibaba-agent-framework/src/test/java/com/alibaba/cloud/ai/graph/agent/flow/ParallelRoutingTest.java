@@ -0,0 +1,283 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.flow;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.action.Command;
+import com.alibaba.cloud.ai.graph.agent.Agent;
+import com.alibaba.cloud.ai.graph.agent.ReactAgent;
+import com.alibaba.cloud.ai.graph.agent.flow.agent.LlmRoutingAgent;
+import com.alibaba.cloud.ai.graph.agent.flow.agent.SupervisorAgent;
+import com.alibaba.cloud.ai.graph.agent.flow.node.SupervisorEdgeAction;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests routing a task to several sub-agents at once. The sub-agent models record how
+ * many of them answer at the same time, so the tests check that sub-agents chosen together
+ * actually overlap instead of relying on wall-clock time. The latency comparison at the
+ * end only reports timings and asserts nothing about them.
+ */
+public class ParallelRoutingTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(ParallelRoutingTest.class);
+
+	private static final List<String> SUB_AGENT_NAMES = List.of("research_agent", "code_agent", "review_agent");
+
+	/**
+	 * Counts the sub-agent model calls in flight. When a latch is given, every call waits
+	 * for it, so calls that are started together are guaranteed to overlap.
+	 */
+	static class ConcurrencyTracker {
+
+		private final AtomicInteger inFlight = new AtomicInteger();
+
+		private final AtomicInteger maxInFlight = new AtomicInteger();
+
+		private final CountDownLatch arrived;
+
+		private final long latencyMillis;
+
+		ConcurrencyTracker(CountDownLatch arrived) {
+			this(arrived, 0);
+		}
+
+		ConcurrencyTracker(CountDownLatch arrived, long latencyMillis) {
+			this.arrived = arrived;
+			this.latencyMillis = latencyMillis;
+		}
+
+		void enter() {
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			if (latencyMillis > 0) {
+				try {
+					Thread.sleep(latencyMillis);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			if (arrived != null) {
+				arrived.countDown();
+				try {
+					arrived.await(5, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+
+		void exit() {
+			inFlight.decrementAndGet();
+		}
+
+		int maxInFlight() {
+			return maxInFlight.get();
+		}
+
+	}
+
+	/**
+	 * Answers every prompt with a fixed text, reporting the call to a tracker.
+	 */
+	static class TrackedChatModel implements ChatModel {
+
+		private final String reply;
+
+		private final ConcurrencyTracker tracker;
+
+		TrackedChatModel(String reply, ConcurrencyTracker tracker) {
+			this.reply = reply;
+			this.tracker = tracker;
+		}
+
+		@Override
+		public ChatResponse call(Prompt prompt) {
+			tracker.enter();
+			try {
+				return new ChatResponse(List.of(new Generation(new AssistantMessage(reply))));
+			}
+			finally {
+				tracker.exit();
+			}
+		}
+
+		@Override
+		public Flux<ChatResponse> stream(Prompt prompt) {
+			return Flux.defer(() -> Flux.just(call(prompt)));
+		}
+
+	}
+
+	/**
+	 * Answers with the given routing decisions in turn, repeating the last one.
+	 */
+	static class ScriptedChatModel implements ChatModel {
+
+		private final List<String> replies;
+
+		private final AtomicInteger calls = new AtomicInteger();
+
+		ScriptedChatModel(String... replies) {
+			this.replies = List.of(replies);
+		}
+
+		@Override
+		public ChatResponse call(Prompt prompt) {
+			int index = Math.min(calls.getAndIncrement(), replies.size() - 1);
+			return new ChatResponse(List.of(new Generation(new AssistantMessage(replies.get(index)))));
+		}
+
+	}
+
+	private static List<Agent> subAgents(ConcurrencyTracker tracker) {
+		return SUB_AGENT_NAMES.stream()
+				.<Agent>map(name -> ReactAgent.builder()
+						.name(name)
+						.model(new TrackedChatModel("Result of " + name, tracker))
+						.description("Handles the " + name.replace("_agent", "") + " part of a task")
+						.outputKey(name + "_output")
+						.build())
+				.toList();
+	}
+
+	private static OverAllState runSupervisor(ChatModel supervisorModel, ConcurrencyTracker tracker)
+			throws Exception {
+		SupervisorAgent supervisor = SupervisorAgent.builder()
+				.name("supervisor")
+				.description("Coordinates research, coding and review")
+				.model(supervisorModel)
+				.subAgents(subAgents(tracker))
+				.build();
+
+		Optional<OverAllState> result = supervisor.invoke("Implement and review a small feature");
+
+		assertTrue(result.isPresent());
+		for (String name : SUB_AGENT_NAMES) {
+			assertTrue(result.get().value(name + "_output").isPresent(), name + " should have run");
+		}
+		return result.get();
+	}
+
+	@Test
+	public void testSupervisorRunsSingleSubAgentsOneAfterAnother() throws Exception {
+		ConcurrencyTracker tracker = new ConcurrencyTracker(null);
+		runSupervisor(new ScriptedChatModel(
+				"{\"agents\": [\"research_agent\"]}",
+				"{\"agents\": [\"code_agent\"]}",
+				"{\"agents\": [\"review_agent\"]}",
+				"{\"agents\": [\"FINISH\"]}"), tracker);
+
+		assertEquals(1, tracker.maxInFlight());
+	}
+
+	@Test
+	public void testSupervisorRunsSelectedSubAgentsInParallel() throws Exception {
+		ConcurrencyTracker tracker = new ConcurrencyTracker(new CountDownLatch(SUB_AGENT_NAMES.size()));
+		OverAllState state = runSupervisor(new ScriptedChatModel(
+				"{\"agents\": [\"research_agent\", \"code_agent\", \"review_agent\"]}",
+				"{\"agents\": [\"FINISH\"]}"), tracker);
+
+		assertEquals(SUB_AGENT_NAMES.size(), tracker.maxInFlight());
+		assertFalse(state.value(SupervisorEdgeAction.PARALLEL_AGENTS_KEY).isPresent(),
+				"The parallel selection should not outlive the fan-out");
+	}
+
+	@Test
+	public void testPlainEdgeActionRoutesToTheFirstSelectedSubAgent() throws Exception {
+		List<Agent> subAgents = subAgents(new ConcurrencyTracker(null));
+		SupervisorAgent supervisor = SupervisorAgent.builder()
+				.name("supervisor")
+				.description("Coordinates research, coding and review")
+				.model(new ScriptedChatModel("{\"agents\": [\"FINISH\"]}"))
+				.subAgents(subAgents)
+				.build();
+		SupervisorEdgeAction action = new SupervisorEdgeAction(new ScriptedChatModel(
+				"{\"agents\": [\"code_agent\", \"review_agent\"]}"), supervisor, subAgents);
+		OverAllState state = new OverAllState(Map.of("messages", List.of(new UserMessage("Implement a feature"))));
+
+		assertEquals("code_agent", action.apply(state).get());
+		Command command = action.asCommandAction().apply(state, RunnableConfig.builder().build()).get();
+		assertEquals(SupervisorEdgeAction.PARALLEL_ROUTE, command.gotoNode());
+		assertEquals(List.of("code_agent", "review_agent"), command.update().get(SupervisorEdgeAction.PARALLEL_AGENTS_KEY));
+	}
+
+	/**
+	 * Reports how long the supervisor takes when the sub-agents are chosen one at a time
+	 * and all at once, with every sub-agent model answering after a fixed delay. Timings
+	 * on shared build machines vary too much to assert on, so they are only logged.
+	 */
+	@Test
+	public void testSupervisorLatencySequentialVersusParallel() throws Exception {
+		long start = System.nanoTime();
+		runSupervisor(new ScriptedChatModel(
+				"{\"agents\": [\"research_agent\"]}",
+				"{\"agents\": [\"code_agent\"]}",
+				"{\"agents\": [\"review_agent\"]}",
+				"{\"agents\": [\"FINISH\"]}"), new ConcurrencyTracker(null, 200));
+		long sequentialMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		start = System.nanoTime();
+		runSupervisor(new ScriptedChatModel(
+				"{\"agents\": [\"research_agent\", \"code_agent\", \"review_agent\"]}",
+				"{\"agents\": [\"FINISH\"]}"), new ConcurrencyTracker(null, 200));
+		long parallelMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		logger.info("Supervisor with {} sub-agents of 200ms each: sequential {}ms, parallel {}ms",
+				SUB_AGENT_NAMES.size(), sequentialMillis, parallelMillis);
+	}
+
+	@Test
+	public void testRoutingAgentRunsSelectedSubAgentsInParallel() throws Exception {
+		ConcurrencyTracker tracker = new ConcurrencyTracker(new CountDownLatch(SUB_AGENT_NAMES.size()));
+		LlmRoutingAgent router = LlmRoutingAgent.builder()
+				.name("router")
+				.description("Routes tasks to research, coding and review")
+				.model(new ScriptedChatModel("{\"agents\": [\"research_agent\", \"code_agent\", \"review_agent\"]}"))
+				.subAgents(subAgents(tracker))
+				.build();
+
+		Optional<OverAllState> result = router.invoke("Implement and review a small feature");
+
+		assertTrue(result.isPresent());
+		for (String name : SUB_AGENT_NAMES) {
+			assertTrue(result.get().value(name + "_output").isPresent(), name + " should have run");
+		}
+		assertEquals(SUB_AGENT_NAMES.size(), tracker.maxInFlight());
+	}
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.flow;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.agent.Agent;
+import com.alibaba.cloud.ai.graph.agent.ReactAgent;
+import com.alibaba.cloud.ai.graph.agent.flow.node.RoutingEdgeAction;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that {@link RoutingEdgeAction} resolves the streamed decision early, falls back to
+ * the complete text and retries invalid decisions.
+ */
+@SuppressWarnings("deprecation")
+public class RoutingEdgeActionTest {
+
+	/**
+	 * Streams one scripted answer per call, split into the given chunks, and records the
+	 * prompts and whether the stream was cancelled. A model that stalls never completes
+	 * its stream after the last chunk.
+	 */
+	static class StreamingChatModel implements ChatModel {
+
+		private final List<List<String>> answers;
+
+		private final List<Prompt> prompts = new ArrayList<>();
+
+		private final AtomicBoolean cancelled = new AtomicBoolean();
+
+		private boolean stalls;
+
+		@SafeVarargs
+		StreamingChatModel(List<String>... answers) {
+			this.answers = List.of(answers);
+		}
+
+		StreamingChatModel stalling() {
+			this.stalls = true;
+			return this;
+		}
+
+		@Override
+		public ChatResponse call(Prompt prompt) {
+			throw new UnsupportedOperationException("the decision is streamed");
+		}
+
+		@Override
+		public Flux<ChatResponse> stream(Prompt prompt) {
+			List<String> chunks = answers.get(Math.min(prompts.size(), answers.size() - 1));
+			prompts.add(prompt);
+			return Flux.fromIterable(chunks)
+				.map(chunk -> new ChatResponse(List.of(new Generation(new AssistantMessage(chunk)))))
+				.concatWith(stalls ? Flux.never() : Flux.empty())
+				.doOnCancel(() -> cancelled.set(true));
+		}
+
+	}
+
+	private static List<Agent> subAgents() {
+		return List.of("research_agent", "code_agent").stream()
+			.<Agent>map(name -> ReactAgent.builder()
+				.name(name)
+				.model(new StreamingChatModel(List.of("unused")))
+				.description("Handles the " + name.replace("_agent", "") + " part of a task")
+				.build())
+			.toList();
+	}
+
+	private static RoutingEdgeAction action(ChatModel model) {
+		Agent root = ReactAgent.builder().name("router").model(model).description("Routes tasks").build();
+		return new RoutingEdgeAction(model, root, subAgents());
+	}
+
+	private static OverAllState state() {
+		return new OverAllState(Map.of("messages", List.of(new UserMessage("Implement a small feature"))));
+	}
+
+	@Test
+	public void testDecisionResolvesOnceTheAgentFieldIsCompleteAndCancelsTheRest() throws Exception {
+		// The model never finishes the completion after the agent field
+		StreamingChatModel model = new StreamingChatModel(
+				List.of("{\"agent\": \"code", "_agent\"", ", \"reason\": \"the task")).stalling();
+
+		assertEquals("code_agent", action(model).apply(state()).get(5, TimeUnit.SECONDS));
+		assertTrue(model.cancelled.get(), "the rest of the completion should be cancelled");
+		assertEquals(1, model.prompts.size());
+	}
+
+	@Test
+	public void testDecisionFallsBackToTheCompleteText() throws Exception {
+		// No string value for the field while streaming, so the whole text is parsed at the end
+		StreamingChatModel model = new StreamingChatModel(List.of("{\"agent\": ", "null}"),
+				List.of("```json\n", "{\"agent\": \"research_agent\"}", "\n```"));
+
+		assertEquals("research_agent", action(model).apply(state()).get());
+		assertEquals(2, model.prompts.size());
+		assertFalse(model.prompts.get(0).getContents().contains("Previous attempt"));
+	}
+
+	@Test
+	public void testInvalidDecisionsAreRetriedWithFeedback() throws Exception {
+		StreamingChatModel model = new StreamingChatModel(List.of("{\"agent\": \"writer_agent\"}"),
+				List.of("{\"agent\": \"tester_agent\"}"), List.of("{\"agent\": \"code_agent\"}"));
+
+		assertEquals("code_agent", action(model).apply(state()).get());
+		assertEquals(3, model.prompts.size());
+		assertTrue(model.prompts.get(1).getContents().contains("invalid agent name 'writer_agent'"));
+		assertTrue(model.prompts.get(2).getContents().contains("invalid agent name 'tester_agent'"));
+	}
+
+	@Test
+	public void testDecisionFailsOnceTheRetriesAreExhausted() {
+		StreamingChatModel model = new StreamingChatModel(List.of("{\"agent\": \"writer_agent\"}"));
+
+		ExecutionException e = assertThrows(ExecutionException.class, () -> action(model).apply(state()).get());
+		assertInstanceOf(IllegalStateException.class, e.getCause());
+		assertEquals(3, model.prompts.size());
+	}
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.hooks;
+
+import com.alibaba.cloud.ai.graph.agent.hook.BpeTokenCounter;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BpeTokenCounterTest {
+
+	private static BpeTokenCounter counter;
+
+	@BeforeAll
+	static void loadVocabulary() throws Exception {
+		// every single byte, plus a few merges in rank order
+		StringBuilder vocabulary = new StringBuilder();
+		int rank = 0;
+		for (; rank < 256; rank++) {
+			vocabulary.append(Base64.getEncoder().encodeToString(new byte[] { (byte) rank }))
+				.append(' ')
+				.append(rank)
+				.append('\n');
+		}
+		for (String token : List.of("he", "ll", "hell", "hello", " w", "or")) {
+			vocabulary.append(Base64.getEncoder().encodeToString(token.getBytes(StandardCharsets.UTF_8)))
+				.append(' ')
+				.append(rank++)
+				.append('\n');
+		}
+		counter = BpeTokenCounter.load(new ByteArrayInputStream(vocabulary.toString().getBytes(StandardCharsets.UTF_8)),
+				BpeTokenCounter.CL100K_PATTERN);
+	}
+
+	@Test
+	void testMergesInRankOrder() {
+		// "hello" is a token, " world" merges to " w", "or", "l", "d"
+		assertEquals(5, counter.countTokens("hello world"));
+		// one piece, merged into two "hello" tokens, then served from the cache
+		assertEquals(2, counter.countTokens("hellohello"));
+		assertEquals(2, counter.countTokens(new StringBuilder("hellohello")));
+		// numbers are split in groups of three digits
+		assertEquals(5, counter.countTokens("12345"));
+	}
+
+	@Test
+	void testCountsUtf8Bytes() {
+		assertEquals(2, counter.countTokens("\u00e9"));
+		assertEquals(4, counter.countTokens("\uD83D\uDE00"));
+		assertEquals(0, counter.countTokens(""));
+	}
+
+	@Test
+	void testCountsMessages() {
+		assertEquals(6, counter.countTokens(List.of(new UserMessage("hello world"), new AssistantMessage("hello"))));
+	}
+
+	@Test
+	void testMissingVocabularyFails() {
+		assertThrows(IllegalStateException.class,
+				() -> BpeTokenCounter.fromClasspath("tokenizers/missing.tiktoken", BpeTokenCounter.CL100K_PATTERN));
+	}
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.hooks;
+
+import com.alibaba.cloud.ai.graph.agent.hook.CachingTokenCounter;
+import com.alibaba.cloud.ai.graph.agent.hook.TokenCounter;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachingTokenCounterTest {
+
+	@Test
+	void testOnlyNewMessagesAreCounted() {
+		AtomicInteger counted = new AtomicInteger();
+		TokenCounter approximate = TokenCounter.approximateMsgCounter();
+		CachingTokenCounter counter = new CachingTokenCounter(messages -> {
+			counted.addAndGet(messages.size());
+			return approximate.countTokens(messages);
+		});
+
+		List<Message> messages = new ArrayList<>();
+		messages.add(new UserMessage("a".repeat(40)));
+		messages.add(new AssistantMessage("b".repeat(80)));
+		assertEquals(30, counter.countTokens(messages));
+		assertEquals(2, counted.get());
+
+		messages.add(new UserMessage("c".repeat(20)));
+		assertEquals(35, counter.countTokens(messages));
+		assertEquals(3, counted.get());
+
+		// equal content hits the cache as well
+		assertEquals(10, counter.countTokens(List.of(new UserMessage("a".repeat(40)))));
+		assertEquals(3, counted.get());
+	}
+
+	@Test
+	void testMessagesOfEqualLengthAreCountedSeparately() {
+		AtomicInteger counted = new AtomicInteger();
+		CachingTokenCounter counter = new CachingTokenCounter(messages -> {
+			counted.addAndGet(messages.size());
+			return 1;
+		});
+
+		counter.countTokens(List.of(new UserMessage("abcd"), new UserMessage("dcba"), new AssistantMessage("abcd")));
+		assertEquals(3, counted.get());
+	}
+
+	@Test
+	void testMessagesWithCollidingHashCodesAreCountedSeparately() {
+		AtomicInteger counted = new AtomicInteger();
+		CachingTokenCounter counter = new CachingTokenCounter(messages -> {
+			counted.addAndGet(messages.size());
+			return 1;
+		});
+
+		// "Aa" and "BB" have the same String hash code and length
+		assertEquals("Aa".hashCode(), "BB".hashCode());
+		counter.countTokens(List.of(new UserMessage("Aa"), new UserMessage("BB")));
+		assertEquals(2, counted.get());
+	}
+
+	@Test
+	void testCalibrationScalesEstimates() {
+		CachingTokenCounter counter = TokenCounter.cached(TokenCounter.approximateMsgCounter());
+		assertSame(counter, TokenCounter.cached(counter));
+
+		List<Message> messages = List.of(new UserMessage("a".repeat(400)));
+		assertEquals(100, counter.countTokens(messages));
+
+		for (int i = 0; i < 20; i++) {
+			counter.calibrate(counter.countUncalibrated(messages), new DefaultUsage(200, 10));
+		}
+		assertTrue(Math.abs(counter.scale() - 2.0) < 0.01);
+		assertEquals(200, counter.countTokens(messages));
+
+		// usage without prompt tokens is ignored
+		counter.calibrate(100, new DefaultUsage(0, 10));
+		assertEquals(200, counter.countTokens(messages));
+	}
+
+}
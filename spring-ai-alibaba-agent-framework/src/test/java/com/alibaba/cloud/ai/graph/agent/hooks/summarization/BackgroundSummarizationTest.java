@@ -0,0 +1,234 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.hooks.summarization;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.agent.hook.HookPosition;
+import com.alibaba.cloud.ai.graph.agent.hook.messages.MessagesModelHook;
+import com.alibaba.cloud.ai.graph.agent.hook.summarization.SummarizationHook;
+import com.alibaba.cloud.ai.graph.state.ReplaceAllWith;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BackgroundSummarizationTest {
+
+	private final AtomicInteger summaryCalls = new AtomicInteger();
+
+	private final ChatModel summaryModel = new ChatModel() {
+		@Override
+		public ChatResponse call(Prompt prompt) {
+			summaryCalls.incrementAndGet();
+			return new ChatResponse(List.of(new Generation(new AssistantMessage("background summary"))));
+		}
+	};
+
+	private final RunnableConfig config = RunnableConfig.builder().threadId("thread-1").build();
+
+	@Test
+	public void testSummaryComputedAfterSoftThresholdIsSwappedIn() throws Exception {
+		SummarizationHook hook = SummarizationHook.builder()
+				.model(summaryModel)
+				.maxTokensBeforeSummary(100)
+				.backgroundSummaryThreshold(50)
+				.messagesToKeep(2)
+				.tokenCounter(messages -> messages.size() * 10)
+				.executor(Runnable::run)
+				.build();
+		assertArrayEquals(new HookPosition[] {HookPosition.BEFORE_MODEL, HookPosition.AFTER_MODEL},
+				hook.getHookPositions());
+
+		List<Message> messages = conversation(6);
+		MessagesModelHook.afterModelAction(hook).apply(new OverAllState(Map.of("messages", messages)), config).get();
+		assertEquals(1, summaryCalls.get());
+
+		// Below the hard threshold nothing is replaced and the pending summary is reused
+		List<Message> replaced = beforeModel(hook, messages);
+		assertEquals(messages, replaced);
+		assertEquals(1, summaryCalls.get());
+
+		messages.addAll(conversation(5));
+		replaced = beforeModel(hook, messages);
+		assertEquals(1, summaryCalls.get(), "the summary computed in the background is used");
+		assertSame(messages.get(0), replaced.get(0));
+		assertInstanceOf(SystemMessage.class, replaced.get(1));
+		assertTrue(replaced.get(1).getText().endsWith("background summary"));
+		assertEquals(messages.subList(4, messages.size()), replaced.subList(2, replaced.size()));
+	}
+
+	@Test
+	public void testChangedHistoryFallsBackToSynchronousSummary() throws Exception {
+		SummarizationHook hook = SummarizationHook.builder()
+				.model(summaryModel)
+				.maxTokensBeforeSummary(100)
+				.backgroundSummaryThreshold(50)
+				.messagesToKeep(2)
+				.tokenCounter(messages -> messages.size() * 10)
+				.executor(Runnable::run)
+				.build();
+
+		MessagesModelHook.afterModelAction(hook)
+			.apply(new OverAllState(Map.of("messages", conversation(6))), config)
+			.get();
+		assertEquals(1, summaryCalls.get());
+
+		// The head of the history was edited since, so the pending summary no longer applies
+		List<Message> edited = conversation(11);
+		edited.set(1, new AssistantMessage("edited answer"));
+		List<Message> replaced = beforeModel(hook, edited);
+		assertEquals(2, summaryCalls.get());
+		assertInstanceOf(SystemMessage.class, replaced.get(1));
+	}
+
+	@Test
+	public void testPendingSummaryIsRefreshedOnceTheCutoffMovesOn() throws Exception {
+		SummarizationHook hook = SummarizationHook.builder()
+				.model(summaryModel)
+				.maxTokensBeforeSummary(200)
+				.backgroundSummaryThreshold(50)
+				.messagesToKeep(4)
+				.tokenCounter(messages -> messages.size() * 10)
+				.executor(Runnable::run)
+				.build();
+
+		List<Message> messages = conversation(6);
+		MessagesModelHook.afterModelAction(hook).apply(new OverAllState(Map.of("messages", messages)), config).get();
+		assertEquals(1, summaryCalls.get());
+
+		// One more message keeps the pending summary close enough
+		messages.addAll(conversation(1));
+		MessagesModelHook.afterModelAction(hook).apply(new OverAllState(Map.of("messages", messages)), config).get();
+		assertEquals(1, summaryCalls.get());
+
+		messages.addAll(conversation(2));
+		MessagesModelHook.afterModelAction(hook).apply(new OverAllState(Map.of("messages", messages)), config).get();
+		assertEquals(2, summaryCalls.get(), "the summary is recomputed for the longer history");
+	}
+
+	@Test
+	public void testBackgroundSummaryLeavingHistoryTooLongFallsBack() throws Exception {
+		SummarizationHook hook = SummarizationHook.builder()
+				.model(summaryModel)
+				.maxTokensBeforeSummary(100)
+				.backgroundSummaryThreshold(50)
+				.messagesToKeep(2)
+				.tokenCounter(messages -> messages.size() * 10)
+				.executor(Runnable::run)
+				.build();
+
+		List<Message> messages = conversation(6);
+		MessagesModelHook.afterModelAction(hook).apply(new OverAllState(Map.of("messages", messages)), config).get();
+		assertEquals(1, summaryCalls.get());
+
+		// The conversation grew far past the summarized head before the hard threshold was checked
+		messages.addAll(conversation(24));
+		List<Message> replaced = beforeModel(hook, messages);
+		assertEquals(2, summaryCalls.get());
+		assertEquals(4, replaced.size());
+	}
+
+	@Test
+	public void testHungBackgroundSummaryTimesOutAndSummarizesInline() throws Exception {
+		// The background task is accepted but never runs, like a summary model that hangs
+		List<Runnable> accepted = new ArrayList<>();
+		SummarizationHook hook = SummarizationHook.builder()
+				.model(summaryModel)
+				.maxTokensBeforeSummary(100)
+				.backgroundSummaryThreshold(50)
+				.messagesToKeep(2)
+				.tokenCounter(messages -> messages.size() * 10)
+				.executor(accepted::add)
+				.summaryTimeout(Duration.ofMillis(50))
+				.build();
+
+		List<Message> messages = conversation(6);
+		MessagesModelHook.afterModelAction(hook).apply(new OverAllState(Map.of("messages", messages)), config).get();
+		assertEquals(1, accepted.size());
+		assertEquals(0, summaryCalls.get());
+
+		messages.addAll(conversation(5));
+		List<Message> replaced = beforeModel(hook, messages);
+		assertEquals(1, summaryCalls.get(), "the history is summarized inline");
+		assertInstanceOf(SystemMessage.class, replaced.get(1));
+		assertTrue(replaced.get(1).getText().endsWith("background summary"));
+	}
+
+	@Test
+	public void testRejectedBackgroundSummaryIsComputedInline() throws Exception {
+		SummarizationHook hook = SummarizationHook.builder()
+				.model(summaryModel)
+				.maxTokensBeforeSummary(100)
+				.backgroundSummaryThreshold(50)
+				.messagesToKeep(2)
+				.tokenCounter(messages -> messages.size() * 10)
+				.executor(task -> {
+					throw new RejectedExecutionException("saturated");
+				})
+				.build();
+
+		List<Message> messages = conversation(6);
+		MessagesModelHook.afterModelAction(hook).apply(new OverAllState(Map.of("messages", messages)), config).get();
+		assertEquals(0, summaryCalls.get());
+
+		messages.addAll(conversation(5));
+		List<Message> replaced = beforeModel(hook, messages);
+		assertEquals(1, summaryCalls.get());
+		assertInstanceOf(SystemMessage.class, replaced.get(1));
+	}
+
+	@Test
+	public void testSoftThresholdMustBeBelowHardThreshold() {
+		assertThrows(IllegalArgumentException.class, () -> SummarizationHook.builder()
+				.model(summaryModel)
+				.maxTokensBeforeSummary(100)
+				.backgroundSummaryThreshold(100)
+				.build());
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Message> beforeModel(SummarizationHook hook, List<Message> messages) throws Exception {
+		Map<String, Object> result = MessagesModelHook.beforeModelAction(hook)
+				.apply(new OverAllState(Map.of("messages", messages)), config)
+				.get();
+		return ((ReplaceAllWith<Message>) result.get("messages")).newValues();
+	}
+
+	private static List<Message> conversation(int size) {
+		List<Message> messages = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			messages.add(i % 2 == 0 ? new UserMessage("question " + i) : new AssistantMessage("answer " + i));
+		}
+		return messages;
+	}
+
+}
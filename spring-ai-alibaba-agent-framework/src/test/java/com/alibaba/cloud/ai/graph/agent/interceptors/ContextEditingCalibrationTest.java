@@ -0,0 +1,88 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.interceptors;
+
+import com.alibaba.cloud.ai.graph.agent.hook.CachingTokenCounter;
+import com.alibaba.cloud.ai.graph.agent.hook.TokenCounter;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelRequest;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelResponse;
+import com.alibaba.cloud.ai.graph.agent.interceptor.contextediting.ContextEditingInterceptor;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that the token counter of ContextEditingInterceptor is calibrated against the
+ * whole prompt, including the tool definitions sent with it.
+ */
+class ContextEditingCalibrationTest {
+
+	@Test
+	void testToolDefinitionsDoNotInflateTheScale() {
+		CachingTokenCounter counter = TokenCounter.cached(TokenCounter.approximateMsgCounter());
+		ContextEditingInterceptor interceptor = ContextEditingInterceptor.builder().tokenCounter(counter).build();
+
+		// 100 estimated tokens of messages and about as many of tool definitions
+		ModelRequest request = ModelRequest.builder()
+			.messages(List.of(new UserMessage("a".repeat(400))))
+			.dynamicToolCallbacks(List.of(tool("search", "b".repeat(400))))
+			.context(new HashMap<>())
+			.build();
+		ChatResponse response = ChatResponse.builder()
+			.generations(List.of(new Generation(new AssistantMessage("ok"))))
+			.metadata(ChatResponseMetadata.builder().usage(new DefaultUsage(200, 10)).build())
+			.build();
+
+		for (int i = 0; i < 20; i++) {
+			interceptor.interceptModel(request, r -> ModelResponse.of(new AssistantMessage("ok"), response));
+		}
+
+		assertTrue(Math.abs(counter.scale() - 1.0) < 0.05, "scale drifted to " + counter.scale());
+	}
+
+	private static ToolCallback tool(String name, String inputSchema) {
+		ToolDefinition definition = ToolDefinition.builder()
+			.name(name)
+			.description("Searches the web")
+			.inputSchema(inputSchema)
+			.build();
+		return new ToolCallback() {
+			@Override
+			public ToolDefinition getToolDefinition() {
+				return definition;
+			}
+
+			@Override
+			public String call(String toolInput) {
+				return "";
+			}
+		};
+	}
+
+}
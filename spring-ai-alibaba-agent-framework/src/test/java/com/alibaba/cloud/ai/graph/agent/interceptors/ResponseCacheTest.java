@@ -0,0 +1,324 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.interceptors;
+
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelCallHandler;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelRequest;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelResponse;
+import com.alibaba.cloud.ai.graph.agent.interceptor.responsecache.ResponseCacheInterceptor;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.model.tool.DefaultToolCallingChatOptions;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ResponseCacheTest {
+
+	private final AtomicInteger modelCalls = new AtomicInteger();
+
+	private final ModelCallHandler callHandler = request -> ModelResponse
+		.of(new AssistantMessage("answer " + modelCalls.incrementAndGet()));
+
+	private final ModelCallHandler streamHandler = request -> {
+		int call = modelCalls.incrementAndGet();
+		return ModelResponse.of(Flux.just(chunk("streamed "), chunk("answer " + call)));
+	};
+
+	@Test
+	void testExactMatchIgnoresWhitespace() {
+		ResponseCacheInterceptor interceptor = ResponseCacheInterceptor.builder().build();
+
+		ModelResponse first = interceptor.interceptModel(request("faq_agent", false, "How do I reset my password?"),
+				callHandler);
+		ModelResponse second = interceptor.interceptModel(request("faq_agent", false, "  How do I reset\nmy password? "),
+				callHandler);
+
+		assertEquals(1, modelCalls.get());
+		assertEquals("answer 1", text(first));
+		assertEquals("answer 1", text(second));
+		assertEquals(new ResponseCacheInterceptor.CacheStats(1, 0, 1), interceptor.getStats("faq_agent"));
+		assertEquals(0.5, interceptor.getStats("faq_agent").hitRate());
+	}
+
+	@Test
+	void testEntriesAreScopedByAgentAndConversation() {
+		ResponseCacheInterceptor interceptor = ResponseCacheInterceptor.builder().build();
+
+		interceptor.interceptModel(request("faq_agent", false, "hello"), callHandler);
+		interceptor.interceptModel(request("sales_agent", false, "hello"), callHandler);
+		interceptor.interceptModel(request("faq_agent", false, "earlier question", "hello"), callHandler);
+
+		assertEquals(3, modelCalls.get());
+		assertEquals(new ResponseCacheInterceptor.CacheStats(0, 0, 2), interceptor.getStats("faq_agent"));
+		assertEquals(new ResponseCacheInterceptor.CacheStats(0, 0, 1), interceptor.getStats("sales_agent"));
+	}
+
+	@Test
+	void testStreamedResponseIsReplayed() {
+		ResponseCacheInterceptor interceptor = ResponseCacheInterceptor.builder().build();
+
+		List<String> firstChunks = chunks(interceptor.interceptModel(request("faq_agent", true, "hi"), streamHandler));
+		List<String> secondChunks = chunks(interceptor.interceptModel(request("faq_agent", true, "hi"), streamHandler));
+		// A blocking call can be answered from a streamed response too
+		ModelResponse blocking = interceptor.interceptModel(request("faq_agent", false, "hi"), callHandler);
+
+		assertEquals(1, modelCalls.get());
+		assertEquals(List.of("streamed ", "answer 1"), firstChunks);
+		assertEquals(firstChunks, secondChunks);
+		assertEquals("streamed answer 1", text(blocking));
+	}
+
+	@Test
+	void testSimilarQuestionIsAnsweredFromCache() {
+		ResponseCacheInterceptor interceptor = ResponseCacheInterceptor.builder()
+			.embeddingModel(new BagOfWordsEmbeddingModel())
+			.similarityThreshold(0.9)
+			.build();
+
+		interceptor.interceptModel(request("faq_agent", false, "what is the weather in Hangzhou"), callHandler);
+		ModelResponse similar = interceptor.interceptModel(
+				request("faq_agent", false, "what is the weather in Hangzhou today"), callHandler);
+		interceptor.interceptModel(request("faq_agent", false, "book a flight to Beijing"), callHandler);
+		// Same question after a different conversation is not a match
+		interceptor.interceptModel(request("faq_agent", false, "hi", "what is the weather in Hangzhou today"),
+				callHandler);
+
+		assertEquals("answer 1", text(similar));
+		assertEquals(3, modelCalls.get());
+		assertEquals(new ResponseCacheInterceptor.CacheStats(0, 1, 3), interceptor.getStats("faq_agent"));
+	}
+
+	@Test
+	void testToolCallsAndErrorsAreNotCached() {
+		ResponseCacheInterceptor interceptor = ResponseCacheInterceptor.builder().build();
+		ModelCallHandler toolCallHandler = request -> {
+			modelCalls.incrementAndGet();
+			return ModelResponse.of(AssistantMessage.builder()
+				.content("")
+				.toolCalls(List.of(new AssistantMessage.ToolCall("call_1", "function", "search", "{}")))
+				.build());
+		};
+		ModelCallHandler errorHandler = request -> {
+			modelCalls.incrementAndGet();
+			return ModelResponse.of(new AssistantMessage("Exception: timeout"));
+		};
+
+		interceptor.interceptModel(request("agent", false, "search"), toolCallHandler);
+		interceptor.interceptModel(request("agent", false, "search"), toolCallHandler);
+		interceptor.interceptModel(request("agent", false, "fail"), errorHandler);
+		interceptor.interceptModel(request("agent", false, "fail"), errorHandler);
+
+		assertEquals(4, modelCalls.get());
+		assertEquals(0, interceptor.size());
+	}
+
+	@Test
+	void testEntriesExpireAndAreEvicted() throws InterruptedException {
+		ResponseCacheInterceptor expiring = ResponseCacheInterceptor.builder().ttl(Duration.ofMillis(50)).build();
+		expiring.interceptModel(request("agent", false, "hi"), callHandler);
+		Thread.sleep(100);
+		expiring.interceptModel(request("agent", false, "hi"), callHandler);
+		assertEquals(2, modelCalls.get());
+
+		ResponseCacheInterceptor small = ResponseCacheInterceptor.builder().maxSize(1).build();
+		small.interceptModel(request("agent", false, "first"), callHandler);
+		small.interceptModel(request("agent", false, "second"), callHandler);
+		small.interceptModel(request("agent", false, "first"), callHandler);
+		assertEquals(5, modelCalls.get());
+		assertEquals(1, small.size());
+	}
+
+	@Test
+	void testProviderSpecificOptionsArePartOfTheKey() {
+		ResponseCacheInterceptor interceptor = ResponseCacheInterceptor.builder().build();
+
+		// Same generic options, different seed
+		interceptor.interceptModel(request("faq_agent", seeded(1, new Object()), "hello"), callHandler);
+		interceptor.interceptModel(request("faq_agent", seeded(2, new Object()), "hello"), callHandler);
+		// The tool context is not sent to the model, so it does not matter
+		ModelResponse hit = interceptor.interceptModel(request("faq_agent", seeded(1, new Object()), "hello"),
+				callHandler);
+
+		assertEquals(2, modelCalls.get());
+		assertEquals("answer 1", text(hit));
+	}
+
+	@Test
+	void testStatisticsAreRegisteredAsMeters() {
+		MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		ResponseCacheInterceptor interceptor = ResponseCacheInterceptor.builder()
+			.meterRegistry(meterRegistry)
+			.build();
+
+		interceptor.interceptModel(request("faq_agent", false, "hello"), callHandler);
+		interceptor.interceptModel(request("faq_agent", false, "hello"), callHandler);
+		interceptor.interceptModel(request("faq_agent", false, "hello"), callHandler);
+		interceptor.interceptModel(request("sales_agent", false, "hello"), callHandler);
+
+		assertEquals(2, lookups(meterRegistry, "faq_agent", "hit"));
+		assertEquals(1, lookups(meterRegistry, "faq_agent", "miss"));
+		assertEquals(0, lookups(meterRegistry, "faq_agent", "semantic_hit"));
+		assertEquals(2.0 / 3, hitRate(meterRegistry, "faq_agent"), 1e-9);
+		assertEquals(0, hitRate(meterRegistry, "sales_agent"));
+	}
+
+	@Test
+	void testInvalidConfiguration() {
+		assertThrows(IllegalArgumentException.class, () -> ResponseCacheInterceptor.builder().maxSize(0).build());
+		assertThrows(IllegalArgumentException.class,
+				() -> ResponseCacheInterceptor.builder().ttl(Duration.ZERO).build());
+		assertThrows(IllegalArgumentException.class,
+				() -> ResponseCacheInterceptor.builder().similarityThreshold(1.5).build());
+	}
+
+	private static ModelRequest request(String agentName, boolean stream, String... userMessages) {
+		List<Message> messages = new ArrayList<>();
+		for (String userMessage : userMessages) {
+			messages.add(new UserMessage(userMessage));
+		}
+		Map<String, Object> context = new HashMap<>();
+		context.put(ModelRequest.AGENT_NAME_CONTEXT_KEY, agentName);
+		context.put("_stream_", stream);
+		return ModelRequest.builder().messages(messages).context(context).build();
+	}
+
+	private static ModelRequest request(String agentName, ToolCallingChatOptions options, String userMessage) {
+		Map<String, Object> context = new HashMap<>();
+		context.put(ModelRequest.AGENT_NAME_CONTEXT_KEY, agentName);
+		context.put("_stream_", false);
+		return ModelRequest.builder()
+			.messages(List.of(new UserMessage(userMessage)))
+			.options(options)
+			.context(context)
+			.build();
+	}
+
+	private static ToolCallingChatOptions seeded(int seed, Object toolContextValue) {
+		SeededChatOptions options = new SeededChatOptions();
+		options.setModel("test-model");
+		options.setTemperature(0.7);
+		options.setSeed(seed);
+		options.setToolContext(Map.of("state", toolContextValue));
+		return options;
+	}
+
+	private static double lookups(MeterRegistry meterRegistry, String agentName, String result) {
+		return meterRegistry.get("spring.ai.alibaba.agent.response.cache")
+			.tag("spring.ai.alibaba.agent.name", agentName)
+			.tag("spring.ai.alibaba.agent.response.cache.result", result)
+			.functionCounter()
+			.count();
+	}
+
+	private static double hitRate(MeterRegistry meterRegistry, String agentName) {
+		return meterRegistry.get("spring.ai.alibaba.agent.response.cache.hit.rate")
+			.tag("spring.ai.alibaba.agent.name", agentName)
+			.gauge()
+			.value();
+	}
+
+	private static ChatResponse chunk(String text) {
+		return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+	}
+
+	private static String text(ModelResponse response) {
+		return assertInstanceOf(AssistantMessage.class, response.getMessage()).getText();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<String> chunks(ModelResponse response) {
+		Flux<ChatResponse> flux = assertInstanceOf(Flux.class, response.getMessage());
+		return flux.map(chatResponse -> chatResponse.getResult().getOutput().getText()).collectList().block();
+	}
+
+	/**
+	 * Chat options with a provider specific property that the generic getters do not
+	 * expose.
+	 */
+	public static class SeededChatOptions extends DefaultToolCallingChatOptions {
+
+		private Integer seed;
+
+		public Integer getSeed() {
+			return seed;
+		}
+
+		public void setSeed(Integer seed) {
+			this.seed = seed;
+		}
+
+	}
+
+	/**
+	 * Deterministic embedding model hashing lower-cased words into a fixed number of
+	 * buckets.
+	 */
+	private static class BagOfWordsEmbeddingModel implements EmbeddingModel {
+
+		private static final int DIMENSIONS = 512;
+
+		@Override
+		public EmbeddingResponse call(EmbeddingRequest request) {
+			List<Embedding> embeddings = new ArrayList<>();
+			List<String> inputs = request.getInstructions();
+			for (int i = 0; i < inputs.size(); i++) {
+				embeddings.add(new Embedding(embedText(inputs.get(i)), i));
+			}
+			return new EmbeddingResponse(embeddings);
+		}
+
+		@Override
+		public float[] embed(Document document) {
+			return embedText(document.getText());
+		}
+
+		private float[] embedText(String text) {
+			float[] vector = new float[DIMENSIONS];
+			for (String word : text.toLowerCase().split("[^a-z0-9]+")) {
+				if (!word.isEmpty()) {
+					vector[Math.floorMod(word.hashCode(), DIMENSIONS)] += 1f;
+				}
+			}
+			return vector;
+		}
+
+	}
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.interceptors;
+
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelCallHandler;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelRequest;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelResponse;
+import com.alibaba.cloud.ai.graph.agent.interceptor.toolselection.ToolSelectionInterceptor;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for the embedding-based selection mode of ToolSelectionInterceptor.
+ */
+class ToolSelectionEmbeddingTest {
+
+	private static final int TOOL_COUNT = 500;
+
+	@Test
+	void testEmbeddingSelectionPicksMostSimilarToolsWithoutLlmCall() {
+		ChatModel selectionModel = Mockito.mock(ChatModel.class);
+		BagOfWordsEmbeddingModel embeddingModel = new BagOfWordsEmbeddingModel();
+
+		Map<String, String> descriptions = new LinkedHashMap<>();
+		descriptions.put("weather_tool", "get current weather forecast for a city");
+		descriptions.put("ticket_tool", "book train or flight tickets");
+		descriptions.put("hotel_tool", "search and reserve hotel rooms");
+
+		ToolSelectionInterceptor interceptor = ToolSelectionInterceptor.builder()
+			.selectionModel(selectionModel)
+			.embeddingModel(embeddingModel)
+			.indexTools(descriptions)
+			.maxTools(1)
+			.minSimilarity(0.1)
+			.build();
+
+		AtomicReference<ModelRequest> captured = new AtomicReference<>();
+		ModelCallHandler handler = request -> {
+			captured.set(request);
+			return ModelResponse.of(new AssistantMessage("ok"));
+		};
+
+		interceptor.interceptModel(request("what is the weather forecast in Hangzhou", descriptions), handler);
+		interceptor.interceptModel(request("book a flight ticket to Beijing", descriptions), handler);
+
+		assertEquals(List.of("ticket_tool"), captured.get().getTools());
+		verify(selectionModel, never()).call(any(Prompt.class));
+		// 3 tools embedded once at build time plus one query embedding per turn
+		assertEquals(5, embeddingModel.embeddedTexts.get());
+	}
+
+	@Test
+	void testToolEmbeddingsAreComputedOnceWith500Tools() {
+		BagOfWordsEmbeddingModel embeddingModel = new BagOfWordsEmbeddingModel();
+		Map<String, String> descriptions = new LinkedHashMap<>();
+		for (int i = 0; i < TOOL_COUNT; i++) {
+			descriptions.put("tool_" + i, "operation domain" + (i % 50) + " action" + i + " resource" + (i % 7));
+		}
+		ToolSelectionInterceptor interceptor = ToolSelectionInterceptor.builder()
+			.embeddingModel(embeddingModel)
+			.indexTools(descriptions)
+			.maxTools(5)
+			.build();
+
+		AtomicReference<ModelRequest> captured = new AtomicReference<>();
+		ModelCallHandler handler = request -> {
+			captured.set(request);
+			return ModelResponse.of(new AssistantMessage("ok"));
+		};
+		ModelRequest request = request("run action42 on domain42", descriptions);
+
+		interceptor.interceptModel(request, handler);
+		interceptor.interceptModel(request, handler);
+
+		assertEquals(5, captured.get().getTools().size());
+		assertTrue(captured.get().getTools().contains("tool_42"));
+		// Tool embeddings are computed once, only the query is embedded per turn
+		assertEquals(TOOL_COUNT + 2, embeddingModel.embeddedTexts.get());
+	}
+
+	@Test
+	void testUnrelatedQueryKeepsClosestToolsWithoutSelectionModel() {
+		Map<String, String> descriptions = new LinkedHashMap<>();
+		descriptions.put("weather_tool", "get current weather forecast for a city");
+		descriptions.put("ticket_tool", "book train or flight tickets");
+		descriptions.put("hotel_tool", "search and reserve hotel rooms");
+
+		ToolSelectionInterceptor interceptor = ToolSelectionInterceptor.builder()
+			.embeddingModel(new BagOfWordsEmbeddingModel())
+			.indexTools(descriptions)
+			.maxTools(2)
+			.minSimilarity(0.5)
+			.build();
+
+		AtomicReference<ModelRequest> captured = new AtomicReference<>();
+		interceptor.interceptModel(request("xyzzy plugh", descriptions), request -> {
+			captured.set(request);
+			return ModelResponse.of(new AssistantMessage("ok"));
+		});
+
+		assertEquals(2, captured.get().getTools().size());
+	}
+
+	private ModelRequest request(String query, Map<String, String> descriptions) {
+		return ModelRequest.builder()
+			.messages(List.of(new UserMessage(query)))
+			.tools(new ArrayList<>(descriptions.keySet()))
+			.toolDescriptions(descriptions)
+			.context(new HashMap<>())
+			.build();
+	}
+
+	/**
+	 * Deterministic embedding model hashing lower-cased words into a fixed number of
+	 * buckets.
+	 */
+	private static class BagOfWordsEmbeddingModel implements EmbeddingModel {
+
+		private static final int DIMENSIONS = 512;
+
+		final AtomicInteger embeddedTexts = new AtomicInteger();
+
+		@Override
+		public EmbeddingResponse call(EmbeddingRequest request) {
+			List<Embedding> embeddings = new ArrayList<>();
+			List<String> inputs = request.getInstructions();
+			for (int i = 0; i < inputs.size(); i++) {
+				embeddings.add(new Embedding(embedText(inputs.get(i)), i));
+			}
+			return new EmbeddingResponse(embeddings);
+		}
+
+		@Override
+		public float[] embed(Document document) {
+			return embedText(document.getText());
+		}
+
+		private float[] embedText(String text) {
+			embeddedTexts.incrementAndGet();
+			float[] vector = new float[DIMENSIONS];
+			for (String word : text.toLowerCase().split("[^a-z0-9]+")) {
+				if (!word.isEmpty()) {
+					vector[Math.floorMod(word.hashCode(), DIMENSIONS)] += 1f;
+				}
+			}
+			return vector;
+		}
+
+	}
+
+}
@@ -0,0 +1,336 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph;
+
+import com.alibaba.cloud.ai.graph.utils.SystemClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.alibaba.cloud.ai.graph.StateGraph.END;
+import static com.alibaba.cloud.ai.graph.StateGraph.ERROR;
+import static com.alibaba.cloud.ai.graph.StateGraph.NODE_AFTER;
+import static com.alibaba.cloud.ai.graph.StateGraph.NODE_BEFORE;
+import static com.alibaba.cloud.ai.graph.StateGraph.START;
+
+/**
+ * Dispatches {@link GraphLifecycleListener} callbacks off the graph execution thread.
+ * <p>
+ * Events are published into a bounded ring buffer and consumed in batches by a single
+ * dedicated daemon thread, so slow listeners (observation, audit, Studio push) no longer
+ * add to node latency. Each event carries an immutable shallow snapshot of the state
+ * taken at publish time. When the buffer is full the configured {@link OverflowPolicy}
+ * decides whether the producer blocks or the event is dropped.
+ * <p>
+ * Listener ordering is preserved: all events are delivered in publish order by the
+ * single consumer thread.
+ *
+ * @see CompileConfig.Builder#lifecycleDispatcher(AsyncLifecycleDispatcher)
+ */
+public class AsyncLifecycleDispatcher implements AutoCloseable {
+
+	private static final Logger log = LoggerFactory.getLogger(AsyncLifecycleDispatcher.class);
+
+	/**
+	 * Behavior applied when the ring buffer has no free slot.
+	 */
+	public enum OverflowPolicy {
+
+		/**
+		 * Silently drop the new event and count it in {@link #droppedCount()}.
+		 */
+		DROP,
+
+		/**
+		 * Block the publishing thread until a slot becomes available.
+		 */
+		BLOCK
+
+	}
+
+	/**
+	 * Immutable lifecycle event as seen by the consumer thread.
+	 */
+	public record Event(String scene, String nodeId, Map<String, Object> state, RunnableConfig config,
+			Throwable error, long timestamp, Collection<GraphLifecycleListener> listeners) {
+	}
+
+	private final BlockingQueue<Event> ringBuffer;
+
+	private final int batchSize;
+
+	private final OverflowPolicy overflowPolicy;
+
+	private final AtomicBoolean started = new AtomicBoolean(false);
+
+	private final AtomicLong publishedCount = new AtomicLong();
+
+	private final AtomicLong dispatchedCount = new AtomicLong();
+
+	private final AtomicLong droppedCount = new AtomicLong();
+
+	private final AtomicLong lastLagMillis = new AtomicLong();
+
+	private final String threadName;
+
+	private volatile boolean running = true;
+
+	private volatile Thread consumer;
+
+	private AsyncLifecycleDispatcher(Builder builder) {
+		this.ringBuffer = new ArrayBlockingQueue<>(builder.capacity);
+		this.batchSize = builder.batchSize;
+		this.overflowPolicy = builder.overflowPolicy;
+		this.threadName = builder.threadName;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Publishes a lifecycle event. The state map is copied into an immutable snapshot
+	 * before being handed to the consumer thread.
+	 * @param scene one of {@code START}, {@code END}, {@code NODE_BEFORE},
+	 * {@code NODE_AFTER}, {@code ERROR}
+	 * @param nodeId the node the event refers to
+	 * @param state the current state data
+	 * @param config the runnable config of the execution
+	 * @param error the error for {@code ERROR} events, otherwise {@code null}
+	 * @param listeners the listeners that should receive the event
+	 * @return {@code true} if the event was enqueued, {@code false} if it was dropped
+	 */
+	public boolean publish(String scene, String nodeId, Map<String, Object> state, RunnableConfig config,
+			Throwable error, Collection<GraphLifecycleListener> listeners) {
+		if (!running || listeners.isEmpty()) {
+			return false;
+		}
+		ensureStarted();
+		Map<String, Object> snapshot = state == null ? Map.of() : Collections.unmodifiableMap(new HashMap<>(state));
+		Event event = new Event(scene, nodeId, snapshot, config, error, SystemClock.now(),
+				List.copyOf(listeners));
+		if (overflowPolicy == OverflowPolicy.BLOCK) {
+			try {
+				ringBuffer.put(event);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				droppedCount.incrementAndGet();
+				return false;
+			}
+		}
+		else if (!ringBuffer.offer(event)) {
+			droppedCount.incrementAndGet();
+			return false;
+		}
+		publishedCount.incrementAndGet();
+		return true;
+	}
+
+	private void ensureStarted() {
+		if (started.compareAndSet(false, true)) {
+			Thread thread = new Thread(this::consumeLoop, threadName);
+			thread.setDaemon(true);
+			this.consumer = thread;
+			thread.start();
+		}
+	}
+
+	private void consumeLoop() {
+		List<Event> batch = new ArrayList<>(batchSize);
+		while (running || !ringBuffer.isEmpty()) {
+			try {
+				Event first = ringBuffer.poll(100, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				ringBuffer.drainTo(batch, batchSize - 1);
+				for (Event event : batch) {
+					deliver(event);
+				}
+				Event last = batch.get(batch.size() - 1);
+				lastLagMillis.set(SystemClock.now() - last.timestamp());
+				dispatchedCount.addAndGet(batch.size());
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+			finally {
+				batch.clear();
+			}
+		}
+	}
+
+	private void deliver(Event event) {
+		for (GraphLifecycleListener listener : event.listeners()) {
+			try {
+				switch (event.scene()) {
+					case START -> listener.onStart(event.nodeId(), event.state(), event.config());
+					case END -> listener.onComplete(event.nodeId(), event.state(), event.config());
+					case NODE_BEFORE ->
+						listener.before(event.nodeId(), event.state(), event.config(), event.timestamp());
+					case NODE_AFTER -> listener.after(event.nodeId(), event.state(), event.config(), event.timestamp());
+					case ERROR -> listener.onError(event.nodeId(), event.state(), event.error(), event.config());
+					default -> log.warn("Unknown lifecycle scene: {}", event.scene());
+				}
+			}
+			catch (Exception ex) {
+				log.error("Error in listener", ex);
+			}
+		}
+	}
+
+	/**
+	 * Blocks until every event published so far has been delivered or the timeout
+	 * elapses.
+	 * @param timeout the maximum time to wait
+	 * @param unit the unit of the timeout
+	 * @return {@code true} if all published events were delivered
+	 */
+	public boolean awaitDrained(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		while (dispatchedCount.get() < publishedCount.get()) {
+			if (System.nanoTime() >= deadline) {
+				return false;
+			}
+			TimeUnit.MILLISECONDS.sleep(1);
+		}
+		return true;
+	}
+
+	/**
+	 * @return number of events waiting to be delivered
+	 */
+	public int pendingCount() {
+		return ringBuffer.size();
+	}
+
+	/**
+	 * @return number of events dropped because the buffer was full
+	 */
+	public long droppedCount() {
+		return droppedCount.get();
+	}
+
+	/**
+	 * @return number of events delivered to listeners
+	 */
+	public long dispatchedCount() {
+		return dispatchedCount.get();
+	}
+
+	/**
+	 * @return delay in milliseconds between publish and delivery of the last batch
+	 */
+	public long listenerLagMillis() {
+		return lastLagMillis.get();
+	}
+
+	/**
+	 * Stops accepting new events. Already buffered events are still delivered by the
+	 * consumer thread before it exits.
+	 */
+	@Override
+	public void close() {
+		running = false;
+		Thread thread = this.consumer;
+		if (thread != null) {
+			try {
+				thread.join(TimeUnit.SECONDS.toMillis(5));
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	public static class Builder {
+
+		private int capacity = 1024;
+
+		private int batchSize = 64;
+
+		private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+		private String threadName = "graph-lifecycle-dispatcher";
+
+		/**
+		 * Sets the ring buffer capacity.
+		 * @param capacity the maximum number of buffered events
+		 * @return this builder
+		 */
+		public Builder capacity(int capacity) {
+			if (capacity <= 0) {
+				throw new IllegalArgumentException("capacity must be > 0!");
+			}
+			this.capacity = capacity;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of events delivered per consumer batch.
+		 * @param batchSize the batch size
+		 * @return this builder
+		 */
+		public Builder batchSize(int batchSize) {
+			if (batchSize <= 0) {
+				throw new IllegalArgumentException("batchSize must be > 0!");
+			}
+			this.batchSize = batchSize;
+			return this;
+		}
+
+		/**
+		 * Sets the behavior applied when the ring buffer is full.
+		 * @param overflowPolicy the overflow policy
+		 * @return this builder
+		 */
+		public Builder overflowPolicy(OverflowPolicy overflowPolicy) {
+			this.overflowPolicy = Objects.requireNonNull(overflowPolicy, "overflowPolicy cannot be null");
+			return this;
+		}
+
+		/**
+		 * Sets the name of the consumer thread.
+		 * @param threadName the thread name
+		 * @return this builder
+		 */
+		public Builder threadName(String threadName) {
+			this.threadName = threadName;
+			return this;
+		}
+
+		public AsyncLifecycleDispatcher build() {
+			return new AsyncLifecycleDispatcher(this);
+		}
+
+	}
+
+}
@@ -15,14 +15,21 @@
  */
 package com.alibaba.cloud.ai.graph;
 
+import com.alibaba.cloud.ai.graph.cache.NodeCache;
+import com.alibaba.cloud.ai.graph.cache.NodeCachePolicy;
 import com.alibaba.cloud.ai.graph.checkpoint.BaseCheckpointSaver;
+import com.alibaba.cloud.ai.graph.checkpoint.CheckpointDurability;
 import com.alibaba.cloud.ai.graph.checkpoint.config.SaverConfig;
 import com.alibaba.cloud.ai.graph.checkpoint.savers.MemorySaver;
 import com.alibaba.cloud.ai.graph.store.Store;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.observation.ObservationRegistry;
 
 import java.util.Collection;
 import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
@@ -44,10 +51,13 @@ public class CompileConfig {
 
 	private SaverConfig saverConfig = new SaverConfig().register(MemorySaver.builder().build());
 	private boolean releaseThread = false;
+	private CheckpointDurability checkpointDurability = CheckpointDurability.SYNC;
 	private Store store;
 
 	private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+	private MeterRegistry meterRegistry;
 	private Deque<GraphLifecycleListener> lifecycleListeners = new LinkedBlockingDeque<>(25);
+	private AsyncLifecycleDispatcher lifecycleDispatcher;
 
 	// private BaseCheckpointSaver checkpointSaver; // replaced with SaverConfig
 	private Set<String> interruptsBefore = Set.of();
@@ -56,6 +66,9 @@ public class CompileConfig {
 
 	private int recursionLimit = 100;
 
+	private NodeCache nodeCache;
+	private Map<String, NodeCachePolicy> nodeCachePolicies = Map.of();
+
 	// ================================================================================================================
 	// Getter Methods
 	// ================================================================================================================
@@ -74,6 +87,14 @@ public class CompileConfig {
 		return releaseThread;
 	}
 
+	/**
+	 * Returns when checkpoints are written to the checkpoint saver.
+	 * @return the checkpoint durability, {@link CheckpointDurability#SYNC} by default
+	 */
+	public CheckpointDurability checkpointDurability() {
+		return checkpointDurability;
+	}
+
 	/**
 	 * Gets an unmodifiable list of node lifecycle listeners.
 	 * @return The list of lifecycle listeners.
@@ -82,6 +103,15 @@ public class CompileConfig {
 		return lifecycleListeners;
 	}
 
+	/**
+	 * Gets the asynchronous dispatcher used to deliver lifecycle events.
+	 * @return An Optional containing the dispatcher if async dispatch is enabled;
+	 * otherwise, empty and listeners are invoked on the execution thread.
+	 */
+	public Optional<AsyncLifecycleDispatcher> lifecycleDispatcher() {
+		return ofNullable(lifecycleDispatcher);
+	}
+
 	/**
 	 * Gets observation registry for monitoring and tracing.
 	 * @return The observation registry instance.
@@ -90,6 +120,15 @@ public class CompileConfig {
 		return observationRegistry;
 	}
 
+	/**
+	 * Gets the meter registry used for execution metrics such as checkpoint write
+	 * latency.
+	 * @return An Optional containing the meter registry if configured; otherwise, empty.
+	 */
+	public Optional<MeterRegistry> meterRegistry() {
+		return ofNullable(meterRegistry);
+	}
+
 	/**
 	 * return the current state of option concerning whether to interrupt the graph
 	 * execution before evaluating conditional edges
@@ -124,6 +163,24 @@ public class CompileConfig {
 		return ofNullable(saverConfig.get());
 	}
 
+	/**
+	 * Gets the cache used to memoize cacheable node results.
+	 * @return An Optional containing the node cache if configured; otherwise, empty.
+	 */
+	public Optional<NodeCache> nodeCache() {
+		return ofNullable(nodeCache);
+	}
+
+	/**
+	 * Gets the cache policy declared for a node.
+	 * @param nodeId The node identifier.
+	 * @return An Optional containing the policy if the node is cacheable; otherwise,
+	 * empty.
+	 */
+	public Optional<NodeCachePolicy> nodeCachePolicy(String nodeId) {
+		return ofNullable(nodeCachePolicies.get(nodeId));
+	}
+
 	/**
 	 * Gets the Store instance for long-term memory storage.
 	 * @return The Store instance, may be null
@@ -196,6 +253,18 @@ public class CompileConfig {
 			return this;
 		}
 
+		/**
+		 * Sets when checkpoints are written to the checkpoint saver.
+		 * @param checkpointDurability The checkpoint durability.
+		 * @see CheckpointDurability
+		 * @return This builder instance for method chaining.
+		 */
+		public Builder checkpointDurability(CheckpointDurability checkpointDurability) {
+			this.config.checkpointDurability = Objects.requireNonNull(checkpointDurability,
+					"checkpointDurability cannot be null");
+			return this;
+		}
+
 		/**
 		 * Sets the observation registry for monitoring and tracing.
 		 * @param observationRegistry The ObservationRegistry to use.
@@ -206,6 +275,16 @@ public class CompileConfig {
 			return this;
 		}
 
+		/**
+		 * Sets the meter registry for execution metrics.
+		 * @param meterRegistry The MeterRegistry to use.
+		 * @return This builder instance for method chaining.
+		 */
+		public Builder meterRegistry(MeterRegistry meterRegistry) {
+			this.config.meterRegistry = meterRegistry;
+			return this;
+		}
+
 		/**
 		 * Sets the saver configuration for checkpoints.
 		 * @param saverConfig The SaverConfig to use.
@@ -287,6 +366,43 @@ public class CompileConfig {
 			return this;
 		}
 
+		/**
+		 * Enables asynchronous delivery of lifecycle events through the given
+		 * dispatcher instead of invoking listeners on the execution thread.
+		 * @param lifecycleDispatcher The dispatcher to use, or null for synchronous
+		 * delivery.
+		 * @return This builder instance for method chaining.
+		 */
+		public Builder lifecycleDispatcher(AsyncLifecycleDispatcher lifecycleDispatcher) {
+			this.config.lifecycleDispatcher = lifecycleDispatcher;
+			return this;
+		}
+
+		/**
+		 * Sets the cache used to memoize the results of cacheable nodes.
+		 * @param nodeCache The NodeCache to use.
+		 * @return This builder instance for method chaining.
+		 * @see #cacheableNode(String, NodeCachePolicy)
+		 */
+		public Builder nodeCache(NodeCache nodeCache) {
+			this.config.nodeCache = nodeCache;
+			return this;
+		}
+
+		/**
+		 * Marks a node as cacheable. When a node cache is configured, the node result is
+		 * looked up by a hash of the policy's input keys before the node is executed.
+		 * @param nodeId The node identifier.
+		 * @param policy The cache policy declaring input keys and TTL.
+		 * @return This builder instance for method chaining.
+		 */
+		public Builder cacheableNode(String nodeId, NodeCachePolicy policy) {
+			Map<String, NodeCachePolicy> policies = new HashMap<>(this.config.nodeCachePolicies);
+			policies.put(nodeId, policy);
+			this.config.nodeCachePolicies = Map.copyOf(policies);
+			return this;
+		}
+
 		/**
 		 * Sets the Store instance for long-term memory storage.
 		 * @param store The Store instance to use.
@@ -328,10 +444,15 @@ public class CompileConfig {
 		this.interruptsBefore = config.interruptsBefore;
 		this.interruptsAfter = config.interruptsAfter;
 		this.releaseThread = config.releaseThread;
+		this.checkpointDurability = config.checkpointDurability;
 		this.lifecycleListeners = config.lifecycleListeners;
+		this.lifecycleDispatcher = config.lifecycleDispatcher;
 		this.observationRegistry = config.observationRegistry;
+		this.meterRegistry = config.meterRegistry;
 		this.interruptBeforeEdge = config.interruptBeforeEdge;
 		this.store = config.store;
+		this.nodeCache = config.nodeCache;
+		this.nodeCachePolicies = config.nodeCachePolicies;
 	}
 
 }
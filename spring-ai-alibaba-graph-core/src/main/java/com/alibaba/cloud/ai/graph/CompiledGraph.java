@@ -19,6 +19,7 @@ import com.alibaba.cloud.ai.graph.action.AsyncNodeActionWithConfig;
 import com.alibaba.cloud.ai.graph.action.Command;
 import com.alibaba.cloud.ai.graph.checkpoint.BaseCheckpointSaver;
 import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+import com.alibaba.cloud.ai.graph.checkpoint.CheckpointWriter;
 import com.alibaba.cloud.ai.graph.exception.Errors;
 import com.alibaba.cloud.ai.graph.exception.GraphStateException;
 import com.alibaba.cloud.ai.graph.exception.RunnableErrors;
@@ -30,7 +31,9 @@ import com.alibaba.cloud.ai.graph.internal.node.Node;
 import com.alibaba.cloud.ai.graph.internal.ParallelEdgeProcessor;
 import com.alibaba.cloud.ai.graph.scheduling.ScheduleConfig;
 import com.alibaba.cloud.ai.graph.scheduling.ScheduledAgentTask;
+import com.alibaba.cloud.ai.graph.state.LayeredStateMap;
 import com.alibaba.cloud.ai.graph.state.StateSnapshot;
+import com.alibaba.cloud.ai.graph.utils.SerializationUtils;
 
 import java.io.IOException;
 import java.util.Collection;
@@ -87,6 +90,12 @@ public class CompiledGraph {
 
 	private int maxIterations = 25;
 
+	/**
+	 * Background writer of the checkpoint saver, created on first use with
+	 * {@link com.alibaba.cloud.ai.graph.checkpoint.CheckpointDurability#ASYNC}.
+	 */
+	private volatile CheckpointWriter checkpointWriter;
+
 	/**
 	 * Constructs a CompiledGraph with the given StateGraph.
 	 * 
@@ -400,6 +409,28 @@ public class CompiledGraph {
 
 	}
 
+	/**
+	 * Returns the background writer of the configured checkpoint saver.
+	 * @return the checkpoint writer
+	 * @throws IllegalStateException if no checkpoint saver is configured
+	 */
+	CheckpointWriter checkpointWriter() {
+		CheckpointWriter writer = checkpointWriter;
+		if (writer == null) {
+			synchronized (this) {
+				writer = checkpointWriter;
+				if (writer == null) {
+					BaseCheckpointSaver saver = compileConfig.checkpointSaver()
+							.orElseThrow(() -> (new IllegalStateException("Missing CheckpointSaver!")));
+					writer = new CheckpointWriter(saver, CheckpointWriter.DEFAULT_CAPACITY,
+							CheckpointWriter.DEFAULT_BATCH_SIZE, compileConfig.meterRegistry().orElse(null));
+					checkpointWriter = writer;
+				}
+			}
+		}
+		return writer;
+	}
+
 	/**
 	 * Gets initial state.
 	 * 
@@ -409,9 +440,12 @@ public class CompiledGraph {
 	 */
 	public Map<String, Object> getInitialState(Map<String, Object> inputs, RunnableConfig config) {
 
+		// Savers may return the stored state itself, so its values are copied before a run
+		// can modify them in place
 		return compileConfig.checkpointSaver()
 				.flatMap(saver -> saver.get(config))
-				.map(cp -> OverAllState.updateState(cp.getState(), inputs, keyStrategyMap))
+				.map(cp -> OverAllState.updateState(SerializationUtils.deepCopyMap(cp.getState()), inputs,
+						keyStrategyMap))
 				.orElseGet(() -> OverAllState.updateState(new HashMap<>(), inputs, keyStrategyMap));
 	}
 
@@ -643,7 +677,12 @@ public class CompiledGraph {
 		}
 
 		// Enforce Execution ID availability
-		if (!inputs.containsKey(GraphLifecycleListener.EXECUTION_ID_KEY)) {
+		if (inputs instanceof LayeredStateMap layered) {
+			if (!layered.containsKey(GraphLifecycleListener.EXECUTION_ID_KEY)) {
+				layered.put(GraphLifecycleListener.EXECUTION_ID_KEY, java.util.UUID.randomUUID().toString());
+			}
+		}
+		else if (!inputs.containsKey(GraphLifecycleListener.EXECUTION_ID_KEY)) {
 			Map<String, Object> newInputs = new HashMap<>(inputs);
 			newInputs.put(GraphLifecycleListener.EXECUTION_ID_KEY, java.util.UUID.randomUUID().toString());
 			inputs = newInputs;
@@ -15,8 +15,11 @@
  */
 package com.alibaba.cloud.ai.graph;
 
+import com.alibaba.cloud.ai.graph.checkpoint.CheckpointDurability;
 import com.alibaba.cloud.ai.graph.executor.MainGraphExecutor;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
 
 import java.util.Optional;
@@ -29,6 +32,8 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 public class GraphRunner {
 
+	private static final Logger log = LoggerFactory.getLogger(GraphRunner.class);
+
 	private final CompiledGraph compiledGraph;
 
 	private final RunnableConfig config;
@@ -50,7 +55,15 @@ public class GraphRunner {
 			try {
 				GraphRunnerContext context = new GraphRunnerContext(initialState, config, compiledGraph);
 				// Delegate to the main execution handler - demonstrates polymorphism
-				return mainGraphExecutor.execute(context, resultValue);
+				Flux<GraphResponse<NodeOutput>> responses = mainGraphExecutor.execute(context, resultValue);
+				if (compiledGraph.compileConfig.checkpointDurability() == CheckpointDurability.SYNC) {
+					return responses;
+				}
+				// Deferred checkpoints must be persisted before the caller sees the execution end,
+				// otherwise resuming right away could miss them
+				return responses
+					.concatMap(response -> response.isDone() || response.isError()
+							? flushCheckpoints(context, response) : Flux.just(response));
 			}
 			catch (Exception e) {
 				return Flux.error(e);
@@ -58,6 +71,23 @@ public class GraphRunner {
 		});
 	}
 
+	private Flux<GraphResponse<NodeOutput>> flushCheckpoints(GraphRunnerContext context,
+			GraphResponse<NodeOutput> response) {
+		return Flux.defer(() -> {
+			try {
+				context.flushCheckpoints();
+				return Flux.just(response);
+			}
+			catch (Exception e) {
+				if (response.isError()) {
+					log.error("Failed to write checkpoints", e);
+					return Flux.just(response);
+				}
+				return Flux.just(GraphResponse.error(e));
+			}
+		});
+	}
+
 	public Optional<Object> resultValue() {
 		return Optional.ofNullable(resultValue.get());
 	}
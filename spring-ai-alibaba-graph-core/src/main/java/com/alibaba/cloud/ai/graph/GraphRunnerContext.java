@@ -18,9 +18,12 @@ package com.alibaba.cloud.ai.graph;
 import com.alibaba.cloud.ai.graph.action.AsyncNodeActionWithConfig;
 import com.alibaba.cloud.ai.graph.action.Command;
 import com.alibaba.cloud.ai.graph.internal.edge.EdgeValue;
+import com.alibaba.cloud.ai.graph.checkpoint.BaseCheckpointSaver;
 import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+import com.alibaba.cloud.ai.graph.checkpoint.CheckpointDurability;
 import com.alibaba.cloud.ai.graph.exception.RunnableErrors;
 import com.alibaba.cloud.ai.graph.internal.node.ParallelNode;
+import com.alibaba.cloud.ai.graph.observation.GraphMetricsGenerator;
 import com.alibaba.cloud.ai.graph.internal.node.ResumableSubGraphAction;
 import com.alibaba.cloud.ai.graph.state.StateSnapshot;
 import com.alibaba.cloud.ai.graph.streaming.OutputType;
@@ -78,6 +81,8 @@ public class GraphRunnerContext {
 
 	ReturnFromEmbed returnFromEmbed;
 
+	BaseCheckpointSaver.Write exitCheckpoint;
+
 	public GraphRunnerContext(OverAllState initialState, RunnableConfig config, CompiledGraph compiledGraph)
 			throws Exception {
 		this.compiledGraph = compiledGraph;
@@ -142,11 +147,9 @@ public class GraphRunnerContext {
 	private OverAllState stateCreate(Map<String, Object> inputs, OverAllState initialState) {
 		// Creates a new OverAllState instance using key strategies from the graph and
 		// provided input data.
-		return OverAllStateBuilder.builder()
-				.withKeyStrategies(initialState.keyStrategies())
-				.withData(inputs)
-				.withStore(initialState.getStore())
-				.build();
+		// The inputs hold the initial state's own copy of the data and a copy of the
+		// checkpoint state, so they are not deep copied a second time.
+		return new OverAllState(inputs, new HashMap<>(initialState.keyStrategies()), initialState.getStore());
 	}
 
 	// Helper methods
@@ -248,12 +251,65 @@ public class GraphRunnerContext {
 			// Force checkPointId to null to ensure we append a new checkpoint instead of
 			// replacing the current one
 			RunnableConfig appendConfig = RunnableConfig.builder(config).checkPointId(null).build();
-			this.config = compiledGraph.compileConfig.checkpointSaver().get().put(appendConfig, cp);
+			switch (compiledGraph.compileConfig.checkpointDurability()) {
+				case ASYNC -> {
+					compiledGraph.checkpointWriter().write(appendConfig, cp);
+					this.config = RunnableConfig.builder(appendConfig).checkPointId(cp.getId()).build();
+				}
+				case EXIT_ONLY -> {
+					// Only the latest checkpoint is kept, it is written by flushCheckpoints()
+					this.exitCheckpoint = new BaseCheckpointSaver.Write(appendConfig, cp);
+					this.config = RunnableConfig.builder(appendConfig).checkPointId(cp.getId()).build();
+				}
+				default -> this.config = putCheckpoint(compiledGraph.compileConfig.checkpointSaver().get(), appendConfig,
+						cp);
+			}
 			return Optional.of(cp);
 		}
 		return Optional.empty();
 	}
 
+	/**
+	 * Writes a checkpoint and records the write latency. Asynchronous writes are timed by
+	 * the {@link com.alibaba.cloud.ai.graph.checkpoint.CheckpointWriter}.
+	 */
+	private RunnableConfig putCheckpoint(BaseCheckpointSaver saver, RunnableConfig config, Checkpoint checkpoint)
+			throws Exception {
+		long start = System.nanoTime();
+		RunnableConfig result = saver.put(config, checkpoint);
+		var meterRegistry = compiledGraph.compileConfig.meterRegistry();
+		if (meterRegistry.isPresent()) {
+			GraphMetricsGenerator.recordCheckpointWrite(meterRegistry.get(), saver.getClass().getSimpleName(),
+					System.nanoTime() - start);
+		}
+		return result;
+	}
+
+	/**
+	 * Writes the checkpoints that are not persisted yet because of the configured
+	 * {@link CheckpointDurability}. Called before the execution ends, is interrupted or
+	 * releases its thread.
+	 * @throws Exception if a checkpoint cannot be written
+	 */
+	public void flushCheckpoints() throws Exception {
+		var saver = compiledGraph.compileConfig.checkpointSaver();
+		if (saver.isEmpty()) {
+			return;
+		}
+		switch (compiledGraph.compileConfig.checkpointDurability()) {
+			case ASYNC -> compiledGraph.checkpointWriter().flush(config);
+			case EXIT_ONLY -> {
+				BaseCheckpointSaver.Write pending = exitCheckpoint;
+				if (pending != null) {
+					exitCheckpoint = null;
+					putCheckpoint(saver.get(), pending.config(), pending.checkpoint());
+				}
+			}
+			default -> {
+			}
+		}
+	}
+
 	// ================================================================================================================
 	// Output Building Methods
 	// ================================================================================================================
@@ -303,6 +359,13 @@ public class GraphRunnerContext {
 	// ================================================================================================================
 
 	public void doListeners(String scene, Exception e) {
+		var dispatcher = compiledGraph.compileConfig.lifecycleDispatcher();
+		if (dispatcher.isPresent()) {
+			String nodeId = END.equals(scene) ? END : getCurrentNodeId();
+			dispatcher.get().publish(scene, nodeId, getCurrentStateData(), config, e,
+					compiledGraph.compileConfig.lifecycleListeners());
+			return;
+		}
 		for (GraphLifecycleListener listener : compiledGraph.compileConfig.lifecycleListeners()) {
 			try {
 				switch (scene) {
@@ -15,6 +15,7 @@
  */
 package com.alibaba.cloud.ai.graph;
 
+import com.alibaba.cloud.ai.graph.state.LayeredStateMap;
 import com.alibaba.cloud.ai.graph.state.strategy.ReplaceStrategy;
 import com.alibaba.cloud.ai.graph.store.Store;
 import com.alibaba.cloud.ai.graph.utils.SerializationUtils;
@@ -110,6 +111,12 @@ public class OverAllStateBuilder {
 			return this;
 		}
 
+		if (dataMap instanceof LayeredStateMap) {
+			// state handed over by a parent graph, its values are shared read-only
+			data.putAll(dataMap);
+			return this;
+		}
+
 		// deep copy to avoid side effects
 		Map<String, Object> deepCopiedData = SerializationUtils.deepCopyMap(dataMap);
 		data.putAll(deepCopiedData);
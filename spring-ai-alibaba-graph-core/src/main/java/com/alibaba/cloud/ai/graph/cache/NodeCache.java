@@ -0,0 +1,54 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Cache of node results used to memoize deterministic graph nodes.
+ * <p>
+ * Entries map a cache key, derived from the node id and the values of the node's
+ * declared input keys, to the {@code updateState} map the node returned. Implementations
+ * must be thread-safe.
+ *
+ * @see NodeCachePolicy
+ * @see com.alibaba.cloud.ai.graph.CompileConfig.Builder#nodeCache(NodeCache)
+ */
+public interface NodeCache {
+
+	/**
+	 * Looks up a cached node result.
+	 * @param key the cache key
+	 * @return the cached update state, or empty if absent or expired
+	 */
+	Optional<Map<String, Object>> get(String key);
+
+	/**
+	 * Stores a node result.
+	 * @param key the cache key
+	 * @param updateState the update state returned by the node
+	 * @param ttl how long the entry stays valid, or {@code null} for no expiry
+	 */
+	void put(String key, Map<String, Object> updateState, Duration ttl);
+
+	/**
+	 * Removes all cached entries.
+	 */
+	void clear();
+
+}
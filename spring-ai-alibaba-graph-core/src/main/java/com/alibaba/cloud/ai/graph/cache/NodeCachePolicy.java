@@ -0,0 +1,102 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.cache;
+
+import com.alibaba.cloud.ai.graph.serializer.StateSerializer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Declares a node as cacheable. A cacheable node must be a pure function of the declared
+ * input keys: two executions that see the same values for those keys must return the
+ * same update state.
+ * <p>
+ * Cache keys are scoped by graph name and node id, so graphs sharing a {@link NodeCache}
+ * do not see each other's results as long as their names differ. Change the
+ * {@code version} when the node logic changes to stop serving results computed by the
+ * previous logic.
+ *
+ * @param inputKeys the state keys the node result depends on
+ * @param ttl how long a cached result stays valid, or {@code null} for no expiry
+ * @param version salt added to the cache key, or {@code null} for none
+ */
+public record NodeCachePolicy(Set<String> inputKeys, Duration ttl, String version) {
+
+	public NodeCachePolicy {
+		Objects.requireNonNull(inputKeys, "inputKeys cannot be null");
+		inputKeys = Set.copyOf(inputKeys);
+	}
+
+	public NodeCachePolicy(Set<String> inputKeys, Duration ttl) {
+		this(inputKeys, ttl, null);
+	}
+
+	public static NodeCachePolicy of(Duration ttl, String... inputKeys) {
+		return new NodeCachePolicy(Set.of(inputKeys), ttl);
+	}
+
+	/**
+	 * @param version salt added to the cache key
+	 * @return a copy of this policy using the given version
+	 */
+	public NodeCachePolicy withVersion(String version) {
+		return new NodeCachePolicy(inputKeys, ttl, version);
+	}
+
+	/**
+	 * Computes the cache key of a node execution by hashing the policy version and the
+	 * serialized values of the declared input keys.
+	 * @param graphName the name of the compiled graph the node belongs to
+	 * @param nodeId the node id
+	 * @param state the state the node is about to see
+	 * @param serializer the serializer used to obtain a stable byte form of the inputs
+	 * @return the cache key
+	 * @throws IOException if the inputs cannot be serialized
+	 */
+	public String cacheKey(String graphName, String nodeId, Map<String, Object> state, StateSerializer serializer)
+			throws IOException {
+		Map<String, Object> inputs = new LinkedHashMap<>();
+		for (String inputKey : new TreeSet<>(inputKeys)) {
+			Object value = state.get(inputKey);
+			if (value != null) {
+				inputs.put(inputKey, value);
+			}
+		}
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			if (version != null) {
+				digest.update(("version=" + version + ";").getBytes(StandardCharsets.UTF_8));
+			}
+			digest.update(inputs.keySet().toString().getBytes(StandardCharsets.UTF_8));
+			digest.update(serializer.dataToBytes(inputs));
+			return Objects.toString(graphName, "") + ":" + nodeId + ":" + HexFormat.of().formatHex(digest.digest());
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 not available", ex);
+		}
+	}
+
+}
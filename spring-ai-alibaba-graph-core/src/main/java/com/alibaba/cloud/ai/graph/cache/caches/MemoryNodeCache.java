@@ -0,0 +1,247 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.cache.caches;
+
+import com.alibaba.cloud.ai.graph.cache.NodeCache;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory {@link NodeCache} with W-TinyLFU eviction.
+ * <p>
+ * New entries enter a small LRU admission window (1% of the capacity). Entries evicted
+ * from the window compete with the least recently used entry of the segmented LRU main
+ * region, and are only admitted when a count-min frequency sketch estimates them to be
+ * accessed more often. This keeps one-off node inputs from flushing frequently reused
+ * results out of the cache.
+ */
+public class MemoryNodeCache implements NodeCache {
+
+	private final int windowCapacity;
+
+	private final int protectedCapacity;
+
+	private final int mainCapacity;
+
+	private final LinkedHashMap<String, CacheEntry> window = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final LinkedHashMap<String, CacheEntry> probation = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final LinkedHashMap<String, CacheEntry> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final FrequencySketch sketch;
+
+	public MemoryNodeCache() {
+		this(1024);
+	}
+
+	/**
+	 * Creates a cache holding at most {@code maximumSize} entries.
+	 * @param maximumSize the maximum number of entries
+	 */
+	public MemoryNodeCache(int maximumSize) {
+		if (maximumSize <= 1) {
+			throw new IllegalArgumentException("maximumSize must be > 1!");
+		}
+		this.windowCapacity = Math.max(1, maximumSize / 100);
+		this.mainCapacity = maximumSize - windowCapacity;
+		this.protectedCapacity = (int) (mainCapacity * 0.8);
+		this.sketch = new FrequencySketch(maximumSize);
+	}
+
+	@Override
+	public synchronized Optional<Map<String, Object>> get(String key) {
+		sketch.increment(key);
+		CacheEntry entry = window.get(key);
+		if (entry == null) {
+			entry = protectedSegment.get(key);
+		}
+		if (entry == null) {
+			entry = probation.remove(key);
+			if (entry != null) {
+				promote(key, entry);
+			}
+		}
+		if (entry == null) {
+			return Optional.empty();
+		}
+		if (entry.isExpired()) {
+			remove(key);
+			return Optional.empty();
+		}
+		return Optional.of(entry.value());
+	}
+
+	@Override
+	public synchronized void put(String key, Map<String, Object> updateState, Duration ttl) {
+		sketch.increment(key);
+		CacheEntry entry = new CacheEntry(Collections.unmodifiableMap(new HashMap<>(updateState)),
+				ttl == null ? Long.MAX_VALUE : System.currentTimeMillis() + ttl.toMillis());
+		if (window.containsKey(key)) {
+			window.put(key, entry);
+			return;
+		}
+		if (protectedSegment.containsKey(key)) {
+			protectedSegment.put(key, entry);
+			return;
+		}
+		if (probation.containsKey(key)) {
+			probation.put(key, entry);
+			return;
+		}
+		window.put(key, entry);
+		if (window.size() > windowCapacity) {
+			Map.Entry<String, CacheEntry> candidate = pollEldest(window);
+			admit(candidate.getKey(), candidate.getValue());
+		}
+	}
+
+	@Override
+	public synchronized void clear() {
+		window.clear();
+		probation.clear();
+		protectedSegment.clear();
+	}
+
+	/**
+	 * @return the number of cached entries
+	 */
+	public synchronized int size() {
+		return window.size() + probation.size() + protectedSegment.size();
+	}
+
+	private void admit(String key, CacheEntry entry) {
+		if (probation.size() + protectedSegment.size() < mainCapacity) {
+			probation.put(key, entry);
+			return;
+		}
+		LinkedHashMap<String, CacheEntry> victimSegment = probation.isEmpty() ? protectedSegment : probation;
+		String victimKey = victimSegment.keySet().iterator().next();
+		if (sketch.frequency(key) > sketch.frequency(victimKey)) {
+			victimSegment.remove(victimKey);
+			probation.put(key, entry);
+		}
+	}
+
+	private void promote(String key, CacheEntry entry) {
+		protectedSegment.put(key, entry);
+		if (protectedSegment.size() > protectedCapacity) {
+			Map.Entry<String, CacheEntry> demoted = pollEldest(protectedSegment);
+			probation.put(demoted.getKey(), demoted.getValue());
+		}
+	}
+
+	private void remove(String key) {
+		window.remove(key);
+		probation.remove(key);
+		protectedSegment.remove(key);
+	}
+
+	private static Map.Entry<String, CacheEntry> pollEldest(LinkedHashMap<String, CacheEntry> segment) {
+		Iterator<Map.Entry<String, CacheEntry>> iterator = segment.entrySet().iterator();
+		Map.Entry<String, CacheEntry> next = iterator.next();
+		Map.Entry<String, CacheEntry> eldest = Map.entry(next.getKey(), next.getValue());
+		iterator.remove();
+		return eldest;
+	}
+
+	private record CacheEntry(Map<String, Object> value, long expiresAt) {
+
+		boolean isExpired() {
+			return System.currentTimeMillis() > expiresAt;
+		}
+
+	}
+
+	/**
+	 * Count-min sketch with 4-bit saturating counters, periodically halved so that the
+	 * frequency estimate favors recent popularity.
+	 */
+	private static final class FrequencySketch {
+
+		private static final int DEPTH = 4;
+
+		private static final int MAX_COUNT = 15;
+
+		private final byte[][] table;
+
+		private final int mask;
+
+		private final int sampleSize;
+
+		private int additions;
+
+		FrequencySketch(int maximumSize) {
+			int width = Integer.highestOneBit(Math.max(16, maximumSize) - 1) << 1;
+			this.table = new byte[DEPTH][width];
+			this.mask = width - 1;
+			this.sampleSize = 10 * maximumSize;
+		}
+
+		void increment(String key) {
+			int hash = spread(key.hashCode());
+			boolean added = false;
+			for (int i = 0; i < DEPTH; i++) {
+				int index = indexOf(hash, i);
+				if (table[i][index] < MAX_COUNT) {
+					table[i][index]++;
+					added = true;
+				}
+			}
+			if (added && ++additions >= sampleSize) {
+				reset();
+			}
+		}
+
+		int frequency(String key) {
+			int hash = spread(key.hashCode());
+			int frequency = MAX_COUNT;
+			for (int i = 0; i < DEPTH; i++) {
+				frequency = Math.min(frequency, table[i][indexOf(hash, i)]);
+			}
+			return frequency;
+		}
+
+		private int indexOf(int hash, int row) {
+			int h = hash * (0x9E3779B9 + (row << 1));
+			return (h ^ (h >>> 16)) & mask;
+		}
+
+		private void reset() {
+			for (byte[] row : table) {
+				for (int i = 0; i < row.length; i++) {
+					row[i] = (byte) (row[i] >> 1);
+				}
+			}
+			additions /= 2;
+		}
+
+		private static int spread(int hash) {
+			hash ^= hash >>> 17;
+			hash *= 0xed5ad4bb;
+			hash ^= hash >>> 11;
+			return hash;
+		}
+
+	}
+
+}
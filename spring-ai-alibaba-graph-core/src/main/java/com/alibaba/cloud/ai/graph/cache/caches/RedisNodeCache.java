@@ -0,0 +1,94 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.cache.caches;
+
+import com.alibaba.cloud.ai.graph.cache.NodeCache;
+import com.alibaba.cloud.ai.graph.serializer.StateSerializer;
+import org.redisson.api.RBucket;
+import org.redisson.api.RKeys;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.ByteArrayCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Redis backed {@link NodeCache}, shared by every replica that compiles the same graph.
+ * Node results are stored with the graph {@link StateSerializer} and expire natively in
+ * Redis. Serialization or connectivity failures are logged and treated as cache misses so
+ * that the node simply executes.
+ */
+public class RedisNodeCache implements NodeCache {
+
+	private static final Logger log = LoggerFactory.getLogger(RedisNodeCache.class);
+
+	private static final String KEY_PREFIX = "graph:node:cache:";
+
+	private final RedissonClient redisson;
+
+	private final StateSerializer stateSerializer;
+
+	public RedisNodeCache(RedissonClient redisson, StateSerializer stateSerializer) {
+		this.redisson = requireNonNull(redisson, "redisson cannot be null");
+		this.stateSerializer = requireNonNull(stateSerializer, "stateSerializer cannot be null");
+	}
+
+	@Override
+	public Optional<Map<String, Object>> get(String key) {
+		try {
+			RBucket<byte[]> bucket = redisson.getBucket(KEY_PREFIX + key, ByteArrayCodec.INSTANCE);
+			byte[] bytes = bucket.get();
+			if (bytes == null || bytes.length == 0) {
+				return Optional.empty();
+			}
+			return Optional.of(stateSerializer.dataFromBytes(bytes));
+		}
+		catch (Exception e) {
+			log.warn("Failed to read node cache entry {}", key, e);
+			return Optional.empty();
+		}
+	}
+
+	@Override
+	public void put(String key, Map<String, Object> updateState, Duration ttl) {
+		try {
+			RBucket<byte[]> bucket = redisson.getBucket(KEY_PREFIX + key, ByteArrayCodec.INSTANCE);
+			byte[] bytes = stateSerializer.dataToBytes(updateState);
+			if (ttl == null) {
+				bucket.set(bytes);
+			}
+			else {
+				bucket.set(bytes, ttl.toMillis(), TimeUnit.MILLISECONDS);
+			}
+		}
+		catch (Exception e) {
+			log.warn("Failed to write node cache entry {}", key, e);
+		}
+	}
+
+	@Override
+	public void clear() {
+		RKeys keys = redisson.getKeys();
+		keys.deleteByPattern(KEY_PREFIX + "*");
+	}
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.cache.caches;
+
+import com.alibaba.cloud.ai.graph.cache.NodeCache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Two level {@link NodeCache}: a local cache (typically {@link MemoryNodeCache}) in front
+ * of a shared one (typically {@link RedisNodeCache}). Shared hits are copied into the
+ * local level with the local TTL.
+ */
+public class TieredNodeCache implements NodeCache {
+
+	private final NodeCache local;
+
+	private final NodeCache shared;
+
+	private final Duration localTtl;
+
+	public TieredNodeCache(NodeCache local, NodeCache shared, Duration localTtl) {
+		this.local = requireNonNull(local, "local cannot be null");
+		this.shared = requireNonNull(shared, "shared cannot be null");
+		this.localTtl = localTtl;
+	}
+
+	@Override
+	public Optional<Map<String, Object>> get(String key) {
+		Optional<Map<String, Object>> value = local.get(key);
+		if (value.isPresent()) {
+			return value;
+		}
+		value = shared.get(key);
+		value.ifPresent(v -> local.put(key, v, localTtl));
+		return value;
+	}
+
+	@Override
+	public void put(String key, Map<String, Object> updateState, Duration ttl) {
+		local.put(key, updateState, minTtl(ttl));
+		shared.put(key, updateState, ttl);
+	}
+
+	@Override
+	public void clear() {
+		local.clear();
+		shared.clear();
+	}
+
+	private Duration minTtl(Duration ttl) {
+		if (ttl == null) {
+			return localTtl;
+		}
+		if (localTtl == null) {
+			return ttl;
+		}
+		return ttl.compareTo(localTtl) < 0 ? ttl : localTtl;
+	}
+
+}
@@ -39,6 +39,18 @@ public interface BaseCheckpointSaver {
 
 	Tag release(RunnableConfig config) throws Exception;
 
+	/**
+	 * Stores several checkpoints, possibly of different threads, in order. Savers backed
+	 * by a database may override this to write them in a single round trip.
+	 * @param writes the checkpoints to store
+	 * @throws Exception if a checkpoint cannot be stored
+	 */
+	default void putAll(List<Write> writes) throws Exception {
+		for (Write write : writes) {
+			put(write.config(), write.checkpoint());
+		}
+	}
+
 	record Tag(String threadId, Collection<Checkpoint> checkpoints) {
 		public Tag(String threadId, Collection<Checkpoint> checkpoints) {
 			this.threadId = threadId;
@@ -46,4 +58,7 @@ public interface BaseCheckpointSaver {
 		}
 	}
 
+	record Write(RunnableConfig config, Checkpoint checkpoint) {
+	}
+
 }
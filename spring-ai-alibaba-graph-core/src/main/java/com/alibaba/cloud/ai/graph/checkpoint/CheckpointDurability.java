@@ -0,0 +1,45 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.checkpoint;
+
+/**
+ * Defines when the checkpoints taken during a graph execution are written to the
+ * {@link BaseCheckpointSaver}.
+ *
+ * @see com.alibaba.cloud.ai.graph.CompileConfig.Builder#checkpointDurability(CheckpointDurability)
+ */
+public enum CheckpointDurability {
+
+	/**
+	 * Every checkpoint is written before the execution moves on to the next node.
+	 */
+	SYNC,
+
+	/**
+	 * Checkpoints are queued and written in batches by a background writer. The queue is
+	 * flushed before the execution ends, is interrupted or releases its thread, so
+	 * resuming an interrupted execution still finds its last checkpoint. A crash may lose
+	 * the checkpoints that were still queued.
+	 */
+	ASYNC,
+
+	/**
+	 * Only the last checkpoint is written, when the execution ends or is interrupted. The
+	 * intermediate history of the execution is not persisted.
+	 */
+	EXIT_ONLY
+
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.checkpoint;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.observation.GraphMetricsGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.alibaba.cloud.ai.graph.checkpoint.BaseCheckpointSaver.THREAD_ID_DEFAULT;
+
+/**
+ * Write-behind queue in front of a {@link BaseCheckpointSaver}, used by the
+ * {@link CheckpointDurability#ASYNC} durability.
+ * <p>
+ * Checkpoints of all executions sharing the writer are queued in order and handed to
+ * {@link BaseCheckpointSaver#putAll(List)} in batches by a background task, so a
+ * database backed saver writes many checkpoints per round trip. The task only runs while
+ * there is something to write. When the queue is full, writers block until there is room
+ * again.
+ * <p>
+ * Executions are told apart by their thread id. {@link #flush(RunnableConfig)} waits
+ * until the checkpoints queued so far for one execution have been written and reports a
+ * failed write of that execution, if any. A failed batch is reported to every execution
+ * with a checkpoint in it, since none of its checkpoints can be assumed written.
+ * <p>
+ * When a {@link MeterRegistry} is given, the latency of every successfully written batch
+ * is recorded as a checkpoint write.
+ */
+public class CheckpointWriter {
+
+	private static final Logger log = LoggerFactory.getLogger(CheckpointWriter.class);
+
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	public static final int DEFAULT_BATCH_SIZE = 64;
+
+	private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+	private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "graph-checkpoint-writer-" + THREAD_COUNTER.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final BaseCheckpointSaver saver;
+
+	private final int batchSize;
+
+	private final MeterRegistry meterRegistry;
+
+	private final BlockingQueue<BaseCheckpointSaver.Write> queue;
+
+	private final AtomicBoolean draining = new AtomicBoolean(false);
+
+	// Guarded by this. An entry is removed once nothing is pending and no failure is left
+	// to report
+	private final Map<String, Execution> executions = new HashMap<>();
+
+	public CheckpointWriter(BaseCheckpointSaver saver) {
+		this(saver, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE);
+	}
+
+	public CheckpointWriter(BaseCheckpointSaver saver, int capacity, int batchSize) {
+		this(saver, capacity, batchSize, null);
+	}
+
+	/**
+	 * @param saver the saver the checkpoints are written to
+	 * @param capacity the maximum number of queued checkpoints
+	 * @param batchSize the maximum number of checkpoints written at once
+	 * @param meterRegistry the registry the write latency is recorded in, or {@code null}
+	 */
+	public CheckpointWriter(BaseCheckpointSaver saver, int capacity, int batchSize, MeterRegistry meterRegistry) {
+		if (capacity <= 0 || batchSize <= 0) {
+			throw new IllegalArgumentException("capacity and batchSize must be > 0!");
+		}
+		this.saver = saver;
+		this.batchSize = batchSize;
+		this.queue = new ArrayBlockingQueue<>(capacity);
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Queues a checkpoint to be appended to the thread of the given config.
+	 * @param config the config of the execution, without a checkpoint id
+	 * @param checkpoint the checkpoint to write
+	 * @throws InterruptedException if interrupted while waiting for room in the queue
+	 */
+	public void write(RunnableConfig config, Checkpoint checkpoint) throws InterruptedException {
+		String key = executionKey(config);
+		synchronized (this) {
+			executions.computeIfAbsent(key, k -> new Execution()).pending++;
+		}
+		try {
+			queue.put(new BaseCheckpointSaver.Write(config, checkpoint));
+		}
+		catch (InterruptedException ex) {
+			synchronized (this) {
+				completed(key, null);
+				notifyAll();
+			}
+			throw ex;
+		}
+		if (draining.compareAndSet(false, true)) {
+			EXECUTOR.execute(this::drain);
+		}
+	}
+
+	/**
+	 * Blocks until every checkpoint queued so far for the execution of the given config
+	 * has been written. Checkpoints of other executions are not waited for.
+	 * @param config the config of the execution
+	 * @throws Exception the cause of the first write of the execution that failed since
+	 * its last flush
+	 */
+	public void flush(RunnableConfig config) throws Exception {
+		String key = executionKey(config);
+		Exception error = null;
+		synchronized (this) {
+			Execution execution = executions.get(key);
+			while (execution != null && execution.pending > 0) {
+				wait();
+				execution = executions.get(key);
+			}
+			if (execution != null) {
+				error = execution.failure;
+				executions.remove(key);
+			}
+		}
+		if (error != null) {
+			throw new Exception("Unable to write checkpoints", error);
+		}
+	}
+
+	/**
+	 * @return number of checkpoints waiting to be written
+	 */
+	public int pendingCount() {
+		return queue.size();
+	}
+
+	private void drain() {
+		List<BaseCheckpointSaver.Write> batch = new ArrayList<>(batchSize);
+		while (true) {
+			queue.drainTo(batch, batchSize);
+			if (batch.isEmpty()) {
+				draining.set(false);
+				// A checkpoint queued right before the flag was cleared would otherwise wait
+				// for the next write
+				if (queue.isEmpty() || !draining.compareAndSet(false, true)) {
+					return;
+				}
+				continue;
+			}
+			Exception error = null;
+			try {
+				long start = System.nanoTime();
+				saver.putAll(batch);
+				if (meterRegistry != null) {
+					GraphMetricsGenerator.recordCheckpointWrite(meterRegistry, saver.getClass().getSimpleName(),
+							System.nanoTime() - start);
+				}
+			}
+			catch (Exception ex) {
+				Set<String> keys = new LinkedHashSet<>();
+				batch.forEach(write -> keys.add(executionKey(write.config())));
+				log.error("Failed to write {} checkpoints of threads {}", batch.size(), keys, ex);
+				error = ex;
+			}
+			synchronized (this) {
+				for (BaseCheckpointSaver.Write write : batch) {
+					completed(executionKey(write.config()), error);
+				}
+				notifyAll();
+			}
+			batch.clear();
+		}
+	}
+
+	// Called while holding the lock
+	private void completed(String key, Exception error) {
+		Execution execution = executions.get(key);
+		if (execution == null) {
+			return;
+		}
+		execution.pending--;
+		if (error != null && execution.failure == null) {
+			execution.failure = error;
+		}
+		if (execution.pending == 0 && execution.failure == null) {
+			executions.remove(key);
+		}
+	}
+
+	private static String executionKey(RunnableConfig config) {
+		return config.threadId().orElse(THREAD_ID_DEFAULT);
+	}
+
+	private static final class Execution {
+
+		private long pending;
+
+		private Exception failure;
+
+	}
+
+}
@@ -0,0 +1,386 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.checkpoint.savers;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.checkpoint.BaseCheckpointSaver;
+import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Base class of the savers that keep checkpoints in a database and load them on
+ * demand.
+ * <p>
+ * {@link #get(RunnableConfig)} without a checkpoint id reads only the newest checkpoint
+ * of the thread, and {@link #list(RunnableConfig)} returns a collection that reads the
+ * history page by page while it is iterated. Each page starts right after the position
+ * of the last checkpoint of the previous one, so checkpoints added while iterating do
+ * not shift the pages. The newest checkpoints of recently used threads are kept in a
+ * bounded in-memory cache, least recently used threads are evicted first.
+ * <p>
+ * Subclasses implement the row level operations on their database.
+ */
+public abstract class PagedCheckpointSaver implements BaseCheckpointSaver {
+
+	public static final int DEFAULT_MAX_CACHED_THREADS = 1024;
+
+	public static final int DEFAULT_MAX_CACHED_CHECKPOINTS = 8;
+
+	public static final int DEFAULT_PAGE_SIZE = 100;
+
+	private final int maxCachedCheckpoints;
+
+	private final int pageSize;
+
+	// Newest checkpoints of the recently used threads, newest first
+	private final Map<String, LinkedList<Checkpoint>> cachedCheckpoints;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * @param maxCachedThreads the maximum number of threads whose checkpoints are cached
+	 * @param maxCachedCheckpoints the maximum number of checkpoints cached per thread
+	 * @param pageSize the number of checkpoints read at once when listing a thread
+	 */
+	protected PagedCheckpointSaver(int maxCachedThreads, int maxCachedCheckpoints, int pageSize) {
+		if (maxCachedThreads < 1 || maxCachedCheckpoints < 1 || pageSize < 1) {
+			throw new IllegalArgumentException(
+					"maxCachedThreads, maxCachedCheckpoints and pageSize must be greater than zero");
+		}
+		this.maxCachedCheckpoints = maxCachedCheckpoints;
+		this.pageSize = pageSize;
+		this.cachedCheckpoints = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, LinkedList<Checkpoint>> eldest) {
+				return size() > maxCachedThreads;
+			}
+		};
+	}
+
+	/**
+	 * Reads a page of the checkpoints of a thread, newest first.
+	 * @param threadName the thread name
+	 * @param after the {@link Page#next() position} returned with the previous page, or
+	 * {@code null} to start from the newest checkpoint
+	 * @param limit the maximum number of checkpoints to read
+	 * @return the checkpoints older than {@code after}
+	 * @throws Exception if the checkpoints cannot be read
+	 */
+	protected abstract Page selectCheckpoints(String threadName, Object after, int limit) throws Exception;
+
+	/**
+	 * Reads a single checkpoint of a thread.
+	 * @param threadName the thread name
+	 * @param checkpointId the checkpoint id
+	 * @return the checkpoint, if it exists
+	 * @throws Exception if the checkpoint cannot be read
+	 */
+	protected abstract Optional<Checkpoint> selectCheckpoint(String threadName, String checkpointId) throws Exception;
+
+	/**
+	 * Counts the checkpoints of a thread.
+	 * @param threadName the thread name
+	 * @return the number of checkpoints
+	 * @throws Exception if the checkpoints cannot be counted
+	 */
+	protected abstract int countCheckpoints(String threadName) throws Exception;
+
+	/**
+	 * Appends checkpoints, possibly of different threads, in order and in a single
+	 * transaction.
+	 * @param writes the checkpoints to append with the configuration of their thread
+	 * @throws Exception if the checkpoints cannot be stored
+	 */
+	protected abstract void insertCheckpoints(List<Write> writes) throws Exception;
+
+	/**
+	 * Replaces an existing checkpoint of a thread.
+	 * @param threadName the thread name
+	 * @param checkpointId the id of the checkpoint to replace
+	 * @param checkpoint the new checkpoint
+	 * @throws NoSuchElementException if the thread has no checkpoint with the given id
+	 * @throws Exception if the checkpoint cannot be stored
+	 */
+	protected abstract void updateCheckpoint(String threadName, String checkpointId, Checkpoint checkpoint)
+			throws Exception;
+
+	/**
+	 * Marks a thread as released.
+	 * @param threadName the thread name
+	 * @throws Exception if the thread cannot be released
+	 */
+	protected abstract void releaseThread(String threadName) throws Exception;
+
+	/**
+	 * A page of checkpoints, newest first.
+	 * @param checkpoints the checkpoints
+	 * @param next the ordering key of the last checkpoint, from which the next page
+	 * starts
+	 */
+	public record Page(List<Checkpoint> checkpoints, Object next) {
+	}
+
+	protected static String threadName(RunnableConfig config) {
+		return config.threadId().orElse(THREAD_ID_DEFAULT);
+	}
+
+	/**
+	 * Returns a collection of the checkpoints of the thread, newest first. The
+	 * checkpoints are read page by page while the collection is iterated, so every
+	 * iteration reflects the current content of the database.
+	 * @param config the configuration
+	 * @return the checkpoints of the thread
+	 */
+	@Override
+	public final Collection<Checkpoint> list(RunnableConfig config) {
+		return new PagedCheckpoints(threadName(config));
+	}
+
+	/**
+	 * Returns the requested checkpoint, or the newest one when the configuration has no
+	 * checkpoint id. Only the requested checkpoint is read when it is not cached.
+	 * @param config the configuration
+	 * @return the checkpoint, if it exists
+	 */
+	@Override
+	public final Optional<Checkpoint> get(RunnableConfig config) {
+		final String threadName = threadName(config);
+		try {
+			if (config.checkPointId().isPresent()) {
+				final String checkpointId = config.checkPointId().get();
+				lock.lock();
+				try {
+					LinkedList<Checkpoint> cached = cachedCheckpoints.get(threadName);
+					if (cached != null) {
+						for (Checkpoint checkpoint : cached) {
+							if (checkpoint.getId().equals(checkpointId)) {
+								return Optional.of(checkpoint);
+							}
+						}
+					}
+				}
+				finally {
+					lock.unlock();
+				}
+				return selectCheckpoint(threadName, checkpointId);
+			}
+
+			lock.lock();
+			try {
+				LinkedList<Checkpoint> cached = cachedCheckpoints.get(threadName);
+				if (cached == null) {
+					List<Checkpoint> newest = selectCheckpoints(threadName, null, 1).checkpoints();
+					if (newest.isEmpty()) {
+						return Optional.empty();
+					}
+					cached = new LinkedList<>(newest);
+					cachedCheckpoints.put(threadName, cached);
+				}
+				return getLast(cached, config);
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+		catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Replaces the checkpoint identified by the configuration, or adds the checkpoint as
+	 * the newest one of the thread when the configuration has no checkpoint id.
+	 * @param config the configuration
+	 * @param checkpoint the checkpoint
+	 * @return the configuration identifying the stored checkpoint
+	 * @throws Exception if the checkpoint cannot be stored
+	 */
+	@Override
+	public final RunnableConfig put(RunnableConfig config, Checkpoint checkpoint) throws Exception {
+		final String threadName = threadName(config);
+		lock.lock();
+		try {
+			if (config.checkPointId().isPresent()) { // Replace Checkpoint
+				final String checkpointId = config.checkPointId().get();
+				updateCheckpoint(threadName, checkpointId, checkpoint);
+				LinkedList<Checkpoint> cached = cachedCheckpoints.get(threadName);
+				if (cached != null) {
+					cached.replaceAll(current -> current.getId().equals(checkpointId) ? checkpoint : current);
+				}
+				return config;
+			}
+
+			insertCheckpoints(List.of(new Write(config, checkpoint))); // Add Checkpoint
+			cacheInserted(threadName, checkpoint);
+
+			return RunnableConfig.builder(config).checkPointId(checkpoint.getId()).build();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Appends the checkpoints in a single transaction. Falls back to storing them one by
+	 * one when some of them replace existing checkpoints.
+	 * @param writes the checkpoints to store
+	 * @throws Exception if the checkpoints cannot be stored
+	 */
+	@Override
+	public final void putAll(List<Write> writes) throws Exception {
+		if (writes.stream().anyMatch(write -> write.config().checkPointId().isPresent())) {
+			BaseCheckpointSaver.super.putAll(writes);
+			return;
+		}
+		if (writes.isEmpty()) {
+			return;
+		}
+		lock.lock();
+		try {
+			insertCheckpoints(writes);
+			for (Write write : writes) {
+				cacheInserted(threadName(write.config()), write.checkpoint());
+			}
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Marks the thread as released and returns its checkpoints.
+	 * @param config the configuration
+	 * @return the release tag
+	 * @throws Exception if the thread cannot be released
+	 */
+	@Override
+	public final Tag release(RunnableConfig config) throws Exception {
+		final String threadName = threadName(config);
+		lock.lock();
+		try {
+			List<Checkpoint> checkpoints = new ArrayList<>();
+			for (Checkpoint checkpoint : new PagedCheckpoints(threadName)) {
+				checkpoints.add(checkpoint);
+			}
+			releaseThread(threadName);
+			cachedCheckpoints.remove(threadName);
+			return new Tag(threadName, checkpoints);
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Adds a checkpoint just written as the newest one of the thread. Being the newest,
+	 * it is a valid start of the cached list even when the thread was not cached yet.
+	 */
+	private void cacheInserted(String threadName, Checkpoint checkpoint) {
+		LinkedList<Checkpoint> cached = cachedCheckpoints.computeIfAbsent(threadName, k -> new LinkedList<>());
+		cached.push(checkpoint);
+		while (cached.size() > maxCachedCheckpoints) {
+			cached.removeLast();
+		}
+	}
+
+	/**
+	 * The checkpoints of a thread, read one page at a time.
+	 */
+	private final class PagedCheckpoints extends AbstractCollection<Checkpoint> {
+
+		private final String threadName;
+
+		PagedCheckpoints(String threadName) {
+			this.threadName = threadName;
+		}
+
+		@Override
+		public Iterator<Checkpoint> iterator() {
+			return new Iterator<>() {
+
+				private List<Checkpoint> page = List.of();
+
+				private int index;
+
+				private Object after;
+
+				private boolean lastPage;
+
+				@Override
+				public boolean hasNext() {
+					if (index < page.size()) {
+						return true;
+					}
+					if (lastPage) {
+						return false;
+					}
+					Page next = loadPage(after, pageSize);
+					page = next.checkpoints();
+					index = 0;
+					after = next.next();
+					lastPage = page.size() < pageSize;
+					return !page.isEmpty();
+				}
+
+				@Override
+				public Checkpoint next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					return page.get(index++);
+				}
+
+			};
+		}
+
+		@Override
+		public int size() {
+			try {
+				return countCheckpoints(threadName);
+			}
+			catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return loadPage(null, 1).checkpoints().isEmpty();
+		}
+
+		private Page loadPage(Object after, int limit) {
+			try {
+				return selectCheckpoints(threadName, after, limit);
+			}
+			catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+	}
+
+}
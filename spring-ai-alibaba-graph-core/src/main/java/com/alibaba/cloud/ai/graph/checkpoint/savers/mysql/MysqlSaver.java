@@ -18,7 +18,7 @@ package com.alibaba.cloud.ai.graph.checkpoint.savers.mysql;
 import com.alibaba.cloud.ai.graph.RunnableConfig;
 import com.alibaba.cloud.ai.graph.StateGraph;
 import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
-import com.alibaba.cloud.ai.graph.checkpoint.savers.MemorySaver;
+import com.alibaba.cloud.ai.graph.checkpoint.savers.PagedCheckpointSaver;
 import com.alibaba.cloud.ai.graph.serializer.StateSerializer;
 
 import java.io.IOException;
@@ -27,9 +27,15 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Base64;
-import java.util.LinkedList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import javax.sql.DataSource;
@@ -42,7 +48,7 @@ import static java.util.Objects.requireNonNull;
 
 /**
  * <p>
- * MysqlSaver is an extension of MemorySaver that enables persistent,
+ * MysqlSaver is an extension of PagedCheckpointSaver that enables persistent,
  * reliable storage of Graph state in a MySQL database.
  * </p>
  * <p>
@@ -58,13 +64,16 @@ import static java.util.Objects.requireNonNull;
  *          ON GRAPH_THREAD(thread_name, is_released)
  *
  *     CREATE TABLE GRAPH_CHECKPOINT (
+ *          checkpoint_seq BIGINT NOT NULL AUTO_INCREMENT,
  *          checkpoint_id VARCHAR(36) PRIMARY KEY,
  *          thread_id VARCHAR(36) NOT NULL,
  *          node_id VARCHAR(255),
  *          next_node_id VARCHAR(255),
- *          state_data JSON NOT NULL,
- *          saved_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+ *          state_data LONGBLOB NOT NULL,
+ *          saved_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6),
  *
+ *          UNIQUE KEY UK_GRAPH_CHECKPOINT_SEQ (checkpoint_seq),
+ *          KEY IDX_GRAPH_CHECKPOINT_THREAD_SEQ (thread_id, checkpoint_seq),
  *          CONSTRAINT GRAPH_FK_THREAD
  *              FOREIGN KEY(thread_id)
  *              REFERENCES GRAPH_THREAD(thread_id)
@@ -73,12 +82,27 @@ import static java.util.Objects.requireNonNull;
  * </pre>
  * </p>
  * <p>
+ * The serialized state is stored as is in {@code state_data}. Tables created by
+ * earlier versions, which keep the state base64 encoded in a JSON column, are
+ * detected at startup and still read and written in their original format.
+ * </p>
+ * <p>
+ * Checkpoints are loaded on demand: {@link #get(RunnableConfig)} without a
+ * checkpoint id reads only the newest row of the thread, and
+ * {@link #list(RunnableConfig)} returns a collection that reads the history page
+ * by page while it is iterated. The newest checkpoints of recently used threads
+ * are kept in a bounded in-memory cache, least recently used threads are evicted
+ * first.
+ * </p>
+ * <p>
  * A builder can be used to create an instance of MysqlSaver. The builder
  * allows to configure the following options:
  * - DataSource: indicates which data source should be used to connect
  * to the database
  * - CreateOption : indicates whether the tables should be created or
  * existing tables should be used.
+ * - MaxCachedThreads, MaxCachedCheckpoints and PageSize: bound the in-memory
+ * cache and the number of rows read at once.
  * </p>
  * <p>
  * Ex:
@@ -92,7 +116,7 @@ import static java.util.Objects.requireNonNull;
  * </pre>
  * </p>
  */
-public class MysqlSaver extends MemorySaver {
+public class MysqlSaver extends PagedCheckpointSaver {
 
 	private static final Logger log = LoggerFactory.getLogger(MysqlSaver.class);
 
@@ -111,13 +135,16 @@ public class MysqlSaver extends MemorySaver {
 
 	private static final String CREATE_CHECKPOINT_TABLE = """
 			CREATE TABLE IF NOT EXISTS GRAPH_CHECKPOINT (
+			   checkpoint_seq BIGINT NOT NULL AUTO_INCREMENT,
 			   checkpoint_id VARCHAR(36) PRIMARY KEY,
 			   thread_id VARCHAR(36) NOT NULL,
 			   node_id VARCHAR(255),
 			   next_node_id VARCHAR(255),
-			   state_data JSON NOT NULL,
-			   saved_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-			
+			   state_data LONGBLOB NOT NULL,
+			   saved_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6),
+
+			   UNIQUE KEY UK_GRAPH_CHECKPOINT_SEQ (checkpoint_seq),
+			   KEY IDX_GRAPH_CHECKPOINT_THREAD_SEQ (thread_id, checkpoint_seq),
 			   CONSTRAINT GRAPH_FK_THREAD
 			       FOREIGN KEY(thread_id)
 			       REFERENCES GRAPH_THREAD(thread_id)
@@ -127,6 +154,14 @@ public class MysqlSaver extends MemorySaver {
 	private static final String DROP_CHECKPOINT_TABLE = "DROP TABLE IF EXISTS GRAPH_CHECKPOINT";
 	private static final String DROP_THREAD_TABLE = "DROP TABLE IF EXISTS GRAPH_THREAD";
 
+	private static final String SELECT_STATE_DATA_TYPE = """
+			SELECT DATA_TYPE
+			FROM information_schema.COLUMNS
+			WHERE TABLE_SCHEMA = DATABASE()
+			  AND UPPER(TABLE_NAME) = 'GRAPH_CHECKPOINT'
+			  AND COLUMN_NAME = 'state_data'
+			""";
+
 	// DML statements
 	private static final String UPSERT_THREAD = """
 			INSERT INTO GRAPH_THREAD (thread_id, thread_name, is_released)
@@ -142,13 +177,14 @@ public class MysqlSaver extends MemorySaver {
 			""";
 
 	private static final String UPDATE_CHECKPOINT = """
-			UPDATE GRAPH_CHECKPOINT
+			UPDATE GRAPH_CHECKPOINT c
+			  INNER JOIN GRAPH_THREAD t ON c.thread_id = t.thread_id
 			SET
-			  checkpoint_id = ?,
-			  node_id = ?,
-			  next_node_id = ?,
-			  state_data = ?
-			WHERE checkpoint_id = ?
+			  c.checkpoint_id = ?,
+			  c.node_id = ?,
+			  c.next_node_id = ?,
+			  c.state_data = ?
+			WHERE c.checkpoint_id = ? AND t.thread_name = ? AND t.is_released = FALSE
 			""";
 
 	private static final String SELECT_CHECKPOINTS = """
@@ -156,25 +192,56 @@ public class MysqlSaver extends MemorySaver {
 			  c.checkpoint_id,
 			  c.node_id,
 			  c.next_node_id,
-			  JSON_UNQUOTE(JSON_EXTRACT(c.state_data, '$.binaryPayload')) AS base64_data
+			  %s,
+			  %s
 			FROM GRAPH_CHECKPOINT c
 			  INNER JOIN GRAPH_THREAD t ON c.thread_id = t.thread_id
-			WHERE t.thread_name = ? AND t.is_released != TRUE
-			ORDER BY c.saved_at DESC
+			WHERE t.thread_name = ? AND t.is_released != TRUE%s
+			ORDER BY %s
+			LIMIT ?
 			""";
 
-	private static final String DELETE_CHECKPOINTS = """
-			    DELETE FROM GRAPH_CHECKPOINT WHERE checkpoint_id = ?
+	private static final String SELECT_CHECKPOINT = """
+			SELECT
+			  c.checkpoint_id,
+			  c.node_id,
+			  c.next_node_id,
+			  %s
+			FROM GRAPH_CHECKPOINT c
+			  INNER JOIN GRAPH_THREAD t ON c.thread_id = t.thread_id
+			WHERE t.thread_name = ? AND t.is_released != TRUE AND c.checkpoint_id = ?
+			""";
+
+	private static final String COUNT_CHECKPOINTS = """
+			SELECT COUNT(*)
+			FROM GRAPH_CHECKPOINT c
+			  INNER JOIN GRAPH_THREAD t ON c.thread_id = t.thread_id
+			WHERE t.thread_name = ? AND t.is_released != TRUE
 			""";
 
 	private static final String RELEASE_THREAD = """
 			UPDATE GRAPH_THREAD SET is_released = TRUE WHERE thread_name = ? AND is_released = FALSE
 			""";
 
+	// State column and page ordering of the current and of the base64-in-JSON table layout,
+	// pages continue after the position of the last checkpoint of the previous page
+	private static final String STATE_COLUMN = "c.state_data";
+	private static final String POSITION_COLUMNS = "c.checkpoint_seq";
+	private static final String AFTER_POSITION = " AND c.checkpoint_seq < ?";
+	private static final String ORDER_BY = "c.checkpoint_seq DESC";
+	private static final String LEGACY_STATE_COLUMN = "JSON_UNQUOTE(JSON_EXTRACT(c.state_data, '$.binaryPayload'))";
+	private static final String LEGACY_POSITION_COLUMNS = "c.saved_at, c.checkpoint_id";
+	private static final String LEGACY_AFTER_POSITION = " AND (c.saved_at < ? OR (c.saved_at = ? AND c.checkpoint_id < ?))";
+	private static final String LEGACY_ORDER_BY = "c.saved_at DESC, c.checkpoint_id DESC";
+
 	// Configuration
 	private final DataSource dataSource;
 	private final CreateOption createOption;
 	private final StateSerializer stateSerializer;
+	private final boolean legacyStateFormat;
+	private final String selectFirstPageSql;
+	private final String selectNextPageSql;
+	private final String selectCheckpointSql;
 
 	/**
 	 * Private constructor used by the builder to create a new instance of
@@ -183,10 +250,23 @@ public class MysqlSaver extends MemorySaver {
 	 * @param builder the builder
 	 */
 	private MysqlSaver(Builder builder) {
+		super(builder.maxCachedThreads, builder.maxCachedCheckpoints, builder.pageSize);
 		this.dataSource = builder.dataSource;
 		this.createOption = builder.createOption;
 		this.stateSerializer = builder.stateSerializer;
 		initTables();
+		this.legacyStateFormat = isLegacyStateFormat();
+		if (legacyStateFormat) {
+			log.info("GRAPH_CHECKPOINT stores the state as base64 in a JSON column, "
+					+ "recreate the table to store it as binary data");
+		}
+		String stateColumn = legacyStateFormat ? LEGACY_STATE_COLUMN : STATE_COLUMN;
+		String positionColumns = legacyStateFormat ? LEGACY_POSITION_COLUMNS : POSITION_COLUMNS;
+		String orderBy = legacyStateFormat ? LEGACY_ORDER_BY : ORDER_BY;
+		this.selectFirstPageSql = format(SELECT_CHECKPOINTS, stateColumn, positionColumns, "", orderBy);
+		this.selectNextPageSql = format(SELECT_CHECKPOINTS, stateColumn, positionColumns,
+				legacyStateFormat ? LEGACY_AFTER_POSITION : AFTER_POSITION, orderBy);
+		this.selectCheckpointSql = format(SELECT_CHECKPOINT, legacyStateFormat ? LEGACY_STATE_COLUMN : STATE_COLUMN);
 	}
 
 	/**
@@ -245,73 +325,105 @@ public class MysqlSaver extends MemorySaver {
 		}
 	}
 
-	private String encodeState(Map<String, Object> data) throws IOException {
+	private void bindState(PreparedStatement statement, int index, Map<String, Object> data)
+			throws SQLException, IOException {
 		var binaryData = stateSerializer.dataToBytes(data);
-		var base64Data = Base64.getEncoder().encodeToString(binaryData);
-		return format("""
-				{"binaryPayload": "%s"}
-				""", base64Data);
+		if (legacyStateFormat) {
+			var base64Data = Base64.getEncoder().encodeToString(binaryData);
+			statement.setString(index, format("""
+					{"binaryPayload": "%s"}
+					""", base64Data));
+		}
+		else {
+			statement.setBytes(index, binaryData);
+		}
 	}
 
-	private Map<String, Object> decodeState(byte[] binaryPayload) throws IOException, ClassNotFoundException {
-		byte[] bytes = Base64.getDecoder().decode(binaryPayload);
+	private Map<String, Object> decodeState(byte[] payload) throws IOException, ClassNotFoundException {
+		byte[] bytes = legacyStateFormat ? Base64.getDecoder().decode(payload) : payload;
 		return stateSerializer.dataFromBytes(bytes);
 	}
 
-	/**
-	 * If the list of checkpoints is empty, loads the checkpoints from the database.
-	 *
-	 * @param config      the configuration
-	 * @param checkpoints the list of checkpoints
-	 * @return a list of checkpoints
-	 * @throws Exception if an error occurs while the checkpoints are being
-	 *                   loaded from the database.
-	 */
+	private Checkpoint readCheckpoint(ResultSet resultSet) throws SQLException, IOException, ClassNotFoundException {
+		return Checkpoint.builder()
+				.id(resultSet.getString(1))
+				.nodeId(resultSet.getString(2))
+				.nextNodeId(resultSet.getString(3))
+				.state(decodeState(resultSet.getBytes(4)))
+				.build();
+	}
+
 	@Override
-	protected LinkedList<Checkpoint> loadedCheckpoints(RunnableConfig config, LinkedList<Checkpoint> checkpoints)
-			throws Exception {
-		if (!checkpoints.isEmpty()) {
-			return checkpoints;
+	protected Page selectCheckpoints(String threadName, Object after, int limit) throws Exception {
+		try (Connection connection = dataSource.getConnection();
+			 PreparedStatement preparedStatement = connection
+				 .prepareStatement(after == null ? selectFirstPageSql : selectNextPageSql)) {
+
+			int index = 1;
+			preparedStatement.setString(index++, threadName);
+			if (after instanceof LegacyPosition position) {
+				preparedStatement.setTimestamp(index++, position.savedAt());
+				preparedStatement.setTimestamp(index++, position.savedAt());
+				preparedStatement.setString(index++, position.checkpointId());
+			}
+			else if (after != null) {
+				preparedStatement.setLong(index++, (Long) after);
+			}
+			preparedStatement.setInt(index, limit);
+			List<Checkpoint> checkpoints = new ArrayList<>();
+			Object next = after;
+			try (ResultSet resultSet = preparedStatement.executeQuery()) {
+				while (resultSet.next()) {
+					checkpoints.add(readCheckpoint(resultSet));
+					next = legacyStateFormat ? new LegacyPosition(resultSet.getTimestamp(5), resultSet.getString(6))
+							: resultSet.getLong(5);
+				}
+			}
+			return new Page(checkpoints, next);
 		}
+		catch (SQLException | IOException | ClassNotFoundException sqlException) {
+			throw new Exception("Unable to load checkpoints", sqlException);
+		}
+	}
 
-		final String threadName = config.threadId().orElse(THREAD_ID_DEFAULT);
-
+	@Override
+	protected Optional<Checkpoint> selectCheckpoint(String threadName, String checkpointId) throws Exception {
 		try (Connection connection = dataSource.getConnection();
-			 PreparedStatement preparedStatement = connection.prepareStatement(SELECT_CHECKPOINTS)) {
+			 PreparedStatement preparedStatement = connection.prepareStatement(selectCheckpointSql)) {
 
 			preparedStatement.setString(1, threadName);
+			preparedStatement.setString(2, checkpointId);
 			try (ResultSet resultSet = preparedStatement.executeQuery()) {
-				while (resultSet.next()) {
-					Checkpoint checkpoint = Checkpoint.builder()
-							.id(resultSet.getString(1))
-							.nodeId(resultSet.getString(2))
-							.nextNodeId(resultSet.getString(3))
-							.state(decodeState(resultSet.getBytes(4)))
-							.build();
-					checkpoints.add(checkpoint);
-				}
+				return resultSet.next() ? Optional.of(readCheckpoint(resultSet)) : Optional.empty();
 			}
 		}
 		catch (SQLException | IOException | ClassNotFoundException sqlException) {
-			throw new Exception("Unable to load checkpoints", sqlException);
+			throw new Exception("Unable to load checkpoint", sqlException);
 		}
-		return checkpoints;
 	}
 
-	/**
-	 * Inserts a checkpoint to the database
-	 *
-	 * @param config      the configuration
-	 * @param checkpoints the list of checkpoints
-	 * @param checkpoint  the checkpoint to insert
-	 * @throws Exception if an error occurs while inserting the checkpoint in the
-	 *                   database.
-	 */
 	@Override
-	protected void insertedCheckpoint(RunnableConfig config, LinkedList<Checkpoint> checkpoints, Checkpoint checkpoint)
-			throws Exception {
+	protected int countCheckpoints(String threadName) throws Exception {
+		try (Connection connection = dataSource.getConnection();
+			 PreparedStatement preparedStatement = connection.prepareStatement(COUNT_CHECKPOINTS)) {
+
+			preparedStatement.setString(1, threadName);
+			try (ResultSet resultSet = preparedStatement.executeQuery()) {
+				return resultSet.next() ? resultSet.getInt(1) : 0;
+			}
+		}
+		catch (SQLException sqlException) {
+			throw new Exception("Unable to count checkpoints", sqlException);
+		}
+	}
 
-		final String threadName = config.threadId().orElse(THREAD_ID_DEFAULT);
+	@Override
+	protected void insertCheckpoints(List<Write> writes) throws Exception {
+		if (writes.isEmpty()) {
+			return;
+		}
+		final String threadName = threadName(writes.get(0).config());
+		final Checkpoint firstCheckpoint = writes.get(0).checkpoint();
 		Connection conn = null;
 		try (Connection ignored = conn = dataSource.getConnection()) {
 			conn.setAutoCommit(false); // Start transaction
@@ -319,124 +431,93 @@ public class MysqlSaver extends MemorySaver {
 			try (PreparedStatement upsertStatement = conn.prepareStatement(UPSERT_THREAD);
 				 PreparedStatement insertCheckpointStatement = conn.prepareStatement(INSERT_CHECKPOINT)) {
 
-				upsertStatement.setString(1, UUID.randomUUID().toString());
-				upsertStatement.setString(2, threadName);
-				upsertStatement.execute();
-
-				insertCheckpointStatement.setString(1, checkpoint.getId());
-				insertCheckpointStatement.setString(2, checkpoint.getNodeId());
-				insertCheckpointStatement.setString(3, checkpoint.getNextNodeId());
-				insertCheckpointStatement.setString(4, encodeState(checkpoint.getState()));
-				insertCheckpointStatement.setString(5, threadName);
+				Set<String> threadNames = new LinkedHashSet<>();
+				writes.forEach(write -> threadNames.add(threadName(write.config())));
+				for (String name : threadNames) {
+					upsertStatement.setString(1, UUID.randomUUID().toString());
+					upsertStatement.setString(2, name);
+					upsertStatement.addBatch();
+				}
+				upsertStatement.executeBatch();
 
-				insertCheckpointStatement.execute();
+				for (Write write : writes) {
+					Checkpoint checkpoint = write.checkpoint();
+					insertCheckpointStatement.setString(1, checkpoint.getId());
+					insertCheckpointStatement.setString(2, checkpoint.getNodeId());
+					insertCheckpointStatement.setString(3, checkpoint.getNextNodeId());
+					bindState(insertCheckpointStatement, 4, checkpoint.getState());
+					insertCheckpointStatement.setString(5, threadName(write.config()));
+					insertCheckpointStatement.addBatch();
+				}
+				insertCheckpointStatement.executeBatch();
 			}
 
 			conn.commit();
-			log.debug("Checkpoint {} for thread {} inserted successfully.", checkpoint.getId(), threadName);
+			log.debug("{} checkpoints inserted successfully.", writes.size());
 		}
 		catch (SQLException | IOException e) {
-			log.error("Error inserting checkpoint with id {} in thread {}", checkpoint.getId(), threadName, e);
-			rollback(conn, checkpoint, threadName);
+			log.error("Error inserting checkpoint with id {} in thread {}", firstCheckpoint.getId(), threadName, e);
+			rollback(conn, firstCheckpoint, threadName);
 			throw new Exception("Unable to insert checkpoint", e);
 		}
-
 	}
 
-	/**
-	 * Marks the checkpoints as released
-	 *
-	 * @param config      the configuration
-	 * @param checkpoints the checkpoints
-	 * @param releaseTag  the release tag
-	 * @throws Exception if an error occurs while marking the checkpoints as
-	 *                   released
-	 */
 	@Override
-	protected void releasedCheckpoints(RunnableConfig config, LinkedList<Checkpoint> checkpoints, Tag releaseTag)
-			throws Exception {
-		final String threadName = config.threadId().orElse(THREAD_ID_DEFAULT);
-
+	protected void updateCheckpoint(String threadName, String checkpointId, Checkpoint checkpoint) throws Exception {
 		Connection conn = null;
+
 		try (Connection ignored = conn = dataSource.getConnection()) {
 			conn.setAutoCommit(false); // Start transaction
 
-			try (PreparedStatement preparedStatement = conn.prepareStatement(RELEASE_THREAD)) {
-				preparedStatement.setString(1, threadName);
+			try (PreparedStatement preparedStatement = conn.prepareStatement(UPDATE_CHECKPOINT)) {
+				preparedStatement.setString(1, checkpoint.getId());
+				preparedStatement.setString(2, checkpoint.getNodeId());
+				preparedStatement.setString(3, checkpoint.getNextNodeId());
+				bindState(preparedStatement, 4, checkpoint.getState());
+				preparedStatement.setString(5, checkpointId);
+				preparedStatement.setString(6, threadName);
 				int rowsAffected = preparedStatement.executeUpdate();
-				
+
 				if (rowsAffected == 0) {
 					conn.rollback();
-					throw new IllegalStateException(
-							format("Thread '%s' not found or already released", threadName));
+					throw new NoSuchElementException(format("Checkpoint with id %s not found!", checkpointId));
 				}
 			}
 
 			conn.commit();
-			log.debug("Thread {} released successfully.", threadName);
+			log.debug("Checkpoint with id {} for thread {} updated successfully.", checkpoint.getId(), threadName);
 		}
-		catch (SQLException e) {
-			log.error("Error releasing thread {}", threadName, e);
-			rollback(conn, threadName);
-			throw new Exception("Unable to release checkpoint", e);
+		catch (SQLException | IOException e) {
+			log.error("Error updating checkpoint with id {} in thread {}", checkpoint.getId(), threadName, e);
+			rollback(conn, checkpoint, threadName);
+			throw new Exception("Unable to update checkpoint", e);
 		}
 	}
 
-	/**
-	 * If the checkpoint exists, updates the checkpoint, otherwise it inserts it.
-	 *
-	 * @param config      the configuration
-	 * @param checkpoints the list of checkpoints
-	 * @param checkpoint  the checkpoint
-	 * @throws Exception if an error occurs while inserting or updating the
-	 *                   checkpoint.
-	 */
 	@Override
-	protected void updatedCheckpoint(RunnableConfig config, LinkedList<Checkpoint> checkpoints, Checkpoint checkpoint)
-			throws Exception {
-		final String threadName = config.threadId().orElse(THREAD_ID_DEFAULT);
+	protected void releaseThread(String threadName) throws Exception {
 		Connection conn = null;
-
 		try (Connection ignored = conn = dataSource.getConnection()) {
 			conn.setAutoCommit(false); // Start transaction
 
-			if (config.checkPointId().isPresent()) {
-				// Update existing checkpoint
-				try (PreparedStatement preparedStatement = conn.prepareStatement(UPDATE_CHECKPOINT)) {
-					preparedStatement.setString(1, checkpoint.getId());
-					preparedStatement.setString(2, checkpoint.getNodeId());
-					preparedStatement.setString(3, checkpoint.getNextNodeId());
-					preparedStatement.setString(4, encodeState(checkpoint.getState()));
-					preparedStatement.setString(5, config.checkPointId().get());
-					preparedStatement.execute();
-				}
-			}
-			else {
-				// Insert new checkpoint (within same transaction)
-				try (PreparedStatement upsertStatement = conn.prepareStatement(UPSERT_THREAD);
-					 PreparedStatement insertCheckpointStatement = conn.prepareStatement(INSERT_CHECKPOINT)) {
-
-					upsertStatement.setString(1, UUID.randomUUID().toString());
-					upsertStatement.setString(2, threadName);
-					upsertStatement.execute();
-
-					insertCheckpointStatement.setString(1, checkpoint.getId());
-					insertCheckpointStatement.setString(2, checkpoint.getNodeId());
-					insertCheckpointStatement.setString(3, checkpoint.getNextNodeId());
-					insertCheckpointStatement.setString(4, encodeState(checkpoint.getState()));
-					insertCheckpointStatement.setString(5, threadName);
+			try (PreparedStatement preparedStatement = conn.prepareStatement(RELEASE_THREAD)) {
+				preparedStatement.setString(1, threadName);
+				int rowsAffected = preparedStatement.executeUpdate();
 
-					insertCheckpointStatement.execute();
+				if (rowsAffected == 0) {
+					conn.rollback();
+					throw new IllegalStateException(
+							format("Thread '%s' not found or already released", threadName));
 				}
 			}
 
 			conn.commit();
-			log.debug("Checkpoint with id {} for thread {} updated successfully.", checkpoint.getId(), threadName);
+			log.debug("Thread {} released successfully.", threadName);
 		}
-		catch (SQLException | IOException e) {
-			log.error("Error updating checkpoint with id {} in thread {}", checkpoint.getId(), threadName, e);
-			rollback(conn, checkpoint, threadName);
-			throw new Exception("Unable to update checkpoint", e);
+		catch (SQLException e) {
+			log.error("Error releasing thread {}", threadName, e);
+			rollback(conn, threadName);
+			throw new Exception("Unable to release checkpoint", e);
 		}
 	}
 
@@ -474,13 +555,37 @@ public class MysqlSaver extends MemorySaver {
 		}
 	}
 
+	/**
+	 * Checks whether the checkpoint table was created by an earlier version, which
+	 * stores the state base64 encoded in a JSON column.
+	 */
+	private boolean isLegacyStateFormat() {
+		try (Connection connection = dataSource.getConnection();
+			 Statement statement = connection.createStatement();
+			 ResultSet resultSet = statement.executeQuery(SELECT_STATE_DATA_TYPE)) {
+			return resultSet.next() && "json".equalsIgnoreCase(resultSet.getString(1));
+		}
+		catch (SQLException sqlException) {
+			throw new RuntimeException("Unable to inspect the checkpoint table", sqlException);
+		}
+	}
+
+	/**
+	 * Position of a checkpoint in a table without {@code checkpoint_seq}.
+	 */
+	private record LegacyPosition(Timestamp savedAt, String checkpointId) {
+	}
+
 	/**
 	 * A builder for MysqlSaver.
 	 */
-	public static class Builder extends MemorySaver.Builder {
+	public static class Builder {
 		private DataSource dataSource;
 		private CreateOption createOption = CreateOption.CREATE_IF_NOT_EXISTS;
 		private StateSerializer stateSerializer;
+		private int maxCachedThreads = DEFAULT_MAX_CACHED_THREADS;
+		private int maxCachedCheckpoints = DEFAULT_MAX_CACHED_CHECKPOINTS;
+		private int pageSize = DEFAULT_PAGE_SIZE;
 
 		/**
 		 * Sets the state serializer
@@ -515,6 +620,42 @@ public class MysqlSaver extends MemorySaver {
 			return this;
 		}
 
+		/**
+		 * Sets the maximum number of threads whose checkpoints are cached in memory
+		 * (default {@value PagedCheckpointSaver#DEFAULT_MAX_CACHED_THREADS}).
+		 *
+		 * @param maxCachedThreads the maximum number of cached threads
+		 * @return this builder
+		 */
+		public Builder maxCachedThreads(int maxCachedThreads) {
+			this.maxCachedThreads = maxCachedThreads;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of checkpoints cached in memory per thread
+		 * (default {@value PagedCheckpointSaver#DEFAULT_MAX_CACHED_CHECKPOINTS}).
+		 *
+		 * @param maxCachedCheckpoints the maximum number of cached checkpoints per thread
+		 * @return this builder
+		 */
+		public Builder maxCachedCheckpoints(int maxCachedCheckpoints) {
+			this.maxCachedCheckpoints = maxCachedCheckpoints;
+			return this;
+		}
+
+		/**
+		 * Sets the number of checkpoints read at once when listing the checkpoints
+		 * of a thread (default {@value PagedCheckpointSaver#DEFAULT_PAGE_SIZE}).
+		 *
+		 * @param pageSize the page size
+		 * @return this builder
+		 */
+		public Builder pageSize(int pageSize) {
+			this.pageSize = pageSize;
+			return this;
+		}
+
 		/**
 		 * Creates a new instance of MysqlSaver
 		 *
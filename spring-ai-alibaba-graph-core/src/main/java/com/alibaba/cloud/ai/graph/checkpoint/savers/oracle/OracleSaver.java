@@ -18,7 +18,7 @@ package com.alibaba.cloud.ai.graph.checkpoint.savers.oracle;
 import com.alibaba.cloud.ai.graph.RunnableConfig;
 import com.alibaba.cloud.ai.graph.StateGraph;
 import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
-import com.alibaba.cloud.ai.graph.checkpoint.savers.MemorySaver;
+import com.alibaba.cloud.ai.graph.checkpoint.savers.PagedCheckpointSaver;
 import com.alibaba.cloud.ai.graph.serializer.StateSerializer;
 
 import java.io.IOException;
@@ -27,16 +27,21 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Base64;
-import java.util.LinkedList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import javax.sql.DataSource;
 
-import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import oracle.jdbc.OracleStatement;
 import oracle.jdbc.OracleType;
@@ -52,7 +57,7 @@ import static java.lang.String.format;
 
 /**
  * <p>
- * OracleSaver is an extension of MemorySaver that enables persistent,
+ * OracleSaver is an extension of PagedCheckpointSaver that enables persistent,
  * reliable storage of workflow state in an Oracle database.
  * </p>
  * <p>
@@ -84,6 +89,13 @@ import static java.lang.String.format;
  * </pre>
  * </p>
  * <p>
+ * Checkpoints are loaded on demand: {@link #get(RunnableConfig)} without a
+ * checkpoint id reads only the newest row of the thread, and
+ * {@link #list(RunnableConfig)} returns a collection that reads the history page
+ * by page while it is iterated. The newest checkpoints of recently used threads
+ * are kept in a bounded in-memory cache.
+ * </p>
+ * <p>
  * A builder can be use to create an instance or OracleSaver. The builder
  * allows to configure the following options:
  * - DataSource: indicates which data source should be used to connect
@@ -91,6 +103,8 @@ import static java.lang.String.format;
  * - CreateOption : indicates whether the tables should be created or
  * existing tables should be used.
  * - StateSerializer: the serializer used to serialize/deserialize state data
+ * - MaxCachedThreads, MaxCachedCheckpoints and PageSize: bound the in-memory
+ * cache and the number of rows read at once.
  * </p>
  * <p>
  * Ex:
@@ -104,7 +118,7 @@ import static java.lang.String.format;
  * </pre>
  * </p>
  */
-public class OracleSaver extends MemorySaver {
+public class OracleSaver extends PagedCheckpointSaver {
 
 	private static final Logger log = LoggerFactory.getLogger(OracleSaver.class);
 
@@ -165,9 +179,31 @@ public class OracleSaver extends MemorySaver {
 			  state_data = ?,
 			  state_content_type = ?
 			WHERE checkpoint_id = ?
+			  AND thread_id IN (SELECT thread_id FROM GRAPH_THREAD WHERE thread_name = ? AND is_released = FALSE)
 			""";
 
+	// Pages continue after the (saved_at, checkpoint_id) of the last checkpoint of the previous page
 	private static final String SELECT_CHECKPOINTS = """
+			SELECT
+			  c.checkpoint_id,
+			  c.node_id,
+			  c.next_node_id,
+			  c.state_data,
+			  c.state_content_type,
+			  c.saved_at
+			FROM GRAPH_CHECKPOINT c
+			  INNER JOIN GRAPH_THREAD t ON c.thread_id = t.thread_id
+			WHERE t.thread_name = ? AND t.is_released != TRUE%s
+			ORDER BY c.saved_at DESC, c.checkpoint_id DESC
+			FETCH FIRST ? ROWS ONLY
+			""";
+
+	private static final String SELECT_FIRST_PAGE = format(SELECT_CHECKPOINTS, "");
+
+	private static final String SELECT_NEXT_PAGE = format(SELECT_CHECKPOINTS,
+			" AND (c.saved_at < ? OR (c.saved_at = ? AND c.checkpoint_id < ?))");
+
+	private static final String SELECT_CHECKPOINT = """
 			SELECT
 			  c.checkpoint_id,
 			  c.node_id,
@@ -176,12 +212,14 @@ public class OracleSaver extends MemorySaver {
 			  c.state_content_type
 			FROM GRAPH_CHECKPOINT c
 			  INNER JOIN GRAPH_THREAD t ON c.thread_id = t.thread_id
-			WHERE t.thread_name = ? AND t.is_released != TRUE
-			ORDER BY c.saved_at DESC
+			WHERE t.thread_name = ? AND t.is_released != TRUE AND c.checkpoint_id = ?
 			""";
 
-	private static final String DELETE_CHECKPOINTS = """
-			    DELETE FROM GRAPH_CHECKPOINT WHERE checkpoint_id = ?
+	private static final String COUNT_CHECKPOINTS = """
+			SELECT COUNT(*)
+			FROM GRAPH_CHECKPOINT c
+			  INNER JOIN GRAPH_THREAD t ON c.thread_id = t.thread_id
+			WHERE t.thread_name = ? AND t.is_released != TRUE
 			""";
 
 	private static final String RELEASE_THREAD = """
@@ -192,19 +230,19 @@ public class OracleSaver extends MemorySaver {
 	private final DataSource dataSource;
 	private final CreateOption createOption;
 	private final StateSerializer stateSerializer;
+	private final ObjectMapper osonMapper = new ObjectMapper(new OsonFactory());
 
 	/**
 	 * Private constructor used by the builder to create a new instance of
 	 * OracleSaver.
 	 *
-	 * @param dataSource      the data source
-	 * @param createOption    the create options
-	 * @param stateSerializer the state serializer
+	 * @param builder the builder
 	 */
-	private OracleSaver(DataSource dataSource, CreateOption createOption, StateSerializer stateSerializer) {
-		this.dataSource = dataSource;
-		this.createOption = createOption;
-		this.stateSerializer = Objects.requireNonNull(stateSerializer, "stateSerializer cannot be null");
+	private OracleSaver(Builder builder) {
+		super(builder.maxCachedThreads, builder.maxCachedCheckpoints, builder.pageSize);
+		this.dataSource = builder.dataSource;
+		this.createOption = builder.createOption;
+		this.stateSerializer = Objects.requireNonNull(builder.stateSerializer, "stateSerializer cannot be null");
 		initTables();
 	}
 
@@ -302,38 +340,21 @@ public class OracleSaver extends MemorySaver {
 	}
 
 	/**
-	 * If the list of checkpoints is empty, loads the checkpoints from the database.
-	 *
-	 * @param config      the configuration
-	 * @param checkpoints the list of checkpoints
-	 * @return a list of checkpoints
-	 * @throws Exception if an error occurs while the checkpoints are being
-	 *                   loaded from the database.
+	 * Prepares a query returning checkpoint rows.
 	 */
-	@Override
-	protected LinkedList<Checkpoint> loadedCheckpoints(RunnableConfig config, LinkedList<Checkpoint> checkpoints)
-			throws Exception {
-		if (!checkpoints.isEmpty()) {
-			return checkpoints;
-		}
-
-		final String threadName = config.threadId().orElse(THREAD_ID_DEFAULT);
-		JsonFactory osonFactory = new OsonFactory();
-		ObjectMapper objectMapper = new ObjectMapper(osonFactory);
-
-		try (Connection connection = dataSource.getConnection();
-			 PreparedStatement preparedStatement = connection.prepareStatement(SELECT_CHECKPOINTS)) {
-
-			// Calls to defineColumnType reduce the number of network requests. When Oracle
-			// JDBC knows that it is
-			// fetching VECTOR, CLOB, and/or JSON columns, the first request it sends to the
-			// database can include a LOB
-			// prefetch size (VECTOR and JSON are value-based-lobs). If defineColumnType is
-			// not called, then JDBC needs
-			// to send an additional request with the LOB prefetch size, after the first
-			// request has the database
-			// respond with the column data types. To request all data, the prefetch size is
-			// Integer.MAX_VALUE.
+	private PreparedStatement prepareCheckpointQuery(Connection connection, String sql) throws SQLException {
+		PreparedStatement preparedStatement = connection.prepareStatement(sql);
+		// Calls to defineColumnType reduce the number of network requests. When Oracle
+		// JDBC knows that it is
+		// fetching VECTOR, CLOB, and/or JSON columns, the first request it sends to the
+		// database can include a LOB
+		// prefetch size (VECTOR and JSON are value-based-lobs). If defineColumnType is
+		// not called, then JDBC needs
+		// to send an additional request with the LOB prefetch size, after the first
+		// request has the database
+		// respond with the column data types. To request all data, the prefetch size is
+		// Integer.MAX_VALUE.
+		try {
 			OracleStatement oracleStatement = preparedStatement.unwrap(OracleStatement.class);
 			oracleStatement.defineColumnType(1, OracleTypes.VARCHAR); // checkpoint_id
 			oracleStatement.defineColumnType(2, OracleTypes.VARCHAR); // node_id
@@ -341,28 +362,55 @@ public class OracleSaver extends MemorySaver {
 			oracleStatement.defineColumnType(4, OracleTypes.JSON, Integer.MAX_VALUE); // state_data
 			oracleStatement.defineColumnType(5, OracleTypes.VARCHAR); // state_content_type
 			oracleStatement.setLobPrefetchSize(Integer.MAX_VALUE); // Workaround for Oracle JDBC bug 37030121
+			return preparedStatement;
+		}
+		catch (SQLException e) {
+			preparedStatement.close();
+			throw e;
+		}
+	}
 
-			preparedStatement.setString(1, threadName);
+	private Checkpoint readCheckpoint(ResultSet resultSet) throws SQLException, IOException, ClassNotFoundException {
+		byte[] osonBytes = resultSet.getObject(4, OracleJsonDatum.class).shareBytes();
+		String contentType = resultSet.getString(5);
+
+		// Parse JSON to extract binaryPayload
+		Map<String, Object> jsonMap = osonMapper.readValue(osonBytes, Map.class);
+		String base64Data = (String) jsonMap.get("binaryPayload");
+		// Convert base64 string to bytes (don't decode yet, decodeState will do that)
+		byte[] binaryPayload = base64Data.getBytes(StandardCharsets.UTF_8);
+
+		return Checkpoint.builder()
+				.id(resultSet.getString(1))
+				.nodeId(resultSet.getString(2))
+				.nextNodeId(resultSet.getString(3))
+				.state(decodeState(binaryPayload, contentType))
+				.build();
+	}
+
+	@Override
+	protected Page selectCheckpoints(String threadName, Object after, int limit) throws Exception {
+		try (Connection connection = dataSource.getConnection();
+			 PreparedStatement preparedStatement = prepareCheckpointQuery(connection,
+					 after == null ? SELECT_FIRST_PAGE : SELECT_NEXT_PAGE)) {
+
+			int index = 1;
+			preparedStatement.setString(index++, threadName);
+			if (after instanceof Position position) {
+				preparedStatement.setTimestamp(index++, position.savedAt());
+				preparedStatement.setTimestamp(index++, position.savedAt());
+				preparedStatement.setString(index++, position.checkpointId());
+			}
+			preparedStatement.setInt(index, limit);
+			List<Checkpoint> checkpoints = new ArrayList<>();
+			Object next = after;
 			try (ResultSet resultSet = preparedStatement.executeQuery()) {
 				while (resultSet.next()) {
-					byte[] osonBytes = resultSet.getObject(4, OracleJsonDatum.class).shareBytes();
-					String contentType = resultSet.getString(5);
-
-					// Parse JSON to extract binaryPayload
-					Map<String, Object> jsonMap = objectMapper.readValue(osonBytes, Map.class);
-					String base64Data = (String) jsonMap.get("binaryPayload");
-					// Convert base64 string to bytes (don't decode yet, decodeState will do that)
-					byte[] binaryPayload = base64Data.getBytes(StandardCharsets.UTF_8);
-
-					Checkpoint checkpoint = Checkpoint.builder()
-							.id(resultSet.getString(1))
-							.nodeId(resultSet.getString(2))
-							.nextNodeId(resultSet.getString(3))
-							.state(decodeState(binaryPayload, contentType))
-							.build();
-					checkpoints.add(checkpoint);
+					checkpoints.add(readCheckpoint(resultSet));
+					next = new Position(resultSet.getTimestamp(6), resultSet.getString(1));
 				}
 			}
+			return new Page(checkpoints, next);
 		}
 		catch (SQLException sqlException) {
 			throw new Exception("Unable to load checkpoints", sqlException);
@@ -370,23 +418,54 @@ public class OracleSaver extends MemorySaver {
 		catch (ClassNotFoundException e) {
 			throw new Exception("Unable to deserialize checkpoint state", e);
 		}
-		return checkpoints;
+	}
+
+	@Override
+	protected Optional<Checkpoint> selectCheckpoint(String threadName, String checkpointId) throws Exception {
+		try (Connection connection = dataSource.getConnection();
+			 PreparedStatement preparedStatement = prepareCheckpointQuery(connection, SELECT_CHECKPOINT)) {
+
+			preparedStatement.setString(1, threadName);
+			preparedStatement.setString(2, checkpointId);
+			try (ResultSet resultSet = preparedStatement.executeQuery()) {
+				return resultSet.next() ? Optional.of(readCheckpoint(resultSet)) : Optional.empty();
+			}
+		}
+		catch (SQLException sqlException) {
+			throw new Exception("Unable to load checkpoint", sqlException);
+		}
+		catch (ClassNotFoundException e) {
+			throw new Exception("Unable to deserialize checkpoint state", e);
+		}
+	}
+
+	@Override
+	protected int countCheckpoints(String threadName) throws Exception {
+		try (Connection connection = dataSource.getConnection();
+			 PreparedStatement preparedStatement = connection.prepareStatement(COUNT_CHECKPOINTS)) {
+
+			preparedStatement.setString(1, threadName);
+			try (ResultSet resultSet = preparedStatement.executeQuery()) {
+				return resultSet.next() ? resultSet.getInt(1) : 0;
+			}
+		}
+		catch (SQLException sqlException) {
+			throw new Exception("Unable to count checkpoints", sqlException);
+		}
 	}
 
 	/**
-	 * Inserts a checkpoint to the database
+	 * Inserts checkpoints to the database, in a single transaction. Every row is inserted
+	 * by its own statement so that their {@code saved_at} orders them.
 	 *
-	 * @param config      the configuration
-	 * @param checkpoints the list of checkpoints
-	 * @param checkpoint  the checkpoint to insert
-	 * @throws Exception if an error occurs while inserting the checkpoint in the
+	 * @param writes the checkpoints to insert with the configuration of their thread
+	 * @throws Exception if an error occurs while inserting the checkpoints in the
 	 *                   database.
 	 */
 	@Override
-	protected void insertedCheckpoint(RunnableConfig config, LinkedList<Checkpoint> checkpoints, Checkpoint checkpoint)
-			throws Exception {
-
-		final String threadName = config.threadId().orElse(THREAD_ID_DEFAULT);
+	protected void insertCheckpoints(List<Write> writes) throws Exception {
+		final String threadName = threadName(writes.get(0).config());
+		final Checkpoint firstCheckpoint = writes.get(0).checkpoint();
 		Connection conn = null;
 
 		try (Connection ignored = conn = dataSource.getConnection()) {
@@ -395,45 +474,45 @@ public class OracleSaver extends MemorySaver {
 			try (PreparedStatement upsertStatement = conn.prepareStatement(UPSERT_THREAD);
 				 PreparedStatement insertCheckpointStatement = conn.prepareStatement(INSERT_CHECKPOINT)) {
 
-				upsertStatement.setString(1, UUID.randomUUID().toString());
-				upsertStatement.setString(2, threadName);
-				upsertStatement.execute();
+				Set<String> threadNames = new LinkedHashSet<>();
+				writes.forEach(write -> threadNames.add(threadName(write.config())));
+				for (String name : threadNames) {
+					upsertStatement.setString(1, UUID.randomUUID().toString());
+					upsertStatement.setString(2, name);
+					upsertStatement.execute();
+				}
 
-				String encodedState = encodeState(checkpoint.getState());
-				insertCheckpointStatement.setString(1, checkpoint.getId());
-				insertCheckpointStatement.setString(2, checkpoint.getNodeId());
-				insertCheckpointStatement.setString(3, checkpoint.getNextNodeId());
-				insertCheckpointStatement.setObject(4, encodedState, OracleType.JSON);
-				insertCheckpointStatement.setString(5, stateSerializer.contentType());
-				insertCheckpointStatement.setString(6, threadName);
-
-				insertCheckpointStatement.execute();
+				for (Write write : writes) {
+					Checkpoint checkpoint = write.checkpoint();
+					String encodedState = encodeState(checkpoint.getState());
+					insertCheckpointStatement.setString(1, checkpoint.getId());
+					insertCheckpointStatement.setString(2, checkpoint.getNodeId());
+					insertCheckpointStatement.setString(3, checkpoint.getNextNodeId());
+					insertCheckpointStatement.setObject(4, encodedState, OracleType.JSON);
+					insertCheckpointStatement.setString(5, stateSerializer.contentType());
+					insertCheckpointStatement.setString(6, threadName(write.config()));
+					insertCheckpointStatement.execute();
+				}
 			}
 
 			conn.commit();
-			log.debug("Checkpoint {} for thread {} inserted successfully.", checkpoint.getId(), threadName);
+			log.debug("{} checkpoints inserted successfully.", writes.size());
 		}
 		catch (SQLException | IOException e) {
-			log.error("Error inserting checkpoint with id {} in thread {}", checkpoint.getId(), threadName, e);
-			rollback(conn, checkpoint, threadName);
+			log.error("Error inserting checkpoint with id {} in thread {}", firstCheckpoint.getId(), threadName, e);
+			rollback(conn, firstCheckpoint, threadName);
 			throw new Exception("Unable to insert checkpoint", e);
 		}
-
 	}
 
 	/**
-	 * Marks the checkpoints as released
+	 * Marks the thread as released
 	 *
-	 * @param config      the configuration
-	 * @param checkpoints the checkpoints
-	 * @param releaseTag  the release tab
-	 * @throws Exception if an error occurs while marking the checkpoints as
-	 *                   released
+	 * @param threadName the thread name
+	 * @throws Exception if an error occurs while marking the thread as released
 	 */
 	@Override
-	protected void releasedCheckpoints(RunnableConfig config, LinkedList<Checkpoint> checkpoints, Tag releaseTag)
-			throws Exception {
-		final String threadName = config.threadId().orElse(THREAD_ID_DEFAULT);
+	protected void releaseThread(String threadName) throws Exception {
 		Connection conn = null;
 
 		try (Connection ignored = conn = dataSource.getConnection()) {
@@ -461,54 +540,34 @@ public class OracleSaver extends MemorySaver {
 	}
 
 	/**
-	 * If the checkpoint exists, updates the checkpoint, otherwise it inserts it.
+	 * Replaces an existing checkpoint of the thread.
 	 *
-	 * @param config      the configuration
-	 * @param checkpoints the list of checkpoints
-	 * @param checkpoint  the checkpoint
-	 * @throws Exception if an error occurs while inserting or updating the
-	 *                   checkpoint.
+	 * @param threadName   the thread name
+	 * @param checkpointId the id of the checkpoint to replace
+	 * @param checkpoint   the new checkpoint
+	 * @throws NoSuchElementException if the thread has no checkpoint with the given id
+	 * @throws Exception if an error occurs while updating the checkpoint.
 	 */
 	@Override
-	protected void updatedCheckpoint(RunnableConfig config, LinkedList<Checkpoint> checkpoints, Checkpoint checkpoint)
-			throws Exception {
-		final String threadName = config.threadId().orElse(THREAD_ID_DEFAULT);
+	protected void updateCheckpoint(String threadName, String checkpointId, Checkpoint checkpoint) throws Exception {
 		Connection conn = null;
 
 		try (Connection ignored = conn = dataSource.getConnection()) {
 			conn.setAutoCommit(false); // Start transaction
 
-			if (config.checkPointId().isPresent()) {
-				// Update existing checkpoint
-				try (PreparedStatement preparedStatement = conn.prepareStatement(UPDATE_CHECKPOINT)) {
-					String encodedState = encodeState(checkpoint.getState());
-					preparedStatement.setString(1, checkpoint.getId());
-					preparedStatement.setString(2, checkpoint.getNodeId());
-					preparedStatement.setString(3, checkpoint.getNextNodeId());
-					preparedStatement.setObject(4, encodedState, OracleType.JSON);
-					preparedStatement.setString(5, stateSerializer.contentType());
-					preparedStatement.setString(6, config.checkPointId().get());
-					preparedStatement.execute();
-				}
-			}
-			else {
-				// Insert new checkpoint (within same transaction)
-				try (PreparedStatement upsertStatement = conn.prepareStatement(UPSERT_THREAD);
-					 PreparedStatement insertCheckpointStatement = conn.prepareStatement(INSERT_CHECKPOINT)) {
-
-					upsertStatement.setString(1, UUID.randomUUID().toString());
-					upsertStatement.setString(2, threadName);
-					upsertStatement.execute();
-
-					String encodedState = encodeState(checkpoint.getState());
-					insertCheckpointStatement.setString(1, checkpoint.getId());
-					insertCheckpointStatement.setString(2, checkpoint.getNodeId());
-					insertCheckpointStatement.setString(3, checkpoint.getNextNodeId());
-					insertCheckpointStatement.setObject(4, encodedState, OracleType.JSON);
-					insertCheckpointStatement.setString(5, stateSerializer.contentType());
-					insertCheckpointStatement.setString(6, threadName);
-
-					insertCheckpointStatement.execute();
+			try (PreparedStatement preparedStatement = conn.prepareStatement(UPDATE_CHECKPOINT)) {
+				String encodedState = encodeState(checkpoint.getState());
+				preparedStatement.setString(1, checkpoint.getId());
+				preparedStatement.setString(2, checkpoint.getNodeId());
+				preparedStatement.setString(3, checkpoint.getNextNodeId());
+				preparedStatement.setObject(4, encodedState, OracleType.JSON);
+				preparedStatement.setString(5, stateSerializer.contentType());
+				preparedStatement.setString(6, checkpointId);
+				preparedStatement.setString(7, threadName);
+
+				if (preparedStatement.executeUpdate() == 0) {
+					conn.rollback();
+					throw new NoSuchElementException(format("Checkpoint with id %s not found!", checkpointId));
 				}
 			}
 
@@ -546,13 +605,22 @@ public class OracleSaver extends MemorySaver {
 		}
 	}
 
+	/**
+	 * Position of a checkpoint in the order of the pages.
+	 */
+	private record Position(Timestamp savedAt, String checkpointId) {
+	}
+
 	/**
 	 * A builder for OracleSaver.
 	 */
-	public static class Builder extends MemorySaver.Builder {
+	public static class Builder {
 		private DataSource dataSource;
 		private CreateOption createOption = CreateOption.CREATE_IF_NOT_EXISTS;
 		private StateSerializer stateSerializer;
+		private int maxCachedThreads = DEFAULT_MAX_CACHED_THREADS;
+		private int maxCachedCheckpoints = DEFAULT_MAX_CACHED_CHECKPOINTS;
+		private int pageSize = DEFAULT_PAGE_SIZE;
 
 		/**
 		 * Sets the datasource
@@ -587,6 +655,42 @@ public class OracleSaver extends MemorySaver {
 			return this;
 		}
 
+		/**
+		 * Sets the maximum number of threads whose checkpoints are cached in memory
+		 * (default {@value PagedCheckpointSaver#DEFAULT_MAX_CACHED_THREADS}).
+		 *
+		 * @param maxCachedThreads the maximum number of cached threads
+		 * @return this builder
+		 */
+		public Builder maxCachedThreads(int maxCachedThreads) {
+			this.maxCachedThreads = maxCachedThreads;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of checkpoints cached in memory per thread
+		 * (default {@value PagedCheckpointSaver#DEFAULT_MAX_CACHED_CHECKPOINTS}).
+		 *
+		 * @param maxCachedCheckpoints the maximum number of cached checkpoints per thread
+		 * @return this builder
+		 */
+		public Builder maxCachedCheckpoints(int maxCachedCheckpoints) {
+			this.maxCachedCheckpoints = maxCachedCheckpoints;
+			return this;
+		}
+
+		/**
+		 * Sets the number of checkpoints read at once when listing the checkpoints
+		 * of a thread (default {@value PagedCheckpointSaver#DEFAULT_PAGE_SIZE}).
+		 *
+		 * @param pageSize the page size
+		 * @return this builder
+		 */
+		public Builder pageSize(int pageSize) {
+			this.pageSize = pageSize;
+			return this;
+		}
+
 		/**
 		 * Creates a new instance of OracleSaver
 		 *
@@ -597,7 +701,7 @@ public class OracleSaver extends MemorySaver {
             if (stateSerializer == null) {
                 this.stateSerializer = StateGraph.DEFAULT_JACKSON_SERIALIZER;
             }
-            return new OracleSaver(dataSource, createOption, stateSerializer);
+            return new OracleSaver(this);
 		}
 	}
 }
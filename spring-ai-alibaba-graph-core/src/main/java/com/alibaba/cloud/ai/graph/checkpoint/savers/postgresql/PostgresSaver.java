@@ -15,10 +15,9 @@
  */
 package com.alibaba.cloud.ai.graph.checkpoint.savers.postgresql;
 
-import com.alibaba.cloud.ai.graph.RunnableConfig;
 import com.alibaba.cloud.ai.graph.StateGraph;
 import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
-import com.alibaba.cloud.ai.graph.checkpoint.savers.MemorySaver;
+import com.alibaba.cloud.ai.graph.checkpoint.savers.PagedCheckpointSaver;
 import com.alibaba.cloud.ai.graph.serializer.StateSerializer;
 
 import java.io.IOException;
@@ -27,11 +26,17 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
 import java.sql.Types;
+import java.util.ArrayList;
 import java.util.Base64;
-import java.util.LinkedList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import javax.sql.DataSource;
@@ -43,8 +48,96 @@ import org.slf4j.LoggerFactory;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 
-public class PostgresSaver extends MemorySaver {
+/**
+ * Saver storing the checkpoints in a PostgreSQL database. Checkpoints are loaded on
+ * demand and only the newest checkpoints of recently used threads are cached, see
+ * {@link PagedCheckpointSaver}.
+ */
+public class PostgresSaver extends PagedCheckpointSaver {
 	private static final Logger log = LoggerFactory.getLogger(PostgresSaver.class);
+
+	// Pages continue after the (saved_at, checkpoint_id) of the last checkpoint of the previous page
+	private static final String SELECT_CHECKPOINTS = """
+			SELECT  c.checkpoint_id,
+			        c.node_id,
+			        c.next_node_id,
+			        c.state_data->>'binaryPayload' AS base64_data,
+			        c.state_content_type,
+			        c.saved_at
+			FROM GraphThread t
+			JOIN GraphCheckpoint c ON c.thread_id = t.thread_id
+			WHERE t.thread_name = ? AND t.is_released = FALSE%s
+			ORDER BY c.saved_at DESC, c.checkpoint_id DESC
+			LIMIT ?
+			""";
+
+	private static final String SELECT_FIRST_PAGE = format(SELECT_CHECKPOINTS, "");
+
+	private static final String SELECT_NEXT_PAGE = format(SELECT_CHECKPOINTS,
+			" AND (c.saved_at < ? OR (c.saved_at = ? AND c.checkpoint_id < ?))");
+
+	private static final String SELECT_CHECKPOINT = """
+			SELECT  c.checkpoint_id,
+			        c.node_id,
+			        c.next_node_id,
+			        c.state_data->>'binaryPayload' AS base64_data,
+			        c.state_content_type
+			FROM GraphThread t
+			JOIN GraphCheckpoint c ON c.thread_id = t.thread_id
+			WHERE t.thread_name = ? AND t.is_released = FALSE AND c.checkpoint_id = ?
+			""";
+
+	private static final String COUNT_CHECKPOINTS = """
+			SELECT COUNT(*)
+			FROM GraphThread t
+			JOIN GraphCheckpoint c ON c.thread_id = t.thread_id
+			WHERE t.thread_name = ? AND t.is_released = FALSE
+			""";
+
+	private static final String UPSERT_THREAD = """
+			INSERT INTO GraphThread (thread_id, thread_name, is_released)
+			VALUES (?, ?, FALSE)
+			ON CONFLICT (thread_name)
+			WHERE is_released = FALSE
+			DO NOTHING
+			""";
+
+	// clock_timestamp() instead of the column default, which is the same for every row
+	// inserted in a transaction and would not order a batch
+	private static final String INSERT_CHECKPOINT = """
+			INSERT INTO GraphCheckpoint(
+			checkpoint_id,
+			thread_id,
+			node_id,
+			next_node_id,
+			state_data,
+			state_content_type,
+			saved_at)
+			SELECT ?, thread_id, ?, ?, ?::jsonb, ?, clock_timestamp()
+			FROM GraphThread
+			WHERE thread_name = ? AND is_released = FALSE
+			""";
+
+	private static final String UPDATE_CHECKPOINT = """
+			UPDATE GraphCheckpoint c
+			SET
+			    checkpoint_id = ?,
+			    node_id = ?,
+			    next_node_id = ?,
+			    state_data = ?::jsonb,
+			    state_content_type = ?
+			FROM GraphThread t
+			WHERE c.thread_id = t.thread_id
+			  AND c.checkpoint_id = ? AND t.thread_name = ? AND t.is_released = FALSE
+			""";
+
+	private static final String RELEASE_THREAD = """
+			UPDATE GraphThread
+			SET
+			    is_released = TRUE
+			WHERE thread_name = ? AND is_released = FALSE
+			""";
+
 	/**
 	 * Datasource used to create the store
 	 */
@@ -53,6 +146,7 @@ public class PostgresSaver extends MemorySaver {
 	private final StateSerializer stateSerializer;
 
 	protected PostgresSaver(Builder builder) throws SQLException {
+		super(builder.maxCachedThreads, builder.maxCachedCheckpoints, builder.pageSize);
 		this.datasource = builder.datasource;
 		this.stateSerializer = builder.stateSerializer;
 		initTable(builder.dropTablesFirst, builder.createTables);
@@ -99,6 +193,15 @@ public class PostgresSaver extends MemorySaver {
 		return stateSerializer.dataFromBytes(bytes);
 	}
 
+	private Checkpoint readCheckpoint(ResultSet rs) throws SQLException, IOException, ClassNotFoundException {
+		return Checkpoint.builder()
+				.id(rs.getString(1))
+				.nodeId(rs.getString(2))
+				.nextNodeId(rs.getString(3))
+				.state(decodeState(rs.getBytes(4), rs.getString(5)))
+				.build();
+	}
+
 	protected void initTable(boolean dropTablesFirst, boolean createTables) throws SQLException {
 		var sqlDropTables = """
 				DROP TABLE IF EXISTS GraphCheckpoint CASCADE;
@@ -154,271 +257,159 @@ public class PostgresSaver extends MemorySaver {
 	}
 
 	@Override
-	protected LinkedList<Checkpoint> loadedCheckpoints(RunnableConfig config, LinkedList<Checkpoint> checkpoints) throws Exception {
-
-		if (!checkpoints.isEmpty()) return checkpoints;
-
-		var threadId = config.threadId().orElse(THREAD_ID_DEFAULT);
-
-		var sqlCheckThread = """
-				SELECT COUNT(*)
-				FROM GraphThread
-				WHERE thread_name = ? AND is_released = FALSE
-				""";
-		var sqlQueryCheckpoints = """
-				WITH matched_thread AS (
-				    SELECT thread_id
-				    FROM GraphThread
-				    WHERE thread_name = ? AND is_released = FALSE
-				)
-				SELECT  c.checkpoint_id,
-				        c.node_id,
-				        c.next_node_id,
-				        c.state_data->>'binaryPayload' AS base64_data,
-				        c.state_content_type,
-				        c.parent_checkpoint_id
-				FROM matched_thread t
-				JOIN GraphCheckpoint c ON c.thread_id = t.thread_id
-				ORDER BY c.saved_at DESC
-				""";
-		try (Connection conn = getConnection()) {
-
-			try (PreparedStatement ps = conn.prepareStatement(sqlCheckThread)) {
-				ps.setString(1, threadId);
-				var resultSet = ps.executeQuery();
-				resultSet.next();
-				var count = resultSet.getInt(1);
-
-				if (count == 0) {
-					return checkpoints;
-				}
-				if (count > 1) {
-					throw new IllegalStateException(format("there are more than one Thread '%s' open (not released yet)", threadId));
-				}
+	protected Page selectCheckpoints(String threadName, Object after, int limit) throws Exception {
+		String sql = after == null ? SELECT_FIRST_PAGE : SELECT_NEXT_PAGE;
+		log.trace("Executing select checkpoints:\n---\n{}---", sql);
+		try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+			int index = 1;
+			ps.setString(index++, threadName);
+			if (after instanceof Position position) {
+				ps.setTimestamp(index++, position.savedAt());
+				ps.setTimestamp(index++, position.savedAt());
+				ps.setObject(index++, UUID.fromString(position.checkpointId()), Types.OTHER);
 			}
-
-			log.trace("Executing select checkpoints:\n---\n{}---", sqlQueryCheckpoints);
-			try (PreparedStatement ps = conn.prepareStatement(sqlQueryCheckpoints)) {
-				ps.setString(1, threadId);
-				var rs = ps.executeQuery();
+			ps.setInt(index, limit);
+			List<Checkpoint> checkpoints = new ArrayList<>();
+			Object next = after;
+			try (ResultSet rs = ps.executeQuery()) {
 				while (rs.next()) {
-					var checkpoint = Checkpoint.builder()
-							.id(rs.getString(1))
-							.nodeId(rs.getString(2))
-							.nextNodeId(rs.getString(3))
-							.state(decodeState(rs.getBytes(4), rs.getString(5)))
-							.build();
-					checkpoints.add(checkpoint);
+					checkpoints.add(readCheckpoint(rs));
+					next = new Position(rs.getTimestamp(6), rs.getString(1));
 				}
 			}
-
+			return new Page(checkpoints, next);
+		}
+		catch (SQLException | IOException | ClassNotFoundException e) {
+			throw new Exception("Unable to load checkpoints", e);
 		}
-
-		return checkpoints;
 	}
 
-	private void insertCheckpoint(Connection conn, RunnableConfig config, LinkedList<Checkpoint> checkpoints, Checkpoint checkpoint) throws Exception {
-		var threadId = config.threadId().orElse(THREAD_ID_DEFAULT);
-
-		var upsertThreadSql = """
-				WITH inserted AS (
-				    INSERT INTO GraphThread (thread_id, thread_name, is_released)
-				    VALUES (?, ?, FALSE)
-				    ON CONFLICT (thread_name)
-				    WHERE is_released = FALSE
-				    DO NOTHING
-				    RETURNING thread_id
-				)
-				SELECT thread_id FROM inserted
-				UNION ALL
-				SELECT thread_id FROM GraphThread
-				WHERE thread_name = ? AND is_released = FALSE
-				LIMIT 1;
-				""";
-
-		var insertCheckpointSql = """
-				INSERT INTO GraphCheckpoint(
-				checkpoint_id,
-				parent_checkpoint_id,
-				thread_id,
-				node_id,
-				next_node_id,
-				state_data,
-				state_content_type)
-				VALUES (?, ?, ?, ?, ?, ?::jsonb, ?)
-				""";
-		UUID threadUUID = null;
-
-		// 1. Upsert thread information
-		try (PreparedStatement ps = conn.prepareStatement(upsertThreadSql)) {
-			var field = 0;
-			ps.setObject(++field, UUID.randomUUID(), Types.OTHER);
-			ps.setString(++field, threadId);
-			ps.setString(++field, threadId);
-
-			log.trace("Executing upsert thread:\n---\n{}---", upsertThreadSql);
-
+	@Override
+	protected Optional<Checkpoint> selectCheckpoint(String threadName, String checkpointId) throws Exception {
+		try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(SELECT_CHECKPOINT)) {
+			ps.setString(1, threadName);
+			ps.setObject(2, UUID.fromString(checkpointId), Types.OTHER);
 			try (ResultSet rs = ps.executeQuery()) {
-				if (rs.next()) {
-					threadUUID = rs.getObject("thread_id", UUID.class);
-				}
+				return rs.next() ? Optional.of(readCheckpoint(rs)) : Optional.empty();
 			}
 		}
-
-
-		// 2. Insert checkpoint data
-		try (PreparedStatement ps = conn.prepareStatement(insertCheckpointSql)) {
-			var field = 0;
-			// checkpoint_id
-			ps.setObject(++field,
-					UUID.fromString(checkpoint.getId()),
-					Types.OTHER);
-			// parent_checkpoint_id
-			ps.setNull(++field, Types.OTHER);
-			// thread_id
-			ps.setObject(++field,
-					requireNonNull(threadUUID, "threadUUID cannot be null"),
-					Types.OTHER);
-			// node_id
-			ps.setString(++field, checkpoint.getNodeId());
-			// next_node_id
-			ps.setString(++field, checkpoint.getNextNodeId());
-			// state_data
-			ps.setString(++field, encodeState(checkpoint.getState()));
-			// state_content_type
-			ps.setString(++field, stateSerializer.contentType());
-
-			// DB schema has DEFAULT CURRENT_TIMESTAMP for saved_at.
-			// If checkpoint provides a specific time, use it. Otherwise, use current time from Java.
-			// To use DB default, one would typically omit the column or pass NULL if the column definition allows it to trigger default.
-			// OffsetDateTime savedAt = checkpoint.getSavedAt().orElse(OffsetDateTime.now());
-			// psCheckpoint.setObject(8, savedAt);
-			log.trace("Executing insert checkpoint:\n---\n{}---", insertCheckpointSql);
-			ps.executeUpdate();
+		catch (SQLException | IOException | ClassNotFoundException e) {
+			throw new Exception("Unable to load checkpoint", e);
 		}
+	}
 
+	@Override
+	protected int countCheckpoints(String threadName) throws Exception {
+		try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(COUNT_CHECKPOINTS)) {
+			ps.setString(1, threadName);
+			try (ResultSet rs = ps.executeQuery()) {
+				return rs.next() ? rs.getInt(1) : 0;
+			}
+		}
+		catch (SQLException e) {
+			throw new Exception("Unable to count checkpoints", e);
+		}
 	}
 
 	@Override
-	protected void insertedCheckpoint(RunnableConfig config, LinkedList<Checkpoint> checkpoints, Checkpoint checkpoint) throws Exception {
-		var threadId = config.threadId().orElse(THREAD_ID_DEFAULT);
+	protected void insertCheckpoints(List<Write> writes) throws Exception {
+		final String threadId = threadName(writes.get(0).config());
+		final Checkpoint firstCheckpoint = writes.get(0).checkpoint();
 
 		Connection conn = null;
 		try (Connection ignored = conn = getConnection()) {
 			conn.setAutoCommit(false); // Start transaction
 
-			insertCheckpoint(conn, config, checkpoints, checkpoint);
+			try (PreparedStatement upsertThread = conn.prepareStatement(UPSERT_THREAD);
+				 PreparedStatement insertCheckpoint = conn.prepareStatement(INSERT_CHECKPOINT)) {
 
-			conn.commit();
-			log.debug("Checkpoint {} for thread {} inserted successfully.", checkpoint.getId(), threadId);
+				// 1. Upsert thread information
+				Set<String> threadNames = new LinkedHashSet<>();
+				writes.forEach(write -> threadNames.add(threadName(write.config())));
+				for (String name : threadNames) {
+					upsertThread.setObject(1, UUID.randomUUID(), Types.OTHER);
+					upsertThread.setString(2, name);
+					upsertThread.addBatch();
+				}
+				upsertThread.executeBatch();
+
+				// 2. Insert checkpoint data, one statement per row so that saved_at orders them
+				log.trace("Executing insert checkpoint:\n---\n{}---", INSERT_CHECKPOINT);
+				for (Write write : writes) {
+					Checkpoint checkpoint = write.checkpoint();
+					var field = 0;
+					insertCheckpoint.setObject(++field, UUID.fromString(checkpoint.getId()), Types.OTHER);
+					insertCheckpoint.setString(++field, checkpoint.getNodeId());
+					insertCheckpoint.setString(++field, checkpoint.getNextNodeId());
+					insertCheckpoint.setString(++field, encodeState(checkpoint.getState()));
+					insertCheckpoint.setString(++field, stateSerializer.contentType());
+					insertCheckpoint.setString(++field, threadName(write.config()));
+					insertCheckpoint.executeUpdate();
+				}
+			}
 
+			conn.commit();
+			log.debug("{} checkpoints inserted successfully.", writes.size());
 		}
-		catch (SQLException | IOException e) { // IOException from convertStateToJson
-			log.error("Error inserting checkpoint with id {} in thread {}", checkpoint.getId(), threadId, e);
-			rollback(conn, checkpoint, threadId);
+		catch (SQLException | IOException e) { // IOException from encodeState
+			log.error("Error inserting checkpoint with id {} in thread {}", firstCheckpoint.getId(), threadId, e);
+			rollback(conn, firstCheckpoint, threadId);
 			throw e;
 		}
-
 	}
 
 	@Override
-	protected void updatedCheckpoint(RunnableConfig config,
-			LinkedList<Checkpoint> checkpoints,
-			Checkpoint checkpoint) throws Exception {
-
-		final var threadId = config.threadId().orElse(THREAD_ID_DEFAULT);
-
-		var deletePreviousCheckpointSql = """
-				DELETE FROM GraphCheckpoint
-				WHERE checkpoint_id = ?;
-				""";
-
+	protected void updateCheckpoint(String threadName, String checkpointId, Checkpoint checkpoint) throws Exception {
 		Connection conn = null;
 
 		try (Connection ignored = conn = getConnection()) {
 			conn.setAutoCommit(false); // Start transaction
 
-			if (config.checkPointId().isPresent()) {
-
-				try (PreparedStatement ps = conn.prepareStatement(deletePreviousCheckpointSql)) {
-					var field = 0;
-					ps.setObject(++field,
-							UUID.fromString(config.checkPointId().get()),
-							Types.OTHER); // nullable
-					log.trace("Executing deleting previous checkpoint with id {} in thread {}:\n---\n{}---",
-							config.checkPointId().get(),
-							threadId,
-							deletePreviousCheckpointSql);
-					ps.executeUpdate();
+			try (PreparedStatement ps = conn.prepareStatement(UPDATE_CHECKPOINT)) {
+				var field = 0;
+				ps.setObject(++field, UUID.fromString(checkpoint.getId()), Types.OTHER);
+				ps.setString(++field, checkpoint.getNodeId());
+				ps.setString(++field, checkpoint.getNextNodeId());
+				ps.setString(++field, encodeState(checkpoint.getState()));
+				ps.setString(++field, stateSerializer.contentType());
+				ps.setObject(++field, UUID.fromString(checkpointId), Types.OTHER);
+				ps.setString(++field, threadName);
+				log.trace("Executing update checkpoint with id {} in thread {}:\n---\n{}---",
+						checkpointId,
+						threadName,
+						UPDATE_CHECKPOINT);
+				if (ps.executeUpdate() == 0) {
+					conn.rollback();
+					throw new NoSuchElementException(format("Checkpoint with id %s not found!", checkpointId));
 				}
 			}
 
-			insertCheckpoint(conn, config, checkpoints, checkpoint);
-
 			conn.commit();
 
-			log.debug("Checkpoint with id {} for thread {} inserted successfully.",
+			log.debug("Checkpoint with id {} for thread {} updated successfully.",
 					checkpoint.getId(),
-					threadId);
+					threadName);
 
 		}
-		catch (SQLException | IOException e) { // IOException from convertStateToJson
-			log.error("Error inserting checkpoint with id {} in thread {}",
+		catch (SQLException | IOException e) { // IOException from encodeState
+			log.error("Error updating checkpoint with id {} in thread {}",
 					checkpoint.getId(),
-					threadId,
+					threadName,
 					e);
-			rollback(conn, checkpoint, threadId);
+			rollback(conn, checkpoint, threadName);
 			throw e;
 		}
 	}
 
 	@Override
-	protected void releasedCheckpoints(RunnableConfig config, LinkedList<Checkpoint> checkpoints, Tag releaseTag) throws Exception {
-		var threadId = config.threadId().orElse(THREAD_ID_DEFAULT);
-
-		var selectThreadSql = """
-				SELECT thread_id FROM GraphThread
-				WHERE thread_name = ? AND is_released = FALSE
-				""";
-		var releaseThreadSql = """
-				UPDATE GraphThread
-				SET
-				    is_released = TRUE
-				WHERE thread_id = ?;
-				""";
-		try (Connection conn = getConnection()) {
-
-			UUID threadUUID = null;
-			try (PreparedStatement ps = conn.prepareStatement(selectThreadSql)) {
-				var field = 0;
-				ps.setString(++field, threadId);
-
-				try (ResultSet rs = ps.executeQuery()) {
-					var rows = 0;
-					while (rs.next()) {
-						threadUUID = rs.getObject("thread_id", UUID.class);
-						++rows;
-					}
-					if (rows == 0) {
-						throw new IllegalStateException(format("active Thread '%s' not found", threadId));
-					}
-					if (rows > 1) {
-						throw new IllegalStateException(format("duplicate active Thread '%s' found", threadId));
-					}
-				}
-			}
-
-			log.trace("Executing release Thread:\n---\n{}---", releaseThreadSql);
-			try (PreparedStatement ps = conn.prepareStatement(releaseThreadSql)) {
-				var field = 0;
-				ps.setObject(++field,
-						Objects.requireNonNull(threadUUID, "threadUUID cannot be null"),
-						Types.OTHER); // nullable
-				ps.executeUpdate();
-
+	protected void releaseThread(String threadName) throws Exception {
+		log.trace("Executing release Thread:\n---\n{}---", RELEASE_THREAD);
+		try (Connection conn = getConnection(); PreparedStatement ps = conn.prepareStatement(RELEASE_THREAD)) {
+			ps.setString(1, threadName);
+			if (ps.executeUpdate() == 0) {
+				throw new IllegalStateException(format("active Thread '%s' not found", threadName));
 			}
 		}
-
 	}
 
 	/**
@@ -433,7 +424,13 @@ public class PostgresSaver extends MemorySaver {
 		return datasource.getConnection();
 	}
 
-	public static class Builder extends MemorySaver.Builder {
+	/**
+	 * Position of a checkpoint in the order of the pages.
+	 */
+	private record Position(Timestamp savedAt, String checkpointId) {
+	}
+
+	public static class Builder {
 		public StateSerializer stateSerializer;
 		private String host;
 		private Integer port;
@@ -443,6 +440,9 @@ public class PostgresSaver extends MemorySaver {
 		private boolean createTables;
 		private boolean dropTablesFirst;
 		private DataSource datasource;
+		private int maxCachedThreads = DEFAULT_MAX_CACHED_THREADS;
+		private int maxCachedCheckpoints = DEFAULT_MAX_CACHED_CHECKPOINTS;
+		private int pageSize = DEFAULT_PAGE_SIZE;
 
 		public Builder stateSerializer(StateSerializer stateSerializer) {
 			this.stateSerializer = stateSerializer;
@@ -484,6 +484,33 @@ public class PostgresSaver extends MemorySaver {
 			return this;
 		}
 
+		/**
+		 * Sets the maximum number of threads whose checkpoints are cached in memory
+		 * (default {@value PagedCheckpointSaver#DEFAULT_MAX_CACHED_THREADS}).
+		 */
+		public Builder maxCachedThreads(int maxCachedThreads) {
+			this.maxCachedThreads = maxCachedThreads;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of checkpoints cached in memory per thread
+		 * (default {@value PagedCheckpointSaver#DEFAULT_MAX_CACHED_CHECKPOINTS}).
+		 */
+		public Builder maxCachedCheckpoints(int maxCachedCheckpoints) {
+			this.maxCachedCheckpoints = maxCachedCheckpoints;
+			return this;
+		}
+
+		/**
+		 * Sets the number of checkpoints read at once when listing the checkpoints of
+		 * a thread (default {@value PagedCheckpointSaver#DEFAULT_PAGE_SIZE}).
+		 */
+		public Builder pageSize(int pageSize) {
+			this.pageSize = pageSize;
+			return this;
+		}
+
 		private String requireNotBlank(String value, String name) {
 			if (requireNonNull(value, format("'%s' cannot be null", name)).isBlank()) {
 				throw new IllegalArgumentException(format("'%s' cannot be blank", name));
@@ -15,6 +15,7 @@
  */
 package com.alibaba.cloud.ai.graph.executor;
 
+import com.alibaba.cloud.ai.graph.CompileConfig;
 import com.alibaba.cloud.ai.graph.GraphResponse;
 import com.alibaba.cloud.ai.graph.GraphRunnerContext;
 import com.alibaba.cloud.ai.graph.NodeOutput;
@@ -24,7 +25,10 @@ import com.alibaba.cloud.ai.graph.action.AsyncNodeActionWithConfig;
 import com.alibaba.cloud.ai.graph.action.Command;
 import com.alibaba.cloud.ai.graph.action.InterruptableAction;
 import com.alibaba.cloud.ai.graph.action.InterruptionMetadata;
+import com.alibaba.cloud.ai.graph.cache.NodeCache;
+import com.alibaba.cloud.ai.graph.cache.NodeCachePolicy;
 import com.alibaba.cloud.ai.graph.exception.RunnableErrors;
+import com.alibaba.cloud.ai.graph.observation.GraphMetricsGenerator;
 import com.alibaba.cloud.ai.graph.streaming.GraphFlux;
 import com.alibaba.cloud.ai.graph.streaming.ParallelGraphFlux;
 import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
@@ -120,10 +124,9 @@ public class NodeExecutor extends BaseGraphExecutor {
 
 			context.doListeners(NODE_BEFORE, null);
 
-			CompletableFuture<Map<String, Object>> future = action.apply(context.getOverallState(),
-					context.getConfig());
+			Mono<Map<String, Object>> nodeResult = applyAction(context, currentNodeId, action);
 
-			return Mono.fromFuture(future)
+			return nodeResult
 					.flatMapMany(updateState -> handleActionResult(context, updateState, resultValue))
 					.onErrorResume(error -> {
 						context.doListeners(ERROR, new Exception(error));
@@ -136,6 +139,47 @@ public class NodeExecutor extends BaseGraphExecutor {
 		}
 	}
 
+	/**
+	 * Applies the node action, serving the result from the node cache when the node is
+	 * declared cacheable and a cached result exists for its current inputs.
+	 * @param context the graph runner context
+	 * @param nodeId the node identifier
+	 * @param action the node action
+	 * @return Mono with the node update state
+	 * @throws Exception if the cache key cannot be computed
+	 */
+	private Mono<Map<String, Object>> applyAction(GraphRunnerContext context, String nodeId,
+			AsyncNodeActionWithConfig action) throws Exception {
+		CompileConfig compileConfig = context.getCompiledGraph().compileConfig;
+		Optional<NodeCachePolicy> policy = compileConfig.nodeCachePolicy(nodeId);
+		Optional<NodeCache> cache = compileConfig.nodeCache();
+		if (policy.isEmpty() || cache.isEmpty()) {
+			return Mono.fromFuture(action.apply(context.getOverallState(), context.getConfig()));
+		}
+
+		String cacheKey = policy.get()
+			.cacheKey(context.getCompiledGraph().stateGraph.getName(), nodeId, context.getCurrentStateData(),
+					context.getCompiledGraph().stateGraph.getStateSerializer());
+		Optional<Map<String, Object>> cached = cache.get().get(cacheKey);
+		compileConfig.meterRegistry()
+			.ifPresent(registry -> GraphMetricsGenerator.recordNodeCache(registry, nodeId, cached.isPresent()));
+		if (cached.isPresent()) {
+			log.debug("Node '{}' result served from cache", nodeId);
+			return Mono.just(cached.get());
+		}
+
+		CompletableFuture<Map<String, Object>> future = action.apply(context.getOverallState(), context.getConfig());
+		return Mono.fromFuture(future).doOnNext(updateState -> {
+			boolean streaming = updateState.values()
+				.stream()
+				.anyMatch(value -> value instanceof Flux || value instanceof GraphFlux
+						|| value instanceof ParallelGraphFlux);
+			if (!streaming) {
+				cache.get().put(cacheKey, updateState, policy.get().ttl());
+			}
+		});
+	}
+
 	/**
 	 * Handles the action result and returns appropriate response.
 	 * @param context the graph runner context
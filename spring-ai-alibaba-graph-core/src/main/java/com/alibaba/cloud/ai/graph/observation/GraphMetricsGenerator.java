@@ -21,18 +21,36 @@ import com.alibaba.cloud.ai.graph.observation.metric.SpringAiAlibabaObservationM
 import com.alibaba.cloud.ai.graph.observation.metric.SpringAiAlibabaObservationMetricNames;
 import com.alibaba.cloud.ai.graph.observation.node.GraphNodeObservationContext;
 import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
 import io.micrometer.observation.Observation;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
- * Utility class for generating metrics from graph observation contexts. Creates counters
- * for graph nodes, edges, and overall graph operations. Supports success/failure tracking
- * and custom tagging for metric aggregation.
+ * Generates graph, node and edge metrics from observation contexts.
+ * <p>
+ * A generator is bound to one meter registry and caches the meter handles it registered
+ * there per metric name, subject, outcome and low cardinality key-values, so the hot path
+ * does a single map lookup instead of building tags and resolving the meter in the
+ * registry on every event. Meters removed from the registry are dropped from the cache.
+ * Besides the invocation counters, latency timers with percentile histograms, a state
+ * size summary and an in-flight graph gauge are maintained.
+ * <p>
+ * Checkpoint writes and node cache lookups are recorded through static methods that
+ * resolve the meter in the registry on every call.
  *
  * @author XiaoYunTao
  * @since 2025/6/28
@@ -41,72 +59,213 @@ public class GraphMetricsGenerator {
 
 	private static final String DESCRIPTION = "Counts the number of times a graph is used";
 
-	private GraphMetricsGenerator() {
+	private static final double[] PERCENTILES = { 0.5, 0.95, 0.99 };
+
+	private final MeterRegistry meterRegistry;
+
+	private final Map<MeterKey, Meter> meters = new ConcurrentHashMap<>();
+
+	private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a generator registering its meters in the given registry.
+	 * @param meterRegistry the meter registry for metric registration
+	 */
+	public GraphMetricsGenerator(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+		meterRegistry.config().onMeterRemoved(meter -> meters.values().remove(meter));
+	}
+
+	/**
+	 * Starts a latency sample for the given observation context. The sample is stored in
+	 * the context and stopped by the matching {@code generate} call.
+	 * @param context the observation context
+	 */
+	public void start(Observation.Context context) {
+		context.put(Timer.Sample.class, Timer.start(meterRegistry));
+	}
+
+	/**
+	 * Starts a latency sample for a graph execution and increments the in-flight gauge.
+	 * @param context the graph observation context
+	 */
+	public void start(GraphObservationContext context) {
+		start((Observation.Context) context);
+		inFlight(context.getGraphName()).incrementAndGet();
 	}
 
 	/**
 	 * Generates metrics for a graph node observation context. Creates a counter with
 	 * node-specific tags and success/failure tracking.
 	 * @param context the node observation context
-	 * @param meterRegistry the meter registry for metric registration
 	 * @param isSuccess whether the node operation was successful
 	 */
-	public static void generate(GraphNodeObservationContext context, MeterRegistry meterRegistry, boolean isSuccess) {
-		Counter.builder(SpringAiAlibabaObservationMetricNames.GRAPH_NODE.value())
-			.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_NODE_NAME.value(), context.getNodeName())
-			.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_NODE_SUCCESS.value(), String.valueOf(isSuccess))
-			.description(DESCRIPTION)
-			.tags(createTags(context))
-			.register(meterRegistry)
+	public void generate(GraphNodeObservationContext context, boolean isSuccess) {
+		String nodeName = context.getNodeName();
+		KeyValues keyValues = context.getLowCardinalityKeyValues();
+		counter(SpringAiAlibabaObservationMetricNames.GRAPH_NODE,
+				SpringAiAlibabaObservationMetricAttributes.GRAPH_NODE_NAME,
+				SpringAiAlibabaObservationMetricAttributes.GRAPH_NODE_SUCCESS, nodeName, isSuccess, keyValues)
 			.increment();
+		stopSample(context, () -> timer(SpringAiAlibabaObservationMetricNames.GRAPH_NODE_DURATION,
+				SpringAiAlibabaObservationMetricAttributes.GRAPH_NODE_NAME,
+				SpringAiAlibabaObservationMetricAttributes.GRAPH_NODE_SUCCESS, nodeName, isSuccess, keyValues));
 	}
 
 	/**
 	 * Generates metrics for a graph observation context. Creates a counter with
 	 * graph-specific tags and success/failure tracking.
 	 * @param context the graph observation context
-	 * @param meterRegistry the meter registry for metric registration
 	 * @param isSuccess whether the graph operation was successful
 	 */
-	public static void generate(GraphObservationContext context, MeterRegistry meterRegistry, boolean isSuccess) {
-		Counter.builder(SpringAiAlibabaObservationMetricNames.GRAPH.value())
-			.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_NAME.value(), context.getGraphName())
-			.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_SUCCESS.value(), String.valueOf(isSuccess))
-			.description(DESCRIPTION)
-			.tags(createTags(context))
-			.register(meterRegistry)
+	public void generate(GraphObservationContext context, boolean isSuccess) {
+		String graphName = context.getGraphName();
+		KeyValues keyValues = context.getLowCardinalityKeyValues();
+		counter(SpringAiAlibabaObservationMetricNames.GRAPH, SpringAiAlibabaObservationMetricAttributes.GRAPH_NAME,
+				SpringAiAlibabaObservationMetricAttributes.GRAPH_SUCCESS, graphName, isSuccess, keyValues)
 			.increment();
+		boolean started = stopSample(context,
+				() -> timer(SpringAiAlibabaObservationMetricNames.GRAPH_DURATION,
+						SpringAiAlibabaObservationMetricAttributes.GRAPH_NAME,
+						SpringAiAlibabaObservationMetricAttributes.GRAPH_SUCCESS, graphName, isSuccess, keyValues));
+		if (started) {
+			inFlight(graphName).decrementAndGet();
+		}
+		if (context.getState() != null) {
+			recordStateSize(graphName, context.getState().size());
+		}
 	}
 
 	/**
 	 * Generates metrics for a graph edge observation context. Creates a counter with
 	 * edge-specific tags and success/failure tracking.
 	 * @param context the edge observation context
-	 * @param meterRegistry the meter registry for metric registration
 	 * @param isSuccess whether the edge operation was successful
 	 */
-	public static void generate(GraphEdgeObservationContext context, MeterRegistry meterRegistry, boolean isSuccess) {
-		Counter.builder(SpringAiAlibabaObservationMetricNames.GRAPH_EDGE.value())
-			.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_EDGE_NAME.value(), context.getGraphEdgeName())
-			.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_EDGE_SUCCESS.value(), String.valueOf(isSuccess))
-			.description(DESCRIPTION)
-			.tags(createTags(context))
+	public void generate(GraphEdgeObservationContext context, boolean isSuccess) {
+		String edgeName = context.getGraphEdgeName();
+		KeyValues keyValues = context.getLowCardinalityKeyValues();
+		counter(SpringAiAlibabaObservationMetricNames.GRAPH_EDGE,
+				SpringAiAlibabaObservationMetricAttributes.GRAPH_EDGE_NAME,
+				SpringAiAlibabaObservationMetricAttributes.GRAPH_EDGE_SUCCESS, edgeName, isSuccess, keyValues)
+			.increment();
+		stopSample(context, () -> timer(SpringAiAlibabaObservationMetricNames.GRAPH_EDGE_DURATION,
+				SpringAiAlibabaObservationMetricAttributes.GRAPH_EDGE_NAME,
+				SpringAiAlibabaObservationMetricAttributes.GRAPH_EDGE_SUCCESS, edgeName, isSuccess, keyValues));
+	}
+
+	/**
+	 * Records the number of keys held in a graph state.
+	 * @param graphName the graph name
+	 * @param stateSize the number of state keys
+	 */
+	public void recordStateSize(String graphName, int stateSize) {
+		MeterKey key = new MeterKey(SpringAiAlibabaObservationMetricNames.GRAPH_STATE_SIZE.value(), graphName, "",
+				KeyValues.empty());
+		DistributionSummary summary = (DistributionSummary) meters.computeIfAbsent(key,
+				k -> DistributionSummary.builder(k.name())
+					.description("Number of keys held in the graph state")
+					.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_NAME.value(), graphName)
+					.publishPercentileHistogram()
+					.register(meterRegistry));
+		summary.record(stateSize);
+	}
+
+	/**
+	 * Records the latency of a single checkpoint write.
+	 * @param meterRegistry the meter registry for metric registration
+	 * @param saverName the checkpoint saver implementation name
+	 * @param durationNanos the write duration in nanoseconds
+	 */
+	public static void recordCheckpointWrite(MeterRegistry meterRegistry, String saverName, long durationNanos) {
+		Timer.builder(SpringAiAlibabaObservationMetricNames.GRAPH_CHECKPOINT_WRITE.value())
+			.description("Latency of checkpoint writes")
+			.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_CHECKPOINT_SAVER.value(), saverName)
+			.publishPercentiles(PERCENTILES)
+			.publishPercentileHistogram()
+			.register(meterRegistry)
+			.record(durationNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Counts a node result cache lookup.
+	 * @param meterRegistry the meter registry for metric registration
+	 * @param nodeName the node name
+	 * @param hit whether the lookup was a hit
+	 */
+	public static void recordNodeCache(MeterRegistry meterRegistry, String nodeName, boolean hit) {
+		Counter.builder(SpringAiAlibabaObservationMetricNames.GRAPH_NODE_CACHE.value())
+			.description("Counts node result cache lookups")
+			.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_NODE_NAME.value(), nodeName)
+			.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_NODE_CACHE_RESULT.value(), hit ? "hit" : "miss")
 			.register(meterRegistry)
 			.increment();
 	}
 
+	private Counter counter(SpringAiAlibabaObservationMetricNames name,
+			SpringAiAlibabaObservationMetricAttributes subjectAttribute,
+			SpringAiAlibabaObservationMetricAttributes successAttribute, String subject, boolean isSuccess,
+			KeyValues keyValues) {
+		MeterKey key = new MeterKey(name.value(), subject, String.valueOf(isSuccess), keyValues);
+		return (Counter) meters.computeIfAbsent(key,
+				k -> Counter.builder(k.name())
+					.tag(subjectAttribute.value(), subject)
+					.tag(successAttribute.value(), k.outcome())
+					.description(DESCRIPTION)
+					.tags(createTags(keyValues))
+					.register(meterRegistry));
+	}
+
+	private Timer timer(SpringAiAlibabaObservationMetricNames name,
+			SpringAiAlibabaObservationMetricAttributes subjectAttribute,
+			SpringAiAlibabaObservationMetricAttributes successAttribute, String subject, boolean isSuccess,
+			KeyValues keyValues) {
+		MeterKey key = new MeterKey(name.value(), subject, String.valueOf(isSuccess), keyValues);
+		return (Timer) meters.computeIfAbsent(key,
+				k -> Timer.builder(k.name())
+					.tag(subjectAttribute.value(), subject)
+					.tag(successAttribute.value(), k.outcome())
+					.tags(createTags(keyValues))
+					.publishPercentiles(PERCENTILES)
+					.publishPercentileHistogram()
+					.register(meterRegistry));
+	}
+
+	private AtomicInteger inFlight(String graphName) {
+		return inFlight.computeIfAbsent(graphName, name -> {
+			AtomicInteger value = new AtomicInteger();
+			Gauge.builder(SpringAiAlibabaObservationMetricNames.GRAPH_ACTIVE.value(), value, AtomicInteger::get)
+				.description("Number of graph executions currently in flight")
+				.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_NAME.value(), name)
+				.register(meterRegistry);
+			return value;
+		});
+	}
+
+	private static boolean stopSample(Observation.Context context, Supplier<Timer> timer) {
+		Timer.Sample sample = (Timer.Sample) context.remove(Timer.Sample.class);
+		if (sample == null) {
+			return false;
+		}
+		sample.stop(timer.get());
+		return true;
+	}
+
 	/**
 	 * Creates tags from the low cardinality key-values of an observation context.
 	 * Converts KeyValue objects to Tag objects for metric registration.
-	 * @param context the observation context containing key-values
+	 * @param keyValues the low cardinality key-values of the context
 	 * @return a list of tags created from the context's key-values
 	 */
-	private static List<Tag> createTags(Observation.Context context) {
+	private static List<Tag> createTags(KeyValues keyValues) {
 		List<Tag> tags = new ArrayList<>();
-		for (KeyValue keyValue : context.getLowCardinalityKeyValues()) {
+		for (KeyValue keyValue : keyValues) {
 			tags.add(Tag.of(keyValue.getKey(), keyValue.getValue()));
 		}
 		return tags;
 	}
 
+	private record MeterKey(String name, String subject, String outcome, KeyValues keyValues) {
+	}
+
 }
@@ -37,12 +37,24 @@ public class GraphEdgeObservationHandler implements ObservationHandler<GraphEdge
 
 	private final MeterRegistry meterRegistry;
 
+	private final GraphMetricsGenerator metrics;
+
 	/**
 	 * Constructs a new GraphEdgeObservationHandler with the specified meter registry.
 	 * @param meterRegistry the meter registry for metric collection
 	 */
 	public GraphEdgeObservationHandler(MeterRegistry meterRegistry) {
 		this.meterRegistry = meterRegistry;
+		this.metrics = new GraphMetricsGenerator(meterRegistry);
+	}
+
+	/**
+	 * Starts the latency sample for an edge observation.
+	 * @param context the edge observation context
+	 */
+	@Override
+	public void onStart(GraphEdgeObservationContext context) {
+		metrics.start(context);
 	}
 
 	/**
@@ -54,7 +66,7 @@ public class GraphEdgeObservationHandler implements ObservationHandler<GraphEdge
 	public void onStop(GraphEdgeObservationContext context) {
 		logger.info("Graph graphName: {} state: {} nextNode : {}", context.getGraphEdgeName(),
 				context.getState().toString(), context.getNextNode());
-		GraphMetricsGenerator.generate(context, meterRegistry, true);
+		metrics.generate(context, true);
 	}
 
 	/**
@@ -66,7 +78,7 @@ public class GraphEdgeObservationHandler implements ObservationHandler<GraphEdge
 	public void onError(GraphEdgeObservationContext context) {
 		logger.info("Graph graphName: {} state: {} nextNode : {}", context.getGraphEdgeName(),
 				context.getState().toString(), context.getNextNode());
-		GraphMetricsGenerator.generate(context, meterRegistry, false);
+		metrics.generate(context, false);
 	}
 
 	/**
@@ -35,12 +35,24 @@ public class GraphObservationHandler implements ObservationHandler<GraphObservat
 
 	private final MeterRegistry meterRegistry;
 
+	private final GraphMetricsGenerator metrics;
+
 	/**
 	 * Constructs a new GraphObservationHandler with the specified meter registry.
 	 * @param meterRegistry the meter registry for metrics collection
 	 */
 	public GraphObservationHandler(MeterRegistry meterRegistry) {
 		this.meterRegistry = meterRegistry;
+		this.metrics = new GraphMetricsGenerator(meterRegistry);
+	}
+
+	/**
+	 * Starts the latency sample for a graph observation.
+	 * @param context the graph observation context
+	 */
+	@Override
+	public void onStart(GraphObservationContext context) {
+		metrics.start(context);
 	}
 
 	/**
@@ -51,7 +63,7 @@ public class GraphObservationHandler implements ObservationHandler<GraphObservat
 	public void onStop(GraphObservationContext context) {
 		logger.info("Graph graphName: {} state: {} output : {}", context.getGraphName(), context.getState().toString(),
 				context.getOutput().toString());
-		GraphMetricsGenerator.generate(context, meterRegistry, true);
+		metrics.generate(context, true);
 	}
 
 	/**
@@ -62,7 +74,7 @@ public class GraphObservationHandler implements ObservationHandler<GraphObservat
 	public void onError(GraphObservationContext context) {
 		logger.info("Graph graphName: {} state: {} output : {}", context.getGraphName(), context.getState().toString(),
 				context.getOutput().toString());
-		GraphMetricsGenerator.generate(context, meterRegistry, false);
+		metrics.generate(context, false);
 	}
 
 	/**
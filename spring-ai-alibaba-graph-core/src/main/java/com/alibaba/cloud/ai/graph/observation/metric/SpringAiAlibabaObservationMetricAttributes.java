@@ -57,6 +57,16 @@ public enum SpringAiAlibabaObservationMetricAttributes {
 	 */
 	GRAPH_EDGE_SUCCESS("spring.ai.alibaba.graph.edge.success"),
 
+	/**
+	 * Attribute for the checkpoint saver implementation that wrote a checkpoint.
+	 */
+	GRAPH_CHECKPOINT_SAVER("spring.ai.alibaba.graph.checkpoint.saver"),
+
+	/**
+	 * Attribute indicating whether a node result cache lookup was a hit or a miss.
+	 */
+	GRAPH_NODE_CACHE_RESULT("spring.ai.alibaba.graph.node.cache.result"),
+
 	/**
 	 * Attribute for Generative AI Prompt.
 	 */
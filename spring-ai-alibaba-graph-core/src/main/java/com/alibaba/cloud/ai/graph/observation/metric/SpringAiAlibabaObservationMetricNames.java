@@ -38,7 +38,42 @@ public enum SpringAiAlibabaObservationMetricNames {
 	/**
 	 * Metric name for graph edge operations.
 	 */
-	GRAPH_EDGE("spring.ai.alibaba.graph.edge");
+	GRAPH_EDGE("spring.ai.alibaba.graph.edge"),
+
+	/**
+	 * Metric name for graph execution latency.
+	 */
+	GRAPH_DURATION("spring.ai.alibaba.graph.duration"),
+
+	/**
+	 * Metric name for graph node execution latency.
+	 */
+	GRAPH_NODE_DURATION("spring.ai.alibaba.graph.node.duration"),
+
+	/**
+	 * Metric name for graph edge evaluation latency.
+	 */
+	GRAPH_EDGE_DURATION("spring.ai.alibaba.graph.edge.duration"),
+
+	/**
+	 * Metric name for the number of graph executions currently in flight.
+	 */
+	GRAPH_ACTIVE("spring.ai.alibaba.graph.active"),
+
+	/**
+	 * Metric name for the number of keys held in the graph state.
+	 */
+	GRAPH_STATE_SIZE("spring.ai.alibaba.graph.state.size"),
+
+	/**
+	 * Metric name for checkpoint write latency.
+	 */
+	GRAPH_CHECKPOINT_WRITE("spring.ai.alibaba.graph.checkpoint.write"),
+
+	/**
+	 * Metric name for node result cache lookups.
+	 */
+	GRAPH_NODE_CACHE("spring.ai.alibaba.graph.node.cache");
 
 	private final String value;
 
@@ -36,12 +36,24 @@ public class GraphNodeObservationHandler implements ObservationHandler<GraphNode
 
 	private final MeterRegistry meterRegistry;
 
+	private final GraphMetricsGenerator metrics;
+
 	/**
 	 * Constructs a new GraphNodeObservationHandler with the specified meter registry.
 	 * @param meterRegistry the meter registry for metric collection
 	 */
 	public GraphNodeObservationHandler(MeterRegistry meterRegistry) {
 		this.meterRegistry = meterRegistry;
+		this.metrics = new GraphMetricsGenerator(meterRegistry);
+	}
+
+	/**
+	 * Starts the latency sample for a node observation.
+	 * @param context the node observation context
+	 */
+	@Override
+	public void onStart(GraphNodeObservationContext context) {
+		metrics.start(context);
 	}
 
 	/**
@@ -51,7 +63,7 @@ public class GraphNodeObservationHandler implements ObservationHandler<GraphNode
 	 */
 	@Override
 	public void onStop(GraphNodeObservationContext context) {
-		GraphMetricsGenerator.generate(context, meterRegistry, true);
+		metrics.generate(context, true);
 	}
 
 	/**
@@ -61,7 +73,7 @@ public class GraphNodeObservationHandler implements ObservationHandler<GraphNode
 	 */
 	@Override
 	public void onError(GraphNodeObservationContext context) {
-		GraphMetricsGenerator.generate(context, meterRegistry, false);
+		metrics.generate(context, false);
 	}
 
 	/**
@@ -0,0 +1,957 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.scheduling;
+
+import java.net.InetAddress;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * {@link ScheduledAgentManager} that coordinates scheduled agent executions across
+ * several application replicas through a shared JDBC table.
+ * <p>
+ * Every replica registers the same tasks locally, but the schedule itself (next fire
+ * time, last fire time, execution lease) lives in the database. Each node polls for due
+ * rows in time buckets and claims them with {@code SELECT ... FOR UPDATE SKIP LOCKED},
+ * so a fire is executed by exactly one node and idle nodes pick up the rows that busy
+ * nodes skip. A claimed row carries a lease that is renewed while the execution runs
+ * and released when it completes; rows whose lease expired (for example because the
+ * owning node crashed) become claimable again. Schedules survive restarts because the
+ * next fire time is only initialized when a task is first registered.
+ * <p>
+ * Nodes claim at most as many rows as they have free execution slots, which bounds the
+ * number of concurrent graph executions per node. Optionally a node can be restricted
+ * to a subset of {@link Builder#shardCount(int) shards}; a task is assigned to a shard
+ * by hashing its ID.
+ * <p>
+ * Task IDs are derived from the agent name plus a per-name sequence, so replicas that
+ * register their tasks in the same order share schedule rows. The claim statement uses
+ * {@code LIMIT ... FOR UPDATE SKIP LOCKED} and is supported by MySQL 8, PostgreSQL and
+ * H2. The table used is:
+ *
+ * <pre>
+ *     CREATE TABLE GRAPH_SCHEDULED_TASK (
+ *          task_id VARCHAR(255) PRIMARY KEY,
+ *          schedule_mode VARCHAR(32) NOT NULL,
+ *          schedule_spec VARCHAR(512),
+ *          shard_id INT NOT NULL,
+ *          fire_bucket BIGINT NOT NULL,
+ *          next_fire_time BIGINT NOT NULL,
+ *          last_fire_time BIGINT,
+ *          lease_owner VARCHAR(255),
+ *          lease_until BIGINT,
+ *          status VARCHAR(16) NOT NULL
+ *     )
+ *     CREATE INDEX IDX_GRAPH_SCHEDULED_TASK_DUE
+ *          ON GRAPH_SCHEDULED_TASK(status, fire_bucket, next_fire_time)
+ * </pre>
+ *
+ * Ex:
+ *
+ * <pre>
+ * ScheduledAgentManagerFactory.getInstance()
+ *     .registerProvider(() -&gt; JdbcScheduledAgentManager.builder()
+ *         .dataSource(dataSource)
+ *         .maxConcurrentExecutions(4)
+ *         .build());
+ * </pre>
+ */
+public class JdbcScheduledAgentManager implements ScheduledAgentManager {
+
+	private static final Logger log = LoggerFactory.getLogger(JdbcScheduledAgentManager.class);
+
+	private static final String STATUS_ACTIVE = "ACTIVE";
+
+	private static final String STATUS_COMPLETED = "COMPLETED";
+
+	/**
+	 * What to do with a fire that is found later than the misfire threshold.
+	 */
+	public enum MisfirePolicy {
+
+		/**
+		 * Execute once immediately and compute the following fire from now, collapsing
+		 * all missed fires into a single execution.
+		 */
+		FIRE_ONCE_NOW,
+
+		/**
+		 * Skip the missed fires and wait for the next fire after now. One-time tasks are
+		 * always executed.
+		 */
+		SKIP_MISSED
+
+	}
+
+	/**
+	 * Options which configure the creation of the schedule table.
+	 */
+	public enum CreateOption {
+
+		/** No attempt is made to create the table. */
+		CREATE_NONE,
+
+		/** An existing table is reused, otherwise it is created. */
+		CREATE_IF_NOT_EXISTS,
+
+		/** An existing table is dropped and replaced with a new one. */
+		CREATE_OR_REPLACE
+
+	}
+
+	private record ClaimedFire(String taskId, long scheduledTime, boolean execute) {
+	}
+
+	private final DataSource dataSource;
+
+	private final String tableName;
+
+	private final String nodeId;
+
+	private final long bucketMillis;
+
+	private final long leaseMillis;
+
+	private final long misfireThresholdMillis;
+
+	private final MisfirePolicy misfirePolicy;
+
+	private final int shardCount;
+
+	private final Set<Integer> ownedShards;
+
+	private final int batchSize;
+
+	private final int maxConcurrentExecutions;
+
+	private final ZoneId zoneId;
+
+	private final ThreadPoolTaskScheduler taskScheduler;
+
+	private final ExecutorService executionPool;
+
+	private final Semaphore executionSlots;
+
+	private final Map<String, ScheduledAgentTask> activeTasks = new ConcurrentHashMap<>();
+
+	private final Map<String, AtomicInteger> taskSequences = new ConcurrentHashMap<>();
+
+	private final Map<String, LocalSchedule> schedules = new ConcurrentHashMap<>();
+
+	private final Set<String> runningTaskIds = ConcurrentHashMap.newKeySet();
+
+	private volatile boolean shutdown = false;
+
+	private JdbcScheduledAgentManager(Builder builder) {
+		this.dataSource = requireNonNull(builder.dataSource, "dataSource cannot be null");
+		this.tableName = builder.tableName;
+		this.nodeId = builder.nodeId != null ? builder.nodeId : defaultNodeId();
+		this.bucketMillis = builder.bucketSize.toMillis();
+		this.leaseMillis = builder.leaseDuration.toMillis();
+		this.misfireThresholdMillis = builder.misfireThreshold.toMillis();
+		this.misfirePolicy = builder.misfirePolicy;
+		this.shardCount = builder.shardCount;
+		this.ownedShards = builder.ownedShards;
+		this.batchSize = builder.batchSize;
+		this.maxConcurrentExecutions = builder.maxConcurrentExecutions;
+		this.zoneId = builder.zoneId;
+		this.executionSlots = new Semaphore(maxConcurrentExecutions);
+		AtomicInteger workerIndex = new AtomicInteger();
+		this.executionPool = Executors.newFixedThreadPool(maxConcurrentExecutions, runnable -> {
+			Thread thread = new Thread(runnable, "agent-scheduler-worker-" + workerIndex.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		initTable(builder.createOption);
+		this.taskScheduler = createTaskScheduler();
+		this.taskScheduler.scheduleWithFixedDelay(this::poll, builder.pollInterval);
+		log.info("JDBC Scheduled Agent Manager {} started, polling {} every {} ms", nodeId, tableName,
+				builder.pollInterval.toMillis());
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	@Override
+	public String registerTask(ScheduledAgentTask task) {
+		if (shutdown) {
+			throw new IllegalStateException("JDBC Scheduled Agent Manager is shut down");
+		}
+		int sequence = taskSequences.computeIfAbsent(task.getName(), name -> new AtomicInteger()).incrementAndGet();
+		String taskId = format("agent-task-%s-%d", task.getName(), sequence);
+		activeTasks.put(taskId, task);
+		log.debug("Registered scheduled agent task: {}", taskId);
+		return taskId;
+	}
+
+	/**
+	 * Stops firing the task on this node. The schedule row is kept so that other nodes
+	 * that registered the same task keep executing it.
+	 */
+	@Override
+	public boolean unregisterTask(String taskId) {
+		LocalSchedule schedule = schedules.remove(taskId);
+		if (schedule != null) {
+			schedule.handle.cancel(false);
+		}
+		boolean removed = activeTasks.remove(taskId) != null;
+		if (removed) {
+			log.debug("Unregistered scheduled agent task: {}", taskId);
+		}
+		return removed;
+	}
+
+	/**
+	 * Registers the schedule row if it does not exist yet and starts firing the task on
+	 * this node whenever it claims a due fire.
+	 */
+	@Override
+	public ScheduledFuture<?> scheduleTask(String taskId, ScheduleConfig config, Runnable execution) {
+		if (shutdown) {
+			throw new IllegalStateException("JDBC Scheduled Agent Manager is shut down");
+		}
+		LocalSchedule schedule = new LocalSchedule(taskId, config, execution);
+		try {
+			schedule.nextFireTime = upsertSchedule(taskId, config);
+		}
+		catch (SQLException ex) {
+			throw new IllegalStateException("Failed to register schedule " + taskId, ex);
+		}
+		LocalSchedule previous = schedules.put(taskId, schedule);
+		if (previous != null) {
+			previous.handle.cancel(false);
+		}
+		return schedule.handle;
+	}
+
+	/**
+	 * Removes the schedule row so that no node fires the task anymore.
+	 * @param taskId the task ID
+	 * @return true if a schedule row was deleted
+	 */
+	public boolean cancelSchedule(String taskId) {
+		unregisterTask(taskId);
+		try (Connection conn = dataSource.getConnection();
+				PreparedStatement ps = conn.prepareStatement(format("DELETE FROM %s WHERE task_id = ?", tableName))) {
+			ps.setString(1, taskId);
+			return ps.executeUpdate() > 0;
+		}
+		catch (SQLException ex) {
+			throw new IllegalStateException("Failed to cancel schedule " + taskId, ex);
+		}
+	}
+
+	@Override
+	public Optional<ScheduledAgentTask> getTask(String taskId) {
+		return Optional.ofNullable(activeTasks.get(taskId));
+	}
+
+	@Override
+	public Set<String> getAllActiveTaskIds() {
+		return Set.copyOf(activeTasks.keySet());
+	}
+
+	@Override
+	public int getActiveTaskCount() {
+		return activeTasks.size();
+	}
+
+	/**
+	 * Returns the scheduler running the poll loop of this node.
+	 */
+	@Override
+	public TaskScheduler getTaskScheduler() {
+		return taskScheduler;
+	}
+
+	/**
+	 * @return the identifier written as lease owner by this node
+	 */
+	public String getNodeId() {
+		return nodeId;
+	}
+
+	/**
+	 * @return number of executions currently running on this node
+	 */
+	public int getRunningExecutionCount() {
+		return maxConcurrentExecutions - executionSlots.availablePermits();
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return shutdown;
+	}
+
+	@Override
+	public synchronized void shutdown() {
+		if (shutdown) {
+			return;
+		}
+		shutdown = true;
+		log.info("Shutting down JDBC Scheduled Agent Manager {} with {} active tasks", nodeId, activeTasks.size());
+		taskScheduler.shutdown();
+		List.copyOf(activeTasks.values()).forEach(task -> {
+			try {
+				task.stop();
+			}
+			catch (Exception e) {
+				log.warn("Error stopping scheduled execution during shutdown", e);
+			}
+		});
+		schedules.values().forEach(schedule -> schedule.handle.cancel(false));
+		schedules.clear();
+		executionPool.shutdown();
+		try {
+			if (!executionPool.awaitTermination(30, TimeUnit.SECONDS)) {
+				executionPool.shutdownNow();
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			executionPool.shutdownNow();
+		}
+		releaseLeases();
+	}
+
+	/**
+	 * One poll cycle: renew the leases of running executions, then claim as many due
+	 * fires as there are free execution slots and hand them to the worker pool.
+	 */
+	void poll() {
+		if (shutdown) {
+			return;
+		}
+		try {
+			renewLeases();
+			int capacity = Math.min(batchSize, executionSlots.availablePermits());
+			if (capacity == 0 || schedules.isEmpty()) {
+				return;
+			}
+			for (ClaimedFire fire : claimDueFires(capacity)) {
+				LocalSchedule schedule = schedules.get(fire.taskId());
+				if (schedule == null) {
+					// Unregistered between claim and dispatch
+					releaseLease(fire.taskId(), null);
+					continue;
+				}
+				executionSlots.acquireUninterruptibly();
+				runningTaskIds.add(fire.taskId());
+				executionPool.execute(() -> runFire(schedule, fire));
+			}
+		}
+		catch (Exception ex) {
+			log.error("Scheduled agent poll failed on node {}", nodeId, ex);
+		}
+	}
+
+	private void runFire(LocalSchedule schedule, ClaimedFire fire) {
+		Long nextFireTime = null;
+		try {
+			schedule.execution.run();
+		}
+		catch (Exception ex) {
+			log.error("Scheduled agent task {} failed", fire.taskId(), ex);
+		}
+		finally {
+			if (schedule.config.getMode() == ScheduleConfig.ScheduleMode.FIXED_DELAY) {
+				nextFireTime = System.currentTimeMillis() + schedule.config.getFixedDelay();
+				schedule.nextFireTime = nextFireTime;
+			}
+			runningTaskIds.remove(fire.taskId());
+			try {
+				releaseLease(fire.taskId(), nextFireTime);
+			}
+			finally {
+				executionSlots.release();
+			}
+		}
+	}
+
+	private List<ClaimedFire> claimDueFires(int limit) throws SQLException {
+		List<String> localTaskIds = new ArrayList<>(schedules.keySet());
+		long now = System.currentTimeMillis();
+		StringBuilder sql = new StringBuilder(format("""
+				SELECT task_id, next_fire_time, last_fire_time FROM %s
+				WHERE status = ? AND fire_bucket <= ? AND next_fire_time <= ?
+				  AND (lease_until IS NULL OR lease_until < ?)
+				  AND task_id IN (%s)""", tableName, placeholders(localTaskIds.size())));
+		List<Integer> shards = ownedShards.isEmpty() ? List.of() : List.copyOf(ownedShards);
+		if (!shards.isEmpty()) {
+			sql.append(format(" AND shard_id IN (%s)", placeholders(shards.size())));
+		}
+		sql.append(" ORDER BY next_fire_time LIMIT ? FOR UPDATE SKIP LOCKED");
+
+		List<ClaimedFire> claimed = new ArrayList<>();
+		try (Connection conn = dataSource.getConnection()) {
+			boolean autoCommit = conn.getAutoCommit();
+			conn.setAutoCommit(false);
+			try {
+				List<Object[]> dueRows = new ArrayList<>();
+				try (PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+					int index = 1;
+					ps.setString(index++, STATUS_ACTIVE);
+					ps.setLong(index++, bucketOf(now));
+					ps.setLong(index++, now);
+					ps.setLong(index++, now);
+					for (String taskId : localTaskIds) {
+						ps.setString(index++, taskId);
+					}
+					for (Integer shard : shards) {
+						ps.setInt(index++, shard);
+					}
+					ps.setInt(index, limit);
+					try (ResultSet rs = ps.executeQuery()) {
+						while (rs.next()) {
+							long lastFire = rs.getLong(3);
+							dueRows.add(new Object[] { rs.getString(1), rs.getLong(2), rs.wasNull() ? null : lastFire });
+						}
+					}
+				}
+				try (PreparedStatement update = conn.prepareStatement(format("""
+						UPDATE %s SET lease_owner = ?, lease_until = ?, last_fire_time = ?,
+						  next_fire_time = ?, fire_bucket = ?, status = ?
+						WHERE task_id = ?""", tableName))) {
+					for (Object[] row : dueRows) {
+						String taskId = (String) row[0];
+						LocalSchedule schedule = schedules.get(taskId);
+						if (schedule == null) {
+							continue;
+						}
+						ClaimedFire fire = planFire(schedule, (Long) row[1], now);
+						boolean skippedDelay = !fire.execute()
+								&& schedule.config.getMode() == ScheduleConfig.ScheduleMode.FIXED_DELAY;
+						Long next = skippedDelay ? Long.valueOf(now + schedule.config.getFixedDelay())
+								: nextFireTime(schedule.config, fire.scheduledTime(), now);
+						long nextValue = next != null ? next : fire.scheduledTime();
+						update.setString(1, fire.execute() ? nodeId : null);
+						update.setObject(2, fire.execute() ? Long.valueOf(now + leaseMillis) : null, Types.BIGINT);
+						update.setObject(3, fire.execute() ? Long.valueOf(now) : row[2], Types.BIGINT);
+						update.setLong(4, nextValue);
+						update.setLong(5, bucketOf(nextValue));
+						update.setString(6, next != null ? STATUS_ACTIVE : STATUS_COMPLETED);
+						update.setString(7, taskId);
+						update.addBatch();
+						schedule.nextFireTime = nextValue;
+						if (fire.execute()) {
+							claimed.add(fire);
+						}
+					}
+					update.executeBatch();
+				}
+				conn.commit();
+			}
+			catch (SQLException ex) {
+				conn.rollback();
+				throw ex;
+			}
+			finally {
+				conn.setAutoCommit(autoCommit);
+			}
+		}
+		return claimed;
+	}
+
+	/**
+	 * Applies the misfire policy to a due fire.
+	 */
+	private ClaimedFire planFire(LocalSchedule schedule, long scheduledTime, long now) {
+		boolean misfired = now - scheduledTime > misfireThresholdMillis;
+		if (!misfired) {
+			return new ClaimedFire(schedule.taskId, scheduledTime, true);
+		}
+		log.warn("Scheduled agent task {} misfired by {} ms", schedule.taskId, now - scheduledTime);
+		boolean oneTime = schedule.config.getMode() == ScheduleConfig.ScheduleMode.ONE_TIME;
+		if (misfirePolicy == MisfirePolicy.SKIP_MISSED && !oneTime) {
+			return new ClaimedFire(schedule.taskId, now, false);
+		}
+		// FIRE_ONCE_NOW: compute the following fire from now to collapse missed fires
+		return new ClaimedFire(schedule.taskId, now, true);
+	}
+
+	/**
+	 * Computes the fire following {@code scheduledTime}, or {@code null} when the
+	 * schedule has no further fires. Fixed-delay schedules are rescheduled on completion,
+	 * so their next fire is held back by the lease until then.
+	 */
+	private Long nextFireTime(ScheduleConfig config, long scheduledTime, long now) {
+		return switch (config.getMode()) {
+			case CRON -> {
+				ZonedDateTime next = CronExpression.parse(config.getCronExpression())
+					.next(ZonedDateTime.ofInstant(Instant.ofEpochMilli(scheduledTime), zoneId));
+				yield next != null ? next.toInstant().toEpochMilli() : null;
+			}
+			case FIXED_RATE -> scheduledTime + config.getFixedRate();
+			case FIXED_DELAY -> scheduledTime;
+			case ONE_TIME -> null;
+			case TRIGGER -> {
+				Instant instant = Instant.ofEpochMilli(scheduledTime);
+				Instant next = config.getTrigger()
+					.nextExecution(new SimpleTriggerContext(instant, Instant.ofEpochMilli(now), instant));
+				yield next != null ? next.toEpochMilli() : null;
+			}
+		};
+	}
+
+	private long firstFireTime(ScheduleConfig config, long now) {
+		long initialDelay = config.getInitialDelay() != null ? config.getInitialDelay() : 0L;
+		return switch (config.getMode()) {
+			case CRON -> {
+				ZonedDateTime next = CronExpression.parse(config.getCronExpression())
+					.next(ZonedDateTime.ofInstant(Instant.ofEpochMilli(now), zoneId));
+				yield next != null ? next.toInstant().toEpochMilli() : Long.MAX_VALUE;
+			}
+			case FIXED_DELAY, FIXED_RATE, ONE_TIME -> now + initialDelay;
+			case TRIGGER -> {
+				Instant next = config.getTrigger().nextExecution(new SimpleTriggerContext());
+				yield next != null ? next.toEpochMilli() : Long.MAX_VALUE;
+			}
+		};
+	}
+
+	private static String scheduleSpec(ScheduleConfig config) {
+		return switch (config.getMode()) {
+			case CRON -> config.getCronExpression();
+			case FIXED_DELAY -> "delay:" + config.getFixedDelay();
+			case FIXED_RATE -> "rate:" + config.getFixedRate();
+			case ONE_TIME -> "once";
+			case TRIGGER -> config.getTrigger().getClass().getName();
+		};
+	}
+
+	/**
+	 * Inserts the schedule row on first registration. An existing row keeps its next
+	 * fire time unless the schedule definition changed.
+	 * @return the next fire time stored for the task
+	 */
+	private long upsertSchedule(String taskId, ScheduleConfig config) throws SQLException {
+		String spec = scheduleSpec(config);
+		long now = System.currentTimeMillis();
+		try (Connection conn = dataSource.getConnection()) {
+			try (PreparedStatement select = conn.prepareStatement(
+					format("SELECT schedule_mode, schedule_spec, next_fire_time FROM %s WHERE task_id = ?", tableName))) {
+				select.setString(1, taskId);
+				try (ResultSet rs = select.executeQuery()) {
+					if (rs.next()) {
+						if (config.getMode().name().equals(rs.getString(1)) && Objects.equals(spec, rs.getString(2))) {
+							return rs.getLong(3);
+						}
+						long next = firstFireTime(config, now);
+						try (PreparedStatement update = conn.prepareStatement(format("""
+								UPDATE %s SET schedule_mode = ?, schedule_spec = ?, next_fire_time = ?,
+								  fire_bucket = ?, status = ?
+								WHERE task_id = ?""", tableName))) {
+							update.setString(1, config.getMode().name());
+							update.setString(2, spec);
+							update.setLong(3, next);
+							update.setLong(4, bucketOf(next));
+							update.setString(5, STATUS_ACTIVE);
+							update.setString(6, taskId);
+							update.executeUpdate();
+						}
+						return next;
+					}
+				}
+			}
+			long next = firstFireTime(config, now);
+			try (PreparedStatement insert = conn.prepareStatement(format("""
+					INSERT INTO %s (task_id, schedule_mode, schedule_spec, shard_id, fire_bucket, next_fire_time, status)
+					VALUES (?, ?, ?, ?, ?, ?, ?)""", tableName))) {
+				insert.setString(1, taskId);
+				insert.setString(2, config.getMode().name());
+				insert.setString(3, spec);
+				insert.setInt(4, shardOf(taskId));
+				insert.setLong(5, bucketOf(next));
+				insert.setLong(6, next);
+				insert.setString(7, STATUS_ACTIVE);
+				insert.executeUpdate();
+				return next;
+			}
+			catch (SQLException ex) {
+				// Another node inserted the row concurrently
+				if (ex.getSQLState() != null && ex.getSQLState().startsWith("23")) {
+					return next;
+				}
+				throw ex;
+			}
+		}
+	}
+
+	private void renewLeases() throws SQLException {
+		if (runningTaskIds.isEmpty()) {
+			return;
+		}
+		List<String> taskIds = List.copyOf(runningTaskIds);
+		try (Connection conn = dataSource.getConnection();
+				PreparedStatement ps = conn.prepareStatement(
+						format("UPDATE %s SET lease_until = ? WHERE lease_owner = ? AND task_id IN (%s)", tableName,
+								placeholders(taskIds.size())))) {
+			ps.setLong(1, System.currentTimeMillis() + leaseMillis);
+			ps.setString(2, nodeId);
+			for (int i = 0; i < taskIds.size(); i++) {
+				ps.setString(i + 3, taskIds.get(i));
+			}
+			ps.executeUpdate();
+		}
+	}
+
+	private void releaseLease(String taskId, Long nextFireTime) {
+		String sql = nextFireTime == null
+				? format("UPDATE %s SET lease_owner = NULL, lease_until = NULL WHERE task_id = ? AND lease_owner = ?",
+						tableName)
+				: format("""
+						UPDATE %s SET lease_owner = NULL, lease_until = NULL, next_fire_time = ?, fire_bucket = ?
+						WHERE task_id = ? AND lease_owner = ?""", tableName);
+		try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+			int index = 1;
+			if (nextFireTime != null) {
+				ps.setLong(index++, nextFireTime);
+				ps.setLong(index++, bucketOf(nextFireTime));
+			}
+			ps.setString(index++, taskId);
+			ps.setString(index, nodeId);
+			ps.executeUpdate();
+		}
+		catch (SQLException ex) {
+			log.warn("Failed to release lease of scheduled agent task {}; it expires in {} ms", taskId, leaseMillis,
+					ex);
+		}
+	}
+
+	private void releaseLeases() {
+		try (Connection conn = dataSource.getConnection();
+				PreparedStatement ps = conn.prepareStatement(format(
+						"UPDATE %s SET lease_owner = NULL, lease_until = NULL WHERE lease_owner = ?", tableName))) {
+			ps.setString(1, nodeId);
+			ps.executeUpdate();
+		}
+		catch (SQLException ex) {
+			log.warn("Failed to release leases of node {}", nodeId, ex);
+		}
+	}
+
+	private long bucketOf(long epochMillis) {
+		return epochMillis / bucketMillis;
+	}
+
+	private int shardOf(String taskId) {
+		return Math.floorMod(taskId.hashCode(), shardCount);
+	}
+
+	private static String placeholders(int count) {
+		return Collections.nCopies(count, "?").stream().collect(Collectors.joining(", "));
+	}
+
+	private void initTable(CreateOption createOption) {
+		if (createOption == CreateOption.CREATE_NONE) {
+			return;
+		}
+		try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
+			if (createOption == CreateOption.CREATE_OR_REPLACE) {
+				stmt.execute(format("DROP TABLE IF EXISTS %s", tableName));
+			}
+			stmt.execute(format("""
+					CREATE TABLE IF NOT EXISTS %s (
+					   task_id VARCHAR(255) PRIMARY KEY,
+					   schedule_mode VARCHAR(32) NOT NULL,
+					   schedule_spec VARCHAR(512),
+					   shard_id INT NOT NULL,
+					   fire_bucket BIGINT NOT NULL,
+					   next_fire_time BIGINT NOT NULL,
+					   last_fire_time BIGINT,
+					   lease_owner VARCHAR(255),
+					   lease_until BIGINT,
+					   status VARCHAR(16) NOT NULL
+					)""", tableName));
+			try {
+				stmt.execute(format("CREATE INDEX IDX_%s_DUE ON %s(status, fire_bucket, next_fire_time)", tableName,
+						tableName));
+			}
+			catch (SQLException ex) {
+				log.debug("Index on {} already exists", tableName);
+			}
+		}
+		catch (SQLException ex) {
+			throw new IllegalStateException("Failed to initialize table " + tableName, ex);
+		}
+	}
+
+	private ThreadPoolTaskScheduler createTaskScheduler() {
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.setPoolSize(1);
+		scheduler.setThreadNamePrefix("agent-scheduler-poller-");
+		scheduler.setDaemon(true);
+		scheduler.initialize();
+		return scheduler;
+	}
+
+	private static String defaultNodeId() {
+		String host;
+		try {
+			host = InetAddress.getLocalHost().getHostName();
+		}
+		catch (Exception ex) {
+			host = "unknown";
+		}
+		return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+	}
+
+	/**
+	 * A schedule registered on this node.
+	 */
+	private final class LocalSchedule {
+
+		private final String taskId;
+
+		private final ScheduleConfig config;
+
+		private final Runnable execution;
+
+		private final ScheduleHandle handle;
+
+		private volatile long nextFireTime;
+
+		private LocalSchedule(String taskId, ScheduleConfig config, Runnable execution) {
+			this.taskId = taskId;
+			this.config = config;
+			this.execution = execution;
+			this.handle = new ScheduleHandle(this);
+		}
+
+	}
+
+	/**
+	 * Future returned to {@link ScheduledAgentTask}; cancelling it stops firing the task
+	 * on this node.
+	 */
+	private final class ScheduleHandle extends CompletableFuture<Object> implements ScheduledFuture<Object> {
+
+		private final LocalSchedule schedule;
+
+		private ScheduleHandle(LocalSchedule schedule) {
+			this.schedule = schedule;
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			schedules.remove(schedule.taskId, schedule);
+			return super.cancel(mayInterruptIfRunning);
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(schedule.nextFireTime - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+		}
+
+	}
+
+	public static class Builder {
+
+		private DataSource dataSource;
+
+		private String tableName = "GRAPH_SCHEDULED_TASK";
+
+		private String nodeId;
+
+		private CreateOption createOption = CreateOption.CREATE_IF_NOT_EXISTS;
+
+		private Duration pollInterval = Duration.ofSeconds(1);
+
+		private Duration bucketSize = Duration.ofSeconds(10);
+
+		private Duration leaseDuration = Duration.ofSeconds(60);
+
+		private Duration misfireThreshold = Duration.ofSeconds(60);
+
+		private MisfirePolicy misfirePolicy = MisfirePolicy.FIRE_ONCE_NOW;
+
+		private int shardCount = 16;
+
+		private Set<Integer> ownedShards = Set.of();
+
+		private int batchSize = 32;
+
+		private int maxConcurrentExecutions = Runtime.getRuntime().availableProcessors();
+
+		private ZoneId zoneId = ZoneId.systemDefault();
+
+		public Builder dataSource(DataSource dataSource) {
+			this.dataSource = dataSource;
+			return this;
+		}
+
+		public Builder tableName(String tableName) {
+			this.tableName = requireNonNull(tableName, "tableName cannot be null");
+			return this;
+		}
+
+		/**
+		 * Sets the identifier written as lease owner. Defaults to host name plus a random
+		 * suffix.
+		 */
+		public Builder nodeId(String nodeId) {
+			this.nodeId = nodeId;
+			return this;
+		}
+
+		public Builder createOption(CreateOption createOption) {
+			this.createOption = requireNonNull(createOption, "createOption cannot be null");
+			return this;
+		}
+
+		/**
+		 * Sets the delay between two polls of this node.
+		 */
+		public Builder pollInterval(Duration pollInterval) {
+			this.pollInterval = requireNonNull(pollInterval, "pollInterval cannot be null");
+			return this;
+		}
+
+		/**
+		 * Sets the width of the time buckets used to narrow the due-row index scan.
+		 */
+		public Builder bucketSize(Duration bucketSize) {
+			if (bucketSize.toMillis() <= 0) {
+				throw new IllegalArgumentException("bucketSize must be > 0!");
+			}
+			this.bucketSize = bucketSize;
+			return this;
+		}
+
+		/**
+		 * Sets how long a claimed fire stays owned by this node without renewal.
+		 */
+		public Builder leaseDuration(Duration leaseDuration) {
+			this.leaseDuration = requireNonNull(leaseDuration, "leaseDuration cannot be null");
+			return this;
+		}
+
+		/**
+		 * Sets how late a fire may be found before the misfire policy applies.
+		 */
+		public Builder misfireThreshold(Duration misfireThreshold) {
+			this.misfireThreshold = requireNonNull(misfireThreshold, "misfireThreshold cannot be null");
+			return this;
+		}
+
+		public Builder misfirePolicy(MisfirePolicy misfirePolicy) {
+			this.misfirePolicy = requireNonNull(misfirePolicy, "misfirePolicy cannot be null");
+			return this;
+		}
+
+		/**
+		 * Sets the number of shards task IDs are hashed into. All nodes must use the same
+		 * value.
+		 */
+		public Builder shardCount(int shardCount) {
+			if (shardCount <= 0) {
+				throw new IllegalArgumentException("shardCount must be > 0!");
+			}
+			this.shardCount = shardCount;
+			return this;
+		}
+
+		/**
+		 * Restricts this node to the given shards. By default a node claims due fires of
+		 * all shards.
+		 */
+		public Builder ownedShards(Set<Integer> ownedShards) {
+			this.ownedShards = new TreeSet<>(ownedShards);
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of fires claimed in one poll.
+		 */
+		public Builder batchSize(int batchSize) {
+			if (batchSize <= 0) {
+				throw new IllegalArgumentException("batchSize must be > 0!");
+			}
+			this.batchSize = batchSize;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of graph executions running at once on this node.
+		 */
+		public Builder maxConcurrentExecutions(int maxConcurrentExecutions) {
+			if (maxConcurrentExecutions <= 0) {
+				throw new IllegalArgumentException("maxConcurrentExecutions must be > 0!");
+			}
+			this.maxConcurrentExecutions = maxConcurrentExecutions;
+			return this;
+		}
+
+		/**
+		 * Sets the time zone used to evaluate cron expressions.
+		 */
+		public Builder zoneId(ZoneId zoneId) {
+			this.zoneId = requireNonNull(zoneId, "zoneId cannot be null");
+			return this;
+		}
+
+		public JdbcScheduledAgentManager build() {
+			return new JdbcScheduledAgentManager(this);
+		}
+
+	}
+
+}
@@ -15,10 +15,14 @@
  */
 package com.alibaba.cloud.ai.graph.scheduling;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
 
 import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.support.CronTrigger;
 
 /**
  * Interface for managing scheduled agent tasks. This abstraction allows for different
@@ -69,6 +73,28 @@ public interface ScheduledAgentManager {
 	 */
 	TaskScheduler getTaskScheduler();
 
+	/**
+	 * Schedule the executions of a registered task according to its configuration. The
+	 * default implementation runs every execution on {@link #getTaskScheduler()};
+	 * distributed implementations override it to coordinate executions across nodes.
+	 * @param taskId the task ID returned by {@link #registerTask(ScheduledAgentTask)}
+	 * @param config the schedule configuration
+	 * @param execution the work to run on every fire
+	 * @return a future that can be used to cancel the schedule
+	 */
+	default ScheduledFuture<?> scheduleTask(String taskId, ScheduleConfig config, Runnable execution) {
+		TaskScheduler taskScheduler = getTaskScheduler();
+		return switch (config.getMode()) {
+			case CRON -> taskScheduler.schedule(execution, new CronTrigger(config.getCronExpression()));
+			case FIXED_DELAY -> taskScheduler.scheduleWithFixedDelay(execution,
+					Instant.now().plusMillis(config.getInitialDelay()), Duration.ofMillis(config.getFixedDelay()));
+			case FIXED_RATE -> taskScheduler.scheduleAtFixedRate(execution,
+					Instant.now().plusMillis(config.getInitialDelay()), Duration.ofMillis(config.getFixedRate()));
+			case ONE_TIME -> taskScheduler.schedule(execution, Instant.now().plusMillis(config.getInitialDelay()));
+			case TRIGGER -> taskScheduler.schedule(execution, config.getTrigger());
+		};
+	}
+
 	/**
 	 * Check if the manager is shut down
 	 * @return true if shut down, false otherwise
@@ -15,8 +15,6 @@
  */
 package com.alibaba.cloud.ai.graph.scheduling;
 
-import java.time.Duration;
-import java.time.Instant;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ScheduledFuture;
@@ -28,9 +26,6 @@ import com.alibaba.cloud.ai.graph.RunnableConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import org.springframework.scheduling.TaskScheduler;
-import org.springframework.scheduling.support.CronTrigger;
-
 /**
  * ScheduledGraphExecution
  *
@@ -40,7 +35,7 @@ public class ScheduledAgentTask {
 
 	private static final Logger log = LoggerFactory.getLogger(CompiledGraph.class);
 
-	private final TaskScheduler taskScheduler;
+	private final ScheduledAgentManager scheduledAgentManager;
 
 	private final CompiledGraph graph;
 
@@ -57,8 +52,7 @@ public class ScheduledAgentTask {
 	public ScheduledAgentTask(CompiledGraph graph, ScheduleConfig config) {
 		this.graph = graph;
 		this.config = config;
-		ScheduledAgentManager scheduledAgentManager = ScheduledAgentManagerFactory.getInstance().getManager();
-		this.taskScheduler = scheduledAgentManager.getTaskScheduler();
+		this.scheduledAgentManager = ScheduledAgentManagerFactory.getInstance().getManager();
 		// Register with the active manager
 		this.taskId = scheduledAgentManager.registerTask(this);
 		log.debug("Created ScheduledAgentTask with ID: {}", taskId);
@@ -72,29 +66,7 @@ public class ScheduledAgentTask {
 			throw new IllegalStateException("Schedule already started");
 		}
 
-		switch (config.getMode()) {
-			case CRON:
-				scheduledFuture = taskScheduler.schedule(this::executeGraph,
-						new CronTrigger(config.getCronExpression()));
-				break;
-			case FIXED_DELAY:
-				scheduledFuture = taskScheduler.scheduleWithFixedDelay(this::executeGraph,
-						Instant.now().plusMillis(config.getInitialDelay()), Duration.ofMillis(config.getFixedDelay()));
-				break;
-			case FIXED_RATE:
-				scheduledFuture = taskScheduler.scheduleAtFixedRate(this::executeGraph,
-						Instant.now().plusMillis(config.getInitialDelay()), Duration.ofMillis(config.getFixedRate()));
-				break;
-			case ONE_TIME:
-				scheduledFuture = taskScheduler.schedule(this::executeGraph,
-						Instant.now().plusMillis(config.getInitialDelay()));
-				break;
-			case TRIGGER:
-				scheduledFuture = taskScheduler.schedule(this::executeGraph, config.getTrigger());
-				break;
-			default:
-				throw new IllegalStateException("Unexpected value: " + config.getMode());
-		}
+		scheduledFuture = scheduledAgentManager.scheduleTask(taskId, config, this::executeGraph);
 
 		started = true;
 		notifyListeners(ScheduleLifecycleListener.ScheduleEvent.STARTED);
@@ -111,7 +83,7 @@ public class ScheduledAgentTask {
 		stopped = true;
 
 		// Unregister from active manager
-		ScheduledAgentManagerFactory.getInstance().getManager().unregisterTask(taskId);
+		scheduledAgentManager.unregisterTask(taskId);
 		log.debug("Stopped and unregistered ScheduledAgentTask with ID: {}", taskId);
 
 		notifyListeners(ScheduleLifecycleListener.ScheduleEvent.STOPPED);
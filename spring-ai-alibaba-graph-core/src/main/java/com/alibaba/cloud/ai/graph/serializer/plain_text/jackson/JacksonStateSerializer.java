@@ -20,6 +20,7 @@ import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.serializer.Serializer;
 import com.alibaba.cloud.ai.graph.serializer.plain_text.PlainTextStateSerializer;
 import com.alibaba.cloud.ai.graph.state.AgentStateFactory;
+import com.alibaba.cloud.ai.graph.state.AppendOnlyList;
 import org.springframework.ai.chat.model.ChatResponse;
 
 import java.io.IOException;
@@ -159,7 +160,8 @@ public abstract class JacksonStateSerializer extends PlainTextStateSerializer {
 			return changed ? result : value;
 		}
 
-		// 5. Collection → shallow scan for GraphResponse/ChatResponse/CompletableFuture
+		// 5. Collection → shallow scan for GraphResponse/ChatResponse/CompletableFuture,
+		// AppendOnlyList is always written as a plain list
 		if (value instanceof Collection) {
 			Collection<?> collection = (Collection<?>) value;
 			List<Object> result = new ArrayList<>(collection.size());
@@ -171,7 +173,7 @@ public abstract class JacksonStateSerializer extends PlainTextStateSerializer {
 					changed = true;
 				}
 			}
-			return changed ? result : value;
+			return changed || value instanceof AppendOnlyList ? result : value;
 		}
 
 	// 6. Array → shallow scan for GraphResponse/ChatResponse/CompletableFuture
@@ -0,0 +1,369 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.state;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * A {@link java.util.List} optimized for appender channels such as {@code messages}.
+ * <p>
+ * Every snapshot produced by {@link #appending(Object)}, {@link #appendingAll(Collection)}
+ * or {@link #removing(AppenderChannel.RemoveIdentifier)} shares the same backing buffer
+ * with the snapshot it was derived from. Appending to the most recent snapshot writes
+ * into the free tail of the buffer, so a conversation that grows by one message per
+ * turn costs O(1) amortized per update instead of copying the whole history. Older
+ * snapshots keep seeing exactly the elements they had, since they only read up to their
+ * own length. Appending to an older snapshot forks a private copy.
+ * <p>
+ * Removals are recorded as tombstones local to the snapshot and are compacted once
+ * {@value #COMPACT_THRESHOLD} of them have accumulated.
+ * <p>
+ * The class behaves as an ordinary mutable {@code List} for readers and writers.
+ * Mutations other than appending at the end detach the list from any shared buffer
+ * first. Java serialization writes a plain {@link ArrayList}.
+ *
+ * @param <E> the type of elements in this list
+ */
+public final class AppendOnlyList<E> extends AbstractList<E> implements RandomAccess, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	static final int COMPACT_THRESHOLD = 64;
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private static final int[] NO_TOMBSTONES = new int[0];
+
+	/**
+	 * Backing storage shared by all snapshots derived from each other. Slots below
+	 * {@code length} are never overwritten while the buffer is shared.
+	 */
+	private static final class Buffer {
+
+		private volatile Object[] elements;
+
+		private int length;
+
+		private Buffer(Object[] elements, int length) {
+			this.elements = elements;
+			this.length = length;
+		}
+
+		/**
+		 * Appends the items only if the caller's view ends at the current tail.
+		 */
+		private synchronized boolean tryAppend(int expectedLength, Object[] items) {
+			if (length != expectedLength) {
+				return false;
+			}
+			Object[] current = elements;
+			int required = length + items.length;
+			if (required > current.length) {
+				current = Arrays.copyOf(current, Math.max(required, current.length + (current.length >> 1)));
+			}
+			System.arraycopy(items, 0, current, length, items.length);
+			length = required;
+			elements = current;
+			return true;
+		}
+
+	}
+
+	private transient Buffer buffer;
+
+	private transient int physicalSize;
+
+	/**
+	 * Sorted physical indexes of removed elements. Never modified in place.
+	 */
+	private transient int[] tombstones;
+
+	/**
+	 * Whether no other snapshot can observe {@link #buffer}.
+	 */
+	private transient boolean exclusive;
+
+	private AppendOnlyList(Buffer buffer, int physicalSize, int[] tombstones, boolean exclusive) {
+		this.buffer = buffer;
+		this.physicalSize = physicalSize;
+		this.tombstones = tombstones;
+		this.exclusive = exclusive;
+	}
+
+	/**
+	 * Creates an empty list.
+	 * @param <E> the type of elements
+	 * @return a new empty list
+	 */
+	public static <E> AppendOnlyList<E> empty() {
+		return new AppendOnlyList<>(new Buffer(new Object[DEFAULT_CAPACITY], 0), 0, NO_TOMBSTONES, true);
+	}
+
+	/**
+	 * Creates a list holding the given values. When {@code values} is already an
+	 * {@code AppendOnlyList} the returned list shares its buffer without copying.
+	 * @param values the initial values
+	 * @param <E> the type of elements
+	 * @return a new list
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> AppendOnlyList<E> copyOf(Collection<? extends E> values) {
+		Objects.requireNonNull(values, "values cannot be null");
+		if (values instanceof AppendOnlyList<?> other) {
+			return (AppendOnlyList<E>) other.snapshot();
+		}
+		Object[] items = values.toArray();
+		Object[] elements = Arrays.copyOf(items, Math.max(DEFAULT_CAPACITY, items.length));
+		return new AppendOnlyList<>(new Buffer(elements, items.length), items.length, NO_TOMBSTONES, true);
+	}
+
+	/**
+	 * Returns a snapshot with the same content that shares this list's buffer.
+	 * @return the snapshot
+	 */
+	public AppendOnlyList<E> snapshot() {
+		this.exclusive = false;
+		return new AppendOnlyList<>(buffer, physicalSize, tombstones, false);
+	}
+
+	/**
+	 * Returns a snapshot with {@code value} appended, leaving this list unchanged.
+	 * @param value the value to append
+	 * @return the new snapshot
+	 */
+	public AppendOnlyList<E> appending(E value) {
+		return appendingAll(Collections.singletonList(value));
+	}
+
+	/**
+	 * Returns a snapshot with {@code values} appended, leaving this list unchanged.
+	 * @param values the values to append
+	 * @return the new snapshot
+	 */
+	public AppendOnlyList<E> appendingAll(Collection<? extends E> values) {
+		Object[] items = values.toArray();
+		if (items.length == 0) {
+			return snapshot();
+		}
+		if (buffer.tryAppend(physicalSize, items)) {
+			this.exclusive = false;
+			return new AppendOnlyList<>(buffer, physicalSize + items.length, tombstones, false);
+		}
+		AppendOnlyList<E> copy = compactedCopy(items.length);
+		copy.buffer.tryAppend(copy.physicalSize, items);
+		copy.physicalSize += items.length;
+		return copy;
+	}
+
+	/**
+	 * Returns a snapshot without the first element matched by {@code identifier},
+	 * leaving this list unchanged.
+	 * @param identifier identifies the element to remove
+	 * @return the new snapshot
+	 */
+	public AppendOnlyList<E> removing(AppenderChannel.RemoveIdentifier<? super E> identifier) {
+		AppendOnlyList<E> result = snapshot();
+		int index = result.indexMatching(identifier);
+		if (index >= 0) {
+			result.tombstone(index);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the logical index of the first element matched by {@code identifier}, or
+	 * {@code -1}.
+	 */
+	@SuppressWarnings("unchecked")
+	private int indexMatching(AppenderChannel.RemoveIdentifier<? super E> identifier) {
+		Object[] elements = buffer.elements;
+		int next = 0;
+		int logical = 0;
+		for (int physical = 0; physical < physicalSize; physical++) {
+			if (next < tombstones.length && tombstones[next] == physical) {
+				next++;
+				continue;
+			}
+			if (identifier.compareTo((E) elements[physical], logical) == 0) {
+				return logical;
+			}
+			logical++;
+		}
+		return -1;
+	}
+
+	/**
+	 * Maps a logical index to its slot in the buffer, skipping tombstones.
+	 */
+	private int toPhysical(int index) {
+		int low = 0;
+		int high = tombstones.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (tombstones[mid] - mid <= index) {
+				low = mid + 1;
+			}
+			else {
+				high = mid;
+			}
+		}
+		return index + low;
+	}
+
+	private void tombstone(int index) {
+		int physical = toPhysical(index);
+		int position = -Arrays.binarySearch(tombstones, physical) - 1;
+		int[] updated = new int[tombstones.length + 1];
+		System.arraycopy(tombstones, 0, updated, 0, position);
+		updated[position] = physical;
+		System.arraycopy(tombstones, position, updated, position + 1, tombstones.length - position);
+		this.tombstones = updated;
+		if (updated.length >= COMPACT_THRESHOLD) {
+			detach(0);
+		}
+	}
+
+	private AppendOnlyList<E> compactedCopy(int extraCapacity) {
+		int size = size();
+		Object[] elements = new Object[Math.max(DEFAULT_CAPACITY, size + extraCapacity)];
+		copyLiveElements(elements);
+		return new AppendOnlyList<>(new Buffer(elements, size), size, NO_TOMBSTONES, true);
+	}
+
+	private void copyLiveElements(Object[] target) {
+		Object[] elements = buffer.elements;
+		int from = 0;
+		int written = 0;
+		for (int tombstone : tombstones) {
+			int count = tombstone - from;
+			System.arraycopy(elements, from, target, written, count);
+			written += count;
+			from = tombstone + 1;
+		}
+		System.arraycopy(elements, from, target, written, physicalSize - from);
+	}
+
+	/**
+	 * Gives this list a private, compacted buffer.
+	 */
+	private void detach(int extraCapacity) {
+		AppendOnlyList<E> copy = compactedCopy(extraCapacity);
+		this.buffer = copy.buffer;
+		this.physicalSize = copy.physicalSize;
+		this.tombstones = NO_TOMBSTONES;
+		this.exclusive = true;
+	}
+
+	private void ensureExclusive() {
+		if (!exclusive || tombstones.length > 0) {
+			detach(0);
+		}
+	}
+
+	/**
+	 * Whether this list and {@code other} are views of the same backing buffer.
+	 */
+	boolean sharesBuffer(AppendOnlyList<?> other) {
+		return buffer == other.buffer;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E get(int index) {
+		Objects.checkIndex(index, size());
+		return (E) buffer.elements[toPhysical(index)];
+	}
+
+	@Override
+	public int size() {
+		return physicalSize - tombstones.length;
+	}
+
+	@Override
+	public boolean add(E e) {
+		Object[] items = { e };
+		if (!buffer.tryAppend(physicalSize, items)) {
+			detach(1);
+			buffer.tryAppend(physicalSize, items);
+		}
+		physicalSize++;
+		modCount++;
+		return true;
+	}
+
+	@Override
+	public void add(int index, E element) {
+		if (index == size()) {
+			add(element);
+			return;
+		}
+		Objects.checkIndex(index, size());
+		detach(1);
+		Object[] elements = buffer.elements;
+		System.arraycopy(elements, index, elements, index + 1, physicalSize - index);
+		elements[index] = element;
+		buffer.length++;
+		physicalSize++;
+		modCount++;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E set(int index, E element) {
+		Objects.checkIndex(index, size());
+		ensureExclusive();
+		Object[] elements = buffer.elements;
+		E previous = (E) elements[index];
+		elements[index] = element;
+		return previous;
+	}
+
+	@Override
+	public E remove(int index) {
+		E previous = get(index);
+		tombstone(index);
+		modCount++;
+		return previous;
+	}
+
+	@Override
+	public void clear() {
+		this.buffer = new Buffer(new Object[DEFAULT_CAPACITY], 0);
+		this.physicalSize = 0;
+		this.tombstones = NO_TOMBSTONES;
+		this.exclusive = true;
+		modCount++;
+	}
+
+	@Override
+	public Object[] toArray() {
+		Object[] result = new Object[size()];
+		copyLiveElements(result);
+		return result;
+	}
+
+	private Object writeReplace() {
+		return new ArrayList<>(this);
+	}
+
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.state;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A state map that reads through to a parent state and keeps its own writes in a local
+ * layer.
+ * <p>
+ * Used to hand the state of a parent graph to a subgraph without copying it: keys that
+ * are not written by the subgraph are read from the parent, while {@link #put} and
+ * {@link #remove} only change the local layer. The parent map is never modified, so it
+ * must not change while this map is in use.
+ * <p>
+ * When an {@link com.alibaba.cloud.ai.graph.OverAllState} is built from this map, its
+ * values are shared instead of deep copied. They must therefore be treated as read-only,
+ * which is the case for channel values updated through key strategies, such as
+ * {@link AppendOnlyList} snapshots.
+ */
+public final class LayeredStateMap extends AbstractMap<String, Object> {
+
+	private final Map<String, Object> parent;
+
+	private final Map<String, Object> local = new HashMap<>();
+
+	private final Set<String> removed = new HashSet<>();
+
+	public LayeredStateMap(Map<String, Object> parent) {
+		this.parent = Objects.requireNonNull(parent, "parent cannot be null");
+	}
+
+	@Override
+	public Object get(Object key) {
+		if (local.containsKey(key)) {
+			return local.get(key);
+		}
+		return removed.contains(key) ? null : parent.get(key);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return local.containsKey(key) || (!removed.contains(key) && parent.containsKey(key));
+	}
+
+	@Override
+	public Object put(String key, Object value) {
+		Object previous = get(key);
+		removed.remove(key);
+		local.put(key, value);
+		return previous;
+	}
+
+	@Override
+	public Object remove(Object key) {
+		Object previous = get(key);
+		local.remove(key);
+		if (key instanceof String name && parent.containsKey(name)) {
+			removed.add(name);
+		}
+		return previous;
+	}
+
+	@Override
+	public void clear() {
+		local.clear();
+		removed.addAll(parent.keySet());
+	}
+
+	@Override
+	public Set<Entry<String, Object>> entrySet() {
+		return new AbstractSet<>() {
+
+			@Override
+			public Iterator<Entry<String, Object>> iterator() {
+				return new LayeredIterator();
+			}
+
+			@Override
+			public int size() {
+				int size = local.size();
+				for (String key : parent.keySet()) {
+					if (!local.containsKey(key) && !removed.contains(key)) {
+						size++;
+					}
+				}
+				return size;
+			}
+
+		};
+	}
+
+	/**
+	 * Iterates the local entries first, then the parent entries that are neither
+	 * overridden nor removed. Read-only: changes go through {@link #put} and
+	 * {@link #remove}.
+	 */
+	private final class LayeredIterator implements Iterator<Entry<String, Object>> {
+
+		private final Iterator<Entry<String, Object>> localEntries = local.entrySet().iterator();
+
+		private final Iterator<Entry<String, Object>> parentEntries = parent.entrySet().iterator();
+
+		private Entry<String, Object> next;
+
+		@Override
+		public boolean hasNext() {
+			if (next != null) {
+				return true;
+			}
+			if (localEntries.hasNext()) {
+				Entry<String, Object> entry = localEntries.next();
+				next = new SimpleImmutableEntry<>(entry);
+				return true;
+			}
+			while (parentEntries.hasNext()) {
+				Entry<String, Object> entry = parentEntries.next();
+				if (!local.containsKey(entry.getKey()) && !removed.contains(entry.getKey())) {
+					next = new SimpleImmutableEntry<>(entry);
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public Entry<String, Object> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Entry<String, Object> entry = next;
+			next = null;
+			return entry;
+		}
+
+	}
+
+}
@@ -16,6 +16,7 @@
 package com.alibaba.cloud.ai.graph.state.strategy;
 
 import com.alibaba.cloud.ai.graph.KeyStrategy;
+import com.alibaba.cloud.ai.graph.state.AppendOnlyList;
 import com.alibaba.cloud.ai.graph.state.AppenderChannel;
 import com.alibaba.cloud.ai.graph.state.ReplaceAllWith;
 
@@ -24,7 +25,6 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 
@@ -40,13 +40,14 @@ public class AppendStrategy implements KeyStrategy {
 	}
 
 	@Override
+	@SuppressWarnings("unchecked")
 	public Object apply(Object oldValue, Object newValue) {
 		if (newValue == null) {
 			return oldValue;
 		}
 
 		if( newValue instanceof ReplaceAllWith<?> replaceAll ) {
-			return new ArrayList<>(replaceAll.newValues());
+			return AppendOnlyList.copyOf(replaceAll.newValues());
 		}
 
 		if (oldValue instanceof Optional<?> oldValueOptional) {
@@ -56,14 +57,14 @@ public class AppendStrategy implements KeyStrategy {
 		boolean oldValueIsList = oldValue instanceof List<?>;
 
 		if (oldValueIsList && newValue instanceof AppenderChannel.RemoveIdentifier<?>) {
-			var result = new ArrayList<>((List<Object>) oldValue);
-			removeFromList(result, (AppenderChannel.RemoveIdentifier) newValue);
-			return new ArrayList<>(result);
+			return AppendOnlyList.copyOf((List<Object>) oldValue)
+				.removing((AppenderChannel.RemoveIdentifier<Object>) newValue);
 		}
 
 		List<Object> list = null;
 		if (newValue instanceof List) {
-			list = new ArrayList<>((List<?>) newValue);
+			// Only read below, the result copies it once or shares it if it is an AppendOnlyList
+			list = (List<Object>) newValue;
 		}
 		else if (newValue.getClass().isArray()) {
 			list = Arrays.asList((Object[]) newValue);
@@ -73,64 +74,31 @@ public class AppendStrategy implements KeyStrategy {
 		}
 
 		if (oldValueIsList) {
-			List<Object> oldList = (List<Object>) oldValue;
-			if (list != null) {
-				if (list.isEmpty()) {
-					return oldValue;
+			if (list != null && list.isEmpty()) {
+				return oldValue;
+			}
+			// Shares the buffer of the previous snapshot, so appending does not copy the history
+			AppendOnlyList<Object> result = AppendOnlyList.copyOf((List<Object>) oldValue);
+			if (list == null) {
+				return result.appending(newValue);
+			}
+			List<Object> additions = new ArrayList<>(list.size());
+			for (Object value : list) {
+				if (value instanceof AppenderChannel.RemoveIdentifier<?> removeIdentifier) {
+					result = result.removing((AppenderChannel.RemoveIdentifier<Object>) removeIdentifier);
 				}
-				if (oldValueIsList) {
-					var result = evaluateRemoval((List<Object>) oldValue, list);
-					if (allowDuplicate) {
-						return Stream.concat(result.oldValues().stream(), result.newValues()
-										.stream())
-								.collect(Collectors.toList());
-					} else {
-						return Stream.concat(result.oldValues().stream(), result.newValues()
-										.stream())
-								.distinct()
-								.collect(Collectors.toList());
-					}
+				else {
+					additions.add(value);
 				}
-				oldList.addAll(list);
 			}
-			else {
-				oldList.add(newValue);
+			if (allowDuplicate) {
+				return result.appendingAll(additions);
 			}
-			return oldList;
+			return AppendOnlyList.copyOf(Stream.concat(result.stream(), additions.stream()).distinct().toList());
 		}
 		else {
-			ArrayList<Object> arrayResult = new ArrayList<>();
-			if (list != null) {
-				arrayResult.addAll(list);
-			}
-			else {
-				arrayResult.add(newValue);
-			}
-			return arrayResult;
-		}
-	}
-
-	private static void removeFromList(List<Object> result, AppenderChannel.RemoveIdentifier<Object> removeIdentifier) {
-		for (int i = 0; i < result.size(); i++) {
-			if (removeIdentifier.compareTo(result.get(i), i) == 0) {
-				result.remove(i);
-				break;
-			}
+			return list != null ? AppendOnlyList.copyOf(list) : AppendOnlyList.empty().appending(newValue);
 		}
 	}
 
-	private static AppenderChannel.RemoveData<Object> evaluateRemoval(List<Object> oldValues, List<?> newValues) {
-
-		final var result = new AppenderChannel.RemoveData<>(oldValues, newValues);
-
-		newValues.stream().filter(value -> value instanceof AppenderChannel.RemoveIdentifier<?>).forEach(value -> {
-			result.newValues().remove(value);
-			var removeIdentifier = (AppenderChannel.RemoveIdentifier<Object>) value;
-			removeFromList(result.oldValues(), removeIdentifier);
-
-		});
-		return result;
-
-	}
-
 }
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads string fields out of a JSON document while it is still being streamed, so that a
+ * caller can act on a field as soon as its value is complete instead of waiting for the
+ * whole document.
+ *
+ * <p>Text before the first {@code '{'}, such as a markdown code fence, is skipped. Only
+ * string values are captured; the first value seen for a key wins, whatever the nesting
+ * level. The reader is lenient and never fails on malformed input, callers are expected to
+ * fall back to parsing the complete text when a field does not show up.
+ *
+ * <p>Instances are not thread safe and are meant for a single document.
+ */
+public final class StreamingJsonFieldReader {
+
+	private final Map<String, String> values = new HashMap<>();
+
+	private final StringBuilder current = new StringBuilder();
+
+	private boolean started;
+
+	private boolean inString;
+
+	private boolean escaped;
+
+	// Remaining hex digits of a unicode escape
+	private int unicodeDigits;
+
+	private int unicodeValue;
+
+	private String lastString;
+
+	private String currentKey;
+
+	private boolean expectingValue;
+
+	/**
+	 * Feeds the next chunk of the document.
+	 * @param chunk the chunk, may be {@code null} or empty
+	 * @return this reader
+	 */
+	public StreamingJsonFieldReader append(CharSequence chunk) {
+		if (chunk == null) {
+			return this;
+		}
+		for (int i = 0; i < chunk.length(); i++) {
+			accept(chunk.charAt(i));
+		}
+		return this;
+	}
+
+	/**
+	 * Returns the value of a string field, or {@code null} if it has not been completely
+	 * read yet.
+	 */
+	public String get(String field) {
+		return values.get(field);
+	}
+
+	private void accept(char c) {
+		if (!started) {
+			started = c == '{';
+			return;
+		}
+		if (inString) {
+			acceptInString(c);
+			return;
+		}
+		switch (c) {
+			case '"' -> inString = true;
+			case ':' -> {
+				if (lastString != null) {
+					currentKey = lastString;
+					expectingValue = true;
+				}
+			}
+			case ' ', '\t', '\r', '\n' -> {
+			}
+			default -> {
+				// Structural characters and non-string values
+				expectingValue = false;
+				lastString = null;
+			}
+		}
+	}
+
+	private void acceptInString(char c) {
+		if (unicodeDigits > 0) {
+			unicodeValue = (unicodeValue << 4) + Character.digit(c, 16);
+			if (--unicodeDigits == 0) {
+				current.append((char) unicodeValue);
+			}
+			return;
+		}
+		if (escaped) {
+			escaped = false;
+			switch (c) {
+				case 'n' -> current.append('\n');
+				case 't' -> current.append('\t');
+				case 'r' -> current.append('\r');
+				case 'b' -> current.append('\b');
+				case 'f' -> current.append('\f');
+				case 'u' -> {
+					unicodeDigits = 4;
+					unicodeValue = 0;
+				}
+				default -> current.append(c);
+			}
+			return;
+		}
+		if (c == '\\') {
+			escaped = true;
+		}
+		else if (c == '"') {
+			inString = false;
+			String value = current.toString();
+			current.setLength(0);
+			if (expectingValue) {
+				values.putIfAbsent(currentKey, value);
+				expectingValue = false;
+				lastString = null;
+			}
+			else {
+				lastString = value;
+			}
+		}
+		else {
+			current.append(c);
+		}
+	}
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph;
+
+import com.alibaba.cloud.ai.graph.action.AsyncNodeActionWithConfig;
+import com.alibaba.cloud.ai.graph.state.strategy.AppendStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.alibaba.cloud.ai.graph.StateGraph.END;
+import static com.alibaba.cloud.ai.graph.StateGraph.NODE_AFTER;
+import static com.alibaba.cloud.ai.graph.StateGraph.START;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncLifecycleDispatcherTest {
+
+	private KeyStrategyFactory createKeyStrategyFactory() {
+		return () -> {
+			Map<String, KeyStrategy> keyStrategyMap = new HashMap<>();
+			keyStrategyMap.put("messages", new AppendStrategy());
+			return keyStrategyMap;
+		};
+	}
+
+	private AsyncNodeActionWithConfig makeNode(String name) {
+		return AsyncNodeActionWithConfig.node_async((state, config) -> Map.of("messages", name));
+	}
+
+	@Test
+	void testListenersRunOffExecutionThread() throws Exception {
+		List<String> events = new CopyOnWriteArrayList<>();
+		List<String> listenerThreads = new CopyOnWriteArrayList<>();
+		List<String> immutableSnapshots = new CopyOnWriteArrayList<>();
+
+		try (AsyncLifecycleDispatcher dispatcher = AsyncLifecycleDispatcher.builder().batchSize(4).build()) {
+			var workflow = new StateGraph(createKeyStrategyFactory()).addNode("A", makeNode("A"))
+				.addNode("B", makeNode("B"))
+				.addEdge(START, "A")
+				.addEdge("A", "B")
+				.addEdge("B", END);
+
+			var app = workflow.compile(CompileConfig.builder()
+				.lifecycleDispatcher(dispatcher)
+				.withLifecycleListener(new GraphLifecycleListener() {
+					@Override
+					public void before(String nodeId, Map<String, Object> state, RunnableConfig config, Long curTime) {
+						events.add("before:" + nodeId);
+						listenerThreads.add(Thread.currentThread().getName());
+					}
+
+					@Override
+					public void after(String nodeId, Map<String, Object> state, RunnableConfig config, Long curTime) {
+						events.add("after:" + nodeId);
+						try {
+							state.put("x", "y");
+						}
+						catch (UnsupportedOperationException ex) {
+							immutableSnapshots.add(nodeId);
+						}
+					}
+				})
+				.build());
+
+			app.stream(Map.of()).blockLast();
+
+			assertTrue(dispatcher.awaitDrained(5, TimeUnit.SECONDS));
+			assertEquals(List.of("before:A", "after:A", "before:B", "after:B"), events);
+			assertEquals(List.of("A", "B"), immutableSnapshots);
+			assertTrue(listenerThreads.stream().allMatch("graph-lifecycle-dispatcher"::equals));
+			assertEquals(0, dispatcher.droppedCount());
+		}
+	}
+
+	@Test
+	void testDropPolicyWhenBufferIsFull() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		GraphLifecycleListener blocking = new GraphLifecycleListener() {
+			@Override
+			public void after(String nodeId, Map<String, Object> state, RunnableConfig config, Long curTime) {
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+
+		try (AsyncLifecycleDispatcher dispatcher = AsyncLifecycleDispatcher.builder()
+			.capacity(2)
+			.batchSize(1)
+			.overflowPolicy(AsyncLifecycleDispatcher.OverflowPolicy.DROP)
+			.build()) {
+			RunnableConfig config = RunnableConfig.builder().build();
+			for (int i = 0; i < 10; i++) {
+				dispatcher.publish(NODE_AFTER, "node" + i, Map.of(), config, null, List.of(blocking));
+			}
+			assertTrue(dispatcher.droppedCount() > 0);
+			release.countDown();
+			assertTrue(dispatcher.awaitDrained(5, TimeUnit.SECONDS));
+			assertEquals(10, dispatcher.dispatchedCount() + dispatcher.droppedCount());
+		}
+	}
+
+}
@@ -27,6 +27,7 @@ import com.alibaba.cloud.ai.graph.state.strategy.AppendStrategy;
 import com.alibaba.cloud.ai.graph.state.strategy.ReplaceStrategy;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -168,6 +169,43 @@ public class StateGraphMemorySaverTest {
 		assertTrue(checkpointsAfterTag.isEmpty());
 	}
 
+	@Test
+	public void testFollowUpRunDoesNotMutateCheckpointHistory() throws Exception {
+		NodeAction note = state -> {
+			Optional<List<String>> notes = state.value("notes");
+			if (notes.isEmpty()) {
+				return Map.of("notes", new ArrayList<>(List.of("first")));
+			}
+			// mutates the value in place instead of returning a new one
+			notes.get().add("second");
+			return Map.of();
+		};
+		KeyStrategyFactory keyStrategyFactory = () -> {
+			Map<String, KeyStrategy> keyStrategyMap = new HashMap<>();
+			keyStrategyMap.put("notes", new ReplaceStrategy());
+			return keyStrategyMap;
+		};
+		var saver = new MemorySaver();
+		var app = new StateGraph(keyStrategyFactory).addNode("note", node_async(note))
+			.addEdge(START, "note")
+			.addEdge("note", END)
+			.compile(CompileConfig.builder().saverConfig(SaverConfig.builder().register(saver).build()).build());
+		var config = RunnableConfig.builder().threadId("notes").build();
+
+		app.invoke(Map.of(), config);
+		Checkpoint firstRun = saver.get(config).orElseThrow();
+		assertEquals(List.of("first"), firstRun.getState().get("notes"));
+
+		var result = app.invoke(Map.of(), config).orElseThrow();
+		assertEquals(List.of("first", "second"), result.value("notes").orElseThrow());
+		Checkpoint stored = saver.list(config)
+			.stream()
+			.filter(checkpoint -> checkpoint.getId().equals(firstRun.getId()))
+			.findFirst()
+			.orElseThrow();
+		assertEquals(List.of("first"), stored.getState().get("notes"));
+	}
+
 	@Test
 	public void testCheckpointSaverResubmit() throws Exception {
 		int expectedSteps = 5;
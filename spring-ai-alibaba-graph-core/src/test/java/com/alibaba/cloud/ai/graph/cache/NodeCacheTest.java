@@ -0,0 +1,128 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.cache;
+
+import com.alibaba.cloud.ai.graph.CompileConfig;
+import com.alibaba.cloud.ai.graph.KeyStrategy;
+import com.alibaba.cloud.ai.graph.KeyStrategyFactory;
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.StateGraph;
+import com.alibaba.cloud.ai.graph.cache.caches.MemoryNodeCache;
+import com.alibaba.cloud.ai.graph.state.strategy.ReplaceStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.alibaba.cloud.ai.graph.StateGraph.END;
+import static com.alibaba.cloud.ai.graph.StateGraph.START;
+import static com.alibaba.cloud.ai.graph.action.AsyncNodeAction.node_async;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NodeCacheTest {
+
+	private KeyStrategyFactory createKeyStrategyFactory() {
+		return () -> {
+			Map<String, KeyStrategy> keyStrategyMap = new HashMap<>();
+			keyStrategyMap.put("query", new ReplaceStrategy());
+			keyStrategyMap.put("answer", new ReplaceStrategy());
+			return keyStrategyMap;
+		};
+	}
+
+	@Test
+	void testCacheableNodeExecutesOncePerInput() throws Exception {
+		AtomicInteger executions = new AtomicInteger();
+		var workflow = new StateGraph(createKeyStrategyFactory()).addNode("transform", node_async(state -> {
+			executions.incrementAndGet();
+			return Map.of("answer", state.value("query", "").toUpperCase());
+		})).addEdge(START, "transform").addEdge("transform", END);
+
+		var app = workflow.compile(CompileConfig.builder()
+			.nodeCache(new MemoryNodeCache(16))
+			.cacheableNode("transform", NodeCachePolicy.of(Duration.ofMinutes(1), "query"))
+			.build());
+
+		Optional<OverAllState> first = app.invoke(Map.of("query", "hello"));
+		Optional<OverAllState> second = app.invoke(Map.of("query", "hello"));
+		Optional<OverAllState> third = app.invoke(Map.of("query", "world"));
+
+		assertEquals("HELLO", first.orElseThrow().value("answer").orElseThrow());
+		assertEquals("HELLO", second.orElseThrow().value("answer").orElseThrow());
+		assertEquals("WORLD", third.orElseThrow().value("answer").orElseThrow());
+		assertEquals(2, executions.get());
+	}
+
+	@Test
+	void testGraphsSharingCacheDoNotShareEntries() throws Exception {
+		MemoryNodeCache cache = new MemoryNodeCache(16);
+		NodeCachePolicy policy = NodeCachePolicy.of(Duration.ofMinutes(1), "query");
+
+		var upper = new StateGraph("upper", createKeyStrategyFactory())
+			.addNode("transform", node_async(state -> Map.of("answer", state.value("query", "").toUpperCase())))
+			.addEdge(START, "transform")
+			.addEdge("transform", END)
+			.compile(CompileConfig.builder().nodeCache(cache).cacheableNode("transform", policy).build());
+		var reverse = new StateGraph("reverse", createKeyStrategyFactory())
+			.addNode("transform",
+					node_async(state -> Map.of("answer",
+							new StringBuilder(state.value("query", "")).reverse().toString())))
+			.addEdge(START, "transform")
+			.addEdge("transform", END)
+			.compile(CompileConfig.builder().nodeCache(cache).cacheableNode("transform", policy).build());
+
+		assertEquals("HELLO", upper.invoke(Map.of("query", "hello")).orElseThrow().value("answer").orElseThrow());
+		assertEquals("olleh", reverse.invoke(Map.of("query", "hello")).orElseThrow().value("answer").orElseThrow());
+	}
+
+	@Test
+	void testPolicyVersionChangesCacheKey() throws Exception {
+		var serializer = new StateGraph(createKeyStrategyFactory()).getStateSerializer();
+		NodeCachePolicy policy = NodeCachePolicy.of(Duration.ofMinutes(1), "query");
+		Map<String, Object> state = Map.of("query", "hello");
+
+		String key = policy.cacheKey("graph", "transform", state, serializer);
+		assertEquals(key, policy.cacheKey("graph", "transform", state, serializer));
+		assertNotEquals(key, policy.withVersion("2").cacheKey("graph", "transform", state, serializer));
+		assertNotEquals(key, policy.cacheKey("other", "transform", state, serializer));
+	}
+
+	@Test
+	void testMemoryNodeCacheExpiresEntries() throws Exception {
+		MemoryNodeCache cache = new MemoryNodeCache(16);
+		cache.put("k", Map.of("v", 1), Duration.ofMillis(1));
+		Thread.sleep(5);
+		assertTrue(cache.get("k").isEmpty());
+	}
+
+	@Test
+	void testMemoryNodeCacheIsBounded() {
+		MemoryNodeCache cache = new MemoryNodeCache(100);
+		for (int i = 0; i < 10; i++) {
+			cache.put("hot", Map.of("v", i), null);
+			cache.get("hot");
+		}
+		for (int i = 0; i < 1_000; i++) {
+			cache.put("cold" + i, Map.of("v", i), null);
+		}
+		assertTrue(cache.size() <= 100);
+		assertTrue(cache.get("hot").isPresent(), "frequently used entry should survive a scan");
+	}
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.checkpoint;
+
+import com.alibaba.cloud.ai.graph.CompileConfig;
+import com.alibaba.cloud.ai.graph.CompiledGraph;
+import com.alibaba.cloud.ai.graph.KeyStrategy;
+import com.alibaba.cloud.ai.graph.KeyStrategyFactory;
+import com.alibaba.cloud.ai.graph.NodeOutput;
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.StateGraph;
+import com.alibaba.cloud.ai.graph.checkpoint.config.SaverConfig;
+import com.alibaba.cloud.ai.graph.checkpoint.savers.MemorySaver;
+import com.alibaba.cloud.ai.graph.observation.metric.SpringAiAlibabaObservationMetricNames;
+import com.alibaba.cloud.ai.graph.state.strategy.ReplaceStrategy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.alibaba.cloud.ai.graph.StateGraph.END;
+import static com.alibaba.cloud.ai.graph.StateGraph.START;
+import static com.alibaba.cloud.ai.graph.action.AsyncNodeAction.node_async;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CheckpointDurabilityTest {
+
+	private CompiledGraph compile(BaseCheckpointSaver saver, CheckpointDurability durability,
+			String... interruptBefore) throws Exception {
+		return compile(saver, durability, new SimpleMeterRegistry(), interruptBefore);
+	}
+
+	private CompiledGraph compile(BaseCheckpointSaver saver, CheckpointDurability durability,
+			MeterRegistry meterRegistry, String... interruptBefore) throws Exception {
+		KeyStrategyFactory keyStrategyFactory = () -> {
+			Map<String, KeyStrategy> keyStrategyMap = new HashMap<>();
+			keyStrategyMap.put("step", new ReplaceStrategy());
+			return keyStrategyMap;
+		};
+		var workflow = new StateGraph(keyStrategyFactory).addNode("a", node_async(state -> Map.of("step", "a")))
+			.addNode("b", node_async(state -> Map.of("step", "b")))
+			.addNode("c", node_async(state -> Map.of("step", "c")))
+			.addEdge(START, "a")
+			.addEdge("a", "b")
+			.addEdge("b", "c")
+			.addEdge("c", END);
+		return workflow.compile(CompileConfig.builder()
+			.saverConfig(SaverConfig.builder().register(saver).build())
+			.checkpointDurability(durability)
+			.meterRegistry(meterRegistry)
+			.interruptBefore(interruptBefore)
+			.build());
+	}
+
+	@Test
+	void testAsyncWritesTheSameHistoryAsSync() throws Exception {
+		var syncSaver = MemorySaver.builder().build();
+		var asyncSaver = MemorySaver.builder().build();
+		var config = RunnableConfig.builder().threadId("thread_1").build();
+
+		compile(syncSaver, CheckpointDurability.SYNC).invoke(Map.of(), config);
+		compile(asyncSaver, CheckpointDurability.ASYNC).invoke(Map.of(), config);
+
+		List<String> syncNodes = syncSaver.list(config).stream().map(Checkpoint::getNodeId).toList();
+		List<String> asyncNodes = asyncSaver.list(config).stream().map(Checkpoint::getNodeId).toList();
+		assertFalse(syncNodes.isEmpty());
+		assertEquals(syncNodes, asyncNodes);
+	}
+
+	@Test
+	void testExitOnlyWritesTheLastCheckpoint() throws Exception {
+		var saver = MemorySaver.builder().build();
+		var config = RunnableConfig.builder().threadId("thread_1").build();
+
+		compile(saver, CheckpointDurability.EXIT_ONLY).invoke(Map.of(), config);
+
+		var checkpoints = saver.list(config);
+		assertEquals(1, checkpoints.size());
+		var last = checkpoints.iterator().next();
+		assertEquals("c", last.getNodeId());
+		assertEquals("c", last.getState().get("step"));
+	}
+
+	@Test
+	void testResumeAfterInterruptWithDeferredCheckpoints() throws Exception {
+		for (CheckpointDurability durability : List.of(CheckpointDurability.ASYNC, CheckpointDurability.EXIT_ONLY)) {
+			var saver = MemorySaver.builder().build();
+			var app = compile(saver, durability, "b");
+			var config = RunnableConfig.builder().threadId("thread_" + durability).build();
+
+			app.stream(Map.of(), config).collectList().block();
+			assertEquals("b", app.getState(config).next(), durability.name());
+
+			var resumeConfig = RunnableConfig.builder(config)
+				.addMetadata(RunnableConfig.HUMAN_FEEDBACK_METADATA_KEY, "placeholder")
+				.build();
+			List<NodeOutput> results = app.stream(null, resumeConfig).collectList().block();
+			assertNotNull(results);
+			assertEquals(END, results.get(results.size() - 1).node(), durability.name());
+		}
+	}
+
+	@Test
+	void testEveryDurabilityRecordsCheckpointWrites() throws Exception {
+		for (CheckpointDurability durability : CheckpointDurability.values()) {
+			var meterRegistry = new SimpleMeterRegistry();
+			var config = RunnableConfig.builder().threadId("thread_" + durability).build();
+
+			compile(MemorySaver.builder().build(), durability, meterRegistry).invoke(Map.of(), config);
+
+			Timer timer = meterRegistry.find(SpringAiAlibabaObservationMetricNames.GRAPH_CHECKPOINT_WRITE.value())
+				.timer();
+			assertNotNull(timer, durability.name());
+			assertTrue(timer.count() > 0, durability.name());
+		}
+	}
+
+	@Test
+	void testWriterReportsFailedWritesOnFlush() throws Exception {
+		var writer = new CheckpointWriter(new MemorySaver() {
+			@Override
+			public void putAll(List<BaseCheckpointSaver.Write> writes) throws Exception {
+				throw new IllegalStateException("unavailable");
+			}
+		});
+		var config = RunnableConfig.builder().build();
+		writer.write(config, checkpoint());
+
+		var error = assertThrows(Exception.class, () -> writer.flush(config));
+		assertInstanceOf(IllegalStateException.class, error.getCause());
+		assertEquals(0, writer.pendingCount());
+		// the failure is reported once
+		writer.flush(config);
+	}
+
+	@Test
+	void testWriterReportsFailuresToTheirOwnExecution() throws Exception {
+		var failing = RunnableConfig.builder().threadId("failing").build();
+		var healthy = RunnableConfig.builder().threadId("healthy").build();
+		var writer = new CheckpointWriter(new MemorySaver() {
+			@Override
+			public void putAll(List<BaseCheckpointSaver.Write> writes) throws Exception {
+				if (writes.stream().anyMatch(write -> write.config().threadId().equals(failing.threadId()))) {
+					throw new IllegalStateException("unavailable");
+				}
+				super.putAll(writes);
+			}
+		}, 16, 1);
+		writer.write(failing, checkpoint());
+		writer.write(healthy, checkpoint());
+
+		// the execution whose checkpoint was written is not charged with the other failure
+		writer.flush(healthy);
+		var error = assertThrows(Exception.class, () -> writer.flush(failing));
+		assertInstanceOf(IllegalStateException.class, error.getCause());
+		writer.flush(failing);
+	}
+
+	private static Checkpoint checkpoint() {
+		return Checkpoint.builder().nodeId("a").nextNodeId(END).state(Map.of()).build();
+	}
+
+}
@@ -23,11 +23,14 @@ import com.alibaba.cloud.ai.graph.KeyStrategyFactory;
 import com.alibaba.cloud.ai.graph.RunnableConfig;
 import com.alibaba.cloud.ai.graph.StateGraph;
 import com.alibaba.cloud.ai.graph.action.NodeAction;
+import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
 import com.alibaba.cloud.ai.graph.checkpoint.config.SaverConfig;
 import com.alibaba.cloud.ai.graph.checkpoint.savers.mysql.CreateOption;
 import com.alibaba.cloud.ai.graph.checkpoint.savers.mysql.MysqlSaver;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import com.mysql.cj.jdbc.MysqlDataSource;
@@ -233,4 +236,51 @@ public class MysqlSaverTest {
 
     }
 
+    @Test
+    public void testLatestOnlyLoadingAndPagedHistory() throws Exception {
+        var saver = MysqlSaver.builder()
+                .createOption(CreateOption.CREATE_OR_REPLACE)
+                .dataSource(DATA_SOURCE)
+                .maxCachedCheckpoints(1)
+                .pageSize(2)
+                .build();
+
+        var config = RunnableConfig.builder().threadId("paged").build();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            var checkpoint = Checkpoint.builder()
+                    .nodeId("node_" + i)
+                    .nextNodeId("node_" + (i + 1))
+                    .state(Map.of("step", i))
+                    .build();
+            saver.put(config, checkpoint);
+            ids.add(0, checkpoint.getId());
+        }
+
+        // a new saver starts with an empty cache and reads only what is requested
+        saver = MysqlSaver.builder()
+                .dataSource(DATA_SOURCE)
+                .maxCachedCheckpoints(1)
+                .pageSize(2)
+                .build();
+
+        var latest = saver.get(config);
+        assertTrue(latest.isPresent());
+        assertEquals(ids.get(0), latest.get().getId());
+        assertEquals(4, latest.get().getState().get("step"));
+
+        var oldest = saver.get(RunnableConfig.builder(config).checkPointId(ids.get(4)).build());
+        assertTrue(oldest.isPresent());
+        assertEquals("node_0", oldest.get().getNodeId());
+
+        var history = saver.list(config);
+        assertEquals(5, history.size());
+        assertEquals(ids, history.stream().map(Checkpoint::getId).toList());
+
+        var tag = saver.release(config);
+        assertEquals(5, tag.checkpoints().size());
+        assertTrue(saver.list(config).isEmpty());
+        assertFalse(saver.get(config).isPresent());
+    }
+
 }
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.checkpoint.savers;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.StateGraph;
+import com.alibaba.cloud.ai.graph.checkpoint.BaseCheckpointSaver;
+import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PagedCheckpointSaverTest {
+
+	@Test
+	public void testNewestCheckpointIsReadAloneAndCached() throws Exception {
+		var store = new InMemoryStore();
+		var config = RunnableConfig.builder().threadId("thread").build();
+		List<String> ids = store.seed("thread", 5);
+
+		var saver = new InMemoryPagedSaver(store, 4, 2, 2);
+		var latest = saver.get(config);
+		assertTrue(latest.isPresent());
+		assertEquals(ids.get(0), latest.get().getId());
+		assertEquals(List.of(1), store.pageLimits);
+
+		// cached, so no further read
+		assertEquals(ids.get(0), saver.get(config).orElseThrow().getId());
+		assertEquals(1, store.pageLimits.size());
+
+		var oldest = saver.get(RunnableConfig.builder(config).checkPointId(ids.get(4)).build());
+		assertEquals(ids.get(4), oldest.orElseThrow().getId());
+		assertEquals(1, store.singleReads);
+	}
+
+	@Test
+	public void testListReadsPagesWhileIterated() throws Exception {
+		var store = new InMemoryStore();
+		var config = RunnableConfig.builder().threadId("thread").build();
+		List<String> ids = store.seed("thread", 5);
+
+		var saver = new InMemoryPagedSaver(store, 4, 2, 2);
+		var history = saver.list(config);
+		assertTrue(store.pageLimits.isEmpty());
+
+		assertEquals(ids, history.stream().map(Checkpoint::getId).toList());
+		assertEquals(List.of(2, 2, 2), store.pageLimits);
+		assertEquals(5, history.size());
+	}
+
+	@Test
+	public void testCheckpointsAddedWhileIteratingDoNotShiftPages() throws Exception {
+		var store = new InMemoryStore();
+		var config = RunnableConfig.builder().threadId("thread").build();
+		List<String> ids = store.seed("thread", 5);
+
+		var saver = new InMemoryPagedSaver(store, 4, 2, 2);
+		var iterator = saver.list(config).iterator();
+		List<String> read = new ArrayList<>();
+		read.add(iterator.next().getId());
+		read.add(iterator.next().getId());
+
+		saver.put(config, checkpoint("new"));
+		iterator.forEachRemaining(checkpoint -> read.add(checkpoint.getId()));
+
+		assertEquals(ids, read);
+	}
+
+	@Test
+	public void testCacheIsBoundedPerThreadAndByThreads() throws Exception {
+		var store = new InMemoryStore();
+		var saver = new InMemoryPagedSaver(store, 2, 2, 10);
+
+		var first = RunnableConfig.builder().threadId("first").build();
+		List<BaseCheckpointSaver.Write> writes = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			writes.add(new BaseCheckpointSaver.Write(first, checkpoint("n" + i)));
+		}
+		saver.putAll(writes);
+		assertEquals(1, store.inserts);
+
+		// the oldest checkpoint of the thread is no longer cached
+		saver.get(RunnableConfig.builder(first).checkPointId(writes.get(0).checkpoint().getId()).build());
+		assertEquals(1, store.singleReads);
+		saver.get(RunnableConfig.builder(first).checkPointId(writes.get(2).checkpoint().getId()).build());
+		assertEquals(1, store.singleReads);
+
+		// the least recently used thread is evicted
+		saver.put(RunnableConfig.builder().threadId("second").build(), checkpoint("n"));
+		saver.put(RunnableConfig.builder().threadId("third").build(), checkpoint("n"));
+		saver.get(first);
+		assertEquals(List.of(1), store.pageLimits);
+	}
+
+	@Test
+	public void testReplaceAndRelease() throws Exception {
+		var store = new InMemoryStore();
+		var saver = new InMemoryPagedSaver(store, 4, 2, 2);
+		var config = RunnableConfig.builder().threadId("thread").build();
+
+		var stored = saver.put(config, checkpoint("a"));
+		var replacement = checkpoint("b");
+		saver.put(stored, replacement);
+		assertEquals("b", saver.get(config).orElseThrow().getNodeId());
+		assertThrows(NoSuchElementException.class,
+				() -> saver.put(RunnableConfig.builder(config).checkPointId("missing").build(), replacement));
+
+		var tag = saver.release(config);
+		assertEquals(1, tag.checkpoints().size());
+		assertTrue(saver.get(config).isEmpty());
+		assertTrue(saver.list(config).isEmpty());
+	}
+
+	@Test
+	public void testCacheBoundsMustBePositive() {
+		assertThrows(IllegalArgumentException.class, () -> new InMemoryPagedSaver(new InMemoryStore(), 0, 1, 1));
+	}
+
+	private static Checkpoint checkpoint(String nodeId) {
+		return Checkpoint.builder().nodeId(nodeId).nextNodeId(StateGraph.END).state(Map.of()).build();
+	}
+
+	/**
+	 * Checkpoints by thread, newest first, with counters of the operations.
+	 */
+	static class InMemoryStore {
+
+		final Map<String, LinkedList<Checkpoint>> threads = new HashMap<>();
+
+		final List<Integer> pageLimits = new ArrayList<>();
+
+		// Insertion order of every checkpoint, the key the pages are read by
+		final Map<String, Long> positions = new HashMap<>();
+
+		long nextPosition;
+
+		int singleReads;
+
+		int inserts;
+
+		List<String> seed(String threadName, int count) {
+			LinkedList<Checkpoint> checkpoints = threads.computeIfAbsent(threadName, k -> new LinkedList<>());
+			for (int i = 0; i < count; i++) {
+				Checkpoint checkpoint = Checkpoint.builder()
+					.nodeId("node_" + i)
+					.nextNodeId("node_" + (i + 1))
+					.state(Map.of("step", i))
+					.build();
+				checkpoints.push(checkpoint);
+				positions.put(checkpoint.getId(), nextPosition++);
+			}
+			return checkpoints.stream().map(Checkpoint::getId).toList();
+		}
+
+	}
+
+	static class InMemoryPagedSaver extends PagedCheckpointSaver {
+
+		private final InMemoryStore store;
+
+		InMemoryPagedSaver(InMemoryStore store, int maxCachedThreads, int maxCachedCheckpoints, int pageSize) {
+			super(maxCachedThreads, maxCachedCheckpoints, pageSize);
+			this.store = store;
+		}
+
+		@Override
+		protected Page selectCheckpoints(String threadName, Object after, int limit) {
+			store.pageLimits.add(limit);
+			List<Checkpoint> page = store.threads.getOrDefault(threadName, new LinkedList<>())
+				.stream()
+				.filter(checkpoint -> after == null || store.positions.get(checkpoint.getId()) < (Long) after)
+				.limit(limit)
+				.toList();
+			return new Page(page, page.isEmpty() ? after : store.positions.get(page.get(page.size() - 1).getId()));
+		}
+
+		@Override
+		protected Optional<Checkpoint> selectCheckpoint(String threadName, String checkpointId) {
+			store.singleReads++;
+			return store.threads.getOrDefault(threadName, new LinkedList<>())
+				.stream()
+				.filter(checkpoint -> checkpoint.getId().equals(checkpointId))
+				.findFirst();
+		}
+
+		@Override
+		protected int countCheckpoints(String threadName) {
+			return store.threads.getOrDefault(threadName, new LinkedList<>()).size();
+		}
+
+		@Override
+		protected void insertCheckpoints(List<Write> writes) {
+			store.inserts++;
+			for (Write write : writes) {
+				store.threads.computeIfAbsent(threadName(write.config()), k -> new LinkedList<>())
+					.push(write.checkpoint());
+				store.positions.put(write.checkpoint().getId(), store.nextPosition++);
+			}
+		}
+
+		@Override
+		protected void updateCheckpoint(String threadName, String checkpointId, Checkpoint checkpoint) {
+			List<Checkpoint> checkpoints = store.threads.getOrDefault(threadName, new LinkedList<>());
+			for (int i = 0; i < checkpoints.size(); i++) {
+				if (checkpoints.get(i).getId().equals(checkpointId)) {
+					checkpoints.set(i, checkpoint);
+					store.positions.put(checkpoint.getId(), store.positions.get(checkpointId));
+					return;
+				}
+			}
+			throw new NoSuchElementException(checkpointId);
+		}
+
+		@Override
+		protected void releaseThread(String threadName) {
+			store.threads.remove(threadName);
+		}
+
+	}
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.observation;
+
+import com.alibaba.cloud.ai.graph.observation.edge.GraphEdgeObservationContext;
+import com.alibaba.cloud.ai.graph.observation.graph.GraphObservationContext;
+import com.alibaba.cloud.ai.graph.observation.metric.SpringAiAlibabaObservationMetricNames;
+import com.alibaba.cloud.ai.graph.observation.node.GraphNodeObservationContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphMetricsGeneratorTest {
+
+	@Test
+	void testNodeMetersAreCachedAndTimed() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		GraphMetricsGenerator generator = new GraphMetricsGenerator(registry);
+
+		for (int i = 0; i < 3; i++) {
+			GraphNodeObservationContext context = GraphNodeObservationContext.builder()
+				.nodeName("llm")
+				.event("after")
+				.build();
+			generator.start(context);
+			generator.generate(context, true);
+		}
+
+		Counter counter = registry.get(SpringAiAlibabaObservationMetricNames.GRAPH_NODE.value()).counter();
+		assertEquals(3.0, counter.count());
+		Timer timer = registry.get(SpringAiAlibabaObservationMetricNames.GRAPH_NODE_DURATION.value()).timer();
+		assertEquals(3, timer.count());
+		assertEquals(1, registry.find(SpringAiAlibabaObservationMetricNames.GRAPH_NODE.value()).counters().size());
+	}
+
+	@Test
+	void testGraphInFlightGaugeAndStateSize() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		GraphMetricsGenerator generator = new GraphMetricsGenerator(registry);
+		GraphObservationContext context = new GraphObservationContext("workflow", Map.of("a", 1, "b", 2), "out");
+
+		generator.start(context);
+		assertEquals(1.0,
+				registry.get(SpringAiAlibabaObservationMetricNames.GRAPH_ACTIVE.value()).gauge().value());
+
+		generator.generate(context, true);
+		assertEquals(0.0,
+				registry.get(SpringAiAlibabaObservationMetricNames.GRAPH_ACTIVE.value()).gauge().value());
+		assertEquals(2.0, registry.get(SpringAiAlibabaObservationMetricNames.GRAPH_STATE_SIZE.value())
+			.summary()
+			.totalAmount());
+		assertEquals(1, registry.get(SpringAiAlibabaObservationMetricNames.GRAPH_DURATION.value()).timer().count());
+	}
+
+	@Test
+	void testRemovedMetersAreRegisteredAgain() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		GraphMetricsGenerator generator = new GraphMetricsGenerator(registry);
+		GraphEdgeObservationContext first = new GraphEdgeObservationContext("route", Map.of(), "llm");
+		generator.generate(first, true);
+
+		registry.remove(registry.get(SpringAiAlibabaObservationMetricNames.GRAPH_EDGE.value()).counter());
+		generator.generate(new GraphEdgeObservationContext("route", Map.of(), "llm"), true);
+
+		Counter counter = registry.get(SpringAiAlibabaObservationMetricNames.GRAPH_EDGE.value()).counter();
+		assertEquals(1.0, counter.count());
+	}
+
+	@Test
+	void testCheckpointWriteDuration() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		GraphMetricsGenerator.recordCheckpointWrite(registry, "MemorySaver", 1_000_000L);
+		GraphMetricsGenerator.recordCheckpointWrite(registry, "MemorySaver", 3_000_000L);
+
+		Timer timer = registry.get(SpringAiAlibabaObservationMetricNames.GRAPH_CHECKPOINT_WRITE.value()).timer();
+		assertEquals(2, timer.count());
+	}
+
+}
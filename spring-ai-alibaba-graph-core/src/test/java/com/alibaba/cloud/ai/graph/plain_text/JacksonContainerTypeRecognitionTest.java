@@ -18,6 +18,7 @@ package com.alibaba.cloud.ai.graph.plain_text;
 import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.serializer.plain_text.jackson.SpringAIJacksonStateSerializer;
 import com.alibaba.cloud.ai.graph.state.AgentStateFactory;
+import com.alibaba.cloud.ai.graph.state.AppendOnlyList;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -130,6 +131,25 @@ class JacksonContainerTypeRecognitionTest {
         assertEquals(42, r.age);
     }
 
+    @Test
+    void appendOnlyListIsRestoredAsPlainList() throws Exception {
+        Map<String, Object> data = new HashMap<>();
+        data.put("messages", AppendOnlyList.copyOf(List.of("a", "b")).appending("c"));
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+            serializer.writeData(data, oos);
+            oos.flush();
+        }
+
+        Map<String, Object> restored;
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+            restored = serializer.readData(ois);
+        }
+
+        assertEquals(List.of("a", "b", "c"), restored.get("messages"));
+    }
+
     @Test
     void fallbackToGenericObjectWhenTypeAbsent() throws Exception {
         // No @type or @class -> should degrade to generic Map structure
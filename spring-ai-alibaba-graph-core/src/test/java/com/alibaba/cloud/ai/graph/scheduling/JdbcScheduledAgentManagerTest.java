@@ -0,0 +1,174 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.scheduling;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link JdbcScheduledAgentManager} using an H2 memory database shared by
+ * several manager instances.
+ */
+class JdbcScheduledAgentManagerTest {
+
+	private HikariDataSource dataSource;
+
+	@BeforeEach
+	void setUp() {
+		HikariConfig config = new HikariConfig();
+		config.setJdbcUrl("jdbc:h2:mem:scheduler" + System.nanoTime() + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+		config.setUsername("sa");
+		config.setPassword("");
+		config.setDriverClassName("org.h2.Driver");
+		dataSource = new HikariDataSource(config);
+	}
+
+	@AfterEach
+	void tearDown() {
+		dataSource.close();
+	}
+
+	private JdbcScheduledAgentManager manager(String nodeId, JdbcScheduledAgentManager.MisfirePolicy policy) {
+		return JdbcScheduledAgentManager.builder()
+			.dataSource(dataSource)
+			.nodeId(nodeId)
+			.pollInterval(Duration.ofMillis(20))
+			.bucketSize(Duration.ofMillis(100))
+			.misfireThreshold(Duration.ofMillis(500))
+			.misfirePolicy(policy)
+			.maxConcurrentExecutions(2)
+			.build();
+	}
+
+	@Test
+	void testOneTimeTaskFiresOnceAcrossNodes() throws Exception {
+		JdbcScheduledAgentManager first = manager("node-1", JdbcScheduledAgentManager.MisfirePolicy.FIRE_ONCE_NOW);
+		JdbcScheduledAgentManager second = manager("node-2", JdbcScheduledAgentManager.MisfirePolicy.FIRE_ONCE_NOW);
+		try {
+			AtomicInteger executions = new AtomicInteger();
+			CountDownLatch fired = new CountDownLatch(1);
+			Runnable execution = () -> {
+				executions.incrementAndGet();
+				fired.countDown();
+			};
+			ScheduleConfig config = ScheduleConfig.builder().initialDelay(50).build();
+			first.scheduleTask("report-1", config, execution);
+			second.scheduleTask("report-1", config, execution);
+
+			assertTrue(fired.await(5, TimeUnit.SECONDS));
+			Thread.sleep(300);
+			assertEquals(1, executions.get());
+			assertEquals("COMPLETED", column("report-1", "status"));
+		}
+		finally {
+			first.shutdown();
+			second.shutdown();
+		}
+	}
+
+	@Test
+	void testFixedRateFiresAreNotDuplicated() throws Exception {
+		JdbcScheduledAgentManager first = manager("node-1", JdbcScheduledAgentManager.MisfirePolicy.FIRE_ONCE_NOW);
+		JdbcScheduledAgentManager second = manager("node-2", JdbcScheduledAgentManager.MisfirePolicy.FIRE_ONCE_NOW);
+		try {
+			AtomicInteger executions = new AtomicInteger();
+			ScheduleConfig config = ScheduleConfig.builder().fixedRate(200).build();
+			first.scheduleTask("sync-1", config, executions::incrementAndGet);
+			second.scheduleTask("sync-1", config, executions::incrementAndGet);
+
+			Thread.sleep(1_100);
+			// Six fires fit into the window; two independent schedulers would produce twice as many
+			assertTrue(executions.get() >= 3 && executions.get() <= 7, "executions: " + executions.get());
+		}
+		finally {
+			first.shutdown();
+			second.shutdown();
+		}
+	}
+
+	@Test
+	void testScheduleSurvivesRestart() throws Exception {
+		JdbcScheduledAgentManager first = manager("node-1", JdbcScheduledAgentManager.MisfirePolicy.FIRE_ONCE_NOW);
+		first.scheduleTask("nightly-1", ScheduleConfig.builder().cronExpression("0 0 3 * * *").build(), () -> {
+		});
+		Object nextFire = column("nightly-1", "next_fire_time");
+		first.shutdown();
+
+		JdbcScheduledAgentManager restarted = manager("node-1", JdbcScheduledAgentManager.MisfirePolicy.FIRE_ONCE_NOW);
+		try {
+			restarted.scheduleTask("nightly-1", ScheduleConfig.builder().cronExpression("0 0 3 * * *").build(), () -> {
+			});
+			assertEquals(nextFire, column("nightly-1", "next_fire_time"));
+		}
+		finally {
+			restarted.shutdown();
+		}
+	}
+
+	@Test
+	void testSkipMissedFires() throws Exception {
+		JdbcScheduledAgentManager manager = manager("node-1", JdbcScheduledAgentManager.MisfirePolicy.SKIP_MISSED);
+		try {
+			AtomicInteger executions = new AtomicInteger();
+			manager.scheduleTask("hourly-1", ScheduleConfig.builder().fixedRate(3_600_000).build(),
+					executions::incrementAndGet);
+			Thread.sleep(200);
+			assertEquals(1, executions.get());
+
+			// Pretend the cluster was down when the next fire was due
+			try (Connection conn = dataSource.getConnection();
+					PreparedStatement ps = conn.prepareStatement(
+							"UPDATE GRAPH_SCHEDULED_TASK SET next_fire_time = ?, fire_bucket = 0 WHERE task_id = ?")) {
+				ps.setLong(1, System.currentTimeMillis() - 10_000);
+				ps.setString(2, "hourly-1");
+				ps.executeUpdate();
+			}
+			Thread.sleep(200);
+			assertEquals(1, executions.get());
+			assertTrue(((Number) column("hourly-1", "next_fire_time")).longValue() > System.currentTimeMillis());
+		}
+		finally {
+			manager.shutdown();
+		}
+	}
+
+	private Object column(String taskId, String column) throws Exception {
+		try (Connection conn = dataSource.getConnection();
+				PreparedStatement ps = conn
+					.prepareStatement("SELECT " + column + " FROM GRAPH_SCHEDULED_TASK WHERE task_id = ?")) {
+			ps.setString(1, taskId);
+			try (ResultSet rs = ps.executeQuery()) {
+				assertTrue(rs.next());
+				return rs.getObject(1);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.state;
+
+import com.alibaba.cloud.ai.graph.state.strategy.AppendStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppendOnlyListTest {
+
+	/**
+	 * A 1,000 turn conversation, where each turn appends a user and an assistant
+	 * message, keeps a single buffer that every turn's snapshot is a view of.
+	 */
+	@Test
+	void testThousandTurnConversationSharesOneBuffer() {
+		AppendStrategy strategy = new AppendStrategy();
+		List<AppendOnlyList<?>> snapshots = new ArrayList<>();
+		Object messages = null;
+		for (int turn = 0; turn < 1_000; turn++) {
+			messages = strategy.apply(messages, List.of("user-" + turn, "assistant-" + turn));
+			snapshots.add(assertInstanceOf(AppendOnlyList.class, messages));
+		}
+
+		AppendOnlyList<?> first = snapshots.get(0);
+		for (int turn = 0; turn < snapshots.size(); turn++) {
+			AppendOnlyList<?> snapshot = snapshots.get(turn);
+			assertTrue(snapshot.sharesBuffer(first), "turn " + turn + " copied the history");
+			assertEquals(2 * (turn + 1), snapshot.size());
+		}
+		assertEquals(List.of("user-0", "assistant-0"), first);
+		assertEquals("assistant-999", snapshots.get(999).get(1_999));
+	}
+
+	@Test
+	void testAppendingToOlderSnapshotForksBuffer() {
+		AppendOnlyList<String> base = AppendOnlyList.copyOf(List.of("a", "b"));
+		AppendOnlyList<String> next = base.appending("c");
+		AppendOnlyList<String> branch = base.appending("x");
+
+		assertTrue(next.sharesBuffer(base));
+		assertFalse(branch.sharesBuffer(base));
+		assertEquals(List.of("a", "b", "c"), next);
+		assertEquals(List.of("a", "b", "x"), branch);
+	}
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.state;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.OverAllStateBuilder;
+import com.alibaba.cloud.ai.graph.state.strategy.AppendStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LayeredStateMapTest {
+
+	@Test
+	void testWritesStayInLocalLayer() {
+		Map<String, Object> parent = new HashMap<>(Map.of("a", 1, "b", 2, "c", 3));
+		LayeredStateMap layered = new LayeredStateMap(parent);
+
+		assertEquals(2, layered.put("b", 20));
+		assertEquals(1, layered.remove("a"));
+		assertNull(layered.put("d", 4));
+
+		assertEquals(Map.of("b", 20, "c", 3, "d", 4), new HashMap<>(layered));
+		assertEquals(3, layered.size());
+		assertFalse(layered.containsKey("a"));
+		assertEquals(Map.of("a", 1, "b", 2, "c", 3), parent);
+
+		layered.put("a", 10);
+		assertEquals(10, layered.get("a"));
+		layered.clear();
+		assertTrue(layered.isEmpty());
+		assertEquals(3, parent.size());
+	}
+
+	@Test
+	void testStateSharesParentMessages() {
+		AppendOnlyList<Object> messages = AppendOnlyList.copyOf(List.of("m1", "m2"));
+		LayeredStateMap layered = new LayeredStateMap(Map.of("messages", messages, "input", "hi"));
+		layered.put("messages", messages.appending("instruction"));
+
+		OverAllState state = OverAllStateBuilder.builder()
+			.withKeyStrategy("messages", new AppendStrategy())
+			.withData(layered)
+			.build();
+
+		assertSame(layered.get("messages"), state.value("messages").orElseThrow());
+		assertEquals(List.of("m1", "m2", "instruction"), state.value("messages").orElseThrow());
+		assertEquals(List.of("m1", "m2"), messages);
+		assertEquals("hi", state.value("input").orElseThrow());
+	}
+
+}
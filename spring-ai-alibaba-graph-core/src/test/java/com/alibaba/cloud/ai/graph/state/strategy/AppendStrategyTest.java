@@ -0,0 +1,110 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.state.strategy;
+
+import com.alibaba.cloud.ai.graph.state.AppendOnlyList;
+import com.alibaba.cloud.ai.graph.state.RemoveByHash;
+import com.alibaba.cloud.ai.graph.state.ReplaceAllWith;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppendStrategyTest {
+
+	private final AppendStrategy strategy = new AppendStrategy();
+
+	@Test
+	void testAppendKeepsPreviousSnapshots() {
+		Object first = strategy.apply(null, "a");
+		Object second = strategy.apply(first, List.of("b", "c"));
+		Object third = strategy.apply(second, "d");
+		Object branch = strategy.apply(second, "x");
+
+		assertEquals(List.of("a"), first);
+		assertEquals(List.of("a", "b", "c"), second);
+		assertEquals(List.of("a", "b", "c", "d"), third);
+		assertEquals(List.of("a", "b", "c", "x"), branch);
+		assertInstanceOf(AppendOnlyList.class, third);
+	}
+
+	@Test
+	void testRemoveByHashIsTombstoned() {
+		Object messages = strategy.apply(null, List.of("a", "b", "c"));
+		Object removed = strategy.apply(messages, RemoveByHash.of("b"));
+		Object mixed = strategy.apply(removed, List.of(RemoveByHash.of("a"), "d"));
+
+		assertEquals(List.of("a", "b", "c"), messages);
+		assertEquals(List.of("a", "c"), removed);
+		assertEquals(List.of("c", "d"), mixed);
+		assertEquals(List.of("c", "d", "e"), strategy.apply(mixed, "e"));
+	}
+
+	@Test
+	void testReplaceAllAndDistinct() {
+		Object messages = strategy.apply(List.of("a", "b"), ReplaceAllWith.of(List.of("z")));
+		assertEquals(List.of("z"), messages);
+
+		AppendStrategy distinct = new AppendStrategy(false);
+		assertEquals(List.of("a", "b", "c"), distinct.apply(new ArrayList<>(List.of("a", "b")), List.of("b", "c")));
+	}
+
+	@Test
+	void testListMutationDoesNotLeakIntoSnapshots() {
+		AppendOnlyList<String> base = AppendOnlyList.copyOf(List.of("a", "b", "c"));
+		AppendOnlyList<String> next = base.appending("d");
+
+		next.set(0, "z");
+		next.remove("b");
+		next.add(1, "y");
+		base.add("w");
+
+		assertEquals(List.of("a", "b", "c", "w"), base);
+		assertEquals(List.of("z", "y", "c", "d"), next);
+	}
+
+	@Test
+	void testCompactionAfterManyRemovals() {
+		AppendOnlyList<Integer> list = AppendOnlyList.copyOf(Stream.iterate(0, i -> i + 1).limit(200).toList());
+		for (int i = 0; i < 150; i++) {
+			list = list.removing(RemoveByHash.of(i));
+		}
+		assertEquals(Stream.iterate(150, i -> i + 1).limit(50).toList(), list);
+		assertEquals(199, list.get(49));
+	}
+
+	@Test
+	void testJavaSerializationWritesPlainList() throws Exception {
+		AppendOnlyList<String> list = AppendOnlyList.copyOf(List.of("a", "b")).appending("c");
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(list);
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			Object restored = in.readObject();
+			assertInstanceOf(ArrayList.class, restored);
+			assertEquals(List.of("a", "b", "c"), restored);
+		}
+	}
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingJsonFieldReaderTest {
+
+	@Test
+	void testFieldResolvesOnceItsValueIsComplete() {
+		StreamingJsonFieldReader reader = new StreamingJsonFieldReader();
+
+		reader.append("```json\n{\"ag").append("ent\": \"prose_wr");
+		assertNull(reader.get("agent"));
+
+		reader.append("iter_agent\", \"reason");
+		assertEquals("prose_writer_agent", reader.get("agent"));
+		assertNull(reader.get("reason"));
+	}
+
+	@Test
+	void testOnlyStringValuesAreCaptured() {
+		StreamingJsonFieldReader reader = new StreamingJsonFieldReader()
+			.append("{\"keywords\": [\"a\", \"b\"], \"count\": 2, \"nested\": {\"name\": \"x\"}, \"category_name\": \"c\"}");
+
+		assertNull(reader.get("keywords"));
+		assertNull(reader.get("count"));
+		assertNull(reader.get("a"));
+		assertEquals("x", reader.get("name"));
+		assertEquals("c", reader.get("category_name"));
+	}
+
+	@Test
+	void testEscapesAreDecodedAcrossChunks() {
+		StreamingJsonFieldReader reader = new StreamingJsonFieldReader();
+
+		reader.append("{\"text\": \"say \\").append("\"hi\\\" \\u00").append("e9\\n\"}");
+
+		assertEquals("say \"hi\" \u00e9\n", reader.get("text"));
+	}
+
+	@Test
+	void testTextBeforeTheDocumentIsIgnored() {
+		StreamingJsonFieldReader reader = new StreamingJsonFieldReader()
+			.append("The \"agent\": \"wrong\" answer is {\"agent\": \"right\"}");
+
+		assertEquals("right", reader.get("agent"));
+	}
+
+	@Test
+	void testFirstValueWins() {
+		StreamingJsonFieldReader reader = new StreamingJsonFieldReader()
+			.append("{\"agent\": \"first\", \"agent\": \"second\"}");
+
+		assertEquals("first", reader.get("agent"));
+	}
+
+}
@@ -16,12 +16,15 @@
 
 package com.alibaba.cloud.ai.agent.studio.controller;
 
+import java.time.Duration;
+
 import com.alibaba.cloud.ai.agent.studio.dto.AgentResumeRequest;
 import com.alibaba.cloud.ai.agent.studio.dto.AgentRunRequest;
 import com.alibaba.cloud.ai.agent.studio.dto.messages.AgentRunResponse;
 import com.alibaba.cloud.ai.agent.studio.dto.messages.MessageDTO;
 import com.alibaba.cloud.ai.agent.studio.dto.messages.ToolRequestConfirmMessageDTO;
 import com.alibaba.cloud.ai.agent.studio.loader.AgentLoader;
+import com.alibaba.cloud.ai.agent.studio.service.ThreadService;
 import com.alibaba.cloud.ai.graph.NodeOutput;
 import com.alibaba.cloud.ai.graph.RunnableConfig;
 import com.alibaba.cloud.ai.graph.action.InterruptionMetadata;
@@ -35,6 +38,7 @@ import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.metadata.Usage;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.ServerSentEvent;
@@ -44,6 +48,7 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,11 +60,22 @@ public class ExecutionController {
 
 	private static final Logger log = LoggerFactory.getLogger(ExecutionController.class);
 	final ObjectMapper mapper = new ObjectMapper();
+	private final ObjectWriter responseWriter = mapper.writerFor(AgentRunResponse.class);
 	private final AgentLoader agentLoader;
 
+	/** Merges streamed text chunks before they are written, {@code null} to send every chunk as is. */
+	private final SseEventCoalescer coalescer;
+
 	@Autowired
-	public ExecutionController(AgentLoader agentLoader) {
+	public ExecutionController(AgentLoader agentLoader,
+			@Value("${spring.ai.alibaba.studio.sse.coalesce.enabled:true}") boolean coalesceEnabled,
+			@Value("${spring.ai.alibaba.studio.sse.coalesce.interval:50ms}") Duration coalesceInterval,
+			@Value("${spring.ai.alibaba.studio.sse.coalesce.max-bytes:4096}") int coalesceMaxBytes,
+			@Value("${spring.ai.alibaba.studio.sse.heartbeat-interval:15s}") Duration heartbeatInterval) {
 		this.agentLoader = agentLoader;
+		this.coalescer = coalesceEnabled
+				? new SseEventCoalescer(coalesceInterval, coalesceMaxBytes, heartbeatInterval, this::encode)
+				: null;
 	}
 
 	/**
@@ -173,7 +189,7 @@ public class ExecutionController {
 		try {
 			Agent agent = agentLoader.loadAgent(request.appName);
 			RunnableConfig runnableConfig = RunnableConfig.builder()
-					.threadId(request.threadId)
+					.threadId(ThreadService.checkpointThreadId(request.appName, request.userId, request.threadId))
 					.addMetadata("user_id", request.userId)
 					.build();
 
@@ -233,7 +249,7 @@ public class ExecutionController {
 			}
 
 			RunnableConfig runnableConfig = RunnableConfig.builder()
-					.threadId(request.threadId)
+					.threadId(ThreadService.checkpointThreadId(request.appName, request.userId, request.threadId))
 					.addMetadata("user_id", request.userId)
 					.addHumanFeedback(metadataBuilder.build())
 					.build();
@@ -259,28 +275,27 @@ public class ExecutionController {
 		}
 
 		// Convert Flux<NodeOutput> to Flux<ServerSentEvent<String>>
-		return agentStream.map(nodeOutput -> {
+		Flux<SseEventCoalescer.Event> events = agentStream.map(nodeOutput -> {
 					String node = nodeOutput.node();
 					String agentName = nodeOutput.agent();
 					Usage tokenUsage = nodeOutput.tokenUsage();
 
-
-					// For streaming, we can use the message content as chunk
-					StringBuilder chunkBuilder = new StringBuilder();
 					AgentRunResponse agentResponse = null;
 					if (nodeOutput instanceof StreamingOutput<?> streamingOutput) {
 						Message message = streamingOutput.message();
 						if (message == null) { // no update, typically output responses from nodes that does not produce messages
-							return ServerSentEvent.<String>builder()
-									.data("{}")
-									.build();
+							return SseEventCoalescer.Event.snapshot();
 						}
 						if (message instanceof AssistantMessage assistantMessage) {
 							if (assistantMessage.hasToolCalls()) {
 								agentResponse = new AgentRunResponse(node, agentName, assistantMessage, tokenUsage, "");
 							}
+							else if (coalescer != null) {
+								// For streaming, we can use the message content as chunk
+								return SseEventCoalescer.Event.text(node, agentName, tokenUsage, assistantMessage.getText(),
+										assistantMessage.getMetadata());
+							}
 							else {
-//						chunkBuilder.append(assistantMessage.getText());
 								agentResponse = new AgentRunResponse(node, agentName, assistantMessage, tokenUsage, assistantMessage.getText());
 							}
 						}
@@ -295,28 +310,10 @@ public class ExecutionController {
 					}
 					else {
 						// Handle other NodeOutput types if necessary
-//					agentResponse = new AgentRunResponse(node, agentName, null, tokenUsage, "");
+						return SseEventCoalescer.Event.snapshot();
 					}
 
-
-					// Serialize to JSON string
-					try {
-						if (agentResponse != null) {
-							String jsonData = mapper.writeValueAsString(agentResponse);
-							return ServerSentEvent.<String>builder()
-									.data(jsonData)
-									.build();
-						}
-					}
-					catch (Exception e) {
-						log.error("Failed to serialize AgentRunResponse to JSON", e);
-						return ServerSentEvent.<String>builder()
-								.data("{\"error\":\"Failed to serialize response\"}")
-								.build();
-					}
-					return ServerSentEvent.<String>builder()
-							.data("{}")
-							.build();
+					return SseEventCoalescer.Event.of(toServerSentEvent(agentResponse));
 				})
 				.onErrorResume(error -> {
 					// Handle errors from the agent stream and convert to SSE error event
@@ -335,22 +332,53 @@ public class ExecutionController {
 						);
 
 						// Return the error as an SSE event and complete the stream
-						return Flux.just(
+						return Flux.just(SseEventCoalescer.Event.of(
 								ServerSentEvent.<String>builder()
 										.event("error")
 										.data(errorJson)
 										.build()
-						);
+						));
 					}
 					catch (Exception e) {
 						log.error("Failed to create error SSE event", e);
-						return Flux.just(
+						return Flux.just(SseEventCoalescer.Event.of(
 								ServerSentEvent.<String>builder()
 										.event("error")
 										.data("{\"error\":true,\"errorMessage\":\"Internal error occurred\"}")
 										.build()
-						);
+						));
 					}
 				});
+
+		return coalescer != null ? coalescer.coalesce(events) : events.map(this::encode);
+	}
+
+	private ServerSentEvent<String> encode(SseEventCoalescer.Event event) {
+		if (event.isText()) {
+			String text = event.text();
+			AssistantMessage message = AssistantMessage.builder().content(text).properties(event.metadata()).build();
+			return toServerSentEvent(new AgentRunResponse(event.node(), event.agent(), message, event.tokenUsage(), text));
+		}
+		if (event.isSnapshot()) {
+			return ServerSentEvent.<String>builder()
+					.data(SseEventCoalescer.SNAPSHOT_DATA)
+					.build();
+		}
+		return event.encoded();
+	}
+
+	private ServerSentEvent<String> toServerSentEvent(AgentRunResponse agentResponse) {
+		// Serialize to JSON string
+		try {
+			return ServerSentEvent.<String>builder()
+					.data(responseWriter.writeValueAsString(agentResponse))
+					.build();
+		}
+		catch (Exception e) {
+			log.error("Failed to serialize AgentRunResponse to JSON", e);
+			return ServerSentEvent.<String>builder()
+					.data("{\"error\":\"Failed to serialize response\"}")
+					.build();
+		}
 	}
 }
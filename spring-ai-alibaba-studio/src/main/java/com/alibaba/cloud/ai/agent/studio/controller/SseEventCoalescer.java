@@ -0,0 +1,366 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.studio.controller;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.http.codec.ServerSentEvent;
+
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Turns a stream of agent events into SSE events, merging consecutive text chunks of the
+ * same node into a single event.
+ *
+ * <p>Pending events are flushed every {@code interval}, as soon as the pending text reaches
+ * {@code maxBytes}, or immediately for events that are not plain text (tool calls,
+ * interruptions, errors). Nothing is written while the client has no outstanding demand;
+ * text keeps merging in the meantime and empty state snapshots are dropped, so a slow client
+ * receives fewer, larger events instead of an ever growing backlog. Once
+ * {@link #MAX_PENDING_EVENTS} events are waiting, no more are requested from the agent
+ * stream until the client catches up. When nothing has been written for
+ * {@code heartbeatInterval} a heartbeat event is sent to keep the connection open. An
+ * error of the agent stream is signalled after the pending events have been written.
+ */
+final class SseEventCoalescer {
+
+	/** Data of heartbeat events, skipped by the chat UI. */
+	static final String HEARTBEAT_DATA = "{\"node\":\"heartbeat\"}";
+
+	/** Data of state snapshots that carry no message. */
+	static final String SNAPSHOT_DATA = "{}";
+
+	/** Number of pending events after which the agent stream is no longer read. */
+	static final int MAX_PENDING_EVENTS = 256;
+
+	private final Duration interval;
+
+	private final int maxBytes;
+
+	private final Duration heartbeatInterval;
+
+	private final Function<Event, ServerSentEvent<String>> encoder;
+
+	SseEventCoalescer(Duration interval, int maxBytes, Duration heartbeatInterval,
+			Function<Event, ServerSentEvent<String>> encoder) {
+		this.interval = interval;
+		this.maxBytes = maxBytes;
+		this.heartbeatInterval = heartbeatInterval;
+		this.encoder = encoder;
+	}
+
+	Flux<ServerSentEvent<String>> coalesce(Flux<Event> events) {
+		return Flux.create(sink -> {
+			Scheduler scheduler = Schedulers.parallel();
+			Coalescing coalescing = new Coalescing(sink, scheduler);
+			Disposable ticks = Flux.interval(interval, interval, scheduler).subscribe(tick -> coalescing.tick());
+			sink.onRequest(n -> coalescing.drain());
+			sink.onDispose(Disposables.composite(ticks, coalescing));
+			events.subscribe(coalescing);
+		}, FluxSink.OverflowStrategy.ERROR);
+	}
+
+	/**
+	 * An agent event before serialization. Text events of the same node and agent can be
+	 * merged; snapshots may be dropped; everything else is passed through as is.
+	 */
+	static final class Event {
+
+		private final Kind kind;
+
+		private final String node;
+
+		private final String agent;
+
+		private Usage tokenUsage;
+
+		private final StringBuilder text;
+
+		private final Map<String, Object> metadata;
+
+		private final ServerSentEvent<String> encoded;
+
+		private Event(Kind kind, String node, String agent, Usage tokenUsage, StringBuilder text,
+				Map<String, Object> metadata, ServerSentEvent<String> encoded) {
+			this.kind = kind;
+			this.node = node;
+			this.agent = agent;
+			this.tokenUsage = tokenUsage;
+			this.text = text;
+			this.metadata = metadata;
+			this.encoded = encoded;
+		}
+
+		static Event text(String node, String agent, Usage tokenUsage, String text, Map<String, Object> metadata) {
+			return new Event(Kind.TEXT, node, agent, tokenUsage, new StringBuilder(text != null ? text : ""),
+					metadata != null ? new HashMap<>(metadata) : new HashMap<>(), null);
+		}
+
+		static Event snapshot() {
+			return new Event(Kind.SNAPSHOT, null, null, null, null, null, null);
+		}
+
+		static Event of(ServerSentEvent<String> encoded) {
+			return new Event(Kind.OTHER, null, null, null, null, null, encoded);
+		}
+
+		String node() {
+			return node;
+		}
+
+		String agent() {
+			return agent;
+		}
+
+		Usage tokenUsage() {
+			return tokenUsage;
+		}
+
+		String text() {
+			return text.toString();
+		}
+
+		/**
+		 * Returns the metadata of the merged messages, later messages overriding earlier ones.
+		 */
+		Map<String, Object> metadata() {
+			return metadata;
+		}
+
+		boolean isText() {
+			return kind == Kind.TEXT;
+		}
+
+		boolean isSnapshot() {
+			return kind == Kind.SNAPSHOT;
+		}
+
+		ServerSentEvent<String> encoded() {
+			return encoded;
+		}
+
+		private boolean canAppend(Event other, int maxBytes) {
+			return kind == Kind.TEXT && other.kind == Kind.TEXT
+					&& Objects.equals(node, other.node)
+					&& Objects.equals(agent, other.agent)
+					&& text.length() + other.text.length() <= maxBytes;
+		}
+
+		private void append(Event other) {
+			text.append(other.text);
+			metadata.putAll(other.metadata);
+			// Usage is usually only reported with the last chunk of a response
+			if (other.tokenUsage != null) {
+				tokenUsage = other.tokenUsage;
+			}
+		}
+
+		private enum Kind {
+
+			TEXT, SNAPSHOT, OTHER
+
+		}
+
+	}
+
+	private final class Coalescing extends BaseSubscriber<Event> {
+
+		private final FluxSink<ServerSentEvent<String>> sink;
+
+		private final Scheduler scheduler;
+
+		private final Deque<Event> pending = new ArrayDeque<>();
+
+		private final AtomicInteger wip = new AtomicInteger();
+
+		private int pendingBytes;
+
+		private boolean flushRequested;
+
+		private boolean done;
+
+		private Throwable error;
+
+		private boolean upstreamRequested;
+
+		private long lastEmitNanos;
+
+		Coalescing(FluxSink<ServerSentEvent<String>> sink, Scheduler scheduler) {
+			this.sink = sink;
+			this.scheduler = scheduler;
+			this.lastEmitNanos = scheduler.now(TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		protected void hookOnSubscribe(Subscription subscription) {
+			synchronized (this) {
+				upstreamRequested = true;
+			}
+			subscription.request(1);
+		}
+
+		@Override
+		protected void hookOnNext(Event event) {
+			boolean flush;
+			synchronized (this) {
+				upstreamRequested = false;
+				Event last = pending.peekLast();
+				if (event.isSnapshot()) {
+					// A snapshot carries no data, only worth sending when nothing else is pending
+					if (last == null) {
+						pending.add(event);
+					}
+				}
+				else {
+					if (last != null && last.isSnapshot()) {
+						pending.pollLast();
+						last = pending.peekLast();
+					}
+					if (last != null && last.canAppend(event, maxBytes)) {
+						last.append(event);
+					}
+					else {
+						pending.add(event);
+					}
+					if (event.isText()) {
+						pendingBytes += event.text.length();
+						flushRequested |= pendingBytes >= maxBytes;
+					}
+					else {
+						flushRequested = true;
+					}
+				}
+				flush = flushRequested;
+			}
+			if (flush) {
+				drain();
+			}
+			resumeUpstream();
+		}
+
+		@Override
+		protected void hookOnComplete() {
+			synchronized (this) {
+				done = true;
+				flushRequested = true;
+			}
+			drain();
+		}
+
+		@Override
+		protected void hookOnError(Throwable throwable) {
+			// Text received before the error is still written, the error ends the stream after it
+			synchronized (this) {
+				error = throwable;
+				done = true;
+				flushRequested = true;
+			}
+			drain();
+		}
+
+		/**
+		 * Requests the next agent event unless one is already requested or too many are
+		 * waiting for the client. Called after every received event and again whenever an
+		 * event has been written.
+		 */
+		private void resumeUpstream() {
+			synchronized (this) {
+				if (upstreamRequested || done || pending.size() >= MAX_PENDING_EVENTS) {
+					return;
+				}
+				upstreamRequested = true;
+			}
+			request(1);
+		}
+
+		void tick() {
+			synchronized (this) {
+				flushRequested = true;
+			}
+			drain();
+		}
+
+		void drain() {
+			if (wip.getAndIncrement() != 0) {
+				return;
+			}
+			int missed = 1;
+			do {
+				while (sink.requestedFromDownstream() > 0 && !sink.isCancelled()) {
+					Event next;
+					synchronized (this) {
+						next = flushRequested ? pending.poll() : null;
+						if (next != null && next.isText()) {
+							pendingBytes -= next.text.length();
+						}
+						if (pending.isEmpty()) {
+							flushRequested = false;
+							pendingBytes = 0;
+						}
+					}
+					if (next == null) {
+						break;
+					}
+					resumeUpstream();
+					sink.next(encoder.apply(next));
+					lastEmitNanos = scheduler.now(TimeUnit.NANOSECONDS);
+				}
+				boolean complete;
+				Throwable failure;
+				synchronized (this) {
+					complete = done && pending.isEmpty();
+					failure = error;
+				}
+				if (complete) {
+					if (failure != null) {
+						sink.error(failure);
+					}
+					else {
+						sink.complete();
+					}
+					return;
+				}
+				long now = scheduler.now(TimeUnit.NANOSECONDS);
+				if (sink.requestedFromDownstream() > 0 && !heartbeatInterval.isZero()
+						&& now - lastEmitNanos >= heartbeatInterval.toNanos()) {
+					sink.next(ServerSentEvent.<String>builder().data(HEARTBEAT_DATA).build());
+					lastEmitNanos = now;
+				}
+				missed = wip.addAndGet(-missed);
+			}
+			while (missed != 0);
+		}
+
+	}
+
+}
@@ -71,5 +71,18 @@ public interface ThreadService {
 	 * @return A Mono that completes when the deletion is done.
 	 */
 	Mono<Void> deleteThread(String appName, String userId, String threadId);
+
+	/**
+	 * Builds the thread ID threads are executed and checkpointed with. Thread IDs are
+	 * only unique per app and user, so the ID is scoped by both.
+	 *
+	 * @param appName The application name.
+	 * @param userId The user ID.
+	 * @param threadId The thread ID.
+	 * @return The scoped thread ID.
+	 */
+	static String checkpointThreadId(String appName, String userId, String threadId) {
+		return String.format("%s:%s:%s", appName, userId, threadId);
+	}
 }
 
@@ -18,15 +18,28 @@ package com.alibaba.cloud.ai.agent.studio.service;
 
 import com.alibaba.cloud.ai.agent.studio.dto.ListThreadsResponse;
 import com.alibaba.cloud.ai.agent.studio.dto.Thread;
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.checkpoint.BaseCheckpointSaver;
+import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,25 +47,64 @@ import reactor.core.publisher.Mono;
 
 /**
  * In-memory implementation of ThreadService.
- * For production use, this should be backed by a database or distributed cache.
+ * <p>
+ * Threads are kept in a bounded cache that evicts the least recently used threads and
+ * threads idle for longer than the configured TTL. A secondary index from app and user
+ * to thread IDs keeps {@link #listThreads(String, String)} proportional to the number
+ * of threads of that user.
+ * <p>
+ * When a {@link BaseCheckpointSaver} bean is available, thread state is read from the
+ * latest checkpoint of the thread, and only state that has not been checkpointed yet
+ * (such as the initial state) is held in memory.
  */
 @Service
 public class ThreadServiceImpl implements ThreadService {
 
 	private static final Logger log = LoggerFactory.getLogger(ThreadServiceImpl.class);
 
-	// In-memory storage: key = "appName:userId:threadId", value = Thread
-	private final Map<String, Thread> threads = new ConcurrentHashMap<>();
+	// key = "appName:userId:threadId", value = Thread
+	private final Cache<String, Thread> threads;
 
-	// Storage for thread states: key = "appName:userId:threadId", value = state
-	private final Map<String, Map<String, Object>> thradStates = new ConcurrentHashMap<>();
+	// key = "appName:userId:", value = thread storage keys of that app and user
+	private final Map<String, Set<String>> threadsByUser = new ConcurrentHashMap<>();
+
+	// State not yet covered by a checkpoint: key = "appName:userId:threadId", value = state
+	private final Cache<String, Map<String, Object>> threadStates;
+
+	private final BaseCheckpointSaver checkpointSaver;
+
+	@Autowired
+	public ThreadServiceImpl(
+			@Value("${spring.ai.alibaba.studio.threads.max-size:10000}") long maxThreads,
+			@Value("${spring.ai.alibaba.studio.threads.ttl:24h}") Duration threadTtl,
+			@Value("${spring.ai.alibaba.studio.threads.max-states:1000}") long maxStates,
+			@Value("${spring.ai.alibaba.studio.threads.state-ttl:1h}") Duration stateTtl,
+			ObjectProvider<BaseCheckpointSaver> checkpointSaver) {
+		this(maxThreads, threadTtl, maxStates, stateTtl, checkpointSaver.getIfAvailable(), ForkJoinPool.commonPool());
+	}
+
+	ThreadServiceImpl(long maxThreads, Duration threadTtl, long maxStates, Duration stateTtl,
+			BaseCheckpointSaver checkpointSaver, Executor executor) {
+		this.threads = Caffeine.newBuilder()
+				.executor(executor)
+				.maximumSize(maxThreads)
+				.expireAfterAccess(threadTtl)
+				.removalListener((String key, Thread thread, RemovalCause cause) -> onThreadRemoved(key, thread, cause))
+				.build();
+		this.threadStates = Caffeine.newBuilder()
+				.executor(executor)
+				.maximumSize(maxStates)
+				.expireAfterAccess(stateTtl)
+				.build();
+		this.checkpointSaver = checkpointSaver;
+	}
 
 	@Override
 	public Mono<Optional<Thread>> getThread(
 			String appName, String userId, String threadId, Optional<Map<String, Object>> state) {
 		return Mono.fromCallable(() -> {
 			String key = buildKey(appName, userId, threadId);
-			Thread thread = threads.get(key);
+			Thread thread = threads.getIfPresent(key);
 
 			return Optional.ofNullable(thread);
 		});
@@ -62,11 +114,15 @@ public class ThreadServiceImpl implements ThreadService {
 	public Mono<ListThreadsResponse> listThreads(String appName, String userId) {
 		return Mono.fromCallable(() -> {
 			String prefix = buildKeyPrefix(appName, userId);
+			Set<String> keys = threadsByUser.getOrDefault(prefix, Set.of());
 
-			List<Thread> userThreads = threads.entrySet().stream()
-					.filter(entry -> entry.getKey().startsWith(prefix))
-					.map(Map.Entry::getValue)
-					.collect(Collectors.toList());
+			List<Thread> userThreads = new ArrayList<>(keys.size());
+			for (String key : keys) {
+				Thread thread = threads.getIfPresent(key);
+				if (thread != null) {
+					userThreads.add(thread);
+				}
+			}
 
 			log.debug("Found {} threads for app={}, user={}", userThreads.size(), appName, userId);
 			return ListThreadsResponse.of(userThreads);
@@ -84,24 +140,27 @@ public class ThreadServiceImpl implements ThreadService {
 
 			String key = buildKey(appName, userId, finalThreadId);
 
-			// Check if thread already exists
-			if (threads.containsKey(key)) {
-				log.warn("Attempted to create duplicate thread: {}", finalThreadId);
-				throw new IllegalStateException("Thread already exists: " + finalThreadId);
-			}
-
 			// Create new thread
 			Thread newThread = Thread.builder(finalThreadId)
 					.appName(appName)
 					.userId(userId)
 					.build();
 
-			threads.put(key, newThread);
-
-			// Store initial state if provided
-			if (initialState != null && !initialState.isEmpty()) {
-				thradStates.put(key, new ConcurrentHashMap<>(initialState));
+			// Check if thread already exists
+			if (threads.asMap().putIfAbsent(key, newThread) != null) {
+				log.warn("Attempted to create duplicate thread: {}", finalThreadId);
+				throw new IllegalStateException("Thread already exists: " + finalThreadId);
 			}
+			// Indexed under the same lock as removal notifications of the previous thread with this key
+			threadsByUser.compute(buildKeyPrefix(appName, userId), (prefix, keys) -> {
+				Set<String> userKeys = keys != null ? keys : ConcurrentHashMap.newKeySet();
+				userKeys.add(key);
+				// Store initial state if provided
+				if (initialState != null && !initialState.isEmpty()) {
+					threadStates.put(key, new ConcurrentHashMap<>(initialState));
+				}
+				return userKeys;
+			});
 
 			log.info("Created thread: {} for app={}, user={}", finalThreadId, appName, userId);
 			return newThread;
@@ -112,8 +171,8 @@ public class ThreadServiceImpl implements ThreadService {
 	public Mono<Void> deleteThread(String appName, String userId, String threadId) {
 		return Mono.fromRunnable(() -> {
 			String key = buildKey(appName, userId, threadId);
-			Thread removed = threads.remove(key);
-			thradStates.remove(key);
+			Thread removed = threads.asMap().remove(key);
+			threadStates.invalidate(key);
 
 			if (removed != null) {
 				log.info("Deleted thread: {} for app={}, user={}", threadId, appName, userId);
@@ -134,7 +193,14 @@ public class ThreadServiceImpl implements ThreadService {
 	 */
 	public Map<String, Object> getThreadState(String appName, String userId, String threadId) {
 		String key = buildKey(appName, userId, threadId);
-		return thradStates.getOrDefault(key, new ConcurrentHashMap<>());
+		Optional<Map<String, Object>> checkpointed = checkpointState(appName, userId, threadId);
+		if (checkpointed.isPresent()) {
+			// The checkpoint supersedes any state held in memory
+			threadStates.invalidate(key);
+			return checkpointed.get();
+		}
+		Map<String, Object> state = threadStates.getIfPresent(key);
+		return state != null ? state : new ConcurrentHashMap<>();
 	}
 
 	/**
@@ -148,19 +214,68 @@ public class ThreadServiceImpl implements ThreadService {
 	public void updateThreadState(
 			String appName, String userId, String threadId, Map<String, Object> state) {
 		String key = buildKey(appName, userId, threadId);
-		if (threads.containsKey(key)) {
-			thradStates.put(key, new ConcurrentHashMap<>(state));
-			// Update last update time
-			Thread thread = threads.get(key);
+		if (threads.getIfPresent(key) != null) {
+			threadStates.put(key, new ConcurrentHashMap<>(state));
 			log.debug("Updated state for thread: {}", threadId);
 		}
 	}
 
+	/**
+	 * Reads the state of the latest checkpoint of a thread, if a checkpoint saver is
+	 * configured. Threads are executed with the thread ID scoped by app and user, so
+	 * threads with the same ID of other apps or users are not read.
+	 */
+	private Optional<Map<String, Object>> checkpointState(String appName, String userId, String threadId) {
+		if (checkpointSaver == null) {
+			return Optional.empty();
+		}
+		try {
+			RunnableConfig config = RunnableConfig.builder()
+					.threadId(ThreadService.checkpointThreadId(appName, userId, threadId))
+					.build();
+			return checkpointSaver.get(config).map(Checkpoint::getState);
+		}
+		catch (Exception e) {
+			log.warn("Failed to read checkpoint of thread: {}", threadId, e);
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Keeps the app and user index in sync when a thread is deleted or evicted.
+	 */
+	private void onThreadRemoved(String key, Thread thread, RemovalCause cause) {
+		if (key == null || thread == null || cause == RemovalCause.REPLACED) {
+			return;
+		}
+		threadsByUser.computeIfPresent(buildKeyPrefix(thread.appName(), thread.userId()), (prefix, keys) -> {
+			// Removal notifications are asynchronous, the key may already hold a thread created
+			// again. Checked under the index lock createThread indexes new threads with, so the
+			// index entry and state of that thread are left alone.
+			if (threads.asMap().get(key) != null) {
+				return keys;
+			}
+			keys.remove(key);
+			threadStates.invalidate(key);
+			return keys.isEmpty() ? null : keys;
+		});
+		if (cause.wasEvicted()) {
+			log.debug("Evicted thread: {} ({})", key, cause);
+		}
+	}
+
+	/**
+	 * Returns the number of threads indexed for an app and user.
+	 */
+	int indexedThreads(String appName, String userId) {
+		return threadsByUser.getOrDefault(buildKeyPrefix(appName, userId), Set.of()).size();
+	}
+
 	/**
 	 * Builds a storage key for a thread.
 	 */
 	private String buildKey(String appName, String userId, String threadId) {
-		return String.format("%s:%s:%s", appName, userId, threadId);
+		return ThreadService.checkpointThreadId(appName, userId, threadId);
 	}
 
 	/**
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.agent.studio.controller;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.http.codec.ServerSentEvent;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SseEventCoalescerTest {
+
+	private static final Duration INTERVAL = Duration.ofMillis(100);
+
+	private final SseEventCoalescer coalescer = new SseEventCoalescer(INTERVAL, 1024, Duration.ZERO,
+			SseEventCoalescerTest::encode);
+
+	@Test
+	@DisplayName("Test Text Of The Same Node Is Merged Until The Next Flush")
+	public void testTextOfTheSameNodeIsMerged() {
+		Sinks.Many<SseEventCoalescer.Event> events = Sinks.many().unicast().onBackpressureBuffer();
+
+		StepVerifier.withVirtualTime(() -> coalescer.coalesce(events.asFlux()))
+			.expectSubscription()
+			.then(() -> {
+				events.tryEmitNext(text("node", "a"));
+				events.tryEmitNext(text("node", "b"));
+				events.tryEmitNext(SseEventCoalescer.Event.snapshot());
+				events.tryEmitNext(text("node", "c"));
+			})
+			.expectNoEvent(Duration.ofMillis(50))
+			.thenAwait(Duration.ofMillis(50))
+			.assertNext(event -> assertEquals("abc", event.data()))
+			// Text of another node and events that are not text are not merged, the latter
+			// are written without waiting for the interval
+			.then(() -> {
+				events.tryEmitNext(text("node", "d"));
+				events.tryEmitNext(text("other", "e"));
+				events.tryEmitNext(SseEventCoalescer.Event.of(ServerSentEvent.builder("tool").build()));
+			})
+			.assertNext(event -> assertEquals("d", event.data()))
+			.assertNext(event -> assertEquals("e", event.data()))
+			.assertNext(event -> assertEquals("tool", event.data()))
+			.then(() -> events.tryEmitComplete())
+			.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("Test Slow Client Receives Merged Text")
+	public void testSlowClientReceivesMergedText() {
+		Sinks.Many<SseEventCoalescer.Event> events = Sinks.many().unicast().onBackpressureBuffer();
+
+		StepVerifier.withVirtualTime(() -> coalescer.coalesce(events.asFlux()), 0)
+			.expectSubscription()
+			.then(() -> events.tryEmitNext(text("node", "a")))
+			.thenAwait(Duration.ofSeconds(1))
+			.then(() -> events.tryEmitNext(text("node", "b")))
+			.thenAwait(Duration.ofSeconds(1))
+			// Nothing is written without demand, the text keeps merging meanwhile
+			.expectNoEvent(Duration.ofSeconds(1))
+			.thenRequest(1)
+			.assertNext(event -> assertEquals("ab", event.data()))
+			.then(() -> events.tryEmitComplete())
+			.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("Test Pending Events Are Bounded Without Demand")
+	public void testPendingEventsAreBoundedWithoutDemand() {
+		AtomicInteger read = new AtomicInteger();
+		Flux<SseEventCoalescer.Event> events = Flux.range(0, 1000)
+			.map(i -> SseEventCoalescer.Event.of(ServerSentEvent.builder("event-" + i).build()))
+			.doOnNext(event -> read.incrementAndGet());
+
+		StepVerifier.withVirtualTime(() -> coalescer.coalesce(events), 0)
+			.expectSubscription()
+			.thenAwait(INTERVAL)
+			.then(() -> assertEquals(SseEventCoalescer.MAX_PENDING_EVENTS, read.get()))
+			.thenRequest(10)
+			.assertNext(event -> assertEquals("event-0", event.data()))
+			.expectNextCount(9)
+			// Every written event lets one more in
+			.then(() -> assertEquals(SseEventCoalescer.MAX_PENDING_EVENTS + 10, read.get()))
+			.thenCancel()
+			.verify();
+	}
+
+	@Test
+	@DisplayName("Test Heartbeat Is Sent When Idle")
+	public void testHeartbeatIsSentWhenIdle() {
+		SseEventCoalescer heartbeating = new SseEventCoalescer(INTERVAL, 1024, Duration.ofSeconds(1),
+				SseEventCoalescerTest::encode);
+
+		StepVerifier.withVirtualTime(() -> heartbeating.coalesce(Flux.never()))
+			.expectSubscription()
+			.expectNoEvent(Duration.ofMillis(900))
+			.thenAwait(INTERVAL)
+			.assertNext(event -> assertEquals(SseEventCoalescer.HEARTBEAT_DATA, event.data()))
+			.expectNoEvent(Duration.ofMillis(900))
+			.thenAwait(INTERVAL)
+			.assertNext(event -> assertEquals(SseEventCoalescer.HEARTBEAT_DATA, event.data()))
+			.thenCancel()
+			.verify();
+	}
+
+	@Test
+	@DisplayName("Test Completion Flushes Pending Text")
+	public void testCompletionFlushesPendingText() {
+		StepVerifier
+			.withVirtualTime(() -> coalescer.coalesce(Flux.just(text("node", "a"), text("node", "b"))))
+			.expectSubscription()
+			.assertNext(event -> assertEquals("ab", event.data()))
+			.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("Test Error Is Signalled After Pending Text")
+	public void testErrorIsSignalledAfterPendingText() {
+		Flux<SseEventCoalescer.Event> events = Flux.just(text("node", "a"), text("node", "b"))
+			.concatWith(Flux.error(new IllegalStateException("boom")));
+
+		StepVerifier.withVirtualTime(() -> coalescer.coalesce(events))
+			.expectSubscription()
+			.assertNext(event -> assertEquals("ab", event.data()))
+			.expectErrorMessage("boom")
+			.verify();
+	}
+
+	private static SseEventCoalescer.Event text(String node, String text) {
+		return SseEventCoalescer.Event.text(node, "agent", null, text, Map.of());
+	}
+
+	private static ServerSentEvent<String> encode(SseEventCoalescer.Event event) {
+		if (event.encoded() != null) {
+			return event.encoded();
+		}
+		return ServerSentEvent.builder(event.isText() ? event.text() : SseEventCoalescer.SNAPSHOT_DATA).build();
+	}
+
+}
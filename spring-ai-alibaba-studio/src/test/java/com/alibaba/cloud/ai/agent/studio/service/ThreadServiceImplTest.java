@@ -0,0 +1,124 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.agent.studio.service;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+import com.alibaba.cloud.ai.graph.checkpoint.savers.MemorySaver;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ThreadServiceImplTest {
+
+	private static final Duration TTL = Duration.ofHours(1);
+
+	@Test
+	@DisplayName("Test Thread Store Is Bounded")
+	public void testThreadStoreIsBounded() {
+		ThreadServiceImpl service = new ThreadServiceImpl(10, TTL, 10, TTL, null, Runnable::run);
+		for (int i = 0; i < 50; i++) {
+			service.createThread("app", "user", Map.of("i", i), "thread-" + i).block();
+		}
+
+		// Evicted threads leave the listing and the index with them
+		int listed = service.listThreads("app", "user").block().threads().size();
+		assertTrue(listed <= 10, "listed " + listed + " threads");
+		assertEquals(listed, service.indexedThreads("app", "user"));
+	}
+
+	@Test
+	@DisplayName("Test Deleted Thread Is Removed From Index")
+	public void testDeletedThreadIsRemovedFromIndex() {
+		QueuedExecutor executor = new QueuedExecutor();
+		ThreadServiceImpl service = new ThreadServiceImpl(10, TTL, 10, TTL, null, executor);
+		service.createThread("app", "user", Map.of("k", "v"), "thread").block();
+		service.createThread("app", "other", Map.of(), "thread").block();
+
+		service.deleteThread("app", "user", "thread").block();
+		executor.runAll();
+
+		assertEquals(0, service.indexedThreads("app", "user"));
+		assertEquals(1, service.indexedThreads("app", "other"));
+		assertTrue(service.getThreadState("app", "user", "thread").isEmpty());
+	}
+
+	@Test
+	@DisplayName("Test Recreated Thread Keeps Index And State")
+	public void testRecreatedThreadKeepsIndexAndState() {
+		QueuedExecutor executor = new QueuedExecutor();
+		ThreadServiceImpl service = new ThreadServiceImpl(10, TTL, 10, TTL, null, executor);
+		service.createThread("app", "user", Map.of("k", "old"), "thread").block();
+		service.deleteThread("app", "user", "thread").block();
+
+		// The removal notification of the deleted thread is delivered after it is created again
+		service.createThread("app", "user", Map.of("k", "new"), "thread").block();
+		executor.runAll();
+
+		assertEquals(1, service.indexedThreads("app", "user"));
+		assertEquals(1, service.listThreads("app", "user").block().threads().size());
+		assertEquals("new", service.getThreadState("app", "user", "thread").get("k"));
+	}
+
+	@Test
+	@DisplayName("Test Checkpoint Is Read With Scoped Thread Id")
+	public void testCheckpointIsReadWithScopedThreadId() throws Exception {
+		MemorySaver saver = new MemorySaver();
+		RunnableConfig config = RunnableConfig.builder()
+			.threadId(ThreadService.checkpointThreadId("app", "user", "thread"))
+			.build();
+		saver.put(config, Checkpoint.builder().id("checkpoint").state(Map.of("k", "checkpointed")).build());
+		ThreadServiceImpl service = new ThreadServiceImpl(10, TTL, 10, TTL, saver, Runnable::run);
+		service.createThread("app", "user", Map.of("k", "initial"), "thread").block();
+		service.createThread("app", "other", Map.of("k", "initial"), "thread").block();
+
+		assertEquals("checkpointed", service.getThreadState("app", "user", "thread").get("k"));
+		// A thread with the same ID of another user does not see the checkpoint
+		assertEquals("initial", service.getThreadState("app", "other", "thread").get("k"));
+	}
+
+	private static final class QueuedExecutor implements Executor {
+
+		private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+		@Override
+		public synchronized void execute(Runnable task) {
+			this.tasks.add(task);
+		}
+
+		void runAll() {
+			Runnable task;
+			while ((task = poll()) != null) {
+				task.run();
+			}
+		}
+
+		private synchronized Runnable poll() {
+			return this.tasks.poll();
+		}
+
+	}
+
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.a2a.registry.nacos.discovery;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Client side load balancer over the endpoints of a remote agent.
+ *
+ * <p>Each endpoint tracks an exponentially weighted moving average of its response time
+ * and the number of requests in progress. For streaming requests the response time is the
+ * time to the first event, as the length of a stream depends on the answer rather than on
+ * the endpoint. A request goes to the cheaper of two randomly
+ * chosen endpoints, where the cost is the average latency multiplied by the requests in
+ * progress plus one. An endpoint failing {@code failureThreshold} times in a row is
+ * ejected for {@code ejectionMillis}; once the time is up it gets traffic again, and is
+ * ejected again right away if the next request fails too.
+ */
+class AgentEndpointBalancer {
+
+	static final double DEFAULT_EWMA_ALPHA = 0.3;
+
+	static final int DEFAULT_FAILURE_THRESHOLD = 3;
+
+	static final long DEFAULT_EJECTION_MILLIS = 30_000L;
+
+	private final double ewmaAlpha;
+
+	private final int failureThreshold;
+
+	private final long ejectionMillis;
+
+	private volatile List<Endpoint> endpoints = List.of();
+
+	AgentEndpointBalancer() {
+		this(DEFAULT_EWMA_ALPHA, DEFAULT_FAILURE_THRESHOLD, DEFAULT_EJECTION_MILLIS);
+	}
+
+	AgentEndpointBalancer(double ewmaAlpha, int failureThreshold, long ejectionMillis) {
+		this.ewmaAlpha = ewmaAlpha;
+		this.failureThreshold = failureThreshold;
+		this.ejectionMillis = ejectionMillis;
+	}
+
+	/**
+	 * Replaces the endpoint list, keeping the statistics of endpoints that remain.
+	 */
+	void update(List<String> urls) {
+		Map<String, Endpoint> previous = new HashMap<>();
+		endpoints.forEach(endpoint -> previous.put(endpoint.url, endpoint));
+		List<Endpoint> updated = new ArrayList<>(urls.size());
+		for (String url : urls) {
+			Endpoint endpoint = previous.remove(url);
+			updated.add(endpoint != null ? endpoint : new Endpoint(url));
+		}
+		endpoints = List.copyOf(updated);
+	}
+
+	/**
+	 * Picks an endpoint without counting a request against it.
+	 */
+	String select() {
+		Endpoint endpoint = choose();
+		return endpoint != null ? endpoint.url : null;
+	}
+
+	/**
+	 * Picks an endpoint and counts a request in progress until {@link #release} is called.
+	 */
+	String acquire() {
+		Endpoint endpoint = choose();
+		if (endpoint == null) {
+			return null;
+		}
+		endpoint.inFlight.incrementAndGet();
+		return endpoint.url;
+	}
+
+	/**
+	 * Records the outcome of a request started with {@link #acquire}.
+	 */
+	void release(String url, long elapsedNanos, boolean success) {
+		Endpoint endpoint = find(url);
+		if (endpoint == null) {
+			// Removed from the registry while the request was running
+			return;
+		}
+		endpoint.inFlight.updateAndGet(count -> Math.max(0, count - 1));
+		synchronized (endpoint) {
+			if (success) {
+				endpoint.ewmaNanos = endpoint.ewmaNanos == 0 ? elapsedNanos
+						: ewmaAlpha * elapsedNanos + (1 - ewmaAlpha) * endpoint.ewmaNanos;
+				endpoint.consecutiveFailures = 0;
+			}
+			else if (++endpoint.consecutiveFailures >= failureThreshold) {
+				endpoint.ejectedUntil = System.currentTimeMillis() + ejectionMillis;
+			}
+		}
+	}
+
+	private Endpoint choose() {
+		List<Endpoint> all = endpoints;
+		if (all.isEmpty()) {
+			return null;
+		}
+		if (all.size() == 1) {
+			return all.get(0);
+		}
+		long now = System.currentTimeMillis();
+		List<Endpoint> candidates = all.stream().filter(endpoint -> endpoint.ejectedUntil <= now).toList();
+		if (candidates.isEmpty()) {
+			// Everything is ejected, better to try one than to fail without trying
+			candidates = all;
+		}
+		if (candidates.size() == 1) {
+			return candidates.get(0);
+		}
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int first = random.nextInt(candidates.size());
+		int second = random.nextInt(candidates.size() - 1);
+		if (second >= first) {
+			second++;
+		}
+		double defaultLatency = defaultLatency(candidates);
+		Endpoint a = candidates.get(first);
+		Endpoint b = candidates.get(second);
+		return a.cost(defaultLatency) <= b.cost(defaultLatency) ? a : b;
+	}
+
+	/**
+	 * Latency assumed for endpoints without measurements yet: the average of the measured
+	 * ones, so new endpoints get their share of traffic without being flooded.
+	 */
+	private static double defaultLatency(List<Endpoint> candidates) {
+		double sum = 0;
+		int count = 0;
+		for (Endpoint endpoint : candidates) {
+			if (endpoint.ewmaNanos > 0) {
+				sum += endpoint.ewmaNanos;
+				count++;
+			}
+		}
+		return count > 0 ? sum / count : 1;
+	}
+
+	private Endpoint find(String url) {
+		for (Endpoint endpoint : endpoints) {
+			if (endpoint.url.equals(url)) {
+				return endpoint;
+			}
+		}
+		return null;
+	}
+
+	private static final class Endpoint {
+
+		private final String url;
+
+		private final AtomicInteger inFlight = new AtomicInteger();
+
+		private volatile double ewmaNanos;
+
+		private int consecutiveFailures;
+
+		private volatile long ejectedUntil;
+
+		Endpoint(String url) {
+			this.url = url;
+		}
+
+		double cost(double defaultLatency) {
+			double latency = ewmaNanos > 0 ? ewmaNanos : defaultLatency;
+			return latency * (inFlight.get() + 1);
+		}
+
+	}
+
+}
@@ -19,8 +19,7 @@ package com.alibaba.cloud.ai.a2a.registry.nacos.discovery;
 import com.alibaba.cloud.ai.graph.agent.a2a.AgentCardWrapper;
 
 import java.util.List;
-import java.util.concurrent.ThreadLocalRandom;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Objects;
 
 import com.alibaba.nacos.common.utils.CollectionUtils;
 import io.a2a.spec.AgentCard;
@@ -29,44 +28,53 @@ import io.a2a.spec.AgentInterface;
 /**
  * Spring AI Alibaba Agent Card Wrapper for Nacos.
  *
+ * <p>The {@code additionalInterfaces} of the preferred transport are the instances of the
+ * remote agent. Requests are balanced between them by {@link AgentEndpointBalancer}, and the
+ * instance list is refreshed whenever Nacos pushes a new agent card.
+ *
  * @author xiweng.yy
  */
 public class NacosAgentCardWrapper extends AgentCardWrapper {
 
-	private final AtomicInteger pollingIndex;
+	private final AgentEndpointBalancer balancer = new AgentEndpointBalancer();
 
 	public NacosAgentCardWrapper(AgentCard agentCard) {
 		super(agentCard);
-		this.pollingIndex = new AtomicInteger(0);
-		shuffleStartIndex();
+		refreshEndpoints(agentCard);
 	}
 
-	private void shuffleStartIndex() {
-		if (CollectionUtils.isNotEmpty(getAgentCard().additionalInterfaces())) {
-			int shuffleIndex = ThreadLocalRandom.current().nextInt(getAgentCard().additionalInterfaces().size());
-			pollingIndex.set(shuffleIndex);
+	private void refreshEndpoints(AgentCard agentCard) {
+		List<String> urls = List.of();
+		if (CollectionUtils.isNotEmpty(agentCard.additionalInterfaces())) {
+			urls = agentCard.additionalInterfaces().stream()
+				.filter(agentInterface -> Objects.equals(agentCard.preferredTransport(), agentInterface.transport()))
+				.map(AgentInterface::url)
+				.distinct()
+				.toList();
 		}
+		balancer.update(urls);
 	}
 
 	@Override
 	public String url() {
-		if (CollectionUtils.isEmpty(getAgentCard().additionalInterfaces())) {
-			return super.url();
-		}
-		List<AgentInterface> agentInterfaces = getAgentCard().additionalInterfaces().stream().filter(agentInterface -> getAgentCard().preferredTransport().equals(agentInterface.transport())).toList();
-		if (CollectionUtils.isEmpty(agentInterfaces)) {
-			return super.url();
-		}
-		if (1 == agentInterfaces.size()) {
-			return agentInterfaces.get(0).url();
-		}
-		int index = pollingIndex.incrementAndGet() % agentInterfaces.size();
-		return agentInterfaces.get(index).url();
+		String url = balancer.select();
+		return url != null ? url : super.url();
+	}
+
+	@Override
+	public String acquireUrl() {
+		String url = balancer.acquire();
+		return url != null ? url : super.url();
+	}
+
+	@Override
+	public void releaseUrl(String url, long elapsedNanos, boolean success) {
+		balancer.release(url, elapsedNanos, success);
 	}
 
 	@Override
 	public void setAgentCard(AgentCard agentCard) {
 		super.setAgentCard(agentCard);
-		shuffleStartIndex();
+		refreshEndpoints(agentCard);
 	}
 }
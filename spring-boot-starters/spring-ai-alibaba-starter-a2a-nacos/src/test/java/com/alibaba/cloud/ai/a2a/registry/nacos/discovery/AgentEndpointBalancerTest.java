@@ -0,0 +1,153 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.a2a.registry.nacos.discovery;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class AgentEndpointBalancerTest {
+
+	private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	@Test
+	@DisplayName("Test Faster Endpoint Wins The Choice Of Two")
+	public void testFasterEndpointWins() {
+		AgentEndpointBalancer balancer = new AgentEndpointBalancer();
+		balancer.update(List.of("a", "b"));
+		measure(balancer, "a", 10 * MILLIS);
+		measure(balancer, "b", 100 * MILLIS);
+
+		// With two endpoints both are always compared, so the cheaper one is always picked
+		for (int i = 0; i < 20; i++) {
+			assertEquals("a", balancer.select());
+		}
+	}
+
+	@Test
+	@DisplayName("Test Requests In Progress Raise The Cost")
+	public void testRequestsInProgressRaiseTheCost() {
+		AgentEndpointBalancer balancer = new AgentEndpointBalancer();
+		balancer.update(List.of("a", "b"));
+		measure(balancer, "a", 10 * MILLIS);
+		measure(balancer, "b", 35 * MILLIS);
+
+		// a costs 10, 20, 30, 40 with 0..3 requests in progress, b costs 35 while idle
+		assertEquals("a", balancer.acquire());
+		assertEquals("a", balancer.acquire());
+		assertEquals("a", balancer.acquire());
+		assertEquals("b", balancer.acquire());
+
+		balancer.release("a", 10 * MILLIS, true);
+		balancer.release("a", 10 * MILLIS, true);
+		assertEquals("a", balancer.select());
+	}
+
+	@Test
+	@DisplayName("Test Latency Is A Moving Average")
+	public void testLatencyIsAMovingAverage() {
+		AgentEndpointBalancer balancer = new AgentEndpointBalancer(0.3, 3, 30_000);
+		balancer.update(List.of("a", "b"));
+		measure(balancer, "a", 100 * MILLIS);
+		measure(balancer, "a", 10 * MILLIS);
+
+		// 0.3 * 10 + 0.7 * 100 = 73 ms, a single fast response does not make a the fastest
+		measure(balancer, "b", 80 * MILLIS);
+		assertEquals("a", balancer.select());
+		measure(balancer, "b", 60 * MILLIS);
+		measure(balancer, "b", 60 * MILLIS);
+		assertEquals("b", balancer.select());
+	}
+
+	@Test
+	@DisplayName("Test Failing Endpoint Is Ejected And Retried")
+	public void testFailingEndpointIsEjectedAndRetried() throws Exception {
+		AgentEndpointBalancer balancer = new AgentEndpointBalancer(0.3, 3, 100);
+		balancer.update(List.of("a", "b"));
+		measure(balancer, "a", 10 * MILLIS);
+		measure(balancer, "b", 100 * MILLIS);
+
+		fail(balancer, "a");
+		fail(balancer, "a");
+		assertEquals("a", balancer.select());
+		fail(balancer, "a");
+		assertEquals("b", balancer.select());
+
+		// Once the ejection is over a gets traffic again, and a single failure ejects it again
+		TimeUnit.MILLISECONDS.sleep(150);
+		assertEquals("a", balancer.select());
+		fail(balancer, "a");
+		assertEquals("b", balancer.select());
+
+		// A success resets the failure count
+		TimeUnit.MILLISECONDS.sleep(150);
+		measure(balancer, "a", 10 * MILLIS);
+		fail(balancer, "a");
+		assertEquals("a", balancer.select());
+	}
+
+	@Test
+	@DisplayName("Test All Ejected Endpoints Are Still Tried")
+	public void testAllEjectedEndpointsAreStillTried() {
+		AgentEndpointBalancer balancer = new AgentEndpointBalancer(0.3, 1, 30_000);
+		balancer.update(List.of("a", "b"));
+		fail(balancer, "a");
+		fail(balancer, "b");
+
+		// Neither has a measured latency, so the choice between them is random
+		Set<String> selected = new HashSet<>();
+		for (int i = 0; i < 100; i++) {
+			selected.add(balancer.select());
+		}
+		assertEquals(Set.of("a", "b"), selected);
+	}
+
+	@Test
+	@DisplayName("Test Update Keeps Statistics Of Remaining Endpoints")
+	public void testUpdateKeepsStatistics() {
+		AgentEndpointBalancer balancer = new AgentEndpointBalancer();
+		assertNull(balancer.select());
+		balancer.update(List.of("a", "b"));
+		measure(balancer, "a", 100 * MILLIS);
+		measure(balancer, "b", 10 * MILLIS);
+
+		balancer.update(List.of("b", "c"));
+		// Requests to removed endpoints may still finish, they are ignored
+		balancer.release("a", MILLIS, true);
+		measure(balancer, "c", 50 * MILLIS);
+
+		for (int i = 0; i < 20; i++) {
+			assertEquals("b", balancer.select());
+		}
+	}
+
+	private static void measure(AgentEndpointBalancer balancer, String url, long nanos) {
+		balancer.release(url, nanos, true);
+	}
+
+	private static void fail(AgentEndpointBalancer balancer, String url) {
+		balancer.release(url, MILLIS, false);
+	}
+
+}
@@ -30,23 +30,64 @@ import org.springframework.ai.util.json.JsonParser;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 /**
+ * Extracts text from local or remote files.
+ * <p>
+ * Files are fetched and parsed in parallel on a bounded executor, parser instances are
+ * shared across calls, and the text of every parsed page or sheet is concatenated until
+ * the optional {@code maxCharacters} cutoff is reached. The cutoff bounds the returned
+ * text, not the parsing: plain text files are only read up to it, but the other formats
+ * are parsed completely by their parser before the text is cut.
+ * <p>
+ * Parsed text is cached by content hash, so uploading the same file again skips parsing.
+ * The hash is computed by streaming the file; remote files are first copied to a
+ * temporary file for that. The cache is bounded by the total number of cached
+ * characters, and texts too large to fit a fraction of it are not cached.
+ *
  * @author HeYQ
  * @since 2025-05-02 17:03
  */
 public class DocumentExtractorNode implements NodeAction {
 
+	private static final long DEFAULT_CACHE_CHARACTERS = 16L * 1024 * 1024;
+
+	private static final ExecutorService DEFAULT_EXECUTOR = createDefaultExecutor();
+
+	private static final ContentCache CONTENT_CACHE = new ContentCache(DEFAULT_CACHE_CHARACTERS);
+
+	private static final Map<String, Function<InputStream, List<Document>>> EXTRACTORS = createExtractors();
+
 	private final String paramsKey;
 
 	private final String outputKey;
@@ -55,61 +96,145 @@ public class DocumentExtractorNode implements NodeAction {
 
 	private final boolean inputIsArray;
 
-	private final Map<String, Function<InputStream, List<Document>>> extractors = new HashMap<>();
+	private final Executor executor;
+
+	private final int maxCharacters;
+
+	private final boolean cacheEnabled;
 
 	public DocumentExtractorNode(String paramsKey, String outputKey, List<String> fileList, boolean inputIsArray) {
+		this(paramsKey, outputKey, fileList, inputIsArray, DEFAULT_EXECUTOR, -1, true);
+	}
+
+	public DocumentExtractorNode(String paramsKey, String outputKey, List<String> fileList, boolean inputIsArray,
+			Executor executor, int maxCharacters, boolean cacheEnabled) {
 		this.paramsKey = paramsKey;
 		this.outputKey = outputKey;
 		this.fileList = fileList;
 		this.inputIsArray = inputIsArray;
-		extractors.put("txt", inputStream -> new TextDocumentParser().parse(inputStream));
-		extractors.put("markdown", inputStream -> new MarkdownDocumentParser().parse(inputStream));
-		extractors.put("md", inputStream -> new MarkdownDocumentParser().parse(inputStream));
-		extractors.put("html", inputStream -> new BsHtmlDocumentParser().parse(inputStream));
-		extractors.put("htm", inputStream -> new BsHtmlDocumentParser().parse(inputStream));
-		extractors.put("xml", inputStream -> new BsHtmlDocumentParser().parse(inputStream));
-		extractors.put("json", inputStream -> new JsonDocumentParser().parse(inputStream));
-		extractors.put("yaml", inputStream -> new YamlDocumentParser().parse(inputStream));
-		extractors.put("yml", inputStream -> new YamlDocumentParser().parse(inputStream));
-		extractors.put("pdf", inputStream -> new TikaDocumentParser().parse(inputStream));
-		extractors.put("doc", inputStream -> new TikaDocumentParser().parse(inputStream));
-		extractors.put("docx", inputStream -> new TikaDocumentParser().parse(inputStream));
-		extractors.put("csv", inputStream -> new TikaDocumentParser().parse(inputStream));
-		extractors.put("xls", inputStream -> new TikaDocumentParser().parse(inputStream));
-		extractors.put("xlsx", inputStream -> new TikaDocumentParser().parse(inputStream));
-		extractors.put("ppt", inputStream -> new TikaDocumentParser().parse(inputStream));
-		extractors.put("pptx", inputStream -> new TikaDocumentParser().parse(inputStream));
+		this.executor = executor != null ? executor : DEFAULT_EXECUTOR;
+		this.maxCharacters = maxCharacters;
+		this.cacheEnabled = cacheEnabled;
+	}
+
+	private static ExecutorService createDefaultExecutor() {
+		int threads = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), new ExtractorThreadFactory());
+		// The shared pool is never shut down, so its idle threads exit instead
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	private static Map<String, Function<InputStream, List<Document>>> createExtractors() {
+		// Parsers are stateless between calls, so a single instance of each is shared
+		TextDocumentParser textParser = new TextDocumentParser();
+		MarkdownDocumentParser markdownParser = new MarkdownDocumentParser();
+		BsHtmlDocumentParser htmlParser = new BsHtmlDocumentParser();
+		JsonDocumentParser jsonParser = new JsonDocumentParser();
+		YamlDocumentParser yamlParser = new YamlDocumentParser();
+		TikaDocumentParser tikaParser = new TikaDocumentParser();
+
+		Map<String, Function<InputStream, List<Document>>> extractors = new HashMap<>();
+		extractors.put("txt", textParser::parse);
+		extractors.put("markdown", markdownParser::parse);
+		extractors.put("md", markdownParser::parse);
+		extractors.put("html", htmlParser::parse);
+		extractors.put("htm", htmlParser::parse);
+		extractors.put("xml", htmlParser::parse);
+		extractors.put("json", jsonParser::parse);
+		extractors.put("yaml", yamlParser::parse);
+		extractors.put("yml", yamlParser::parse);
+		extractors.put("pdf", tikaParser::parse);
+		extractors.put("doc", tikaParser::parse);
+		extractors.put("docx", tikaParser::parse);
+		extractors.put("csv", tikaParser::parse);
+		extractors.put("xls", tikaParser::parse);
+		extractors.put("xlsx", tikaParser::parse);
+		extractors.put("ppt", tikaParser::parse);
+		extractors.put("pptx", tikaParser::parse);
+		return Map.copyOf(extractors);
 	}
 
 	/**
 	 * Supports obtaining input stream from local or network sources
 	 */
 	private InputStream getInputStream(String filePath) throws IOException {
-		URI uri;
-		if (filePath.startsWith("http://") || filePath.startsWith("https://") || filePath.startsWith("ftp://")) {
-			uri = URI.create(filePath);
+		Path localPath = getLocalPath(filePath);
+		if (localPath != null) {
+			return new BufferedInputStream(Files.newInputStream(localPath));
 		}
-		else {
-			uri = Paths.get(filePath).toUri();
+		return new BufferedInputStream(URI.create(filePath).toURL().openStream());
+	}
+
+	/**
+	 * Returns the path of a local file, or {@code null} for a remote one.
+	 */
+	private static Path getLocalPath(String filePath) {
+		if (filePath.startsWith("http://") || filePath.startsWith("https://") || filePath.startsWith("ftp://")) {
+			return null;
 		}
+		return Paths.get(filePath);
+	}
 
-		if (uri.getScheme().equals("file")) {
-			return new BufferedInputStream(Files.newInputStream(Paths.get(uri)));
+	private List<String> getDocument(List<String> fileList) {
+		List<CompletableFuture<String>> futures = new ArrayList<>(fileList.size());
+		for (String file : fileList) {
+			String trimmed = file.trim();
+			futures.add(CompletableFuture.supplyAsync(() -> extractFile(trimmed), executor));
 		}
-		else {
-			return new BufferedInputStream(uri.toURL().openStream());
+		try {
+			return futures.stream().map(CompletableFuture::join).toList();
+		}
+		catch (CompletionException e) {
+			futures.forEach(future -> future.cancel(true));
+			throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
 		}
 	}
 
-	private List<String> getDocument(List<String> fileList) {
-		return fileList.stream().map(String::trim).map(file -> {
-			try (InputStream inputStream = this.getInputStream(file.trim())) {
-				return this.extractTextByFileExtension(inputStream, getFileExtension(file));
+	private String extractFile(String file) {
+		Path spooled = null;
+		try {
+			String extension = getFileExtension(file);
+			if (!this.cacheEnabled) {
+				try (InputStream inputStream = this.getInputStream(file)) {
+					return this.extractTextByFileExtension(inputStream, extension);
+				}
+			}
+			Path source = getLocalPath(file);
+			if (source == null) {
+				// Hashing and parsing both read the content, keep it on disk rather than in memory
+				spooled = Files.createTempFile("document-extractor-", "." + extension);
+				try (InputStream inputStream = this.getInputStream(file)) {
+					Files.copy(inputStream, spooled, StandardCopyOption.REPLACE_EXISTING);
+				}
+				source = spooled;
+			}
+			String cacheKey = extension + ":" + this.maxCharacters + ":" + sha256(source);
+			String cached = CONTENT_CACHE.get(cacheKey);
+			if (cached != null) {
+				return cached;
+			}
+			String text;
+			try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(source))) {
+				text = this.extractTextByFileExtension(inputStream, extension);
 			}
-			catch (Exception e) {
-				throw new RuntimeException("Failed to parse test file: " + file, e);
+			CONTENT_CACHE.put(cacheKey, text);
+			return text;
+		}
+		catch (Exception e) {
+			throw new RuntimeException("Failed to parse test file: " + file, e);
+		}
+		finally {
+			if (spooled != null) {
+				try {
+					Files.deleteIfExists(spooled);
+				}
+				catch (IOException ignore) {
+					// Left to the temporary directory cleanup
+				}
 			}
-		}).toList();
+		}
 	}
 
 	@Override
@@ -157,12 +282,52 @@ public class DocumentExtractorNode implements NodeAction {
 
 	private String extractTextByFileExtension(InputStream fileContent, String fileExtension) {
 
-		Function<InputStream, List<Document>> extractor = this.extractors.get(fileExtension);
+		if ("txt".equals(fileExtension) && this.maxCharacters > 0) {
+			return readText(fileContent, this.maxCharacters);
+		}
+
+		Function<InputStream, List<Document>> extractor = EXTRACTORS.get(fileExtension);
 		if (extractor == null) {
 			throw new RuntimeException("Unsupported Extension Type: " + fileExtension);
 		}
 
-		return extractor.apply(fileContent).get(0).getText();
+		// Concatenate page / sheet level documents, stopping at the character cutoff
+		StringBuilder text = new StringBuilder();
+		for (Document document : extractor.apply(fileContent)) {
+			String pageText = document.getText();
+			if (pageText == null || pageText.isEmpty()) {
+				continue;
+			}
+			if (!text.isEmpty()) {
+				text.append('\n');
+			}
+			text.append(pageText);
+			if (this.maxCharacters > 0 && text.length() >= this.maxCharacters) {
+				text.setLength(this.maxCharacters);
+				break;
+			}
+		}
+		return text.toString();
+	}
+
+	/**
+	 * Reads plain text up to the character cutoff, without reading the rest of the file.
+	 */
+	private static String readText(InputStream fileContent, int maxCharacters) {
+		Reader reader = new InputStreamReader(fileContent, StandardCharsets.UTF_8);
+		char[] buffer = new char[Math.min(maxCharacters, 8192)];
+		StringBuilder text = new StringBuilder();
+		try {
+			int read;
+			while (text.length() < maxCharacters
+					&& (read = reader.read(buffer, 0, Math.min(buffer.length, maxCharacters - text.length()))) != -1) {
+				text.append(buffer, 0, read);
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return text.toString();
 	}
 
 	private String getFileExtension(String filePath) {
@@ -173,6 +338,24 @@ public class DocumentExtractorNode implements NodeAction {
 		return (dotIndex == -1) ? "" : fileName.substring(dotIndex + 1);
 	}
 
+	private static String sha256(Path file) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+		try (InputStream inputStream = Files.newInputStream(file)) {
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = inputStream.read(buffer)) != -1) {
+				digest.update(buffer, 0, read);
+			}
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
 	public static Builder builder() {
 		return new Builder();
 	}
@@ -187,6 +370,12 @@ public class DocumentExtractorNode implements NodeAction {
 
 		private boolean inputIsArray = false;
 
+		private Executor executor;
+
+		private int maxCharacters = -1;
+
+		private boolean cacheEnabled = true;
+
 		public Builder paramsKey(String paramsKey) {
 			this.paramsKey = paramsKey;
 			return this;
@@ -207,8 +396,97 @@ public class DocumentExtractorNode implements NodeAction {
 			return this;
 		}
 
+		/**
+		 * Executor used to fetch and parse files in parallel. Defaults to a shared
+		 * bounded pool of daemon threads that exit when idle.
+		 */
+		public Builder executor(Executor executor) {
+			this.executor = executor;
+			return this;
+		}
+
+		/**
+		 * Maximum number of characters extracted per file, or a non-positive value for
+		 * no limit. Plain text files are only read up to it; other formats are parsed
+		 * completely before the text is cut.
+		 */
+		public Builder maxCharacters(int maxCharacters) {
+			this.maxCharacters = maxCharacters;
+			return this;
+		}
+
+		/**
+		 * Whether parsed text is cached by file content hash. Enabled by default.
+		 */
+		public Builder cacheEnabled(boolean cacheEnabled) {
+			this.cacheEnabled = cacheEnabled;
+			return this;
+		}
+
 		public DocumentExtractorNode build() {
-			return new DocumentExtractorNode(paramsKey, outputKey, fileList, inputIsArray);
+			return new DocumentExtractorNode(paramsKey, outputKey, fileList, inputIsArray, executor, maxCharacters,
+					cacheEnabled);
+		}
+
+	}
+
+	/**
+	 * Least recently used cache of extracted texts, weighted by their length in
+	 * characters.
+	 */
+	static final class ContentCache {
+
+		private final Map<String, String> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+		private final long maxCharacters;
+
+		private long characters;
+
+		ContentCache(long maxCharacters) {
+			this.maxCharacters = maxCharacters;
+		}
+
+		synchronized String get(String key) {
+			return entries.get(key);
+		}
+
+		synchronized void put(String key, String text) {
+			// A single text may take at most a quarter of the cache, larger ones would
+			// evict most other entries for a file that is rarely uploaded twice
+			if (text.length() > maxCharacters / 4) {
+				return;
+			}
+			String previous = entries.put(key, text);
+			if (previous != null) {
+				characters -= previous.length();
+			}
+			characters += text.length();
+			Iterator<Map.Entry<String, String>> eldest = entries.entrySet().iterator();
+			while (characters > maxCharacters && eldest.hasNext()) {
+				characters -= eldest.next().getValue().length();
+				eldest.remove();
+			}
+		}
+
+		synchronized int size() {
+			return entries.size();
+		}
+
+		synchronized long characters() {
+			return characters;
+		}
+
+	}
+
+	private static final class ExtractorThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger counter = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "document-extractor-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
 		}
 
 	}
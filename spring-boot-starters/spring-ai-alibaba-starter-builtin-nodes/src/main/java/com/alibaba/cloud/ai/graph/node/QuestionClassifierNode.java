@@ -17,27 +17,50 @@ package com.alibaba.cloud.ai.graph.node;
 
 import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.action.NodeAction;
+import com.alibaba.cloud.ai.graph.utils.StreamingJsonFieldReader;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.model.MessageAggregator;
 import org.springframework.ai.chat.prompt.PromptTemplate;
 import org.springframework.ai.chat.prompt.SystemPromptTemplate;
 import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+/**
+ * Classifies the input text into one of the given categories.
+ *
+ * <p>The model response is streamed and the category is resolved as soon as the
+ * {@code category_name} field has been received, cancelling the rest of the response.
+ * {@link #apply(OverAllState)} blocks the calling thread until then, as any
+ * {@link NodeAction} does. {@link #applyAsync(OverAllState)} does not block and can be
+ * registered directly as an {@link com.alibaba.cloud.ai.graph.action.AsyncNodeAction},
+ * e.g. {@code graph.addNode("classifier", node::applyAsync)}. When the state has
+ * {@code messages}, the whole response is awaited and added to them as one
+ * {@link AssistantMessage} aggregated from the streamed chunks, metadata included.
+ */
 public class QuestionClassifierNode implements NodeAction {
 
+	private static final String CATEGORY_NAME_FIELD = "category_name";
+
 	private static final String CLASSIFIER_PROMPT_TEMPLATE = """
 				### Job Description',
 				You are a text classification engine that analyzes text data and assigns categories based on user input or automatically determined categories.
@@ -57,8 +80,8 @@ public class QuestionClassifierNode implements NodeAction {
 
 	private static final String QUESTION_CLASSIFIER_ASSISTANT_PROMPT_1 = """
 				```json
-					{"keywords": ["recently", "great experience", "company", "service", "prompt", "staff", "friendly"]
-					"category_name": "Customer Service"}
+					{"category_name": "Customer Service",
+					"keywords": ["recently", "great experience", "company", "service", "prompt", "staff", "friendly"]}
 				```
 			""";
 
@@ -70,8 +93,8 @@ public class QuestionClassifierNode implements NodeAction {
 
 	private static final String QUESTION_CLASSIFIER_ASSISTANT_PROMPT_2 = """
 				```json
-					{"keywords": ["bad service", "slow", "food", "tip", "terrible", "waitresses"],
-					"category_name": "Experience"}
+					{"category_name": "Experience",
+					"keywords": ["bad service", "slow", "food", "tip", "terrible", "waitresses"]}
 				```
 			""";
 
@@ -123,6 +146,25 @@ public class QuestionClassifierNode implements NodeAction {
 
 	@Override
 	public Map<String, Object> apply(OverAllState state) throws Exception {
+		try {
+			return applyAsync(state).join();
+		}
+		catch (CompletionException e) {
+			if (e.getCause() instanceof Exception cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Non-blocking variant of {@link #apply(OverAllState)}.
+	 */
+	public CompletableFuture<Map<String, Object>> applyAsync(OverAllState state) {
+		return Mono.defer(() -> classify(state)).toFuture();
+	}
+
+	private Mono<Map<String, Object>> classify(OverAllState state) {
 		if (StringUtils.hasLength(inputTextKey)) {
 			this.inputText = (String) state.value(inputTextKey).orElse(this.inputText);
 		}
@@ -144,36 +186,86 @@ public class QuestionClassifierNode implements NodeAction {
 
 		List<String> categoriesList = renderedCategories.values().stream().toList();
 
-		ChatResponse response = chatClient.prompt()
+		Flux<ChatResponse> responses = chatClient.prompt()
 			.system(systemPromptTemplate.render(Map.of("inputText", inputText, "categories", categoriesList,
 					"classificationInstructions", renderTemplates(state, classificationInstructions))))
 			.user(inputText)
 			.messages(messages)
-			.call()
+			.stream()
 			.chatResponse();
 
-		Map<String, Object> updatedState = new HashMap<>();
-		String output = Optional
-			.ofNullable(Optional.ofNullable(response)
-				.orElseThrow(() -> new RuntimeException("chat response is null"))
-				.getResult()
-				.getOutput()
-				.getText())
-			.orElseThrow(() -> new RuntimeException("chat response text is null"));
-		String result = renderedCategories.entrySet()
+		if (state.value("messages").isPresent()) {
+			// The whole response goes into the messages, so there is nothing to gain by resolving early
+			AtomicReference<ChatResponse> aggregated = new AtomicReference<>();
+			return new MessageAggregator().aggregate(responses, aggregated::set).then(Mono.fromCallable(() -> {
+				AssistantMessage output = Optional.ofNullable(aggregated.get())
+					.map(ChatResponse::getResult)
+					.map(Generation::getOutput)
+					.orElseThrow(() -> new RuntimeException("chat response is null"));
+				Map<String, Object> updatedState = new HashMap<>();
+				updatedState.put(outputKey,
+						findCategory(renderedCategories, Objects.requireNonNullElse(output.getText(), "")));
+				updatedState.put("messages", output);
+				return updatedState;
+			}));
+		}
+
+		StreamingJsonFieldReader reader = new StreamingJsonFieldReader();
+		StringBuilder output = new StringBuilder();
+		return responses.map(QuestionClassifierNode::textOf).concatMap(chunk -> {
+			output.append(chunk);
+			String categoryName = reader.append(chunk).get(CATEGORY_NAME_FIELD);
+			return Mono.justOrEmpty(categoryName != null ? match(renderedCategories, categoryName) : null);
+		})
+			// Cancels the rest of the response
+			.next()
+			.switchIfEmpty(Mono.fromCallable(() -> findCategory(renderedCategories, output.toString())))
+			.map(result -> {
+				Map<String, Object> updatedState = new HashMap<>();
+				updatedState.put(outputKey, result);
+				return updatedState;
+			});
+	}
+
+	private static String textOf(ChatResponse response) {
+		if (response.getResult() == null || response.getResult().getOutput().getText() == null) {
+			return "";
+		}
+		return response.getResult().getOutput().getText();
+	}
+
+	/**
+	 * Returns the id of the category named in the category_name field, or {@code null} if
+	 * the name matches none of the categories.
+	 */
+	private static String match(Map<String, String> renderedCategories, String categoryName) {
+		return renderedCategories.entrySet()
+			.stream()
+			.filter(entry -> categoryName.equals(entry.getValue()))
+			.map(Map.Entry::getKey)
+			.findFirst()
+			.orElseGet(() -> renderedCategories.entrySet()
+				.stream()
+				.filter(entry -> categoryName.contains(entry.getValue()))
+				.map(Map.Entry::getKey)
+				.findFirst()
+				.orElse(null));
+	}
+
+	/**
+	 * Returns the id of the first category found anywhere in the complete response.
+	 */
+	private static String findCategory(Map<String, String> renderedCategories, String output) {
+		if (output.isEmpty()) {
+			throw new RuntimeException("chat response text is null");
+		}
+		return renderedCategories.entrySet()
 			.stream()
 			.filter(entry -> output.contains(entry.getValue()))
 			.map(Map.Entry::getKey)
 			.findFirst()
 			.orElseThrow(() -> new RuntimeException(
 					"chatClient returns [" + output + "], but it does not belong to the given category."));
-
-		updatedState.put(outputKey, result);
-		if (state.value("messages").isPresent()) {
-			updatedState.put("messages", response.getResult().getOutput());
-		}
-
-		return updatedState;
 	}
 
 	public static Builder builder() {
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.node;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DocumentExtractorNodeTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	@DisplayName("Test Parallel Extraction Keeps Input Order")
+	public void testParallelExtractionKeepsOrder() throws Exception {
+		List<String> files = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			Path file = tempDir.resolve("file" + i + ".txt");
+			Files.writeString(file, "content-" + i);
+			files.add(file.toString());
+		}
+		OverAllState state = new OverAllState();
+		state.input(Map.of("files", files));
+
+		DocumentExtractorNode node = DocumentExtractorNode.builder()
+			.paramsKey("files")
+			.outputKey("text")
+			.inputIsArray(true)
+			.build();
+		List<String> texts = (List<String>) node.apply(state).get("text");
+
+		assertEquals(20, texts.size());
+		for (int i = 0; i < 20; i++) {
+			assertTrue(texts.get(i).contains("content-" + i));
+		}
+	}
+
+	@Test
+	@DisplayName("Test Max Characters Cutoff")
+	public void testMaxCharacters() throws Exception {
+		Path file = tempDir.resolve("long.txt");
+		Files.writeString(file, "a".repeat(1000));
+		OverAllState state = new OverAllState();
+		state.input(Map.of("file", file.toString()));
+
+		DocumentExtractorNode node = DocumentExtractorNode.builder()
+			.paramsKey("file")
+			.outputKey("text")
+			.maxCharacters(100)
+			.build();
+
+		assertEquals(100, ((String) node.apply(state).get("text")).length());
+	}
+
+	@Test
+	@DisplayName("Test Plain Text Is Read Up To The Cutoff")
+	public void testPlainTextIsReadUpToTheCutoff() throws Exception {
+		Path first = tempDir.resolve("first.txt");
+		Path second = tempDir.resolve("second.txt");
+		Files.writeString(first, "中文".repeat(5000));
+		Files.writeString(second, "中文".repeat(5000));
+		OverAllState state = new OverAllState();
+		state.input(Map.of("files", List.of(first.toString(), second.toString())));
+
+		DocumentExtractorNode node = DocumentExtractorNode.builder()
+			.paramsKey("files")
+			.outputKey("text")
+			.inputIsArray(true)
+			.maxCharacters(7)
+			.build();
+
+		// Multi-byte characters are cut on character boundaries, and the same content
+		// under another path gives the same text
+		assertEquals(List.of("中文中文中文中", "中文中文中文中"), node.apply(state).get("text"));
+	}
+
+	@Test
+	@DisplayName("Test Content Cache Is Bounded By Characters")
+	public void testContentCacheIsBoundedByCharacters() {
+		DocumentExtractorNode.ContentCache cache = new DocumentExtractorNode.ContentCache(100);
+		cache.put("a", "a".repeat(20));
+		cache.put("b", "b".repeat(20));
+		cache.get("a");
+		cache.put("c", "c".repeat(25));
+		cache.put("d", "d".repeat(25));
+		cache.put("e", "e".repeat(25));
+
+		// The least recently used entry is evicted once the character budget is exceeded
+		assertEquals(95, cache.characters());
+		assertNull(cache.get("b"));
+		assertEquals("a".repeat(20), cache.get("a"));
+
+		// Texts larger than a quarter of the budget are not cached at all
+		cache.put("f", "f".repeat(26));
+		assertNull(cache.get("f"));
+		assertEquals(4, cache.size());
+	}
+
+}
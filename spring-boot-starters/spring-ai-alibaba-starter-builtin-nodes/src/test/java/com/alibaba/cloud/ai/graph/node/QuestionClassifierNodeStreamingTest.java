@@ -0,0 +1,138 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.graph.node;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests how {@link QuestionClassifierNode} consumes the streamed response of a mocked
+ * model.
+ */
+public class QuestionClassifierNodeStreamingTest {
+
+	/**
+	 * Streams the given messages, optionally never completing after the last one, and
+	 * records whether the stream was cancelled.
+	 */
+	static class StreamingChatModel implements ChatModel {
+
+		private final List<AssistantMessage> chunks;
+
+		private final boolean stalls;
+
+		private final AtomicBoolean cancelled = new AtomicBoolean();
+
+		StreamingChatModel(List<AssistantMessage> chunks, boolean stalls) {
+			this.chunks = chunks;
+			this.stalls = stalls;
+		}
+
+		@Override
+		public ChatResponse call(Prompt prompt) {
+			throw new UnsupportedOperationException("the response is streamed");
+		}
+
+		@Override
+		public Flux<ChatResponse> stream(Prompt prompt) {
+			return Flux.fromIterable(chunks)
+				.map(chunk -> new ChatResponse(List.of(new Generation(chunk))))
+				.concatWith(stalls ? Flux.never() : Flux.empty())
+				.doOnCancel(() -> cancelled.set(true));
+		}
+
+	}
+
+	private static List<AssistantMessage> chunks(String... texts) {
+		return Arrays.stream(texts).map(AssistantMessage::new).toList();
+	}
+
+	private static QuestionClassifierNode node(ChatModel model) {
+		return QuestionClassifierNode.builder()
+			.chatClient(ChatClient.builder(model).build())
+			.inputTextKey("input")
+			.categories(Map.of("1", "Positive", "2", "Negative"))
+			.classificationInstructions(List.of())
+			.outputKey("output")
+			.build();
+	}
+
+	private static OverAllState state(Map<String, Object> values) {
+		OverAllState state = new OverAllState();
+		state.updateState(values);
+		return state;
+	}
+
+	@Test
+	public void testCategoryResolvesBeforeTheResponseCompletes() throws Exception {
+		StreamingChatModel model = new StreamingChatModel(
+				chunks("```json\n{\"category_", "name\": \"Nega", "tive\",", " \"keywords\": [\"bad"), true);
+
+		Map<String, Object> result = node(model).applyAsync(state(Map.of("input", "bad service")))
+			.get(5, TimeUnit.SECONDS);
+
+		assertEquals(Map.of("output", "2"), result);
+		assertTrue(model.cancelled.get(), "the rest of the response should be cancelled");
+	}
+
+	@Test
+	public void testCategoryFallsBackToTheCompleteText() throws Exception {
+		StreamingChatModel model = new StreamingChatModel(chunks("The text is ", "clearly Positive", "."), false);
+
+		Map<String, Object> result = node(model).apply(state(Map.of("input", "great service")));
+
+		assertEquals("1", result.get("output"));
+	}
+
+	@Test
+	public void testResponseAddedToMessagesKeepsItsMetadata() throws Exception {
+		StreamingChatModel model = new StreamingChatModel(List.of(
+				AssistantMessage.builder().content("{\"category_name\": ").properties(Map.of("id", "msg-1")).build(),
+				AssistantMessage.builder()
+					.content("\"Positive\"}")
+					.properties(Map.of("finishReason", "STOP"))
+					.build()),
+				false);
+
+		Map<String, Object> result = node(model)
+			.apply(state(Map.of("input", "great service", "messages", List.of())));
+
+		assertEquals("1", result.get("output"));
+		AssistantMessage message = assertInstanceOf(AssistantMessage.class, result.get("messages"));
+		assertEquals("{\"category_name\": \"Positive\"}", message.getText());
+		assertEquals("msg-1", message.getMetadata().get("id"));
+		assertEquals("STOP", message.getMetadata().get("finishReason"));
+	}
+
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.nacos;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.nacos.api.config.listener.AbstractListener;
+import com.alibaba.nacos.client.config.NacosConfigService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads agent configs from Nacos and keeps them in a local snapshot.
+ *
+ * <p>The first read of a dataId fetches it from Nacos and registers a listener that keeps
+ * the snapshot up to date, so later reads never leave the process. {@link #prefetch(Collection)}
+ * fetches several dataIds in parallel, which lets an agent load everything it needs with a
+ * single round of Nacos calls instead of one call after another.
+ *
+ * <p>Every fetched config is also written to a file under the snapshot directory. When Nacos
+ * cannot be reached the file is used instead, so agents still start with the last known
+ * config. A config that Nacos reports as missing is dropped from both the memory and the
+ * file snapshot, so a deleted config is never brought back from an older copy. Encrypted
+ * dataIds are decrypted by the Nacos client and are therefore only kept in memory, never
+ * written to disk.
+ */
+public class NacosAgentConfigLoader {
+
+	private static final Logger logger = LoggerFactory.getLogger(NacosAgentConfigLoader.class);
+
+	static final String ENCRYPTED_PREFIX = "cipher-kms-aes-256-";
+
+	private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+	private final NacosConfigService configService;
+
+	private final long timeoutMillis;
+
+	private final Path snapshotDir;
+
+	private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "nacos-agent-config-loader-" + THREAD_COUNTER.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final Map<ConfigKey, String> contents = new ConcurrentHashMap<>();
+
+	private final Map<ConfigKey, Object> parsed = new ConcurrentHashMap<>();
+
+	private final Set<ConfigKey> watched = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * @param configService the Nacos config service to load from
+	 * @param timeoutMillis timeout of a single Nacos read
+	 * @param snapshotDir directory of the file snapshot, {@code null} to keep the snapshot in
+	 * memory only
+	 */
+	public NacosAgentConfigLoader(NacosConfigService configService, long timeoutMillis, Path snapshotDir) {
+		this.configService = configService;
+		this.timeoutMillis = timeoutMillis;
+		this.snapshotDir = snapshotDir;
+	}
+
+	/**
+	 * Fetches the given configs that are not in the snapshot yet, in parallel, and waits
+	 * until all of them are loaded or have fallen back to the file snapshot.
+	 */
+	public void prefetch(Collection<ConfigKey> keys) {
+		List<CompletableFuture<String>> futures = keys.stream()
+				.filter(key -> !contents.containsKey(key))
+				.distinct()
+				.map(key -> CompletableFuture.supplyAsync(() -> load(key), executor))
+				.toList();
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+	}
+
+	/**
+	 * Returns the content of a config, or {@code null} if it exists neither in Nacos nor in
+	 * the file snapshot.
+	 */
+	public String getConfig(String dataId, String group) {
+		ConfigKey key = new ConfigKey(dataId, group);
+		String content = contents.get(key);
+		return content != null ? content : load(key);
+	}
+
+	/**
+	 * Returns a config parsed as the given type. The parsed instance is cached until the
+	 * config changes and is shared between callers, so it must not be modified.
+	 */
+	public <T> T getConfig(String dataId, String group, Class<T> type) {
+		ConfigKey key = new ConfigKey(dataId, group);
+		Object value = parsed.get(key);
+		if (type.isInstance(value)) {
+			return type.cast(value);
+		}
+		String content = getConfig(dataId, group);
+		if (content == null) {
+			return null;
+		}
+		T result = JSON.parseObject(content, type);
+		if (result != null && content.equals(contents.get(key))) {
+			parsed.put(key, result);
+		}
+		return result;
+	}
+
+	private String load(ConfigKey key) {
+		watch(key);
+		String content;
+		try {
+			content = configService.getConfig(key.dataId(), key.group(), timeoutMillis);
+		}
+		catch (Exception e) {
+			logger.warn("Failed to load config {} of group {} from Nacos, trying the local snapshot", key.dataId(),
+					key.group(), e);
+			return loadFromSnapshot(key);
+		}
+		if (content == null) {
+			// Nacos answered that the config does not exist, so an older copy must not be used
+			remove(key);
+			return null;
+		}
+		update(key, content);
+		return content;
+	}
+
+	private String loadFromSnapshot(ConfigKey key) {
+		// A listener may have delivered the config in the meantime
+		String content = contents.get(key);
+		if (content != null) {
+			return content;
+		}
+		content = readSnapshot(key);
+		if (content != null) {
+			logger.info("Using local snapshot of config {} of group {}", key.dataId(), key.group());
+			contents.putIfAbsent(key, content);
+		}
+		return content;
+	}
+
+	private void watch(ConfigKey key) {
+		if (!watched.add(key)) {
+			return;
+		}
+		try {
+			configService.addListener(key.dataId(), key.group(), new AbstractListener() {
+				@Override
+				public void receiveConfigInfo(String configInfo) {
+					if (configInfo != null) {
+						update(key, configInfo);
+					}
+					else {
+						remove(key);
+					}
+				}
+			});
+		}
+		catch (Exception e) {
+			watched.remove(key);
+			logger.warn("Failed to watch config {} of group {}", key.dataId(), key.group(), e);
+		}
+	}
+
+	private void update(ConfigKey key, String content) {
+		String previous = contents.put(key, content);
+		if (content.equals(previous)) {
+			return;
+		}
+		parsed.remove(key);
+		writeSnapshot(key, content);
+	}
+
+	private void remove(ConfigKey key) {
+		contents.remove(key);
+		parsed.remove(key);
+		deleteSnapshot(key);
+	}
+
+	private String readSnapshot(ConfigKey key) {
+		Path file = snapshotFile(key);
+		if (file == null || !Files.isRegularFile(file)) {
+			return null;
+		}
+		try {
+			return Files.readString(file, StandardCharsets.UTF_8);
+		}
+		catch (IOException e) {
+			logger.warn("Failed to read local snapshot {}", file, e);
+			return null;
+		}
+	}
+
+	private void writeSnapshot(ConfigKey key, String content) {
+		Path file = snapshotFile(key);
+		if (file == null) {
+			return;
+		}
+		try {
+			Files.createDirectories(file.getParent());
+			Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+			Files.writeString(tmp, content, StandardCharsets.UTF_8);
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException e) {
+			logger.warn("Failed to write local snapshot {}", file, e);
+		}
+	}
+
+	private void deleteSnapshot(ConfigKey key) {
+		Path file = snapshotFile(key);
+		if (file == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(file);
+		}
+		catch (IOException e) {
+			logger.warn("Failed to delete local snapshot {}", file, e);
+		}
+	}
+
+	private Path snapshotFile(ConfigKey key) {
+		if (snapshotDir == null || key.dataId().startsWith(ENCRYPTED_PREFIX)) {
+			return null;
+		}
+		return snapshotDir.resolve(key.group()).resolve(key.dataId());
+	}
+
+	/**
+	 * Identifies a Nacos config.
+	 */
+	public record ConfigKey(String dataId, String group) {
+	}
+
+}
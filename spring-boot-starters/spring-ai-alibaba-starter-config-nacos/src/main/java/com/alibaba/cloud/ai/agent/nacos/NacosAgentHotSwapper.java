@@ -0,0 +1,318 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.nacos;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.alibaba.cloud.ai.agent.nacos.tools.NacosMcpGatewayToolCallback;
+import com.alibaba.cloud.ai.graph.agent.node.AgentLlmNode;
+import com.alibaba.cloud.ai.graph.agent.node.AgentToolNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+/**
+ * Applies Nacos config changes to a running agent without interrupting it.
+ *
+ * <p>New chat clients and tool callbacks are built on a background thread, off the Nacos
+ * notification thread, and only swapped into the agent nodes once they are complete. Model
+ * calls and tool calls already in progress finish with the components they started with.
+ *
+ * <p>Replaced tools stay executable for {@code drainTimeoutMillis}, since a model response
+ * produced before the swap may still request them. Afterwards, once none of their calls is
+ * in progress, they are removed from the tool node and closed.
+ *
+ * <p>{@link #close()} stops the background thread and closes every tool version; it is
+ * called when the owning {@link NacosOptions} is closed.
+ */
+class NacosAgentHotSwapper implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(NacosAgentHotSwapper.class);
+
+	private static final long DRAIN_CHECK_INTERVAL_MILLIS = 1000L;
+
+	private final long drainTimeoutMillis;
+
+	private final ScheduledExecutorService executor;
+
+	private AgentLlmNode llmNode;
+
+	private AgentToolNode toolNode;
+
+	// Accessed on the executor thread only, except during initialization
+	private ToolVersion current;
+
+	private final List<ToolVersion> retired = new ArrayList<>();
+
+	NacosAgentHotSwapper(String agentName, long drainTimeoutMillis) {
+		this.drainTimeoutMillis = drainTimeoutMillis;
+		this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "nacos-agent-hot-swap-" + agentName);
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Registers the tools the agent is built with, returning the callbacks to pass to the
+	 * agent nodes.
+	 */
+	List<ToolCallback> initTools(List<ToolCallback> toolCallbacks) {
+		current = new ToolVersion(toolCallbacks);
+		return current.callbacks;
+	}
+
+	void bind(AgentLlmNode llmNode, AgentToolNode toolNode) {
+		this.llmNode = llmNode;
+		this.toolNode = toolNode;
+	}
+
+	/**
+	 * Builds a new chat client in the background and swaps it into the model node.
+	 * @param factory creates the new chat client
+	 * @param onSwapped invoked with the new client right after the swap
+	 */
+	void swapChatClient(Supplier<ChatClient> factory, Consumer<ChatClient> onSwapped) {
+		submit(() -> {
+			ChatClient chatClient;
+			try {
+				chatClient = factory.get();
+			}
+			catch (Exception e) {
+				logger.error("Failed to build the new chat client, keeping the current one", e);
+				return;
+			}
+			llmNode.setChatClient(chatClient);
+			onSwapped.accept(chatClient);
+			logger.info("Swapped in the new chat client");
+		});
+	}
+
+	/**
+	 * Builds new tool callbacks in the background and swaps them into the agent nodes.
+	 */
+	void swapTools(Supplier<List<ToolCallback>> factory) {
+		submit(() -> {
+			List<ToolCallback> toolCallbacks;
+			try {
+				toolCallbacks = factory.get();
+			}
+			catch (Exception e) {
+				logger.error("Failed to build the new tools, keeping the current ones", e);
+				return;
+			}
+			if (toolCallbacks == null) {
+				return;
+			}
+			ToolVersion previous = current;
+			current = new ToolVersion(toolCallbacks);
+			if (previous != null) {
+				previous.retiredAt = System.currentTimeMillis();
+				retired.add(previous);
+			}
+			// The tool node must be able to run the new tools before the model can request them
+			toolNode.setToolCallbacks(executableTools());
+			llmNode.setToolCallbacks(current.callbacks);
+			logger.info("Swapped in {} tools, {} previous tool versions draining", current.callbacks.size(),
+					retired.size());
+			if (previous != null) {
+				executor.schedule(this::drain, drainTimeoutMillis, TimeUnit.MILLISECONDS);
+			}
+		});
+	}
+
+	private void submit(Runnable swap) {
+		try {
+			executor.execute(swap);
+		}
+		catch (RejectedExecutionException e) {
+			// Config changes may still be delivered while the agent is being closed
+			logger.debug("Hot swapper is closed, ignoring the config change");
+		}
+	}
+
+	/**
+	 * Closes the retired tool versions that are past the drain timeout and have no calls in
+	 * progress.
+	 */
+	private void drain() {
+		long now = System.currentTimeMillis();
+		boolean changed = false;
+		boolean pending = false;
+		Iterator<ToolVersion> iterator = retired.iterator();
+		while (iterator.hasNext()) {
+			ToolVersion version = iterator.next();
+			if (now - version.retiredAt < drainTimeoutMillis) {
+				continue;
+			}
+			if (version.inFlight.get() > 0) {
+				pending = true;
+				continue;
+			}
+			iterator.remove();
+			version.close();
+			changed = true;
+		}
+		if (changed) {
+			toolNode.setToolCallbacks(executableTools());
+		}
+		if (pending) {
+			executor.schedule(this::drain, DRAIN_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Stops the background thread, dropping pending swaps, and closes the current and
+	 * retired tools.
+	 */
+	@Override
+	public void close() {
+		executor.shutdownNow();
+		try {
+			if (!executor.awaitTermination(DRAIN_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+				logger.warn("Hot swap thread did not stop in time");
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		retired.forEach(ToolVersion::close);
+		retired.clear();
+		if (current != null) {
+			current.close();
+		}
+	}
+
+	/**
+	 * The current tools followed by retired tools whose names are not taken by a newer
+	 * version.
+	 */
+	private List<ToolCallback> executableTools() {
+		List<ToolCallback> tools = new ArrayList<>(current.callbacks);
+		Set<String> names = new HashSet<>();
+		current.callbacks.forEach(callback -> names.add(callback.getToolDefinition().name()));
+		for (int i = retired.size() - 1; i >= 0; i--) {
+			for (ToolCallback callback : retired.get(i).callbacks) {
+				if (names.add(callback.getToolDefinition().name())) {
+					tools.add(callback);
+				}
+			}
+		}
+		return List.copyOf(tools);
+	}
+
+	/**
+	 * One set of tool callbacks, counting the calls in progress so that it is only closed
+	 * once they are done.
+	 */
+	private static final class ToolVersion {
+
+		private final List<ToolCallback> delegates;
+
+		private final List<ToolCallback> callbacks;
+
+		private final AtomicInteger inFlight = new AtomicInteger();
+
+		private long retiredAt;
+
+		ToolVersion(List<ToolCallback> delegates) {
+			this.delegates = delegates != null ? delegates : List.of();
+			this.callbacks = this.delegates.stream()
+					.<ToolCallback>map(delegate -> new TrackedToolCallback(delegate, inFlight))
+					.toList();
+		}
+
+		void close() {
+			for (ToolCallback delegate : delegates) {
+				try {
+					if (delegate instanceof NacosMcpGatewayToolCallback nacosCallback) {
+						nacosCallback.close();
+					}
+					else if (delegate instanceof AutoCloseable closeable) {
+						closeable.close();
+					}
+				}
+				catch (Exception e) {
+					logger.warn("Failed to close tool {}", delegate.getToolDefinition().name(), e);
+				}
+			}
+		}
+
+	}
+
+	private static final class TrackedToolCallback implements ToolCallback {
+
+		private final ToolCallback delegate;
+
+		private final AtomicInteger inFlight;
+
+		TrackedToolCallback(ToolCallback delegate, AtomicInteger inFlight) {
+			this.delegate = delegate;
+			this.inFlight = inFlight;
+		}
+
+		@Override
+		public ToolDefinition getToolDefinition() {
+			return delegate.getToolDefinition();
+		}
+
+		@Override
+		public ToolMetadata getToolMetadata() {
+			return delegate.getToolMetadata();
+		}
+
+		@Override
+		public String call(String toolInput) {
+			inFlight.incrementAndGet();
+			try {
+				return delegate.call(toolInput);
+			}
+			finally {
+				inFlight.decrementAndGet();
+			}
+		}
+
+		@Override
+		public String call(String toolInput, ToolContext toolContext) {
+			inFlight.incrementAndGet();
+			try {
+				return delegate.call(toolInput, toolContext);
+			}
+			finally {
+				inFlight.decrementAndGet();
+			}
+		}
+
+	}
+
+}
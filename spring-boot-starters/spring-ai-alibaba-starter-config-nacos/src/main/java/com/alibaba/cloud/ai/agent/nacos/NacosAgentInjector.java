@@ -17,8 +17,6 @@
 package com.alibaba.cloud.ai.agent.nacos;
 
 import com.alibaba.cloud.ai.agent.nacos.vo.AgentVO;
-import com.alibaba.fastjson.JSON;
-import com.alibaba.nacos.api.exception.NacosException;
 
 public class NacosAgentInjector {
 
@@ -26,16 +24,12 @@ public class NacosAgentInjector {
 	 * load prompt by agent id.
 	 */
 	public static AgentVO loadAgentVO(NacosOptions nacosOptions) {
-		try {
-			String dataIdT = (nacosOptions.isAgentBaseEncrypted() ? "cipher-kms-aes-256-" : "") + "agent-base.json";
-			String config = nacosOptions.getNacosConfigService()
-					.getConfig(dataIdT, "ai-agent-" + nacosOptions.getAgentName(),
-							3000L);
-			return JSON.parseObject(config, AgentVO.class);
-		}
-		catch (NacosException e) {
-			throw new RuntimeException(e);
-		}
+		return nacosOptions.getConfigLoader()
+				.getConfig(agentBaseDataId(nacosOptions), "ai-agent-" + nacosOptions.getAgentName(), AgentVO.class);
+	}
+
+	static String agentBaseDataId(NacosOptions nacosOptions) {
+		return (nacosOptions.isAgentBaseEncrypted() ? NacosAgentConfigLoader.ENCRYPTED_PREFIX : "") + "agent-base.json";
 	}
 
 }
@@ -21,8 +21,6 @@ import java.util.List;
 
 import com.alibaba.cloud.ai.agent.nacos.tools.NacosMcpGatewayToolsInitializer;
 import com.alibaba.cloud.ai.agent.nacos.vo.McpServersVO;
-import com.alibaba.fastjson.JSON;
-import com.alibaba.nacos.api.exception.NacosException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,15 +31,12 @@ public class NacosMcpToolsInjector {
 	private static final Logger logger = LoggerFactory.getLogger(NacosMcpToolsInjector.class);
 
 	public static McpServersVO getMcpServersVO(NacosOptions nacosOptions) {
-		try {
-			String dataId = (nacosOptions.isMcpServersEncrypted() ? "cipher-kms-aes-256-" : "") + "mcp-servers.json";
-			String config = nacosOptions.getNacosConfigService()
-					.getConfig(dataId, "ai-agent-" + nacosOptions.getAgentName(), 3000L);
-			return JSON.parseObject(config, McpServersVO.class);
-		}
-		catch (NacosException e) {
-			throw new RuntimeException(e);
-		}
+		return nacosOptions.getConfigLoader()
+				.getConfig(mcpServersDataId(nacosOptions), "ai-agent-" + nacosOptions.getAgentName(), McpServersVO.class);
+	}
+
+	static String mcpServersDataId(NacosOptions nacosOptions) {
+		return (nacosOptions.isMcpServersEncrypted() ? NacosAgentConfigLoader.ENCRYPTED_PREFIX : "") + "mcp-servers.json";
 	}
 
 	public static List<ToolCallback> convert(NacosOptions nacosOptions, McpServersVO mcpServersVO) {
@@ -20,8 +20,6 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 
 import com.alibaba.cloud.ai.agent.nacos.vo.ModelVO;
-import com.alibaba.fastjson.JSON;
-import com.alibaba.nacos.api.exception.NacosException;
 
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.model.ChatModel;
@@ -31,18 +29,21 @@ public class NacosModelInjector {
 
 
 	public static ModelVO getModelByAgentName(NacosOptions nacosOptions) {
-		try {
-			String dataIdT = (nacosOptions.isModelEncrypted() ? "cipher-kms-aes-256-" : "") + "model.json";
-			String config = nacosOptions.getNacosConfigService()
-					.getConfig(dataIdT, "ai-agent-" + nacosOptions.getAgentName(), 3000L);
-			return JSON.parseObject(config, ModelVO.class);
-		}
-		catch (NacosException e) {
-			throw new RuntimeException(e);
-		}
+		return nacosOptions.getConfigLoader()
+				.getConfig(modelDataId(nacosOptions), "ai-agent-" + nacosOptions.getAgentName(), ModelVO.class);
+	}
+
+	static String modelDataId(NacosOptions nacosOptions) {
+		return (nacosOptions.isModelEncrypted() ? NacosAgentConfigLoader.ENCRYPTED_PREFIX : "") + "model.json";
 	}
 
 
+	/**
+	 * @deprecated model changes are applied by swapping the whole chat client into the
+	 * agent, rewriting final fields through reflection is not reliable on recent JDKs.
+	 * Build a new {@link ChatClient} instead.
+	 */
+	@Deprecated
 	public static void replaceModel(ChatClient chatClient, ChatModel chatModel, OpenAiChatOptions openAiChatOptions) throws Exception {
 		Object defaultChatClientRequest = getField(chatClient, "defaultChatClientRequest");
 		modifyFinalField(defaultChatClientRequest, "chatModel", chatModel);
@@ -55,6 +56,10 @@ public class NacosModelInjector {
 		return field.get(obj);
 	}
 
+	/**
+	 * @deprecated see {@link #replaceModel(ChatClient, ChatModel, OpenAiChatOptions)}.
+	 */
+	@Deprecated
 	public static void modifyFinalField(Object targetObject, String fieldName, Object newValue) throws Exception {
 		Field field = targetObject.getClass().getDeclaredField(fieldName);
 		field.setAccessible(true);
@@ -16,7 +16,11 @@
 
 package com.alibaba.cloud.ai.agent.nacos;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import com.alibaba.cloud.ai.mcp.nacos.service.NacosMcpOperationService;
 import com.alibaba.nacos.api.exception.NacosException;
@@ -51,6 +55,12 @@ public class NacosOptions {
 
 	private String mcpNamespace;
 
+	private NacosAgentConfigLoader configLoader;
+
+	private long hotSwapDrainTimeout;
+
+	private final List<NacosAgentHotSwapper> hotSwappers = new CopyOnWriteArrayList<>();
+
 	private void encryptParamInit(Properties properties) {
 		encrypted = Boolean.parseBoolean(properties.getProperty("encrypted", "false"));
 		String defaultEncrypted = String.valueOf(encrypted);
@@ -82,7 +92,26 @@ public class NacosOptions {
 		nacosConfigService = new NacosConfigService(properties);
 		nacosAiMaintainerService = new NacosAiMaintainerServiceImpl(properties);
 		mcpOperationService = new NacosMcpOperationService(properties);
+		configLoader = new NacosAgentConfigLoader(nacosConfigService,
+				Long.parseLong(properties.getProperty("configTimeout", "3000")), snapshotDir(properties));
+		hotSwapDrainTimeout = Long.parseLong(properties.getProperty("hotSwapDrainTimeout", "60000"));
+
+	}
 
+	/**
+	 * Directory of the local config snapshot, {@code null} when the file snapshot is disabled.
+	 */
+	private static Path snapshotDir(Properties properties) {
+		if (!Boolean.parseBoolean(properties.getProperty("configSnapshotEnabled", "true"))) {
+			return null;
+		}
+		String dir = properties.getProperty("configSnapshotDir");
+		if (StringUtils.isNotBlank(dir)) {
+			return Paths.get(dir);
+		}
+		String namespace = properties.getProperty("namespace");
+		return Paths.get(System.getProperty("user.home"), "nacos", "ai-agent-snapshot",
+				StringUtils.isBlank(namespace) ? "public" : namespace);
 	}
 
 	public boolean isEncrypted() {
@@ -181,4 +210,34 @@ public class NacosOptions {
 		this.mcpNamespace = mcpNamespace;
 	}
 
+	public NacosAgentConfigLoader getConfigLoader() {
+		return configLoader;
+	}
+
+	public void setConfigLoader(NacosAgentConfigLoader configLoader) {
+		this.configLoader = configLoader;
+	}
+
+	public long getHotSwapDrainTimeout() {
+		return hotSwapDrainTimeout;
+	}
+
+	public void setHotSwapDrainTimeout(long hotSwapDrainTimeout) {
+		this.hotSwapDrainTimeout = hotSwapDrainTimeout;
+	}
+
+	void registerHotSwapper(NacosAgentHotSwapper hotSwapper) {
+		hotSwappers.add(hotSwapper);
+	}
+
+	/**
+	 * Stops the hot swap threads of the agents built with these options.
+	 */
+	public void close() {
+		for (NacosAgentHotSwapper hotSwapper : hotSwappers) {
+			hotSwapper.close();
+		}
+		hotSwappers.clear();
+	}
+
 }
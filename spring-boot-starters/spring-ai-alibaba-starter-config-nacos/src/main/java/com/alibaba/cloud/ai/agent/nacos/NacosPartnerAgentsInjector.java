@@ -48,14 +48,8 @@ public class NacosPartnerAgentsInjector {
 	}
 
 	public static PartnerAgentsVO getPartnerVO(NacosOptions nacosOptions, String agentName) {
-		try {
-			String config = nacosOptions.getNacosConfigService()
-					.getConfig("parterner-agents.json", "ai-agent-" + agentName, 3000L);
-			return JSON.parseObject(config, PartnerAgentsVO.class);
-		}
-		catch (NacosException e) {
-			throw new RuntimeException(e);
-		}
+		return nacosOptions.getConfigLoader()
+				.getConfig("parterner-agents.json", "ai-agent-" + agentName, PartnerAgentsVO.class);
 	}
 
 }
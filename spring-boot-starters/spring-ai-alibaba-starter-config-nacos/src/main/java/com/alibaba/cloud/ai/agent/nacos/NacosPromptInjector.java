@@ -26,18 +26,14 @@ public class NacosPromptInjector {
 	 */
 	public static PromptVO getPromptByKey(NacosOptions nacosOptions, String promptKey) {
 
-		try {
-			String dataId = (nacosOptions.isPromptEncrypted() ? "cipher-kms-aes-256-" : "") + String.format("prompt-%s.json", promptKey);
-			String promptConfig = nacosOptions.getNacosConfigService()
-					.getConfig(dataId, "nacos-ai-meta",
-							3000L);
-			PromptVO promptVO = JSON.parseObject(promptConfig, PromptVO.class);
-			promptVO.setPromptKey(promptKey);
-			return promptVO;
-		}
-		catch (Exception e) {
-			throw new RuntimeException(e);
-		}
+		String promptConfig = nacosOptions.getConfigLoader().getConfig(promptDataId(nacosOptions, promptKey), "nacos-ai-meta");
+		PromptVO promptVO = JSON.parseObject(promptConfig, PromptVO.class);
+		promptVO.setPromptKey(promptKey);
+		return promptVO;
+	}
+
+	static String promptDataId(NacosOptions nacosOptions, String promptKey) {
+		return (nacosOptions.isPromptEncrypted() ? NacosAgentConfigLoader.ENCRYPTED_PREFIX : "") + String.format("prompt-%s.json", promptKey);
 	}
 
 }
@@ -39,15 +39,14 @@ import org.apache.commons.collections4.CollectionUtils;
 
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.openai.OpenAiChatModel;
 import org.springframework.ai.openai.OpenAiChatOptions;
 import org.springframework.ai.openai.api.OpenAiApi;
-import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.execution.DefaultToolExecutionExceptionProcessor;
 
 import static com.alibaba.cloud.ai.agent.nacos.NacosAgentPromptBuilder.getMetadata;
 import static com.alibaba.cloud.ai.agent.nacos.NacosMcpToolsInjector.convert;
-import static com.alibaba.cloud.ai.agent.nacos.NacosModelInjector.replaceModel;
 import static com.alibaba.cloud.ai.agent.nacos.NacosPromptInjector.getPromptByKey;
 
 public class NacosReactAgentBuilder extends NacosAgentPromptBuilder {
@@ -65,7 +64,12 @@ public class NacosReactAgentBuilder extends NacosAgentPromptBuilder {
 		if (this.name == null) {
 			this.name = nacosOptions.getAgentName();
 		}
-		//1.load agent base vo
+		//1.load agent base, model and mcp servers in parallel, served from the local snapshot afterwards
+		String group = "ai-agent-" + nacosOptions.getAgentName();
+		nacosOptions.getConfigLoader().prefetch(List.of(
+				new NacosAgentConfigLoader.ConfigKey(NacosAgentInjector.agentBaseDataId(nacosOptions), group),
+				new NacosAgentConfigLoader.ConfigKey(NacosModelInjector.modelDataId(nacosOptions), group),
+				new NacosAgentConfigLoader.ConfigKey(NacosMcpToolsInjector.mcpServersDataId(nacosOptions), group)));
 		AgentVO agentVO = NacosAgentInjector.loadAgentVO(nacosOptions);
 		agentVOHolder.setAgentVO(agentVO);
 		this.description = agentVO.getDescription();
@@ -85,24 +89,16 @@ public class NacosReactAgentBuilder extends NacosAgentPromptBuilder {
 		this.model = createModel(nacosOptions, modelVO, openAiChatOptions);
 
 		//5.build chat client
-		ChatClient.Builder clientBuilder = null;
-		ObservationConfiguration observationConfiguration = nacosOptions.getObservationConfiguration();
-		if (observationConfiguration == null) {
-			clientBuilder = ChatClient.builder(model);
-		}
-		else {
-			clientBuilder = ChatClient.builder(model, observationConfiguration.getObservationRegistry() == null ? ObservationRegistry.NOOP : observationConfiguration.getObservationRegistry(), nacosOptions.getObservationConfiguration()
-					.getChatClientObservationConvention(), this.advisorObservationConvention);
-		}
-
-		clientBuilder.defaultOptions(chatOptions);
-		chatClient = clientBuilder.build();
+		chatClient = buildChatClient(model, chatOptions);
 
 		//6.load mcp servers
 		McpServersVO mcpServersVO = NacosMcpToolsInjector.getMcpServersVO(nacosOptions);
 		agentVOHolder.setMcpServersVO(mcpServersVO);
 
-		this.tools = convert(nacosOptions, mcpServersVO);
+		NacosAgentHotSwapper hotSwapper = new NacosAgentHotSwapper(nacosOptions.getAgentName(),
+				nacosOptions.getHotSwapDrainTimeout());
+		nacosOptions.registerHotSwapper(hotSwapper);
+		this.tools = hotSwapper.initTools(convert(nacosOptions, mcpServersVO));
 
 		//7. build tools
 		AgentLlmNode.Builder llmNodeBuilder = AgentLlmNode.builder()
@@ -136,13 +132,14 @@ public class NacosReactAgentBuilder extends NacosAgentPromptBuilder {
 		}
 
 		// register listeners.
+		hotSwapper.bind(llmNode, toolNode);
 
 		//register model  listener
-		registerModelListener(chatClient, nacosOptions);
+		registerModelListener(hotSwapper, nacosOptions);
 		this.description = agentVO.getDescription();
 
 		//register mcp tools
-		registryMcpServerListener(llmNode, toolNode, nacosOptions);
+		registryMcpServerListener(hotSwapper, nacosOptions);
 		ReactAgent reactAgent = new ReactAgent(llmNode, toolNode, buildConfig(),this);
 		agentVOHolder.setReactAgent(reactAgent);
 		//register agent base and prompt
@@ -150,20 +147,20 @@ public class NacosReactAgentBuilder extends NacosAgentPromptBuilder {
 		return reactAgent;
 	}
 
-	private void registryMcpServerListener(AgentLlmNode llmNode, AgentToolNode toolNode, NacosOptions nacosOptions) {
+	private void registryMcpServerListener(NacosAgentHotSwapper hotSwapper, NacosOptions nacosOptions) {
 
 		try {
-			String dataId = (nacosOptions.isMcpServersEncrypted() ? "cipher-kms-aes-256-" : "") + "mcp-servers.json";
+			String dataId = NacosMcpToolsInjector.mcpServersDataId(nacosOptions);
 			nacosOptions.getNacosConfigService()
 					.addListener(dataId, "ai-agent-" + nacosOptions.getAgentName(), new AbstractListener() {
 						@Override
 						public void receiveConfigInfo(String configInfo) {
 							McpServersVO mcpServersVO = JSON.parseObject(configInfo, McpServersVO.class);
-							List<ToolCallback> toolCallbacks = convert(nacosOptions, mcpServersVO);
-							if (toolCallbacks != null) {
-								toolNode.setToolCallbacks(toolCallbacks);
-								llmNode.setToolCallbacks(toolCallbacks);
+							if (mcpServersVO == null) {
+								return;
 							}
+							agentVOHolder.setMcpServersVO(mcpServersVO);
+							hotSwapper.swapTools(() -> convert(nacosOptions, mcpServersVO));
 
 						}
 					});
@@ -178,7 +175,7 @@ public class NacosReactAgentBuilder extends NacosAgentPromptBuilder {
 		try {
 			NacosConfigService nacosConfigService = nacosOptions.getNacosConfigService();
 			//1. register agent base listener
-			String dataIdT = (nacosOptions.isAgentBaseEncrypted() ? "cipher-kms-aes-256-" : "") + "agent-base.json";
+			String dataIdT = NacosAgentInjector.agentBaseDataId(nacosOptions);
 			nacosConfigService.addListener(dataIdT, "ai-agent-" + nacosOptions.getAgentName(),
 					new AgentBaseListener(nacosOptions, agentVO.getPromptKey(), nacosContextHolder));
 			//2. registry prompt vo listener
@@ -197,7 +194,7 @@ public class NacosReactAgentBuilder extends NacosAgentPromptBuilder {
 			String promptKey, ReactAgent reactAgent) {
 		try {
 			PromptListener promptListener = new PromptListener(nacosContextHolder, reactAgent);
-			String dataId = (nacosOptions.isPromptEncrypted() ? "cipher-kms-aes-256-" : "") + String.format("prompt-%s.json", promptKey);
+			String dataId = NacosPromptInjector.promptDataId(nacosOptions, promptKey);
 
 			nacosOptions.getNacosConfigService().addListener(dataId,
 					"nacos-ai-meta", promptListener);
@@ -208,25 +205,26 @@ public class NacosReactAgentBuilder extends NacosAgentPromptBuilder {
 		}
 	}
 
-	private void registerModelListener(ChatClient chatClient, NacosOptions nacosOptions) {
+	private void registerModelListener(NacosAgentHotSwapper hotSwapper, NacosOptions nacosOptions) {
 
 		try {
 			String agentName = nacosOptions.getAgentName();
-			String dataIdT = (nacosOptions.isModelEncrypted() ? "cipher-kms-aes-256-" : "") + "model.json";
+			String dataIdT = NacosModelInjector.modelDataId(nacosOptions);
 			nacosOptions.getNacosConfigService()
 					.addListener(dataIdT, "ai-agent-" + agentName, new AbstractListener() {
 						@Override
 						public void receiveConfigInfo(String configInfo) {
 							ModelVO modelVO = JSON.parseObject(configInfo, ModelVO.class);
-							try {
-								OpenAiChatOptions openAiChatOptions = buildProxyChatOptions(modelVO, getMetadata(agentVOHolder.promptVO));
-								ChatModel chatModelNew = createModel(nacosOptions, modelVO, openAiChatOptions);
-								replaceModel(chatClient, chatModelNew, openAiChatOptions);
-								agentVOHolder.setObservationMetadataAwareOptions((ObservationMetadataAwareOptions) openAiChatOptions);
-							}
-							catch (Exception e) {
-								throw new RuntimeException(e);
+							if (modelVO == null) {
+								return;
 							}
+							OpenAiChatOptions openAiChatOptions = buildProxyChatOptions(modelVO, getMetadata(agentVOHolder.promptVO));
+							hotSwapper.swapChatClient(
+									() -> buildChatClient(createModel(nacosOptions, modelVO, openAiChatOptions), openAiChatOptions),
+									newChatClient -> {
+										agentVOHolder.setModelVO(modelVO);
+										agentVOHolder.setObservationMetadataAwareOptions((ObservationMetadataAwareOptions) openAiChatOptions);
+									});
 						}
 					});
 		}
@@ -236,6 +234,21 @@ public class NacosReactAgentBuilder extends NacosAgentPromptBuilder {
 	}
 
 
+	private ChatClient buildChatClient(ChatModel chatModel, ChatOptions chatOptions) {
+		ChatClient.Builder clientBuilder;
+		ObservationConfiguration observationConfiguration = nacosOptions.getObservationConfiguration();
+		if (observationConfiguration == null) {
+			clientBuilder = ChatClient.builder(chatModel);
+		}
+		else {
+			clientBuilder = ChatClient.builder(chatModel, observationConfiguration.getObservationRegistry() == null ? ObservationRegistry.NOOP : observationConfiguration.getObservationRegistry(), observationConfiguration
+					.getChatClientObservationConvention(), this.advisorObservationConvention);
+		}
+
+		clientBuilder.defaultOptions(chatOptions);
+		return clientBuilder.build();
+	}
+
 	private OpenAiChatOptions buildProxyChatOptions(ModelVO model, Map<String, String> metadata) {
 		OpenAiChatOptions.Builder chatOptionsBuilder = OpenAiChatOptions.builder();
 		if (model.getTemperature() != null) {
@@ -351,7 +364,7 @@ class AgentBaseListener extends AbstractListener {
 		}
 		if (nacosContextHolder.getPromptListeners().containsKey(currentPromptKey)) {
 			Listener listener = nacosContextHolder.getPromptListeners().remove(currentPromptKey);
-			String dataId = (nacosOptions.isPromptEncrypted() ? "cipher-kms-aes-256-" : "") + String.format("prompt-%s.json", currentPromptKey);
+			String dataId = NacosPromptInjector.promptDataId(nacosOptions, currentPromptKey);
 			nacosOptions.getNacosConfigService().removeListener(dataId,
 					"nacos-ai-meta", listener);
 		}
@@ -63,7 +63,7 @@ public class NacosAgentConfig {
         return props;
 	}
 
-	@Bean
+	@Bean(destroyMethod = "close")
 	public NacosOptions nacosOptions(Properties nacosAgentProxyProperties, ObservationConfiguration observationConfiguration) throws NacosException {
 		NacosOptions nacosOptions = new NacosOptions(nacosAgentProxyProperties);
 		nacosOptions.setObservationConfiguration(observationConfiguration);
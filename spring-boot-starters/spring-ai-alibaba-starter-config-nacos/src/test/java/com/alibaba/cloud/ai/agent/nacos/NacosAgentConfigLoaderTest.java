@@ -0,0 +1,162 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.nacos;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.cloud.ai.agent.nacos.NacosAgentConfigLoader.ConfigKey;
+import com.alibaba.nacos.api.config.listener.Listener;
+import com.alibaba.nacos.api.exception.NacosException;
+import com.alibaba.nacos.client.config.NacosConfigService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NacosAgentConfigLoaderTest {
+
+	private static final String GROUP = "ai-agent-test";
+
+	@TempDir
+	Path snapshotDir;
+
+	@Test
+	void configIsFetchedOnceAndKeptUpToDateByTheListener() throws Exception {
+		NacosConfigService configService = mock(NacosConfigService.class);
+		when(configService.getConfig(eq("agent.json"), eq(GROUP), anyLong())).thenReturn("{\"name\":\"v1\"}");
+		NacosAgentConfigLoader loader = new NacosAgentConfigLoader(configService, 3000, snapshotDir);
+
+		assertEquals("{\"name\":\"v1\"}", loader.getConfig("agent.json", GROUP));
+		assertEquals("{\"name\":\"v1\"}", loader.getConfig("agent.json", GROUP));
+		Map<?, ?> parsed = loader.getConfig("agent.json", GROUP, Map.class);
+		assertSame(parsed, loader.getConfig("agent.json", GROUP, Map.class));
+		verify(configService, times(1)).getConfig(eq("agent.json"), eq(GROUP), anyLong());
+
+		listener(configService, "agent.json").receiveConfigInfo("{\"name\":\"v2\"}");
+
+		assertEquals("{\"name\":\"v2\"}", loader.getConfig("agent.json", GROUP));
+		Map<?, ?> updated = loader.getConfig("agent.json", GROUP, Map.class);
+		assertNotSame(parsed, updated);
+		assertEquals("v2", updated.get("name"));
+		assertEquals("{\"name\":\"v2\"}", snapshot("agent.json"));
+		verify(configService, times(1)).getConfig(eq("agent.json"), eq(GROUP), anyLong());
+		verify(configService, times(1)).addListener(eq("agent.json"), eq(GROUP), any());
+	}
+
+	@Test
+	void prefetchLoadsEveryConfigOnce() throws Exception {
+		NacosConfigService configService = mock(NacosConfigService.class);
+		when(configService.getConfig(anyString(), eq(GROUP), anyLong()))
+			.thenAnswer(invocation -> "content of " + invocation.getArgument(0));
+		NacosAgentConfigLoader loader = new NacosAgentConfigLoader(configService, 3000, snapshotDir);
+
+		loader.prefetch(List.of(new ConfigKey("agent.json", GROUP), new ConfigKey("prompt.json", GROUP),
+				new ConfigKey("agent.json", GROUP)));
+
+		assertEquals("content of agent.json", loader.getConfig("agent.json", GROUP));
+		assertEquals("content of prompt.json", loader.getConfig("prompt.json", GROUP));
+		verify(configService, times(2)).getConfig(anyString(), eq(GROUP), anyLong());
+	}
+
+	@Test
+	void fileSnapshotIsUsedWhenNacosIsUnreachable() throws Exception {
+		NacosConfigService online = mock(NacosConfigService.class);
+		when(online.getConfig(eq("agent.json"), eq(GROUP), anyLong())).thenReturn("v1");
+		new NacosAgentConfigLoader(online, 3000, snapshotDir).getConfig("agent.json", GROUP);
+
+		NacosConfigService offline = mock(NacosConfigService.class);
+		when(offline.getConfig(anyString(), anyString(), anyLong()))
+			.thenThrow(new NacosException(NacosException.SERVER_ERROR, "unreachable"));
+		NacosAgentConfigLoader restarted = new NacosAgentConfigLoader(offline, 3000, snapshotDir);
+
+		assertEquals("v1", restarted.getConfig("agent.json", GROUP));
+		assertNull(restarted.getConfig("missing.json", GROUP));
+	}
+
+	@Test
+	void encryptedConfigIsNotWrittenToDisk() throws Exception {
+		String dataId = NacosAgentConfigLoader.ENCRYPTED_PREFIX + "model.json";
+		NacosConfigService configService = mock(NacosConfigService.class);
+		when(configService.getConfig(eq(dataId), eq(GROUP), anyLong())).thenReturn("secret");
+		NacosAgentConfigLoader loader = new NacosAgentConfigLoader(configService, 3000, snapshotDir);
+
+		assertEquals("secret", loader.getConfig(dataId, GROUP));
+		assertFalse(Files.exists(snapshotDir.resolve(GROUP).resolve(dataId)));
+	}
+
+	@Test
+	void missingConfigMeansRemoved() throws Exception {
+		NacosConfigService online = mock(NacosConfigService.class);
+		when(online.getConfig(eq("agent.json"), eq(GROUP), anyLong())).thenReturn("v1");
+		new NacosAgentConfigLoader(online, 3000, snapshotDir).getConfig("agent.json", GROUP);
+		assertTrue(Files.exists(snapshotDir.resolve(GROUP).resolve("agent.json")));
+
+		// Nacos answers that the config no longer exists, the snapshot must not bring it back
+		NacosConfigService deleted = mock(NacosConfigService.class);
+		NacosAgentConfigLoader loader = new NacosAgentConfigLoader(deleted, 3000, snapshotDir);
+		assertNull(loader.getConfig("agent.json", GROUP));
+		assertFalse(Files.exists(snapshotDir.resolve(GROUP).resolve("agent.json")));
+
+		NacosConfigService offline = mock(NacosConfigService.class);
+		when(offline.getConfig(anyString(), anyString(), anyLong()))
+			.thenThrow(new NacosException(NacosException.SERVER_ERROR, "unreachable"));
+		assertNull(new NacosAgentConfigLoader(offline, 3000, snapshotDir).getConfig("agent.json", GROUP));
+	}
+
+	@Test
+	void configDeletedThroughTheListenerIsRemoved() throws Exception {
+		NacosConfigService configService = mock(NacosConfigService.class);
+		when(configService.getConfig(eq("agent.json"), eq(GROUP), anyLong())).thenReturn("v1");
+		NacosAgentConfigLoader loader = new NacosAgentConfigLoader(configService, 3000, snapshotDir);
+		loader.getConfig("agent.json", GROUP);
+
+		listener(configService, "agent.json").receiveConfigInfo(null);
+		when(configService.getConfig(eq("agent.json"), eq(GROUP), anyLong())).thenReturn(null);
+
+		assertNull(loader.getConfig("agent.json", GROUP));
+		assertFalse(Files.exists(snapshotDir.resolve(GROUP).resolve("agent.json")));
+	}
+
+	private static Listener listener(NacosConfigService configService, String dataId) throws NacosException {
+		ArgumentCaptor<Listener> listener = ArgumentCaptor.forClass(Listener.class);
+		verify(configService).addListener(eq(dataId), eq(GROUP), listener.capture());
+		return listener.getValue();
+	}
+
+	private String snapshot(String dataId) throws Exception {
+		return Files.readString(snapshotDir.resolve(GROUP).resolve(dataId), StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.nacos;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.alibaba.cloud.ai.graph.agent.node.AgentLlmNode;
+import com.alibaba.cloud.ai.graph.agent.node.AgentToolNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class NacosAgentHotSwapperTest {
+
+	private final AgentLlmNode llmNode = mock(AgentLlmNode.class);
+
+	private final AgentToolNode toolNode = mock(AgentToolNode.class);
+
+	private NacosAgentHotSwapper swapper;
+
+	@BeforeEach
+	void setUp() {
+		swapper = new NacosAgentHotSwapper("test", 100);
+	}
+
+	@AfterEach
+	void tearDown() {
+		swapper.close();
+	}
+
+	@Test
+	void toolNodeIsUpdatedBeforeTheModelSeesNewTools() {
+		swapper.initTools(List.of(new TestTool("a", "a1"), new TestTool("c", "c1")));
+		swapper.bind(llmNode, toolNode);
+
+		swapper.swapTools(() -> List.of(new TestTool("a", "a2"), new TestTool("b", "b2")));
+
+		verify(llmNode, timeout(1000)).setToolCallbacks(any());
+		InOrder order = inOrder(toolNode, llmNode);
+		ArgumentCaptor<List<ToolCallback>> executable = captor();
+		ArgumentCaptor<List<ToolCallback>> offered = captor();
+		order.verify(toolNode).setToolCallbacks(executable.capture());
+		order.verify(llmNode).setToolCallbacks(offered.capture());
+
+		// Retired tools stay executable unless a newer version has taken their name
+		assertEquals(List.of("a", "b", "c"), names(executable.getValue()));
+		assertEquals(List.of("a", "b"), names(offered.getValue()));
+		assertEquals("a2", executable.getValue().get(0).call("{}"));
+	}
+
+	@Test
+	void chatClientIsSwappedBeforeTheCallback() throws Exception {
+		swapper.initTools(List.of());
+		swapper.bind(llmNode, toolNode);
+		ChatClient chatClient = mock(ChatClient.class);
+		CompletableFuture<ChatClient> swapped = new CompletableFuture<>();
+
+		swapper.swapChatClient(() -> chatClient, client -> {
+			try {
+				verify(llmNode).setChatClient(chatClient);
+				swapped.complete(client);
+			}
+			catch (Throwable e) {
+				swapped.completeExceptionally(e);
+			}
+		});
+
+		assertEquals(chatClient, swapped.get(1, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void failedBuildKeepsTheCurrentComponents() {
+		swapper.initTools(List.of(new TestTool("a")));
+		swapper.bind(llmNode, toolNode);
+
+		swapper.swapChatClient(() -> {
+			throw new IllegalStateException("model unavailable");
+		}, client -> {
+		});
+		swapper.swapTools(() -> {
+			throw new IllegalStateException("gateway unavailable");
+		});
+
+		verify(llmNode, after(300).never()).setChatClient(any());
+		verify(llmNode, never()).setToolCallbacks(any());
+		verify(toolNode, never()).setToolCallbacks(any());
+	}
+
+	@Test
+	void retiredToolsDrainAfterTheirCallsFinish() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch started = new CountDownLatch(1);
+		TestTool slow = new TestTool("slow", started, release);
+		List<ToolCallback> tracked = swapper.initTools(List.of(slow));
+		swapper.bind(llmNode, toolNode);
+		CompletableFuture<String> call = CompletableFuture.supplyAsync(() -> tracked.get(0).call("{}"));
+		assertTrue(started.await(1, TimeUnit.SECONDS));
+
+		swapper.swapTools(() -> List.of(new TestTool("fast")));
+
+		// The drain timeout passes while the old tool is still running, so it is kept
+		verify(toolNode, after(400).times(1)).setToolCallbacks(any());
+		assertFalse(slow.closed.get());
+
+		release.countDown();
+		assertEquals("slow", call.get(1, TimeUnit.SECONDS));
+		ArgumentCaptor<List<ToolCallback>> executable = captor();
+		verify(toolNode, timeout(2000).times(2)).setToolCallbacks(executable.capture());
+		assertEquals(List.of("fast"), names(executable.getValue()));
+		assertTrue(slow.closed.get());
+	}
+
+	@Test
+	void closeClosesAllToolVersionsAndIgnoresLaterChanges() {
+		TestTool a1 = new TestTool("a");
+		swapper.initTools(List.of(a1));
+		swapper.bind(llmNode, toolNode);
+		TestTool a2 = new TestTool("a");
+		swapper.swapTools(() -> List.of(a2));
+		verify(llmNode, timeout(1000)).setToolCallbacks(any());
+
+		swapper.close();
+
+		assertTrue(a1.closed.get());
+		assertTrue(a2.closed.get());
+		AtomicBoolean built = new AtomicBoolean();
+		swapper.swapTools(() -> {
+			built.set(true);
+			return List.of();
+		});
+		assertFalse(built.get());
+		verify(llmNode, times(1)).setToolCallbacks(any());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ArgumentCaptor<List<ToolCallback>> captor() {
+		return ArgumentCaptor.forClass(List.class);
+	}
+
+	private static List<String> names(List<ToolCallback> callbacks) {
+		return callbacks.stream().map(callback -> callback.getToolDefinition().name()).toList();
+	}
+
+	private static final class TestTool implements ToolCallback, AutoCloseable {
+
+		private final ToolDefinition definition;
+
+		private final String result;
+
+		private final CountDownLatch started;
+
+		private final CountDownLatch release;
+
+		private final AtomicBoolean closed = new AtomicBoolean();
+
+		TestTool(String name) {
+			this(name, name);
+		}
+
+		TestTool(String name, String result) {
+			this(name, result, null, null);
+		}
+
+		TestTool(String name, CountDownLatch started, CountDownLatch release) {
+			this(name, name, started, release);
+		}
+
+		private TestTool(String name, String result, CountDownLatch started, CountDownLatch release) {
+			this.definition = ToolDefinition.builder().name(name).description(name).inputSchema("{}").build();
+			this.result = result;
+			this.started = started;
+			this.release = release;
+		}
+
+		@Override
+		public ToolDefinition getToolDefinition() {
+			return definition;
+		}
+
+		@Override
+		public String call(String toolInput) {
+			if (started != null) {
+				started.countDown();
+				try {
+					release.await();
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return result;
+		}
+
+		@Override
+		public void close() {
+			closed.set(true);
+		}
+
+	}
+
+}
@@ -110,15 +110,19 @@ public class GraphObservationAutoConfiguration {
 	 * @param observationRegistry                the observation registry
 	 * @param graphObservationLifecycleListeners the graph observation lifecycle
 	 *                                           listener
+	 * @param meterRegistry                      the meter registry for execution
+	 *                                           metrics, if available
 	 * @return configured CompileConfig with observation support
 	 */
 	@Bean
 	@ConditionalOnMissingBean
 	public CompileConfig observationGraphCompileConfig(ObjectProvider<ObservationRegistry> observationRegistry,
-			ObjectProvider<GraphObservationLifecycleListener> graphObservationLifecycleListeners) {
+			ObjectProvider<GraphObservationLifecycleListener> graphObservationLifecycleListeners,
+			ObjectProvider<MeterRegistry> meterRegistry) {
 
 		CompileConfig.Builder builder = CompileConfig.builder()
-				.observationRegistry(observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP));
+				.observationRegistry(observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP))
+				.meterRegistry(meterRegistry.getIfUnique());
 
 		graphObservationLifecycleListeners.ifUnique(builder::withLifecycleListener);
 